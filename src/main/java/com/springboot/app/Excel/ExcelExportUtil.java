@@ -1,63 +1,72 @@
 package com.springboot.app.Excel;
 
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import com.springboot.app.dto.ServiceProviderPaymentDTO;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.Consumer;
 
 public class ExcelExportUtil {
 
-    public static InputStream exportPaymentsToExcel(List<ServiceProviderPaymentDTO> servicePayments) throws Exception {
-        Workbook workbook = new XSSFWorkbook();
+    // Rows kept in memory by the streaming workbook; older rows are flushed to a temp file
+    private static final int ROW_ACCESS_WINDOW = 100;
 
-        // Sheet 1: Service Provider Payments
-        Sheet serviceSheet = workbook.createSheet("ServiceProviderPayments");
-        writeServiceProviderPayments(serviceSheet, servicePayments);
+    private static final String[] PAYMENT_COLUMNS = { "ID", "Service Provider ID", "Customer ID", "Start Date",
+            "End Date", "Settled On", "Payment Mode", "Payment On", "Transaction ID", "No. of Days", "Amount",
+            "Currency", "UPI ID", "Month", "Year", "Monthly Amount" };
 
-        // Output the file to stream
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        workbook.write(out);
-        workbook.close();
-        return new ByteArrayInputStream(out.toByteArray());
+    /**
+     * Writes the payments handed out by the source straight to the output
+     * stream, keeping only a small window of rows in memory.
+     *
+     * @param payments called once with a consumer that accepts every payment to write
+     */
+    public static void exportPaymentsToExcel(OutputStream out,
+            Consumer<Consumer<ServiceProviderPaymentDTO>> payments) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            // Sheet 1: Service Provider Payments
+            Sheet serviceSheet = workbook.createSheet("ServiceProviderPayments");
+            writeServiceProviderPaymentHeader(serviceSheet);
+
+            int[] rowNum = { 1 };
+            payments.accept(dto -> writeServiceProviderPayment(serviceSheet.createRow(rowNum[0]++), dto));
+
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
     }
 
-    private static void writeServiceProviderPayments(Sheet sheet, List<ServiceProviderPaymentDTO> dataList) {
+    private static void writeServiceProviderPaymentHeader(Sheet sheet) {
         Row header = sheet.createRow(0);
-        String[] columns = { "ID", "Service Provider ID", "Customer ID", "Start Date", "End Date", "Settled On",
-                "Payment Mode", "Payment On", "Transaction ID", "No. of Days", "Amount", "Currency",
-                "UPI ID", "Month", "Year", "Monthly Amount" };
-        for (int i = 0; i < columns.length; i++) {
-            header.createCell(i).setCellValue(columns[i]);
+        for (int i = 0; i < PAYMENT_COLUMNS.length; i++) {
+            header.createCell(i).setCellValue(PAYMENT_COLUMNS[i]);
         }
+    }
 
-        int rowNum = 1;
-        for (ServiceProviderPaymentDTO dto : dataList) {
-            Row row = sheet.createRow(rowNum++);
-            int col = 0;
-
-            row.createCell(col++).setCellValue(dto.getId());
-            row.createCell(col++).setCellValue(dto.getServiceProviderId());
-            row.createCell(col++).setCellValue(dto.getCustomerId());
-            row.createCell(col++).setCellValue(dto.getStartDate() != null ? dto.getStartDate().toString() : "NULL");
-            row.createCell(col++).setCellValue(dto.getEndDate() != null ? dto.getEndDate().toString() : "NULL");
-            row.createCell(col++).setCellValue(dto.getSettledOn() != null ? dto.getSettledOn().toString() : "NULL");
-            row.createCell(col++).setCellValue(dto.getPaymentMode() != null ? dto.getPaymentMode().toString() : "NULL");
-            row.createCell(col++).setCellValue(dto.getPaymentOn() != null ? dto.getPaymentOn().toString() : "NULL");
-            row.createCell(col++).setCellValue(dto.getTransactionId() != null ? dto.getTransactionId() : "NULL");
-            row.createCell(col++).setCellValue(dto.getNoOfDays());
-            row.createCell(col++).setCellValue(dto.getAmount());
-            row.createCell(col++).setCellValue(dto.getCurrency() != null ? dto.getCurrency().toString() : "NULL");
-            row.createCell(col++).setCellValue(dto.getUpiId() != null ? dto.getUpiId() : "NULL");
-            row.createCell(col++).setCellValue(dto.getMonth());
-            row.createCell(col++).setCellValue(dto.getYear());
-            row.createCell(col++).setCellValue(dto.getMonthlyAmount());
-        }
-        
+    private static void writeServiceProviderPayment(Row row, ServiceProviderPaymentDTO dto) {
+        int col = 0;
 
-        
+        row.createCell(col++).setCellValue(dto.getId());
+        row.createCell(col++).setCellValue(dto.getServiceProviderId());
+        row.createCell(col++).setCellValue(dto.getCustomerId());
+        row.createCell(col++).setCellValue(dto.getStartDate() != null ? dto.getStartDate().toString() : "NULL");
+        row.createCell(col++).setCellValue(dto.getEndDate() != null ? dto.getEndDate().toString() : "NULL");
+        row.createCell(col++).setCellValue(dto.getSettledOn() != null ? dto.getSettledOn().toString() : "NULL");
+        row.createCell(col++).setCellValue(dto.getPaymentMode() != null ? dto.getPaymentMode().toString() : "NULL");
+        row.createCell(col++).setCellValue(dto.getPaymentOn() != null ? dto.getPaymentOn().toString() : "NULL");
+        row.createCell(col++).setCellValue(dto.getTransactionId() != null ? dto.getTransactionId() : "NULL");
+        row.createCell(col++).setCellValue(dto.getNoOfDays());
+        row.createCell(col++).setCellValue(dto.getAmount());
+        row.createCell(col++).setCellValue(dto.getCurrency() != null ? dto.getCurrency().toString() : "NULL");
+        row.createCell(col++).setCellValue(dto.getUpiId() != null ? dto.getUpiId() : "NULL");
+        row.createCell(col++).setCellValue(dto.getMonth());
+        row.createCell(col++).setCellValue(dto.getYear());
+        row.createCell(col++).setCellValue(dto.getMonthlyAmount());
     }
 
 }
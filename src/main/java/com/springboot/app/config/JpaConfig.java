@@ -59,6 +59,10 @@ public class JpaConfig {
         props.put("hibernate.dialect", env.getProperty("spring.jpa.properties.hibernate.dialect"));
         props.put("hibernate.show_sql", env.getProperty("spring.jpa.show-sql", "false"));
         props.put("hibernate.hbm2ddl.auto", env.getProperty("spring.jpa.hibernate.ddl-auto", "update"));
+        // Group inserts into JDBC batches for bulk saves such as the service provider import
+        props.put("hibernate.jdbc.batch_size",
+                env.getProperty("spring.jpa.properties.hibernate.jdbc.batch_size", "50"));
+        props.put("hibernate.order_inserts", "true");
         return props;
     }
 
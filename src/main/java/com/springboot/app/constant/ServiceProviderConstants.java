@@ -148,6 +148,16 @@ public class ServiceProviderConstants {
     public static final String COMMENT_NOT_FOUND_MSG = "Request comment not found with ID: ";
 
     public static final String RESPONSE_MESSAGE_KEY = "message";
+
+    // Nearest-neighbour search
+    public static final String NEAREST_DESC = "Retrieve the k nearest active service providers of a role, ordered by distance";
+    public static final int MAX_NEAREST_RESULTS = 100;
+    // Radius search; the priority search doubles its radius from the initial one
+    // until it finds enough providers or reaches the maximum
+    public static final String WITHIN_RADIUS_DESC = "Retrieve the active service providers of a role within a radius in metres, ordered by distance";
+    public static final double RADIUS_SEARCH_INITIAL_METERS = 500;
+    public static final double RADIUS_SEARCH_MAX_METERS = 40000;
+    public static final int RADIUS_SEARCH_MIN_RESULTS = 20;
     // Coupon related constants
     public static final String COUPON_API_PATH = "/api/v1/coupons";
 
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import com.springboot.app.constant.CustomerConstants;
 import com.springboot.app.constant.ServiceProviderConstants;
+import com.springboot.app.dto.CursorPageDTO;
 import com.springboot.app.dto.CustomerConcernDTO;
 import com.springboot.app.dto.CustomerDTO;
 import com.springboot.app.dto.CustomerRequestDTO;
@@ -18,6 +19,7 @@ import com.springboot.app.dto.CustomerUsedCouponDTO;
 import com.springboot.app.dto.KYCCommentsDTO;
 import com.springboot.app.dto.KYCDTO;
 import com.springboot.app.entity.Customer;
+import com.springboot.app.enums.BookingBucket;
 import com.springboot.app.enums.Gender;
 import com.springboot.app.enums.HousekeepingRole;
 import com.springboot.app.enums.Status;
@@ -235,6 +237,25 @@ public class CustomerController {
         }
     }
 
+    // Booking history one bucket (PAST, CURRENT or FUTURE) at a time. Omit the
+    // cursor for the first page, then pass back the nextCursor of that bucket.
+    @GetMapping("/get-booking-history/{bucket}")
+    @ApiOperation(value = "Retrieve one booking history bucket page by page using a cursor", response = CursorPageDTO.class)
+    public ResponseEntity<?> getBookingHistoryBucket(
+            @PathVariable BookingBucket bucket,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(customerRequestService.getBookingHistoryBucket(bucket, cursor,
+                    size == null ? defaultPageSize : size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to retrieve booking history: " + e.getMessage());
+        }
+    }
+
     // API to get customer request by ID
     @GetMapping("/get-customer-request-by-id/{requestId}")
     @ApiOperation(value = "Get customer request by ID", response = CustomerRequestDTO.class)
@@ -353,6 +374,62 @@ public class CustomerController {
         }
     }
 
+    // Keyset-paginated variants of the listings above. Omit the cursor for the
+    // first page, then pass back the nextCursor of the previous response.
+    @GetMapping("/scroll-open-requests")
+    @ApiOperation(value = "Retrieve open requests page by page using a cursor", response = CursorPageDTO.class)
+    public ResponseEntity<?> scrollOpenRequests(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(customerRequestService.scrollOpenRequests(cursor,
+                    size == null ? defaultPageSize : size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to retrieve open requests: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/scroll-potential-customers")
+    @ApiOperation(value = "Retrieve potential customers page by page using a cursor", response = CursorPageDTO.class)
+    public ResponseEntity<?> scrollPotentialCustomers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(customerRequestService.scrollPotentialCustomers(cursor,
+                    size == null ? defaultPageSize : size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to retrieve potential customers: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/scroll-customer-requests")
+    @ApiOperation(value = "Filter customer requests page by page using a cursor", response = CursorPageDTO.class)
+    public ResponseEntity<?> scrollRequestFilters(
+            @RequestParam(required = false) HousekeepingRole housekeepingRole,
+            @RequestParam(required = false) Gender gender,
+            @RequestParam(required = false) String area,
+            @RequestParam(required = false) Integer pincode,
+            @RequestParam(required = false) String locality,
+            @RequestParam(required = false) String apartment_name,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(customerRequestService.scrollRequestFilters(housekeepingRole, gender, area,
+                    pincode, locality, apartment_name, cursor, size == null ? defaultPageSize : size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to filter customer requests: " + e.getMessage());
+        }
+    }
+
     // API to update the status of a customer request
     @PatchMapping("/{requestId}/status")
     @ApiOperation(value = "Update the status of a customer request")
@@ -95,6 +95,15 @@ public class CustomerPaymentController {
         return ResponseEntity.ok(paymentDTO);
     }
 
+    @PostMapping("/calculate-payments")
+    public ResponseEntity<List<CustomerPaymentDTO>> calculatePayments(
+            @RequestBody List<Long> engagementIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate_P,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate_P) {
+
+        return ResponseEntity.ok(customerPaymentService.calculatePayments(engagementIds, startDate_P, endDate_P));
+    }
+
     @GetMapping("/customer-payments/by-month-year")
     public ResponseEntity<List<CustomerPaymentDTO>> getPaymentsByMonthAndYear(
             @RequestParam int month,
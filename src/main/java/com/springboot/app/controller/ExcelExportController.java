@@ -1,17 +1,13 @@
 package com.springboot.app.controller;
 
 import com.springboot.app.Excel.ExcelExportUtil;
-import com.springboot.app.dto.ServiceProviderPaymentDTO;
 import com.springboot.app.service.ServiceProviderPaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.io.InputStream;
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/excel")
@@ -20,24 +16,25 @@ public class ExcelExportController {
     @Autowired
     private ServiceProviderPaymentService serviceProviderPaymentService;
 
-    // API to export service provider payments to Excel
+    // API to export service provider payments to Excel, optionally filtered by
+    // month, year and service provider. Rows are streamed to the response as
+    // they are read.
     @GetMapping("/export/payments")
-    public ResponseEntity<?> exportAllPaymentsToExcel() {
-        try {
-            List<ServiceProviderPaymentDTO> servicePayments = serviceProviderPaymentService.getAllServiceProviderPayments(0, Integer.MAX_VALUE);
+    public ResponseEntity<StreamingResponseBody> exportAllPaymentsToExcel(
+            @RequestParam(required = false) Integer month,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Long serviceProviderId) {
 
-            InputStream excelFile = ExcelExportUtil.exportPaymentsToExcel(servicePayments);
+        StreamingResponseBody body = out -> ExcelExportUtil.exportPaymentsToExcel(out,
+                action -> serviceProviderPaymentService.forEachPaymentForExport(month, year, serviceProviderId,
+                        action));
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.add("Content-Disposition", "attachment; filename=payments.xlsx");
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Disposition", "attachment; filename=payments.xlsx");
 
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                    .body(new InputStreamResource(excelFile));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Failed to export data to Excel: " + e.getMessage());
-        }
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .body(body);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.springboot.app.controller;
+
+import com.springboot.app.dto.CursorPageDTO;
+import com.springboot.app.dto.GeohashReindexStatusDTO;
+import com.springboot.app.service.ClusterJobRunner;
+import com.springboot.app.task.GeohashReindexJob;
+import com.springboot.app.task.MonthlyPaymentScheduler;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/scheduler")
+@Api(value = "Scheduled job runs", tags = "Scheduler")
+public class SchedulerController {
+
+    private final ClusterJobRunner jobRunner;
+    private final GeohashReindexJob geohashReindexJob;
+    private final MonthlyPaymentScheduler monthlyPaymentScheduler;
+
+    @Value("${app.pagination.default-page-size:10}")
+    private int defaultPageSize;
+
+    public SchedulerController(ClusterJobRunner jobRunner, GeohashReindexJob geohashReindexJob,
+            MonthlyPaymentScheduler monthlyPaymentScheduler) {
+        this.jobRunner = jobRunner;
+        this.geohashReindexJob = geohashReindexJob;
+        this.monthlyPaymentScheduler = monthlyPaymentScheduler;
+    }
+
+    @GetMapping("/runs")
+    @ApiOperation(value = "Scheduled job runs, newest first, with duration and rows touched", response = CursorPageDTO.class)
+    public ResponseEntity<?> getRuns(
+            @ApiParam(value = "Job name, e.g. monthly-payments; all jobs if omitted") @RequestParam(required = false) String job,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(jobRunner.getRuns(job, cursor, size == null ? defaultPageSize : size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to retrieve scheduler runs: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/monthly-payments/retry")
+    @ApiOperation(value = "Retry the engagement payments that failed in earlier monthly payment runs")
+    public ResponseEntity<String> retryFailedPayments() {
+        if (!monthlyPaymentScheduler.retryFailedPayments()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Monthly payments are running on another node");
+        }
+        return ResponseEntity.ok("Failed payments retried; see /api/scheduler/runs?job=monthly-payments");
+    }
+
+    @PostMapping("/geohash-reindex")
+    @ApiOperation(value = "Start a background geohash reindex of all providers, or resume the unfinished one")
+    public ResponseEntity<String> startGeohashReindex() {
+        if (!geohashReindexJob.start()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Geohash reindex is already running on this node");
+        }
+        return ResponseEntity.accepted().body("Geohash reindex started");
+    }
+
+    @GetMapping("/geohash-reindex")
+    @ApiOperation(value = "Progress of the geohash reindex", response = GeohashReindexStatusDTO.class)
+    public ResponseEntity<GeohashReindexStatusDTO> getGeohashReindexStatus() {
+        return ResponseEntity.ok(geohashReindexJob.getStatus());
+    }
+}
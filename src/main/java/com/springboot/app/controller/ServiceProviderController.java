@@ -1,10 +1,12 @@
 package com.springboot.app.controller;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,16 +18,19 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.springboot.app.constant.ServiceProviderConstants;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import com.springboot.app.dto.AttendanceDTO;
+import com.springboot.app.dto.CursorPageDTO;
 import com.springboot.app.dto.LeaveBalanceDTO;
 import com.springboot.app.dto.ServiceProviderDTO;
 import com.springboot.app.dto.ServiceProviderEngagementDTO;
 import com.springboot.app.dto.ServiceProviderFeedbackDTO;
+import com.springboot.app.dto.ServiceProviderImportJobDTO;
 import com.springboot.app.dto.ServiceProviderLeaveDTO;
 
 import com.springboot.app.dto.ServiceProviderRequestCommentDTO;
@@ -33,6 +38,8 @@ import com.springboot.app.dto.ServiceProviderRequestDTO;
 import com.springboot.app.dto.ServiceProviderUsedCouponDTO;
 import com.springboot.app.dto.ShortListedServiceProviderDTO;
 import com.springboot.app.entity.ServiceProvider;
+import com.springboot.app.enums.AttendanceIssue;
+import com.springboot.app.enums.BookingBucket;
 import com.springboot.app.enums.Gender;
 import com.springboot.app.enums.Habit;
 import com.springboot.app.enums.HousekeepingRole;
@@ -44,19 +51,21 @@ import com.springboot.app.service.AttendanceService;
 import com.springboot.app.service.LeaveBalanceService;
 import com.springboot.app.service.ServiceProviderEngagementService;
 import com.springboot.app.service.ServiceProviderFeedbackService;
+import com.springboot.app.service.ServiceProviderImportService;
 import com.springboot.app.service.ServiceProviderLeaveService;
 
 import com.springboot.app.service.ServiceProviderRequestCommentService;
 import com.springboot.app.service.ServiceProviderService;
 import com.springboot.app.service.ServiceProviderUsedCouponService;
 import com.springboot.app.service.ShortListedServiceProviderService;
+import com.springboot.app.util.TimeslotMask;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.HashMap;
 
@@ -75,6 +84,7 @@ public class ServiceProviderController {
     private final ServiceProviderLeaveService serviceProviderLeaveService;
     private final LeaveBalanceService leaveBalanceService;
     private final ServiceProviderUsedCouponService serviceProviderUsedCouponService;
+    private final ServiceProviderImportService serviceProviderImportService;
 
     @Autowired
     public ServiceProviderController(
@@ -87,7 +97,8 @@ public class ServiceProviderController {
             AttendanceService attendanceService,
             ServiceProviderLeaveService serviceProviderLeaveService,
             LeaveBalanceService leaveBalanceService,
-            ServiceProviderUsedCouponService serviceProviderUsedCouponService) {
+            ServiceProviderUsedCouponService serviceProviderUsedCouponService,
+            ServiceProviderImportService serviceProviderImportService) {
         this.serviceProviderService = serviceProviderService;
         this.serviceProviderRequestService = serviceProviderRequestService;
         this.serviceProviderFeedbackService = serviceProviderFeedbackService;
@@ -98,6 +109,7 @@ public class ServiceProviderController {
         this.serviceProviderLeaveService = serviceProviderLeaveService;
         this.leaveBalanceService = leaveBalanceService;
         this.serviceProviderUsedCouponService = serviceProviderUsedCouponService;
+        this.serviceProviderImportService = serviceProviderImportService;
 
     }
 
@@ -117,6 +129,42 @@ public class ServiceProviderController {
         return ResponseEntity.ok(providers);
     }
 
+    // get the k nearest service providers of a role, ordered by distance
+    @GetMapping("/nearest")
+    @ApiOperation(value = ServiceProviderConstants.NEAREST_DESC, response = ServiceProviderDTO.class, responseContainer = "List")
+    public ResponseEntity<List<ServiceProviderDTO>> getNearestProviders(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam HousekeepingRole housekeepingRole,
+            @RequestParam(defaultValue = "10") int k) {
+
+        if (k <= 0) {
+            return ResponseEntity.badRequest().body(Collections.emptyList());
+        }
+
+        List<ServiceProviderDTO> providers = serviceProviderService.findNearestProviders(latitude, longitude,
+                housekeepingRole, k);
+        return ResponseEntity.ok(providers);
+    }
+
+    // get the service providers of a role within a radius, ordered by distance
+    @GetMapping("/within-radius")
+    @ApiOperation(value = ServiceProviderConstants.WITHIN_RADIUS_DESC, response = ServiceProviderDTO.class, responseContainer = "List")
+    public ResponseEntity<List<ServiceProviderDTO>> getProvidersWithinRadius(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam HousekeepingRole housekeepingRole,
+            @RequestParam double radiusInMeters) {
+
+        if (radiusInMeters <= 0 || radiusInMeters > ServiceProviderConstants.RADIUS_SEARCH_MAX_METERS) {
+            return ResponseEntity.badRequest().body(Collections.emptyList());
+        }
+
+        List<ServiceProviderDTO> providers = serviceProviderService.findProvidersWithinRadius(latitude, longitude,
+                housekeepingRole, radiusInMeters);
+        return ResponseEntity.ok(providers);
+    }
+
     @GetMapping("/serviceproviders/all")
     @ApiOperation(value = ServiceProviderConstants.RETRIEVE_ALL_DESC, response = List.class)
     public ResponseEntity<List<ServiceProviderDTO>> getAllServiceProviders(
@@ -153,99 +201,24 @@ public class ServiceProviderController {
 
     /**
      * Method to calculate occupied time slots based on the given busy timeslots.
+     * Returns the cached, unmodifiable hour list of the parsed timeslot mask.
      */
     private List<String> calculateOccupiedTimes(String timeslot) {
-        List<String> occupiedTimes = new ArrayList<>();
-
-        try {
-            // Validate input
-            if (timeslot == null || timeslot.isEmpty()) {
-                return occupiedTimes;
-            }
-
-            // Parse multiple busy timeslots (comma-separated)
-            String[] timeRanges = timeslot.split(",");
-            for (String range : timeRanges) {
-                String[] hours = range.trim().split("-");
-                if (hours.length != 2) {
-                    continue; // Skip invalid format
-                }
-
-                int startHour = parseHour(hours[0]);
-                int endHour = parseHour(hours[1]);
-
-                // Add busy hours to the list
-                for (int i = startHour; i < endHour; i++) {
-                    occupiedTimes.add(String.format("%02d:00", i));
-                }
-            }
-
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Invalid timeslot input. Ensure it's in 'HH:mm-HH:mm' format.", e);
+        if (timeslot == null || timeslot.isEmpty()) {
+            return Collections.emptyList();
         }
-        return occupiedTimes;
+        return TimeslotMask.of(timeslot).occupiedHours();
     }
 
     /**
      * Method to calculate available time slots based on the busy timeslot.
+     * Returns the cached, unmodifiable hour list of the parsed timeslot mask.
      */
     private List<String> calculateAvailableTimes(String timeslot) {
-        List<String> availableTimes = new ArrayList<>();
-
-        try {
-            // Validate input
-            if (timeslot == null || timeslot.isEmpty()) {
-                return availableTimes;
-            }
-
-            // Create an array to track busy hours (0-23)
-            boolean[] busyHours = new boolean[24];
-
-            // Parse multiple busy timeslots (comma-separated)
-            String[] timeRanges = timeslot.split(",");
-            for (String range : timeRanges) {
-                String[] hours = range.trim().split("-");
-                if (hours.length != 2) {
-                    continue; // Skip invalid format
-                }
-
-                int startHour = parseHour(hours[0]);
-                int endHour = parseHour(hours[1]);
-
-                // Mark busy hours
-                for (int i = startHour; i < endHour; i++) {
-                    if (i >= 0 && i < 24) {
-                        busyHours[i] = true;
-                    }
-                }
-            }
-
-            // Identify available hours
-            for (int i = 0; i < 24; i++) {
-                if (!busyHours[i]) {
-                    availableTimes.add(String.format("%02d:00", i));
-                }
-            }
-
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Invalid timeslot input. Ensure it's in 'HH:mm-HH:mm' format.", e);
-        }
-        return availableTimes;
-    }
-
-    /**
-     * Method to extract the hour from "HH:mm" format.
-     */
-    private int parseHour(String time) {
-        try {
-            String[] parts = time.split(":");
-            if (parts.length != 2) {
-                throw new IllegalArgumentException("Invalid time format. Expected 'HH:mm'.");
-            }
-            return Integer.parseInt(parts[0]); // Return the hour as an integer
-        } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Time contains non-numeric values.", e);
+        if (timeslot == null || timeslot.isEmpty()) {
+            return Collections.emptyList();
         }
+        return TimeslotMask.of(timeslot).freeHours();
     }
 
     // API to get service provider by id
@@ -431,12 +404,23 @@ public class ServiceProviderController {
         return ResponseEntity.ok(serviceProviders);
     }
 
-    @PostMapping("/upload/{filPath}")
-    @ApiOperation(value = "upload service providers")
-    public ResponseEntity<String> addServiceProviderEngagement(
-            @ApiParam(value = "Service provider engagement data to add", required = true) @PathVariable String filPath) {
-        String result = serviceProviderService.uploadExcelRecords(filPath);
-        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    // Starts a background import of an uploaded .xlsx sheet; poll the returned job for progress
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ApiOperation(value = "upload service providers", response = ServiceProviderImportJobDTO.class)
+    public ResponseEntity<ServiceProviderImportJobDTO> uploadServiceProviders(
+            @ApiParam(value = "Excel sheet of service providers", required = true) @RequestParam("file") MultipartFile file)
+            throws IOException {
+        ServiceProviderImportJobDTO job = serviceProviderImportService.startImport(file);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/upload/{jobId}")
+    @ApiOperation(value = "get service provider import progress", response = ServiceProviderImportJobDTO.class)
+    public ResponseEntity<ServiceProviderImportJobDTO> getServiceProviderImport(
+            @ApiParam(value = "ID of the import job", required = true) @PathVariable String jobId) {
+        return serviceProviderImportService.getImportJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     // ----------API's FOR SERVICE PROVIDER REQUEST ENTITY-----------------
@@ -792,6 +776,52 @@ public class ServiceProviderController {
         return ResponseEntity.ok(categorizedEngagements);
     }
 
+    // Booking history one bucket (PAST, CURRENT or FUTURE) at a time. Omit the
+    // cursor for the first page, then pass back the nextCursor of that bucket.
+    @GetMapping("/get-sp-booking-history/{bucket}")
+    @ApiOperation(value = "Retrieve one booking history bucket page by page using a cursor", response = CursorPageDTO.class)
+    public ResponseEntity<?> getBookingHistoryBucket(
+            @PathVariable BookingBucket bucket,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(serviceProviderEngagementService.getBookingHistoryBucket(bucket, cursor,
+                    size == null ? defaultPageSize : size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/get-sp-booking-history-by-customer/{bucket}")
+    @ApiOperation(value = "Retrieve one booking history bucket of a customer using a cursor", response = CursorPageDTO.class)
+    public ResponseEntity<?> getBookingHistoryBucketByCustomerId(
+            @PathVariable BookingBucket bucket,
+            @RequestParam Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(serviceProviderEngagementService.getBookingHistoryBucketByCustomerId(customerId,
+                    bucket, cursor, size == null ? defaultPageSize : size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/get-sp-booking-history-by-serviceprovider/{bucket}")
+    @ApiOperation(value = "Retrieve one booking history bucket of a service provider using a cursor", response = CursorPageDTO.class)
+    public ResponseEntity<?> getBookingHistoryBucketByServiceProviderId(
+            @PathVariable BookingBucket bucket,
+            @RequestParam Long serviceProviderId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(serviceProviderEngagementService.getBookingHistoryBucketByServiceProviderId(
+                    serviceProviderId, bucket, cursor, size == null ? defaultPageSize : size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<Object>> searchEngagements(
             @RequestParam LocalDate startDate,
@@ -838,8 +868,9 @@ public class ServiceProviderController {
             @RequestParam(defaultValue = "0") int start,
             @RequestParam(defaultValue = "10") int limit) {
 
+        // The search widens until it has enough providers for the requested page
         List<ServiceProvider> allResults = serviceProviderEngagementService
-                .getPriorityBasedSearch(latitude, longitude, housekeepingRole);
+                .getPriorityBasedSearch(latitude, longitude, housekeepingRole, start + limit);
 
         int total = allResults.size();
         int end = Math.min(start + limit, total);
@@ -928,6 +959,51 @@ public class ServiceProviderController {
         return ResponseEntity.ok(response);
     }
 
+    // API to add a single service provider to a customer's shortlist; repeating it has no further effect
+    @PutMapping("/shortlisted/{customerId}/{serviceProviderId}")
+    @ApiOperation(value = "Add a service provider to a customer's shortlist")
+    public ResponseEntity<String> addToShortlist(
+            @PathVariable Long customerId,
+            @PathVariable Long serviceProviderId) {
+        String response = shortListedServiceProviderService.addToShortlist(customerId, serviceProviderId);
+        return ResponseEntity.ok(response);
+    }
+
+    // API to get a customer's shortlist
+    @GetMapping("/shortlisted/customer/{customerId}")
+    @ApiOperation(value = "Retrieve the shortlist of a customer", response = ShortListedServiceProviderDTO.class)
+    public ResponseEntity<ShortListedServiceProviderDTO> getShortlistOfCustomer(
+            @ApiParam(value = "ID of the customer", required = true) @PathVariable Long customerId) {
+        return ResponseEntity.ok(shortListedServiceProviderService.getShortlistOfCustomer(customerId));
+    }
+
+    // API to replace the service providers on a customer's shortlist
+    @PutMapping("/shortlisted/customer/{customerId}")
+    @ApiOperation(value = "Update the shortlist of a customer")
+    public ResponseEntity<String> updateShortlistOfCustomer(
+            @ApiParam(value = "ID of the customer", required = true) @PathVariable Long customerId,
+            @ApiParam(value = "Shortlist with the new service provider ID list", required = true) @RequestBody ShortListedServiceProviderDTO shortListedServiceProviderDTO) {
+        String result = shortListedServiceProviderService.updateShortlistOfCustomer(customerId,
+                shortListedServiceProviderDTO.getServiceProviderIdList());
+        return ResponseEntity.ok(result);
+    }
+
+    // API to delete a customer's shortlist
+    @DeleteMapping("/shortlisted/customer/{customerId}")
+    @ApiOperation(value = "Delete the shortlist of a customer")
+    public ResponseEntity<String> deleteShortlistOfCustomer(
+            @ApiParam(value = "ID of the customer", required = true) @PathVariable Long customerId) {
+        return ResponseEntity.ok(shortListedServiceProviderService.deleteShortlistOfCustomer(customerId));
+    }
+
+    // API to get the details of a customer's shortlisted service providers in one call
+    @GetMapping("/shortlisted/{customerId}/details")
+    @ApiOperation(value = "Retrieve the shortlisted service providers of a customer", response = List.class)
+    public ResponseEntity<List<ServiceProviderDTO>> getShortListedServiceProviderDetails(
+            @ApiParam(value = "ID of the customer", required = true) @PathVariable Long customerId) {
+        return ResponseEntity.ok(shortListedServiceProviderService.getShortListedServiceProviderDetails(customerId));
+    }
+
     // ------API's FOR ATTENDANCE-----------------
 
     // API to get all attendance records
@@ -998,6 +1074,25 @@ public class ServiceProviderController {
         return ResponseEntity.ok(ServiceProviderConstants.ATTENDANCE_DELETED);
     }
 
+    // Attendance records with an issue (CONFLICT, CUSTOMER_NOT_AGREED or
+    // NOT_ATTENDED) in any time window, newest first. Omit the cursor for the
+    // first page, then pass back the nextCursor of the previous response.
+    @GetMapping("/attendance/issues/{issue}")
+    @ApiOperation(value = "Retrieve attendance records with an issue page by page using a cursor", response = CursorPageDTO.class)
+    public ResponseEntity<?> getAttendanceIssues(
+            @PathVariable AttendanceIssue issue,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(attendanceService.findAttendanceIssues(issue, from, to, cursor,
+                    size == null ? defaultPageSize : size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/get/notifications")
     public ResponseEntity<List<AttendanceDTO>> getAllNotifications() {
         List<AttendanceDTO> notifications = attendanceService.getAllNotifications();
@@ -0,0 +1,19 @@
+package com.springboot.app.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeohashReindexStatusDTO {
+
+    private boolean inProgress; // a pass has started and not finished, on any node
+    private boolean runningHere; // this node is working on it now
+    private LocalDateTime passStartedAt;
+    private long lastServiceProviderId; // providers up to this id are reindexed
+    private long remaining; // providers still ahead of the pass
+}
@@ -0,0 +1,24 @@
+package com.springboot.app.dto;
+
+import java.sql.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerRunDTO {
+
+    private Long id;
+    private String jobName;
+    private String owner;
+    private long fencingToken;
+    private String status; // RUNNING, SUCCEEDED, FAILED or LEASE_LOST
+    private Timestamp startedAt;
+    private Timestamp finishedAt;
+    private Long durationMs;
+    private Long rowsTouched;
+    private String message;
+}
@@ -47,9 +47,7 @@ public class ServiceProviderDTO {
     private double latitude;
     private double longitude;
 
-    private String geoHash5;
-    private String geoHash6;
-    private String geoHash7;
+    private String geohash;
 
     private String street;
 
@@ -97,6 +95,9 @@ public class ServiceProviderDTO {
     // private List<String> availableTimeSlots;
     private List<String> occupiedTimeSlots;
 
+    // Haversine distance from the search point, only set by distance-ranked searches
+    private Double distanceInMeters;
+
     // Getter and Setter for occupiedTimeSlots
     public List<String> getOccupiedTimeSlots() {
         return occupiedTimeSlots;
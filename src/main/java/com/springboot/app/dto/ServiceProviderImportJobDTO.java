@@ -0,0 +1,33 @@
+package com.springboot.app.dto;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceProviderImportJobDTO {
+
+    private String jobId;
+    private String fileName;
+    private String status; // QUEUED, RUNNING, COMPLETED or FAILED
+    private long processedRows;
+    private long importedRows;
+    private long failedRows;
+    private String message;
+    private Timestamp startedAt;
+    private Timestamp finishedAt;
+    private List<RowError> errors; // first errors only, see failedRows for the total
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int rowNumber;
+        private String message;
+    }
+}
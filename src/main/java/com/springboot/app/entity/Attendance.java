@@ -8,9 +8,11 @@ import jakarta.persistence.Column;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
@@ -22,7 +24,10 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "attendance")
+@Table(name = "attendance", indexes = {
+        @Index(name = "idx_attendance_status_flags", columnList = "attendance_status, is_attended, is_customer_agreed"),
+        @Index(name = "idx_attendance_modified", columnList = "modified_at, id")
+})
 @Getter
 @Setter
 @Data
@@ -60,10 +65,20 @@ public class Attendance {
     @Column(name = "description", length = 500)
     private String description;
 
+    // Last insert or update, the high-water mark of the conflict scan
+    @Column(name = "modified_at")
+    private LocalDateTime modifiedAt;
+
     @PrePersist
     public void prePersist() {
         // Automatically set the current date and time when a new record is created
         this.attendanceStatus = LocalDateTime.now();
+        this.modifiedAt = this.attendanceStatus;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.modifiedAt = LocalDateTime.now();
     }
 
 }
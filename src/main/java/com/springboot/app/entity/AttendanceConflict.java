@@ -0,0 +1,47 @@
+package com.springboot.app.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Feed of attendance conflicts (provider and customer disagree on whether a
+ * visit happened), kept up to date by AttendanceConflictScheduler. One row per
+ * attendance record that has ever been in conflict; clearedAt is set once the
+ * record no longer conflicts or is deleted, and reset if it conflicts again.
+ */
+@Entity
+@Table(name = "attendance_conflict", indexes = {
+        @Index(name = "idx_attendance_conflict_open", columnList = "clearedAt, attendanceStatus")
+})
+@Data
+@NoArgsConstructor
+public class AttendanceConflict {
+
+    // Id of the attendance record
+    @Id
+    @Column(nullable = false, updatable = false)
+    private Long id;
+
+    private Long serviceProviderId;
+
+    private Long customerId;
+
+    // Time of the attendance record
+    @Column(nullable = false)
+    private LocalDateTime attendanceStatus;
+
+    @Column(nullable = false)
+    private boolean isAttended;
+
+    @Column(nullable = false)
+    private boolean isCustomerAgreed;
+
+    // When the current conflict was first detected
+    @Column(nullable = false)
+    private LocalDateTime detectedAt;
+
+    private LocalDateTime clearedAt;
+}
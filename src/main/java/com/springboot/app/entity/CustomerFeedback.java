@@ -11,7 +11,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "CustomerFeedback")
+@Table(name = "CustomerFeedback", indexes = {
+        @Index(name = "idx_customer_feedback_provider", columnList = "serviceProviderId")
+})
 public class CustomerFeedback {
 
     @Id
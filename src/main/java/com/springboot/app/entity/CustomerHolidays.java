@@ -11,7 +11,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "customer_holidays")
+@Table(name = "customer_holidays", indexes = {
+        // Overlap lookups for payment discounts
+        @Index(name = "idx_customer_holidays_engagement_span", columnList = "engagement_id, serviceType, startDate, endDate"),
+        @Index(name = "idx_customer_holidays_customer_span", columnList = "customer_id, serviceType, startDate, endDate")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
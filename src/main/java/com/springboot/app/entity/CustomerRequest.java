@@ -7,22 +7,29 @@ import com.springboot.app.enums.Habit;
 import com.springboot.app.enums.LanguageKnown;
 import com.springboot.app.enums.Status;
 import com.springboot.app.enums.HousekeepingRole;
+import com.springboot.app.util.TimeslotMask;
+import com.springboot.app.util.TimeslotMaskConverter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import java.util.List;
 import java.util.ArrayList;
 
@@ -30,7 +37,13 @@ import java.util.ArrayList;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "CustomerRequest")
+@Table(name = "CustomerRequest", indexes = {
+        // requestId last so keyset listings read rows in index order
+        @Index(name = "idx_customer_request_resolved", columnList = "isResolved, requestId"),
+        @Index(name = "idx_customer_request_potential", columnList = "isPotential, requestId"),
+        @Index(name = "idx_customer_request_filters", columnList = "housekeepingRole, pincode, locality"),
+        @Index(name = "idx_customer_request_dates", columnList = "startDate, endDate")
+})
 public class CustomerRequest {
 
     @Id
@@ -46,6 +59,12 @@ public class CustomerRequest {
     @Column(nullable = false)
     private String timeSlotlist;
 
+    // Read-only parsed view of the timeSlotlist column, used by JPQL projections
+    @Convert(converter = TimeslotMaskConverter.class)
+    @Column(name = "timeSlotlist", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private TimeslotMask timeslotMask;
+
     @Enumerated(EnumType.STRING)
     private Gender gender;
 
@@ -119,6 +138,12 @@ public class CustomerRequest {
     @JsonManagedReference
     private List<CustomerRequestComment> comments = new ArrayList<>();
 
+    // Always derived from the current timeSlotlist string so it reflects unsaved changes
+    @JsonIgnore
+    public TimeslotMask getTimeslotMask() {
+        return TimeslotMask.of(timeSlotlist);
+    }
+
     @PrePersist
     protected void onCreate() {
         createdDate = Timestamp.valueOf(LocalDateTime.now());
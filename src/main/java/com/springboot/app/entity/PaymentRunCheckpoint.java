@@ -0,0 +1,67 @@
+package com.springboot.app.entity;
+
+import java.sql.Timestamp;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of one partition of a monthly payment run. Updated in the same
+ * transaction as each committed chunk of payments, so an interrupted partition
+ * resumes after the last engagement whose payment was stored.
+ */
+@Entity
+@Table(name = "payment_run_checkpoint", indexes = {
+        @Index(name = "idx_payment_run_checkpoint_month", columnList = "billingMonth, partitionIndex")
+})
+@Data
+@NoArgsConstructor
+public class PaymentRunCheckpoint {
+
+    // "<billingMonth>/<partitionIndex>"
+    @Id
+    @Column(nullable = false, updatable = false, length = 20)
+    private String id;
+
+    // Billing month of the run, as "yyyy-MM"
+    @Column(nullable = false, updatable = false, length = 7)
+    private String billingMonth;
+
+    @Column(nullable = false, updatable = false)
+    private int partitionIndex;
+
+    // Number of partitions the month was split into when the run started
+    @Column(nullable = false, updatable = false)
+    private int partitionCount;
+
+    @Column(nullable = false)
+    private long lastEngagementId;
+
+    @Column(nullable = false)
+    private long processedCount;
+
+    @Column(nullable = false)
+    private long failedCount;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    private Timestamp startedAt;
+
+    private Timestamp updatedAt;
+
+    public PaymentRunCheckpoint(String billingMonth, int partitionIndex, int partitionCount) {
+        this.id = billingMonth + "/" + partitionIndex;
+        this.billingMonth = billingMonth;
+        this.partitionIndex = partitionIndex;
+        this.partitionCount = partitionCount;
+        this.startedAt = new Timestamp(System.currentTimeMillis());
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = new Timestamp(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,47 @@
+package com.springboot.app.entity;
+
+import java.sql.Timestamp;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An engagement whose payment a monthly run failed to generate. Written in the
+ * transaction of the chunk that moved the partition's checkpoint past it, and
+ * deleted once a later run or an explicit retry has paid it.
+ */
+@Entity
+@Table(name = "payment_run_failure", indexes = {
+        @Index(name = "idx_payment_run_failure_month", columnList = "billingMonth, engagementId")
+})
+@Data
+@NoArgsConstructor
+public class PaymentRunFailure {
+
+    // "<billingMonth>/<engagementId>"
+    @Id
+    @Column(nullable = false, updatable = false, length = 30)
+    private String id;
+
+    // Billing month of the run, as "yyyy-MM"
+    @Column(nullable = false, updatable = false, length = 7)
+    private String billingMonth;
+
+    @Column(nullable = false, updatable = false)
+    private long engagementId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 500)
+    private String message;
+
+    private Timestamp failedAt;
+
+    public PaymentRunFailure(String billingMonth, long engagementId) {
+        this.id = billingMonth + "/" + engagementId;
+        this.billingMonth = billingMonth;
+        this.engagementId = engagementId;
+    }
+}
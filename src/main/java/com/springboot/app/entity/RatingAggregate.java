@@ -0,0 +1,51 @@
+package com.springboot.app.entity;
+
+import java.sql.Timestamp;
+
+import com.springboot.app.enums.RatingSubject;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running count and sum of the ratings given to one service provider or
+ * customer. Feedback writes adjust it with a single atomic update, and the
+ * subject's average rating is derived from it instead of re-reading every
+ * feedback row. RatingReconciliationScheduler rebuilds it from the feedback
+ * tables if it drifts.
+ */
+@Entity
+@Table(name = "rating_aggregate")
+@Data
+@NoArgsConstructor
+public class RatingAggregate {
+
+    // "<subjectType>/<subjectId>"
+    @Id
+    @Column(nullable = false, updatable = false, length = 40)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 20)
+    private RatingSubject subjectType;
+
+    @Column(nullable = false, updatable = false)
+    private Long subjectId;
+
+    @Column(nullable = false)
+    private long ratingCount;
+
+    @Column(nullable = false)
+    private double ratingSum;
+
+    private Timestamp updatedAt;
+
+    public static String idOf(RatingSubject subjectType, Long subjectId) {
+        return subjectType + "/" + subjectId;
+    }
+
+    public double getAverage() {
+        return ratingCount > 0 ? ratingSum / ratingCount : 0;
+    }
+}
@@ -0,0 +1,45 @@
+package com.springboot.app.entity;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * High-water mark of an incremental scan: the (time, id) position of the last
+ * row the scan has processed. Saved in the same transaction as the work done
+ * for those rows, so a restarted scan carries on from where it committed.
+ */
+@Entity
+@Table(name = "scan_checkpoint")
+@Data
+@NoArgsConstructor
+public class ScanCheckpoint {
+
+    // Name of the scan
+    @Id
+    @Column(nullable = false, updatable = false, length = 50)
+    private String id;
+
+    @Column(nullable = false)
+    private LocalDateTime markTime;
+
+    @Column(nullable = false)
+    private long markId;
+
+    private Timestamp updatedAt;
+
+    public ScanCheckpoint(String id, LocalDateTime markTime, long markId) {
+        this.id = id;
+        this.markTime = markTime;
+        this.markId = markId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = new Timestamp(System.currentTimeMillis());
+    }
+}
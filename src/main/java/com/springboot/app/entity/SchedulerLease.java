@@ -0,0 +1,42 @@
+package com.springboot.app.entity;
+
+import java.sql.Timestamp;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cluster-wide lease on a scheduled job. A node runs the job only while it
+ * holds the unexpired lease, so the job runs on one node at a time; a lease
+ * left by a node that died simply expires.
+ *
+ * The fencing token goes up every time the lease changes hands. Writes made
+ * under the lease check the token they were given in their own transaction,
+ * so a node that lost the lease (after a long pause, say) cannot commit over
+ * the work of the node that took it over.
+ */
+@Entity
+@Table(name = "scheduler_lease")
+@Data
+@NoArgsConstructor
+public class SchedulerLease {
+
+    // Name of the job
+    @Id
+    @Column(nullable = false, updatable = false, length = 50)
+    private String name;
+
+    // Instance currently holding the lease
+    @Column(nullable = false, length = 100)
+    private String owner;
+
+    @Column(nullable = false)
+    private Timestamp acquiredAt;
+
+    @Column(nullable = false)
+    private Timestamp expiresAt;
+
+    @Column(nullable = false)
+    private long fencingToken;
+}
@@ -0,0 +1,52 @@
+package com.springboot.app.entity;
+
+import java.sql.Timestamp;
+
+import com.springboot.app.enums.SchedulerRunStatus;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One execution of a cluster scheduled job: which node ran it under which
+ * fencing token, how long it took and how many rows it touched.
+ */
+@Entity
+@Table(name = "scheduler_run", indexes = {
+        @Index(name = "idx_scheduler_run_job", columnList = "jobName, id"),
+        @Index(name = "idx_scheduler_run_started", columnList = "startedAt")
+})
+@Data
+@NoArgsConstructor
+public class SchedulerRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, updatable = false, length = 50)
+    private String jobName;
+
+    @Column(nullable = false, updatable = false, length = 100)
+    private String owner;
+
+    @Column(nullable = false, updatable = false)
+    private long fencingToken;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SchedulerRunStatus status;
+
+    @Column(nullable = false, updatable = false)
+    private Timestamp startedAt;
+
+    private Timestamp finishedAt;
+
+    private Long durationMs;
+
+    private Long rowsTouched;
+
+    @Column(length = 500)
+    private String message;
+}
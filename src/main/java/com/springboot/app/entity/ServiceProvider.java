@@ -3,6 +3,7 @@ package com.springboot.app.entity;
 import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
+import java.util.Objects;
 
 import com.springboot.app.enums.DocumentType;
 import com.springboot.app.enums.Gender;
@@ -10,12 +11,16 @@ import com.springboot.app.enums.Habit;
 import com.springboot.app.enums.HousekeepingRole;
 import com.springboot.app.enums.LanguageKnown;
 import com.springboot.app.enums.Speciality;
+import com.springboot.app.util.TimeslotMask;
+import com.springboot.app.util.TimeslotMaskConverter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import ch.hsr.geohash.GeoHash;
 import jakarta.persistence.AttributeOverride;
 import jakarta.persistence.AttributeOverrides;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -24,25 +29,33 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
 //import jakarta.persistence.Lob;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "serviceprovider")
+@Table(name = "serviceprovider", indexes = {
+		// Geohash cells of any precision are prefix ranges of this index
+		@Index(name = "idx_serviceprovider_role_active_geohash", columnList = "housekeepingRole, isActive, geohash")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class ServiceProvider {
 
+	public static final int GEOHASH_PRECISION = 12;
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.AUTO)
 	private Long serviceproviderId;
@@ -136,6 +149,12 @@ public class ServiceProvider {
 	@Column
 	private String timeslot;
 
+	// Read-only parsed view of the timeslot column, used by JPQL projections
+	@Convert(converter = TimeslotMaskConverter.class)
+	@Column(name = "timeslot", insertable = false, updatable = false)
+	@Setter(AccessLevel.NONE)
+	private TimeslotMask timeslotMask;
+
 	@Column
 	private Long vendorId;
 
@@ -145,17 +164,9 @@ public class ServiceProvider {
 	@Column
 	private Double longitude;
 
-	@Column
-	private String geoHash4;
-
-	@Column
-	private String geoHash5;
-
-	@Column
-	private String geoHash6;
-
-	@Column
-	private String geoHash7;
+	// Full-precision geohash of the location; a cell of any precision is a prefix of it
+	@Column(length = 12)
+	private String geohash;
 
 	// private boolean privacy;
 	// @Column(name = "key_facts")
@@ -178,10 +189,7 @@ public class ServiceProvider {
 		String formattedDate = sdf.format(System.currentTimeMillis());
 		this.enrolledDate = Timestamp.valueOf(formattedDate);
 		this.isActive = true;
-		this.geoHash4 = GeoHash.withCharacterPrecision(this.latitude, this.longitude, 4).toBase32();
-		this.geoHash5 = GeoHash.withCharacterPrecision(this.latitude, this.longitude, 5).toBase32();
-		this.geoHash6 = GeoHash.withCharacterPrecision(this.latitude, this.longitude, 6).toBase32();
-		this.geoHash7 = GeoHash.withCharacterPrecision(this.latitude, this.longitude, 7).toBase32();
+		refreshGeohash();
 
 		if (this.street != null) {
 			this.street = this.street.toLowerCase();
@@ -200,9 +208,42 @@ public class ServiceProvider {
 		}
 	}
 
+	// Location changes made through the entity are re-indexed in the same flush
+	@PreUpdate
+	public void preUpdate() {
+		refreshGeohash();
+	}
+
+	/**
+	 * Re-derives the geohash from the current location. Returns whether it
+	 * changed, i.e. whether the provider moved to another cell.
+	 */
+	public boolean refreshGeohash() {
+		String derived = geohashOf(this.latitude, this.longitude);
+		if (Objects.equals(derived, this.geohash)) {
+			return false;
+		}
+		this.geohash = derived;
+		return true;
+	}
+
+	// Providers imported without a location are stored without a geohash
+	public static String geohashOf(Double latitude, Double longitude) {
+		if (latitude == null || longitude == null) {
+			return null;
+		}
+		return GeoHash.withCharacterPrecision(latitude, longitude, GEOHASH_PRECISION).toBase32();
+	}
+
+	// Always derived from the current timeslot string so it reflects unsaved changes
+	@JsonIgnore
+	public TimeslotMask getTimeslotMask() {
+		return TimeslotMask.of(timeslot);
+	}
+
 	// to deactivate
 	public void deactivate() {
-		this.isActive = true;
+		this.isActive = false;
 	}
 
 }
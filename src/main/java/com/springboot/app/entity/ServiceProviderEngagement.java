@@ -8,27 +8,38 @@ import com.springboot.app.enums.HousekeepingRole;
 import com.springboot.app.enums.PaymentMode;
 import com.springboot.app.enums.TaskStatus;
 import com.springboot.app.enums.UserRole;
+import com.springboot.app.util.TimeslotMask;
+import com.springboot.app.util.TimeslotMaskConverter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "serviceprovider_engagement")
+@Table(name = "serviceprovider_engagement", indexes = {
+        // Booking history buckets are date ranges within one customer or provider
+        @Index(name = "idx_engagement_customer_dates", columnList = "customerId, endDate, startDate"),
+        @Index(name = "idx_engagement_provider_dates", columnList = "serviceProviderId, endDate, startDate"),
+        @Index(name = "idx_engagement_dates", columnList = "endDate, startDate")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -62,6 +73,12 @@ public class ServiceProviderEngagement {
     @Column(length = 50)
     private String timeslot;
 
+    // Read-only parsed view of the timeslot column, used by JPQL projections
+    @Convert(converter = TimeslotMaskConverter.class)
+    @Column(name = "timeslot", insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private TimeslotMask timeslotMask;
+
     @Column(nullable = false)
     private boolean isActive = true;
 
@@ -121,6 +138,12 @@ public class ServiceProviderEngagement {
     @OneToOne(mappedBy = "engagement", cascade = CascadeType.PERSIST, orphanRemoval = true)
     private BookingTransaction transaction;
 
+    // Always derived from the current timeslot string so it reflects unsaved changes
+    @JsonIgnore
+    public TimeslotMask getTimeslotMask() {
+        return TimeslotMask.of(timeslot);
+    }
+
     // Automatically set isActive field on creation
     @PrePersist
     public void prePersist() {
@@ -7,6 +7,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import jakarta.persistence.ManyToOne;
@@ -22,7 +23,11 @@ import com.springboot.app.enums.LeaveType;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "service_provider_leave")
+@Table(name = "service_provider_leave", indexes = {
+        @Index(name = "idx_sp_leave_provider", columnList = "serviceproviderId, from_date"),
+        @Index(name = "idx_sp_leave_dates", columnList = "to_date, from_date"),
+        @Index(name = "idx_sp_leave_approved", columnList = "isApproved, from_date")
+})
 public class ServiceProviderLeave {
 
     @Id
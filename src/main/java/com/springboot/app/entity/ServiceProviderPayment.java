@@ -12,7 +12,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "service_provider_payment")
+@Table(name = "service_provider_payment", indexes = {
+        @Index(name = "idx_sp_payment_provider_customer_end", columnList = "serviceProviderId, customerId, endDate")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -5,6 +5,13 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * A customer's shortlist. Its id is the shortlist id clients address through
+ * the /shortlisted/{id} endpoints; the providers on it are
+ * {@link ShortlistEntry} rows of the same customer. serviceProviderIdList
+ * holds shortlists saved in the old comma-separated form until they are
+ * migrated, and is null afterwards.
+ */
 @Entity
 @Table(name = "shortlisted_service_provider")
 @Data
@@ -0,0 +1,27 @@
+package com.springboot.app.entity;
+
+import java.sql.Timestamp;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One service provider on a customer's shortlist. The (customerId,
+ * serviceProviderId) key makes adding and removing a provider a single-row
+ * write, and lets a shortlist be read with an index range scan.
+ */
+@Entity
+@Table(name = "shortlist_entry")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShortlistEntry {
+
+    @EmbeddedId
+    private ShortlistEntryId id;
+
+    @Column(nullable = false, updatable = false)
+    private Timestamp addedAt;
+}
@@ -0,0 +1,7 @@
+package com.springboot.app.enums;
+
+public enum AttendanceIssue {
+   CONFLICT, // provider and customer disagree on whether the visit happened
+   CUSTOMER_NOT_AGREED, // customer disputes the visit
+   NOT_ATTENDED // provider did not attend
+}
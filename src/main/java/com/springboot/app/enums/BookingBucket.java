@@ -0,0 +1,7 @@
+package com.springboot.app.enums;
+
+public enum BookingBucket {
+   PAST, // ended before today
+   CURRENT, // started on or before today and not yet ended
+   FUTURE // starts after today
+}
@@ -0,0 +1,6 @@
+package com.springboot.app.enums;
+
+public enum RatingSubject {
+   SERVICE_PROVIDER, // rated by customers through CustomerFeedback
+   CUSTOMER // rated by service providers through ServiceProviderFeedback
+}
@@ -0,0 +1,8 @@
+package com.springboot.app.enums;
+
+public enum SchedulerRunStatus {
+   RUNNING,
+   SUCCEEDED,
+   FAILED, // the job threw, see the run's message
+   LEASE_LOST // another node took the lease over before the job finished
+}
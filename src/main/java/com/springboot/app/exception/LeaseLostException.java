@@ -0,0 +1,11 @@
+package com.springboot.app.exception;
+
+/**
+ * Thrown when a write made under a scheduler lease finds that the lease has
+ * expired or passed to another node. The surrounding transaction rolls back.
+ */
+public class LeaseLostException extends RuntimeException {
+    public LeaseLostException(String message) {
+        super(message);
+    }
+}
@@ -27,6 +27,8 @@ public interface CustomerMapper {
     Customer dtoToCustomer(CustomerDTO customerDTO);
 
     // ✅ Add this for partial updates
+    // Ratings are maintained from feedback by RatingAggregator
+    @Mapping(target = "rating", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateCustomerFromDto(CustomerDTO dto, @MappingTarget Customer entity);
 
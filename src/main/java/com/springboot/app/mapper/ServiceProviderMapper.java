@@ -31,8 +31,13 @@ public interface ServiceProviderMapper {
 
     // Map ServiceProviderDTO to ServiceProvider entity
     // @Mapping(target = "profilePic", source = "profilePic")
+    // The geohash is derived from the location, never taken from clients
+    @Mapping(target = "geohash", ignore = true)
     ServiceProvider dtoToServiceProvider(ServiceProviderDTO serviceProviderDTO);
 
+    // Ratings are maintained from feedback by RatingAggregator
+    @Mapping(target = "rating", ignore = true)
+    @Mapping(target = "geohash", ignore = true)
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateServiceProviderFromDTO(ServiceProviderDTO serviceProviderDTO,
             @MappingTarget ServiceProvider existingServiceProvider);
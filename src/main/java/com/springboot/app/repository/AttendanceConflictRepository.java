@@ -0,0 +1,41 @@
+package com.springboot.app.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.springboot.app.dto.AttendanceDTO;
+import com.springboot.app.entity.AttendanceConflict;
+
+@Repository
+public interface AttendanceConflictRepository extends JpaRepository<AttendanceConflict, Long> {
+
+    // Open conflicts whose attendance time is in [from, to), with the current
+    // state of their attendance records, newest first. Records corrected
+    // since the last scan are left out before the scan clears them
+    @Query("SELECT new com.springboot.app.dto.AttendanceDTO(a.id, a.serviceProvider.serviceproviderId, "
+            + "a.customer.customerId, a.attendanceStatus, a.isAttended, a.isCustomerAgreed, a.taskStatus, "
+            + "a.isResolved, a.description) "
+            + "FROM AttendanceConflict c JOIN Attendance a ON a.id = c.id "
+            + "WHERE c.clearedAt IS NULL AND a.isAttended <> a.isCustomerAgreed "
+            + "AND c.attendanceStatus >= :from AND c.attendanceStatus < :to "
+            + "ORDER BY c.attendanceStatus DESC, c.id DESC")
+    List<AttendanceDTO> findOpenBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT new com.springboot.app.dto.AttendanceDTO(a.id, a.serviceProvider.serviceproviderId, "
+            + "a.customer.customerId, a.attendanceStatus, a.isAttended, a.isCustomerAgreed, a.taskStatus, "
+            + "a.isResolved, a.description) "
+            + "FROM AttendanceConflict c JOIN Attendance a ON a.id = c.id "
+            + "WHERE c.clearedAt IS NULL AND a.isAttended <> a.isCustomerAgreed "
+            + "ORDER BY c.attendanceStatus DESC, c.id DESC")
+    List<AttendanceDTO> findOpen();
+
+    @Modifying
+    @Query("UPDATE AttendanceConflict c SET c.clearedAt = :clearedAt WHERE c.id = :id AND c.clearedAt IS NULL")
+    int clear(@Param("id") Long id, @Param("clearedAt") LocalDateTime clearedAt);
+}
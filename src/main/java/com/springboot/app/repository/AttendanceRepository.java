@@ -1,10 +1,34 @@
 package com.springboot.app.repository;
 
 import com.springboot.app.entity.Attendance;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface AttendanceRepository extends JpaRepository<Attendance, Long>, JpaSpecificationExecutor<Attendance> {
+
+    // Keyset page of records inserted or updated after the (modifiedAt, id)
+    // position, as [Long id, Long serviceProviderId, Long customerId,
+    // LocalDateTime attendanceStatus, Boolean isAttended, Boolean isCustomerAgreed,
+    // LocalDateTime modifiedAt] rows ordered by modifiedAt, id
+    @Query("SELECT a.id, a.serviceProvider.serviceproviderId, a.customer.customerId, a.attendanceStatus, "
+            + "a.isAttended, a.isCustomerAgreed, a.modifiedAt FROM Attendance a "
+            + "WHERE a.modifiedAt > :afterTime OR (a.modifiedAt = :afterTime AND a.id > :afterId) "
+            + "ORDER BY a.modifiedAt, a.id")
+    List<Object[]> findChangedAfter(@Param("afterTime") LocalDateTime afterTime, @Param("afterId") long afterId,
+            Pageable pageable);
+
+    // Records written before modifiedAt existed count as modified when taken
+    @Modifying
+    @Query("UPDATE Attendance a SET a.modifiedAt = a.attendanceStatus WHERE a.modifiedAt IS NULL")
+    int backfillModifiedAt();
 }
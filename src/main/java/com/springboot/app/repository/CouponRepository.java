@@ -4,7 +4,13 @@ import com.springboot.app.entity.Coupon;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface CouponRepository extends JpaRepository<Coupon, Long> {
 
+    // Codes are matched ignoring case, as UPPER(COUPON_CODE) = UPPER(?); on
+    // PostgreSQL CouponCodeIndexJob creates the matching expression index.
+    // Codes stored before may differ only in case, so the oldest one wins.
+    Optional<Coupon> findFirstByCouponCodeIgnoreCaseOrderByIdAsc(String couponCode);
 }
@@ -2,6 +2,8 @@ package com.springboot.app.repository;
 
 import com.springboot.app.entity.CustomerFeedback;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -11,4 +13,14 @@ public interface CustomerFeedbackRepository extends JpaRepository<CustomerFeedba
 
     List<CustomerFeedback> findByServiceProvider_ServiceproviderId(Long serviceproviderId);
 
+    // Single row: [feedback count, rating sum]
+    @Query("SELECT COUNT(f), COALESCE(SUM(f.rating), 0) FROM CustomerFeedback f " +
+            "WHERE f.serviceProvider.serviceproviderId = :serviceproviderId")
+    List<Object[]> sumRatingsForServiceProvider(@Param("serviceproviderId") Long serviceproviderId);
+
+    // Each row: [serviceProviderId, feedback count, rating sum]
+    @Query("SELECT f.serviceProvider.serviceproviderId, COUNT(f), SUM(f.rating) FROM CustomerFeedback f " +
+            "GROUP BY f.serviceProvider.serviceproviderId")
+    List<Object[]> sumRatingsByServiceProvider();
+
 }
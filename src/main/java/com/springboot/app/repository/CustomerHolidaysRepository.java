@@ -1,12 +1,14 @@
 package com.springboot.app.repository;
 
 import com.springboot.app.entity.CustomerHolidays;
+import com.springboot.app.enums.HousekeepingRole;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,6 +19,8 @@ public interface CustomerHolidaysRepository extends JpaRepository<CustomerHolida
 
         List<CustomerHolidays> findByCustomer_CustomerId(Long customerId);
 
+        List<CustomerHolidays> findByCustomer_CustomerIdIn(Collection<Long> customerIds);
+
         @Query("SELECT ch.customer.customerId FROM CustomerHolidays ch " +
                         "WHERE ch.isActive = true AND :startDate >= ch.startDate AND :endDate <= ch.endDate")
         List<Long> findCustomerIdsOnHolidayBetween(@Param("startDate") LocalDate startDate,
@@ -26,4 +30,30 @@ public interface CustomerHolidaysRepository extends JpaRepository<CustomerHolida
         List<CustomerHolidays> findByEngagement_IdAndIsActive(Long engagementId, boolean isActive);
 
         List<CustomerHolidays> findByEngagement_Id(Long engagementId);
+
+        // Rows: [startDate, endDate] of the engagement's active holidays for the
+        // service type that overlap the period
+        @Query("SELECT ch.startDate, ch.endDate FROM CustomerHolidays ch " +
+                        "WHERE ch.engagement.id = :engagementId AND ch.serviceType = :serviceType " +
+                        "AND ch.startDate <= :endDate AND ch.endDate >= :startDate AND ch.isActive = true")
+        List<Object[]> findActiveSpansForEngagement(@Param("engagementId") Long engagementId,
+                        @Param("serviceType") HousekeepingRole serviceType,
+                        @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+        // Rows: [startDate, endDate] of the customer's active holidays for the
+        // service type that overlap the period
+        @Query("SELECT ch.startDate, ch.endDate FROM CustomerHolidays ch " +
+                        "WHERE ch.customer.customerId = :customerId AND ch.serviceType = :serviceType " +
+                        "AND ch.startDate <= :endDate AND ch.endDate >= :startDate AND ch.isActive = true")
+        List<Object[]> findActiveSpansForCustomer(@Param("customerId") Long customerId,
+                        @Param("serviceType") HousekeepingRole serviceType,
+                        @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+        // Rows: [engagementId, serviceType, startDate, endDate] of the engagements'
+        // active holidays that overlap the period
+        @Query("SELECT ch.engagement.id, ch.serviceType, ch.startDate, ch.endDate FROM CustomerHolidays ch " +
+                        "WHERE ch.engagement.id IN :engagementIds " +
+                        "AND ch.startDate <= :endDate AND ch.endDate >= :startDate AND ch.isActive = true")
+        List<Object[]> findActiveSpansForEngagements(@Param("engagementIds") Collection<Long> engagementIds,
+                        @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 }
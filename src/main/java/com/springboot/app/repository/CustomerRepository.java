@@ -1,5 +1,7 @@
 package com.springboot.app.repository;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import com.springboot.app.entity.Customer;
@@ -11,6 +13,9 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     boolean existsByMobileNo(Long mobileNo);
 
+    // emailId is unique, so this is a single index lookup
+    Optional<Customer> findByEmailId(String emailId);
+
 
 
 }
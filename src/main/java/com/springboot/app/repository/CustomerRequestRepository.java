@@ -2,9 +2,11 @@ package com.springboot.app.repository;
 
 import com.springboot.app.entity.CustomerRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface CustomerRequestRepository extends JpaRepository<CustomerRequest, Long> {
+public interface CustomerRequestRepository
+        extends JpaRepository<CustomerRequest, Long>, JpaSpecificationExecutor<CustomerRequest> {
 
 }
@@ -0,0 +1,94 @@
+package com.springboot.app.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.springboot.app.entity.CustomerRequest;
+import com.springboot.app.enums.BookingBucket;
+import com.springboot.app.enums.Gender;
+import com.springboot.app.enums.HousekeepingRole;
+
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Predicates for customer request listings, evaluated by the database against
+ * the indexes declared on {@link CustomerRequest}.
+ */
+public final class CustomerRequestSpecifications {
+
+    private CustomerRequestSpecifications() {
+    }
+
+    public static Specification<CustomerRequest> isOpen() {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("isResolved"), "NO");
+    }
+
+    public static Specification<CustomerRequest> isPotential() {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("isPotential"), "YES");
+    }
+
+    /** Equality on every filter that is given; null filters match anything. */
+    public static Specification<CustomerRequest> matchesFilters(HousekeepingRole housekeepingRole, Gender gender,
+            String area, Integer pincode, String locality, String apartment_name) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (housekeepingRole != null) {
+                predicates.add(criteriaBuilder.equal(root.get("housekeepingRole"), housekeepingRole));
+            }
+            if (gender != null) {
+                predicates.add(criteriaBuilder.equal(root.get("gender"), gender));
+            }
+            if (area != null) {
+                predicates.add(criteriaBuilder.equal(root.get("area"), area));
+            }
+            if (pincode != null) {
+                predicates.add(criteriaBuilder.equal(root.get("pincode"), pincode));
+            }
+            if (locality != null) {
+                predicates.add(criteriaBuilder.equal(root.get("locality"), locality));
+            }
+            if (apartment_name != null) {
+                predicates.add(criteriaBuilder.equal(root.get("apartment_name"), apartment_name));
+            }
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Requests in the given booking history bucket as of today. A request
+     * without a start date counts as future, and one without an end date as
+     * current once started.
+     */
+    public static Specification<CustomerRequest> inBucket(BookingBucket bucket, LocalDate today) {
+        Timestamp startOfToday = Timestamp.valueOf(today.atStartOfDay());
+        Timestamp startOfTomorrow = Timestamp.valueOf(today.plusDays(1).atStartOfDay());
+        return (root, query, criteriaBuilder) -> {
+            var startDate = root.<Timestamp>get("startDate");
+            var endDate = root.<Timestamp>get("endDate");
+            var started = criteriaBuilder.lessThan(startDate, startOfTomorrow);
+            return switch (bucket) {
+                case PAST -> criteriaBuilder.and(started, criteriaBuilder.lessThan(endDate, startOfToday));
+                case CURRENT -> criteriaBuilder.and(started, criteriaBuilder.or(criteriaBuilder.isNull(endDate),
+                        criteriaBuilder.greaterThanOrEqualTo(endDate, startOfToday)));
+                case FUTURE -> criteriaBuilder.or(criteriaBuilder.isNull(startDate),
+                        criteriaBuilder.greaterThanOrEqualTo(startDate, startOfTomorrow));
+            };
+        };
+    }
+
+    /** Rows before the keyset position, for listings ordered by requestId descending; null matches anything. */
+    public static Specification<CustomerRequest> requestIdBefore(Long requestId) {
+        return (root, query, criteriaBuilder) -> requestId == null ? null
+                : criteriaBuilder.lessThan(root.get("requestId"), requestId);
+    }
+
+    /** Rows after the keyset position, for listings ordered by requestId; null matches anything. */
+    public static Specification<CustomerRequest> requestIdAfter(Long requestId) {
+        return (root, query, criteriaBuilder) -> requestId == null ? null
+                : criteriaBuilder.greaterThan(root.get("requestId"), requestId);
+    }
+}
@@ -0,0 +1,15 @@
+package com.springboot.app.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.springboot.app.entity.PaymentRunCheckpoint;
+
+@Repository
+public interface PaymentRunCheckpointRepository extends JpaRepository<PaymentRunCheckpoint, String> {
+
+    List<PaymentRunCheckpoint> findByBillingMonthOrderByPartitionIndex(String billingMonth);
+
+}
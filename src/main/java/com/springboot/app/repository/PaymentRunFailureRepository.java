@@ -0,0 +1,16 @@
+package com.springboot.app.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.springboot.app.entity.PaymentRunFailure;
+
+@Repository
+public interface PaymentRunFailureRepository extends JpaRepository<PaymentRunFailure, String> {
+
+    // Oldest month first, so a retried payment starts where the previous month's one ended
+    List<PaymentRunFailure> findAllByOrderByBillingMonthAscEngagementIdAsc();
+
+}
@@ -0,0 +1,43 @@
+package com.springboot.app.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.springboot.app.entity.RatingAggregate;
+import com.springboot.app.enums.RatingSubject;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface RatingAggregateRepository extends JpaRepository<RatingAggregate, String> {
+
+    // Adjusts the totals in place; the row stays locked until the transaction ends
+    @Modifying
+    @Query("UPDATE RatingAggregate a SET a.ratingCount = a.ratingCount + :count, " +
+            "a.ratingSum = a.ratingSum + :sum, a.updatedAt = CURRENT_TIMESTAMP WHERE a.id = :id")
+    int addRatings(@Param("id") String id, @Param("count") long count, @Param("sum") double sum);
+
+    // Creates the aggregate; fails with a key violation if a concurrent writer already has
+    @Modifying
+    @Query(value = "INSERT INTO rating_aggregate (id, subjectType, subjectId, ratingCount, ratingSum, updatedAt) " +
+            "VALUES (:id, :subjectType, :subjectId, :count, :sum, CURRENT_TIMESTAMP)", nativeQuery = true)
+    int create(@Param("id") String id, @Param("subjectType") String subjectType,
+            @Param("subjectId") Long subjectId, @Param("count") long count, @Param("sum") double sum);
+
+    // Each row: [ratingCount, ratingSum]; read straight from the table, not the persistence context
+    @Query("SELECT a.ratingCount, a.ratingSum FROM RatingAggregate a WHERE a.id = :id")
+    List<Object[]> findTotals(@Param("id") String id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM RatingAggregate a WHERE a.id = :id")
+    Optional<RatingAggregate> findForUpdate(@Param("id") String id);
+
+    List<RatingAggregate> findBySubjectType(RatingSubject subjectType);
+}
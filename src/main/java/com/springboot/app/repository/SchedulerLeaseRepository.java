@@ -0,0 +1,42 @@
+package com.springboot.app.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.springboot.app.entity.SchedulerLease;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    // Takes over an expired lease with the next fencing token; returns 0 if it is unexpired or missing
+    @Modifying
+    @Query(value = "UPDATE scheduler_lease SET owner = :owner, acquiredAt = LOCALTIMESTAMP, " +
+            "expiresAt = LOCALTIMESTAMP + :ttlMillis * INTERVAL '0.001' SECOND, fencingToken = fencingToken + 1 " +
+            "WHERE name = :name AND expiresAt <= LOCALTIMESTAMP", nativeQuery = true)
+    int takeOver(@Param("name") String name, @Param("owner") String owner, @Param("ttlMillis") long ttlMillis);
+
+    // First lease on a job; fails with a key violation if another node created it first
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_lease (name, owner, acquiredAt, expiresAt, fencingToken) " +
+            "VALUES (:name, :owner, LOCALTIMESTAMP, LOCALTIMESTAMP + :ttlMillis * INTERVAL '0.001' SECOND, 1)",
+            nativeQuery = true)
+    int create(@Param("name") String name, @Param("owner") String owner, @Param("ttlMillis") long ttlMillis);
+
+    @Query("SELECT l.fencingToken FROM SchedulerLease l WHERE l.name = :name")
+    long findFencingToken(@Param("name") String name);
+
+    // Extends the lease if the token still holds it unexpired; the row stays locked until commit
+    @Modifying
+    @Query(value = "UPDATE scheduler_lease SET expiresAt = LOCALTIMESTAMP + :ttlMillis * INTERVAL '0.001' SECOND " +
+            "WHERE name = :name AND fencingToken = :token AND expiresAt > LOCALTIMESTAMP", nativeQuery = true)
+    int renew(@Param("name") String name, @Param("token") long token, @Param("ttlMillis") long ttlMillis);
+
+    // Expires the lease now if the token still holds it
+    @Modifying
+    @Query(value = "UPDATE scheduler_lease SET expiresAt = LOCALTIMESTAMP " +
+            "WHERE name = :name AND fencingToken = :token", nativeQuery = true)
+    int release(@Param("name") String name, @Param("token") long token);
+}
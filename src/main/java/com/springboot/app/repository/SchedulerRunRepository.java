@@ -0,0 +1,28 @@
+package com.springboot.app.repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.springboot.app.entity.SchedulerRun;
+
+@Repository
+public interface SchedulerRunRepository extends JpaRepository<SchedulerRun, Long> {
+
+    // Newest runs first, optionally of one job, after the given id
+    @Query("SELECT r FROM SchedulerRun r " +
+            "WHERE (:jobName IS NULL OR r.jobName = :jobName) AND (:beforeId IS NULL OR r.id < :beforeId) " +
+            "ORDER BY r.id DESC")
+    List<SchedulerRun> findPage(@Param("jobName") String jobName, @Param("beforeId") Long beforeId,
+            Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM SchedulerRun r WHERE r.startedAt < :before")
+    int deleteStartedBefore(@Param("before") Timestamp before);
+}
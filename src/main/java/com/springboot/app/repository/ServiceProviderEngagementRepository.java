@@ -1,13 +1,16 @@
 package com.springboot.app.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,23 +20,36 @@ import com.springboot.app.entity.ServiceProviderEngagement;
 import com.springboot.app.enums.HousekeepingRole;
 import com.springboot.app.enums.UserRole;
 
-import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface ServiceProviderEngagementRepository extends JpaRepository<ServiceProviderEngagement, Long> {
+public interface ServiceProviderEngagementRepository
+              extends JpaRepository<ServiceProviderEngagement, Long>, JpaSpecificationExecutor<ServiceProviderEngagement> {
        List<ServiceProviderEngagement> findByEndDateBeforeAndTimeslotNot(LocalDate date, String timeslot);
 
        List<ServiceProviderEngagement> findByEndDateBeforeAndIsActive(LocalDate date, boolean isActive);
 
        Optional<ServiceProviderEngagement> findFirstByCustomer_CustomerIdAndIsActiveTrue(Long customerId);
 
-       // Bulk update: Set timeslot to "00:00-00:00" and deactivate engagements that
-       // ended before today
+       // Ids of engagements that ended between since (inclusive) and today
+       // (exclusive) and are not yet closed, i.e. still active or still holding
+       // a timeslot
+       @Query("SELECT e.id FROM ServiceProviderEngagement e " +
+                     "WHERE e.endDate >= :since AND e.endDate < :today " +
+                     "AND (e.isActive = true OR e.timeslot IS NULL OR e.timeslot <> :timeslot) " +
+                     "ORDER BY e.id")
+       List<Long> findEndedToClose(@Param("since") LocalDate since, @Param("today") LocalDate today,
+                     @Param("timeslot") String timeslot, Pageable pageable);
+
+       // Frees the timeslot of ended engagements and deactivates them
        @Modifying
-       @Transactional
-       @Query("UPDATE ServiceProviderEngagement e SET e.timeslot = :timeslot " +
-                     "WHERE e.endDate < :today")
-       void bulkUpdateEndedEngagements(@Param("timeslot") String timeslot, @Param("today") LocalDate today);
+       @Query("UPDATE ServiceProviderEngagement e SET e.timeslot = :timeslot, e.isActive = false " +
+                     "WHERE e.id IN :ids")
+       int closeEngagements(@Param("ids") List<Long> ids, @Param("timeslot") String timeslot);
+
+       // Geohashes of the providers of the given engagements, for search cache invalidation
+       @Query("SELECT DISTINCT e.serviceProvider.geohash FROM ServiceProviderEngagement e " +
+                     "WHERE e.id IN :ids AND e.serviceProvider.geohash IS NOT NULL")
+       List<String> findProviderGeohashes(@Param("ids") List<Long> ids);
 
        // @Query("SELECT e FROM ServiceProviderEngagement e " +
        // "WHERE e.startDate = :startDate " +
@@ -72,20 +88,6 @@ public interface ServiceProviderEngagementRepository extends JpaRepository<Servi
        // @Param("customerIds") List<Long> customerIds,
        // @Param("role") HousekeepingRole role);
 
-       // NEWWWWWWWWWWWWWWWWWWWWWWWWWWWWWWWWWWW
-       // FETCH engaged providers who are nearby, in date range and role
-       @Query("SELECT e FROM ServiceProviderEngagement e " +
-                     "JOIN e.serviceProvider sp " +
-                     "WHERE e.startDate = :startDate " +
-                     "AND e.endDate = :endDate " +
-                     "AND e.housekeepingRole = :housekeepingRole " +
-                     "AND (sp.geoHash5 IN :geoHashes OR sp.geoHash6 IN :geoHashes OR sp.geoHash7 IN :geoHashes)")
-       List<ServiceProviderEngagement> findEngagedProvidersNearby(
-                     @Param("startDate") LocalDate startDate,
-                     @Param("endDate") LocalDate endDate,
-                     @Param("housekeepingRole") HousekeepingRole housekeepingRole,
-                     @Param("geoHashes") List<String> geoHashes);
-
        @Query("SELECT e FROM ServiceProviderEngagement e WHERE e.customer.customerId IN :customerIds AND e.housekeepingRole = :role")
        List<ServiceProviderEngagement> findEngagementsByCustomerIdsAndRole(
                      @Param("customerIds") List<Long> customerIds,
@@ -99,6 +101,16 @@ public interface ServiceProviderEngagementRepository extends JpaRepository<Servi
                      @Param("startDate") LocalDate startDate,
                      @Param("endDate") LocalDate endDate);
 
+       // Provider id and timeslot of every engagement of the given providers that
+       // overlaps the date range, as [Long serviceProviderId, TimeslotMask timeslot] rows
+       @Query("SELECT e.serviceProvider.serviceproviderId, e.timeslotMask FROM ServiceProviderEngagement e " +
+                     "WHERE e.serviceProvider.serviceproviderId IN :serviceProviderIds " +
+                     "AND e.startDate <= :endDate AND (e.endDate IS NULL OR e.endDate >= :startDate)")
+       List<Object[]> findTimeslotsByServiceProvidersAndDateRange(
+                     @Param("serviceProviderIds") List<Long> serviceProviderIds,
+                     @Param("startDate") LocalDate startDate,
+                     @Param("endDate") LocalDate endDate);
+
        List<ServiceProviderEngagement> findAllByCustomer_CustomerIdAndServiceTypeAndIsActiveTrue(
                      Long customerId,
                      HousekeepingRole serviceType);
@@ -111,4 +123,34 @@ public interface ServiceProviderEngagementRepository extends JpaRepository<Servi
        // Fetch all engagements for a given service provider
        List<ServiceProviderEngagement> findByServiceProvider_ServiceproviderId(Long serviceProviderId);
 
+       // Keyset page of the billing columns of engagements with an id above afterId
+       // in one payment partition, as [Long id, Long serviceProviderId, Long customerId,
+       // LocalDate startDate, Double monthlyAmount, PaymentMode paymentMode] rows
+       // ordered by id. Partitions split by service provider so that every
+       // (provider, customer) pair is billed by a single partition.
+       @Query("SELECT e.id, e.serviceProvider.serviceproviderId, e.customer.customerId, e.startDate, " +
+                     "e.monthlyAmount, e.paymentMode FROM ServiceProviderEngagement e " +
+                     "WHERE e.id > :afterId " +
+                     "AND MOD(COALESCE(e.serviceProvider.serviceproviderId, 0), :partitionCount) = :partitionIndex " +
+                     "ORDER BY e.id")
+       List<Object[]> findBillingRowsAfterId(@Param("afterId") Long afterId,
+                     @Param("partitionCount") int partitionCount,
+                     @Param("partitionIndex") int partitionIndex,
+                     Pageable pageable);
+
+       // Same rows as findBillingRowsAfterId, for the given engagements
+       @Query("SELECT e.id, e.serviceProvider.serviceproviderId, e.customer.customerId, e.startDate, " +
+                     "e.monthlyAmount, e.paymentMode FROM ServiceProviderEngagement e " +
+                     "WHERE e.id IN :ids ORDER BY e.id")
+       List<Object[]> findBillingRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+       // Rows for customer invoicing: [id, customerId, monthlyAmount, paymentMode,
+       // serviceType, housekeepingRole]
+       @Query("SELECT e.id, e.customer.customerId, e.monthlyAmount, e.paymentMode, e.serviceType, " +
+                     "e.housekeepingRole FROM ServiceProviderEngagement e WHERE e.id IN :ids")
+       List<Object[]> findInvoiceRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+       @Query("SELECT COALESCE(MAX(e.id), 0) FROM ServiceProviderEngagement e")
+       Long findMaxId();
+
 }
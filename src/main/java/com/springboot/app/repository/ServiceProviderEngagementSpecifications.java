@@ -0,0 +1,87 @@
+package com.springboot.app.repository;
+
+import java.time.LocalDate;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.springboot.app.entity.ServiceProviderEngagement;
+import com.springboot.app.enums.BookingBucket;
+
+/**
+ * Predicates for engagement listings, evaluated by the database against the
+ * indexes declared on {@link ServiceProviderEngagement}.
+ */
+public final class ServiceProviderEngagementSpecifications {
+
+    private ServiceProviderEngagementSpecifications() {
+    }
+
+    public static Specification<ServiceProviderEngagement> forCustomer(Long customerId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(
+                root.get("customer").get("customerId"), customerId);
+    }
+
+    public static Specification<ServiceProviderEngagement> forServiceProvider(Long serviceProviderId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(
+                root.get("serviceProvider").get("serviceproviderId"), serviceProviderId);
+    }
+
+    /**
+     * Engagements in the given history bucket as of today. An engagement
+     * without an end date is open-ended and never becomes past.
+     */
+    public static Specification<ServiceProviderEngagement> inBucket(BookingBucket bucket, LocalDate today) {
+        return (root, query, criteriaBuilder) -> {
+            var startDate = root.<LocalDate>get("startDate");
+            var endDate = root.<LocalDate>get("endDate");
+            var notEnded = criteriaBuilder.or(criteriaBuilder.isNull(endDate),
+                    criteriaBuilder.greaterThanOrEqualTo(endDate, today));
+            return switch (bucket) {
+                case PAST -> criteriaBuilder.lessThan(endDate, today);
+                case CURRENT -> criteriaBuilder.and(criteriaBuilder.lessThanOrEqualTo(startDate, today), notEnded);
+                case FUTURE -> criteriaBuilder.and(criteriaBuilder.greaterThan(startDate, today), notEnded);
+            };
+        };
+    }
+
+    /**
+     * Date column a bucket is ordered by: past engagements by end date, most
+     * recent first; current ones by start date, latest first; future ones by
+     * start date, soonest first. Ties are broken by id in the same direction.
+     */
+    public static String sortDateOf(BookingBucket bucket) {
+        return bucket == BookingBucket.PAST ? "endDate" : "startDate";
+    }
+
+    public static Sort.Direction directionOf(BookingBucket bucket) {
+        return bucket == BookingBucket.FUTURE ? Sort.Direction.ASC : Sort.Direction.DESC;
+    }
+
+    public static Sort sortOf(BookingBucket bucket) {
+        return Sort.by(directionOf(bucket), sortDateOf(bucket), "id");
+    }
+
+    /**
+     * Rows after the keyset position (date, id) in the bucket's order. The
+     * sort date is never null within its bucket, so a plain row comparison is
+     * enough. Null position matches anything.
+     */
+    public static Specification<ServiceProviderEngagement> after(BookingBucket bucket, LocalDate date, Long id) {
+        return (root, query, criteriaBuilder) -> {
+            if (date == null || id == null) {
+                return null;
+            }
+            var sortDate = root.<LocalDate>get(sortDateOf(bucket));
+            var engagementId = root.<Long>get("id");
+            if (directionOf(bucket) == Sort.Direction.ASC) {
+                return criteriaBuilder.or(criteriaBuilder.greaterThan(sortDate, date),
+                        criteriaBuilder.and(criteriaBuilder.equal(sortDate, date),
+                                criteriaBuilder.greaterThan(engagementId, id)));
+            }
+            return criteriaBuilder.or(criteriaBuilder.lessThan(sortDate, date),
+                    criteriaBuilder.and(criteriaBuilder.equal(sortDate, date),
+                            criteriaBuilder.lessThan(engagementId, id)));
+        };
+    }
+}
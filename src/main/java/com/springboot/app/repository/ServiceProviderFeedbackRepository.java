@@ -1,6 +1,8 @@
 package com.springboot.app.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.springboot.app.entity.ServiceProviderFeedback;
 import java.util.List;
@@ -10,4 +12,14 @@ public interface ServiceProviderFeedbackRepository extends
         JpaRepository<ServiceProviderFeedback, Long> {
     List<ServiceProviderFeedback> findByCustomer_CustomerId(Long customerId);
 
-}
\ No newline at end of file
+    // Single row: [feedback count, rating sum]
+    @Query("SELECT COUNT(f), COALESCE(SUM(f.rating), 0) FROM ServiceProviderFeedback f " +
+            "WHERE f.customer.customerId = :customerId")
+    List<Object[]> sumRatingsForCustomer(@Param("customerId") Long customerId);
+
+    // Each row: [customerId, feedback count, rating sum]
+    @Query("SELECT f.customer.customerId, COUNT(f), SUM(f.rating) FROM ServiceProviderFeedback f " +
+            "GROUP BY f.customer.customerId")
+    List<Object[]> sumRatingsByCustomer();
+
+}
@@ -2,9 +2,12 @@ package com.springboot.app.repository;
 
 import com.springboot.app.entity.ServiceProviderLeave;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -12,4 +15,30 @@ public interface ServiceProviderLeaveRepository extends
                 JpaRepository<ServiceProviderLeave, Long> {
         List<ServiceProviderLeave> findByServiceProvider_ServiceproviderId(Long serviceproviderId);
 
+        // Leaves overlapping [fromDate, toDate], with the providers the DTOs need
+        @Query("SELECT l FROM ServiceProviderLeave l JOIN FETCH l.serviceProvider LEFT JOIN FETCH l.backupBy " +
+                        "WHERE l.toDate >= :fromDate AND l.fromDate <= :toDate ORDER BY l.fromDate")
+        List<ServiceProviderLeave> findOverlapping(@Param("fromDate") LocalDate fromDate,
+                        @Param("toDate") LocalDate toDate);
+
+        @Query("SELECT l FROM ServiceProviderLeave l JOIN FETCH l.serviceProvider LEFT JOIN FETCH l.backupBy " +
+                        "WHERE l.isApproved = :approved ORDER BY l.fromDate")
+        List<ServiceProviderLeave> findByApproved(@Param("approved") boolean approved);
+
+        // Only approved leave makes a provider unavailable
+        @Query("SELECT DISTINCT l.serviceProvider.serviceproviderId FROM ServiceProviderLeave l " +
+                        "WHERE l.isApproved = true AND l.toDate >= :fromDate AND l.fromDate <= :toDate")
+        List<Long> findServiceProviderIdsOnLeave(@Param("fromDate") LocalDate fromDate,
+                        @Param("toDate") LocalDate toDate);
+
+        @Query("SELECT COUNT(l) > 0 FROM ServiceProviderLeave l WHERE l.serviceProvider.serviceproviderId = :serviceproviderId " +
+                        "AND l.isApproved = true AND l.toDate >= :fromDate AND l.fromDate <= :toDate")
+        boolean existsOverlapping(@Param("serviceproviderId") Long serviceproviderId,
+                        @Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+        // Each row: [leaveId, serviceProviderId, fromDate, toDate] of an approved leave
+        @Query("SELECT l.id, l.serviceProvider.serviceproviderId, l.fromDate, l.toDate FROM ServiceProviderLeave l " +
+                        "WHERE l.isApproved = true AND l.toDate >= :fromDate")
+        List<Object[]> findLeaveSpansEndingOnOrAfter(@Param("fromDate") LocalDate fromDate);
+
 }
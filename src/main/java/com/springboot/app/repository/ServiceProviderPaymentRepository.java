@@ -3,8 +3,12 @@ package com.springboot.app.repository;
 import com.springboot.app.entity.ServiceProviderPayment;
 
 import java.sql.Date;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -14,4 +18,31 @@ public interface ServiceProviderPaymentRepository extends JpaRepository<ServiceP
 
     List<ServiceProviderPayment> findByMonthAndYear(int month, int year);
 
+    // Latest paid-up end date per (service provider, customer) pair, as
+    // [Long serviceProviderId, Long customerId, Date endDate] rows. The id lists
+    // may select a few extra pairs; callers look rows up by the exact pair.
+    @Query("SELECT p.serviceProvider.serviceproviderId, p.customer.customerId, MAX(p.endDate) " +
+            "FROM ServiceProviderPayment p " +
+            "WHERE p.serviceProvider.serviceproviderId IN :serviceProviderIds " +
+            "AND p.customer.customerId IN :customerIds " +
+            "GROUP BY p.serviceProvider.serviceproviderId, p.customer.customerId")
+    List<Object[]> findLastPaymentEndDates(@Param("serviceProviderIds") Collection<Long> serviceProviderIds,
+            @Param("customerIds") Collection<Long> customerIds);
+
+    // Keyset page of payments with an id above afterId, as rows of the
+    // ServiceProviderPaymentDTO columns ordered by id. Null filters are ignored.
+    @Query("SELECT p.id, p.serviceProvider.serviceproviderId, p.customer.customerId, p.startDate, p.endDate, " +
+            "p.settledOn, p.paymentMode, p.paymentOn, p.transactionId, p.noOfDays, p.amount, p.currency, " +
+            "p.UpiId, p.month, p.year, p.monthlyAmount FROM ServiceProviderPayment p " +
+            "WHERE p.id > :afterId " +
+            "AND (:month IS NULL OR p.month = :month) " +
+            "AND (:year IS NULL OR p.year = :year) " +
+            "AND (:serviceProviderId IS NULL OR p.serviceProvider.serviceproviderId = :serviceProviderId) " +
+            "ORDER BY p.id")
+    List<Object[]> findExportRowsAfterId(@Param("afterId") Long afterId,
+            @Param("month") Integer month,
+            @Param("year") Integer year,
+            @Param("serviceProviderId") Long serviceProviderId,
+            Pageable pageable);
+
 }
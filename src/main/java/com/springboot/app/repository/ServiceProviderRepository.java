@@ -11,7 +11,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 
@@ -23,24 +25,42 @@ public interface ServiceProviderRepository
 
         boolean existsByEmailId(String emailId);
 
-        Page<ServiceProvider> findByLocation(String location, Pageable pageable);
+        @Query("SELECT sp.mobileNo FROM ServiceProvider sp WHERE sp.mobileNo IN :mobileNos")
+        List<Long> findExistingMobileNos(@Param("mobileNos") Collection<Long> mobileNos);
 
-        List<ServiceProvider> findByVendorId(Long vendorId);
+        @Query("SELECT sp.emailId FROM ServiceProvider sp WHERE sp.emailId IN :emailIds")
+        List<String> findExistingEmailIds(@Param("emailIds") Collection<String> emailIds);
 
-        List<ServiceProvider> findByGeoHash5In(List<String> geoHashes);
+        // emailId is unique, so this is a single index lookup
+        Optional<ServiceProvider> findByEmailId(String emailId);
+
+        Page<ServiceProvider> findByLocation(String location, Pageable pageable);
 
-        List<ServiceProvider> findByGeoHash6In(List<String> geoHashes);
+        List<ServiceProvider> findByVendorId(Long vendorId);
 
-        List<ServiceProvider> findByGeoHash7In(List<String> geoHashes);
+        List<ServiceProvider> findByHousekeepingRoleAndIsActiveTrue(HousekeepingRole housekeepingRole);
 
         // boolean existsByMobileNo(Long mobileNo);
         boolean existsByAlternateNo(Long alternateNo);
 
-        @Query("SELECT sp FROM ServiceProvider sp WHERE sp.housekeepingRole = :housekeepingRole AND " +
-                        "(sp.geoHash4 IN :geoHashes OR sp.geoHash5 IN :geoHashes OR sp.geoHash6 IN :geoHashes OR sp.geoHash7 IN :geoHashes)")
-        List<ServiceProvider> findByHousekeepingRoleAndGeoHash(
-                        @Param("housekeepingRole") HousekeepingRole housekeepingRole,
-                        @Param("geoHashes") List<String> geoHashes);
+        // Rows: [serviceproviderId, latitude, longitude] of located providers that
+        // have no geohash yet
+        @Query("SELECT sp.serviceproviderId, sp.latitude, sp.longitude FROM ServiceProvider sp " +
+                        "WHERE sp.geohash IS NULL AND sp.latitude IS NOT NULL AND sp.longitude IS NOT NULL " +
+                        "AND sp.serviceproviderId > :afterId ORDER BY sp.serviceproviderId")
+        List<Object[]> findMissingGeohash(@Param("afterId") Long afterId, Pageable pageable);
+
+        // Rows: [serviceproviderId, latitude, longitude, geohash] of located providers
+        @Query("SELECT sp.serviceproviderId, sp.latitude, sp.longitude, sp.geohash FROM ServiceProvider sp " +
+                        "WHERE sp.latitude IS NOT NULL AND sp.longitude IS NOT NULL " +
+                        "AND sp.serviceproviderId > :afterId ORDER BY sp.serviceproviderId")
+        List<Object[]> findLocatedAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+        long countByServiceproviderIdGreaterThan(Long serviceproviderId);
+
+        @Query("SELECT sp FROM ServiceProvider sp WHERE sp.isActive = true AND sp.serviceproviderId > :afterId " +
+                        "ORDER BY sp.serviceproviderId")
+        List<ServiceProvider> findActiveAfterId(@Param("afterId") Long afterId, Pageable pageable);
 
         @Query("SELECT sp FROM ServiceProvider sp WHERE sp.serviceproviderId IN :ids")
         List<ServiceProvider> findByIds(@Param("ids") List<Long> ids);
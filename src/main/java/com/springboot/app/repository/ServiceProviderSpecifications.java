@@ -0,0 +1,53 @@
+package com.springboot.app.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.springboot.app.entity.ServiceProvider;
+import com.springboot.app.enums.HousekeepingRole;
+import com.springboot.app.util.GeohashRanges;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Predicates for location lookups, evaluated against the (housekeepingRole,
+ * isActive, geohash) index declared on {@link ServiceProvider}.
+ */
+public final class ServiceProviderSpecifications {
+
+    private ServiceProviderSpecifications() {
+    }
+
+    public static Specification<ServiceProvider> hasRole(HousekeepingRole housekeepingRole) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("housekeepingRole"),
+                housekeepingRole);
+    }
+
+    public static Specification<ServiceProvider> isActive() {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.isTrue(root.get("isActive"));
+    }
+
+    /**
+     * Geohash inside any of the cells, as one range condition per merged
+     * range of cells; each is an ordered scan of the index.
+     */
+    public static Specification<ServiceProvider> inGeohashCells(Collection<String> cells) {
+        List<GeohashRanges.Range> ranges = GeohashRanges.cover(cells);
+        return (root, query, criteriaBuilder) -> {
+            if (ranges.isEmpty()) {
+                return criteriaBuilder.disjunction();
+            }
+            Expression<String> geohash = root.get("geohash");
+            Predicate[] predicates = ranges.stream()
+                    .map(range -> range.to() == null
+                            ? criteriaBuilder.greaterThanOrEqualTo(geohash, range.from())
+                            : criteriaBuilder.and(criteriaBuilder.greaterThanOrEqualTo(geohash, range.from()),
+                                    criteriaBuilder.lessThan(geohash, range.to())))
+                    .toArray(Predicate[]::new);
+            return criteriaBuilder.or(predicates);
+        };
+    }
+}
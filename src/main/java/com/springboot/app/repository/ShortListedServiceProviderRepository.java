@@ -1,10 +1,35 @@
 package com.springboot.app.repository;
 
 import com.springboot.app.entity.ShortListedServiceProvider;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ShortListedServiceProviderRepository extends JpaRepository<ShortListedServiceProvider, Long> {
 
+    // The oldest, should concurrent first adds have created more than one
+    Optional<ShortListedServiceProvider> findFirstByCustomerCustomerIdOrderByIdAsc(Long customerId);
+
+    // Rows: [id, customerId], in id order
+    @Query("SELECT s.id, s.customer.customerId FROM ShortListedServiceProvider s ORDER BY s.id")
+    List<Object[]> findShortlistIds(Pageable pageable);
+
+    // Shortlists still holding the old comma-separated list
+    List<ShortListedServiceProvider> findByServiceProviderIdListIsNotNull();
+
+    // Customers with shortlist entries but no shortlist row
+    @Query("SELECT DISTINCT e.id.customerId FROM ShortlistEntry e WHERE NOT EXISTS " +
+            "(SELECT s.id FROM ShortListedServiceProvider s WHERE s.customer.customerId = e.id.customerId)")
+    List<Long> findCustomerIdsWithoutShortlist();
+
+    @Modifying
+    @Query("DELETE FROM ShortListedServiceProvider s WHERE s.customer.customerId = :customerId")
+    int deleteByCustomerId(@Param("customerId") Long customerId);
 }
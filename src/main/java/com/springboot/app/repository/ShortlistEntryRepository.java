@@ -0,0 +1,44 @@
+package com.springboot.app.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.springboot.app.entity.ServiceProvider;
+import com.springboot.app.entity.ShortlistEntry;
+import com.springboot.app.entity.ShortlistEntryId;
+
+@Repository
+public interface ShortlistEntryRepository extends JpaRepository<ShortlistEntry, ShortlistEntryId> {
+
+    @Modifying
+    @Query("DELETE FROM ShortlistEntry e WHERE e.id.customerId = :customerId " +
+            "AND e.id.serviceProviderId = :serviceProviderId")
+    int deleteEntry(@Param("customerId") Long customerId, @Param("serviceProviderId") Long serviceProviderId);
+
+    @Modifying
+    @Query("DELETE FROM ShortlistEntry e WHERE e.id.customerId = :customerId")
+    int deleteByCustomerId(@Param("customerId") Long customerId);
+
+    @Modifying
+    @Query("DELETE FROM ShortlistEntry e WHERE e.id.customerId = :customerId " +
+            "AND e.id.serviceProviderId NOT IN :serviceProviderIds")
+    int deleteByCustomerIdExcept(@Param("customerId") Long customerId,
+            @Param("serviceProviderIds") Collection<Long> serviceProviderIds);
+
+    // Rows: [customerId, serviceProviderId], oldest entry of each customer first
+    @Query("SELECT e.id.customerId, e.id.serviceProviderId FROM ShortlistEntry e " +
+            "WHERE e.id.customerId IN :customerIds ORDER BY e.id.customerId, e.addedAt")
+    List<Object[]> findEntries(@Param("customerIds") Collection<Long> customerIds);
+
+    // The customer's shortlisted providers, most recently added first
+    @Query("SELECT sp FROM ShortlistEntry e JOIN ServiceProvider sp " +
+            "ON sp.serviceproviderId = e.id.serviceProviderId " +
+            "WHERE e.id.customerId = :customerId ORDER BY e.addedAt DESC")
+    List<ServiceProvider> findShortlistedServiceProviders(@Param("customerId") Long customerId);
+}
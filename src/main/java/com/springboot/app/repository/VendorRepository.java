@@ -14,4 +14,7 @@ public interface VendorRepository extends JpaRepository<Vendor, Long> {
 
     boolean existsByEmailId(String emailId);
 
+    // emailId is unique, so this is a single index lookup
+    Optional<Vendor> findByEmailId(String emailId);
+
 }
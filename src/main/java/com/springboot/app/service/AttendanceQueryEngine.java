@@ -0,0 +1,131 @@
+package com.springboot.app.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.springboot.app.constant.ServiceProviderConstants;
+import com.springboot.app.dto.AttendanceDTO;
+import com.springboot.app.dto.CursorPageDTO;
+import com.springboot.app.entity.Attendance;
+import com.springboot.app.enums.AttendanceIssue;
+import com.springboot.app.util.KeysetCursor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Single query path for the attendance issue listings: an issue predicate,
+ * an optional time window on attendanceStatus and an optional keyset cursor.
+ *
+ * Rows are projected straight into {@link AttendanceDTO}, reading the provider
+ * and customer ids from the foreign key columns, so no Attendance entities or
+ * related providers and customers are loaded. Results are newest first and
+ * page by (attendanceStatus, id), which the attendance_status index serves.
+ * Callers provide the transaction.
+ */
+@Component
+public class AttendanceQueryEngine {
+
+    private static final String CURSOR_PREFIX = "attendance-";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * One page of the records with the given issue whose attendanceStatus is
+     * in [from, to). Either bound may be null for an open window.
+     */
+    public CursorPageDTO<AttendanceDTO> findPage(AttendanceIssue issue, LocalDateTime from, LocalDateTime to,
+            String cursor, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        String kind = CURSOR_PREFIX + issue.name();
+        String[] keys = KeysetCursor.decode(cursor, kind, 2);
+        LocalDateTime afterStatus = null;
+        Long afterId = null;
+        if (keys != null) {
+            try {
+                afterStatus = LocalDateTime.parse(keys[0]);
+                afterId = Long.valueOf(keys[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        List<AttendanceDTO> rows = query(issue, from, to, afterStatus, afterId)
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasMore = rows.size() > size;
+        List<AttendanceDTO> pageRows = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            AttendanceDTO last = pageRows.get(pageRows.size() - 1);
+            nextCursor = KeysetCursor.encode(kind, last.getAttendanceStatus(), last.getId());
+        }
+        return new CursorPageDTO<>(pageRows, nextCursor);
+    }
+
+    /** Every record with the given issue in [from, to), for the unpaged listings. */
+    public List<AttendanceDTO> findAll(AttendanceIssue issue, LocalDateTime from, LocalDateTime to) {
+        return query(issue, from, to, null, null).getResultList();
+    }
+
+    private TypedQuery<AttendanceDTO> query(AttendanceIssue issue, LocalDateTime from, LocalDateTime to,
+            LocalDateTime afterStatus, Long afterId) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AttendanceDTO> query = criteriaBuilder.createQuery(AttendanceDTO.class);
+        Root<Attendance> root = query.from(Attendance.class);
+        var status = root.<LocalDateTime>get(ServiceProviderConstants.ATTENDANCE_FIELD_STATUS);
+        var id = root.<Long>get("id");
+
+        // Argument order follows the AttendanceDTO all-args constructor
+        query.select(criteriaBuilder.construct(AttendanceDTO.class,
+                id,
+                root.get("serviceProvider").get("serviceproviderId"),
+                root.get("customer").get("customerId"),
+                status,
+                root.get(ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED),
+                root.get(ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED),
+                root.get("taskStatus"),
+                root.get("isResolved"),
+                root.get("description")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(issuePredicate(criteriaBuilder, root, issue));
+        if (from != null) {
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(status, from));
+        }
+        if (to != null) {
+            predicates.add(criteriaBuilder.lessThan(status, to));
+        }
+        if (afterStatus != null && afterId != null) {
+            predicates.add(criteriaBuilder.or(criteriaBuilder.lessThan(status, afterStatus),
+                    criteriaBuilder.and(criteriaBuilder.equal(status, afterStatus),
+                            criteriaBuilder.lessThan(id, afterId))));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(criteriaBuilder.desc(status), criteriaBuilder.desc(id));
+        return entityManager.createQuery(query);
+    }
+
+    private static Predicate issuePredicate(CriteriaBuilder criteriaBuilder, Root<Attendance> root,
+            AttendanceIssue issue) {
+        var attended = root.<Boolean>get(ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED);
+        var customerAgreed = root.<Boolean>get(ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED);
+        return switch (issue) {
+            case CONFLICT -> criteriaBuilder.notEqual(attended, customerAgreed);
+            case CUSTOMER_NOT_AGREED -> criteriaBuilder.isFalse(customerAgreed);
+            case NOT_ATTENDED -> criteriaBuilder.isFalse(attended);
+        };
+    }
+}
@@ -1,7 +1,10 @@
 package com.springboot.app.service;
 
 import com.springboot.app.dto.AttendanceDTO;
+import com.springboot.app.dto.CursorPageDTO;
+import com.springboot.app.enums.AttendanceIssue;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface AttendanceService {
@@ -27,6 +30,11 @@ public interface AttendanceService {
     // Delete an AttendanceDTO by its ID
     void deleteAttendance(Long id);
 
+    // Records with the given issue whose attendance time is in [from, to), newest
+    // first and keyset-paginated; from and to may be null for an open window
+    CursorPageDTO<AttendanceDTO> findAttendanceIssues(AttendanceIssue issue, LocalDateTime from, LocalDateTime to,
+            String cursor, int size);
+
     List<AttendanceDTO> getAllNotifications();
 
     List<AttendanceDTO> getTodayConflicts();
@@ -2,12 +2,15 @@ package com.springboot.app.service;
 
 import com.springboot.app.constant.ServiceProviderConstants;
 import com.springboot.app.dto.AttendanceDTO;
+import com.springboot.app.dto.CursorPageDTO;
 import com.springboot.app.entity.Attendance;
 import com.springboot.app.entity.Customer;
 import com.springboot.app.entity.ServiceProvider;
+import com.springboot.app.enums.AttendanceIssue;
 import com.springboot.app.enums.TaskStatus;
 import com.springboot.app.exception.AttendanceNotFoundException;
 import com.springboot.app.mapper.AttendanceMapper;
+import com.springboot.app.repository.AttendanceConflictRepository;
 import com.springboot.app.repository.AttendanceRepository;
 import com.springboot.app.repository.CustomerRepository;
 import com.springboot.app.repository.ServiceProviderRepository;
@@ -22,6 +25,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -33,15 +37,21 @@ public class AttendanceServiceImpl implements AttendanceService {
         private final AttendanceMapper attendanceMapper;
         private final ServiceProviderRepository serviceProviderRepository;
         private final CustomerRepository customerRepository;
+        private final AttendanceQueryEngine attendanceQueryEngine;
+        private final AttendanceConflictRepository attendanceConflictRepository;
 
         public AttendanceServiceImpl(AttendanceRepository attendanceRepository,
                         AttendanceMapper attendanceMapper,
                         ServiceProviderRepository serviceProviderRepository,
-                        CustomerRepository customerRepository) {
+                        CustomerRepository customerRepository,
+                        AttendanceQueryEngine attendanceQueryEngine,
+                        AttendanceConflictRepository attendanceConflictRepository) {
                 this.attendanceRepository = attendanceRepository;
                 this.attendanceMapper = attendanceMapper;
                 this.serviceProviderRepository = serviceProviderRepository;
                 this.customerRepository = customerRepository;
+                this.attendanceQueryEngine = attendanceQueryEngine;
+                this.attendanceConflictRepository = attendanceConflictRepository;
         }
 
         @Override
@@ -193,49 +203,35 @@ public class AttendanceServiceImpl implements AttendanceService {
                                 .orElseThrow(() -> new RuntimeException("Attendance record not found with ID: " + id));
 
                 attendanceRepository.delete(attendance);
+                attendanceConflictRepository.clear(id, LocalDateTime.now());
                 if (logger.isDebugEnabled()) {
 
                         logger.debug("Attendance record with ID {} deleted", id);
                 }
         }
 
+        @Override
+        @Transactional(readOnly = true)
+        public CursorPageDTO<AttendanceDTO> findAttendanceIssues(AttendanceIssue issue, LocalDateTime from,
+                        LocalDateTime to, String cursor, int size) {
+                if (logger.isInfoEnabled()) {
+
+                        logger.info("Fetching {} attendance records from {} to {} after cursor: {}", issue, from, to,
+                                        cursor);
+                }
+                return attendanceQueryEngine.findPage(issue, from, to, cursor, size);
+        }
+
         @Override
         @Transactional(readOnly = true)
         public List<AttendanceDTO> getAllNotifications() {
                 logger.info("Fetching attendance records with conflicts between {} and {}",
                                 ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED,
                                 ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED);
-
-                // Specification for conflicting conditions using constants
-                Specification<Attendance> spec = (root, query, criteriaBuilder) -> criteriaBuilder.or(
-                                criteriaBuilder.and(
-                                                criteriaBuilder.equal(root.get(
-                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED),
-                                                                true),
-                                                criteriaBuilder.equal(root.get(
-                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED),
-                                                                false)),
-                                criteriaBuilder.and(
-                                                criteriaBuilder.equal(root.get(
-                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED),
-                                                                false),
-                                                criteriaBuilder.equal(root.get(
-                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED),
-                                                                true)));
-
-                List<Attendance> attendanceList = attendanceRepository.findAll(spec);
-
-                if (attendanceList.isEmpty()) {
-                        throw new AttendanceNotFoundException(
-                                        "No attendance records found with conflicts between " +
-                                                        ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED + " and "
-                                                        +
-                                                        ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED);
-                }
-
-                return attendanceList.stream()
-                                .map(attendanceMapper::attendanceToDTO)
-                                .toList();
+                return findIssues(AttendanceIssue.CONFLICT, null,
+                                "No attendance records found with conflicts between " +
+                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED + " and "
+                                                + ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED);
         }
 
         @Override
@@ -245,39 +241,8 @@ public class AttendanceServiceImpl implements AttendanceService {
 
                         logger.info("Fetching attendance records with conflicts for today");
                 }
-                LocalDate today = LocalDate.now();
-                // Define start and end of day boundaries as needed
-                LocalDate startOfDay = today.atStartOfDay().toLocalDate();
-                LocalDate endOfDay = today.plusDays(1).atStartOfDay().toLocalDate();
-
-                Specification<Attendance> spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
-                                criteriaBuilder.or(
-                                                criteriaBuilder.and(
-                                                                criteriaBuilder.equal(root.get(
-                                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED),
-                                                                                true),
-                                                                criteriaBuilder.equal(root.get(
-                                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED),
-                                                                                false)),
-                                                criteriaBuilder.and(
-                                                                criteriaBuilder.equal(root.get(
-                                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED),
-                                                                                false),
-                                                                criteriaBuilder.equal(root.get(
-                                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED),
-                                                                                true))),
-                                criteriaBuilder.between(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_STATUS),
-                                                startOfDay, endOfDay));
-
-                List<Attendance> attendanceList = attendanceRepository.findAll(spec);
-
-                if (attendanceList.isEmpty()) {
-                        throw new AttendanceNotFoundException("No attendance records found with conflicts for today");
-                }
-
-                return attendanceList.stream()
-                                .map(attendanceMapper::attendanceToDTO)
-                                .toList();
+                return findIssues(AttendanceIssue.CONFLICT, LocalDate.now(),
+                                "No attendance records found with conflicts for today");
         }
 
         @Transactional(readOnly = true)
@@ -286,39 +251,8 @@ public class AttendanceServiceImpl implements AttendanceService {
 
                         logger.info("Fetching attendance records with conflicts for the past one week");
                 }
-
-                LocalDate oneWeekAgo = LocalDate.now().minusWeeks(1);
-                LocalDate today = LocalDate.now();
-
-                Specification<Attendance> spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
-                                criteriaBuilder.or(
-                                                criteriaBuilder.and(
-                                                                criteriaBuilder.equal(root.get(
-                                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED),
-                                                                                true),
-                                                                criteriaBuilder.equal(root.get(
-                                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED),
-                                                                                false)),
-                                                criteriaBuilder.and(
-                                                                criteriaBuilder.equal(root.get(
-                                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED),
-                                                                                false),
-                                                                criteriaBuilder.equal(root.get(
-                                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED),
-                                                                                true))),
-                                criteriaBuilder.between(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_STATUS),
-                                                oneWeekAgo, today));
-
-                List<Attendance> attendanceList = attendanceRepository.findAll(spec);
-
-                if (attendanceList.isEmpty()) {
-                        throw new AttendanceNotFoundException(
-                                        "No attendance records found with conflicts for the past one week");
-                }
-
-                return attendanceList.stream()
-                                .map(attendanceMapper::attendanceToDTO)
-                                .toList();
+                return findIssues(AttendanceIssue.CONFLICT, LocalDate.now().minusWeeks(1),
+                                "No attendance records found with conflicts for the past one week");
         }
 
         @Transactional(readOnly = true)
@@ -327,39 +261,8 @@ public class AttendanceServiceImpl implements AttendanceService {
 
                         logger.info("Fetching attendance records with conflicts for the past two weeks");
                 }
-
-                LocalDate twoWeeksAgo = LocalDate.now().minusWeeks(2);
-                LocalDate today = LocalDate.now();
-
-                Specification<Attendance> spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
-                                criteriaBuilder.or(
-                                                criteriaBuilder.and(
-                                                                criteriaBuilder.equal(root.get(
-                                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED),
-                                                                                true),
-                                                                criteriaBuilder.equal(root.get(
-                                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED),
-                                                                                false)),
-                                                criteriaBuilder.and(
-                                                                criteriaBuilder.equal(root.get(
-                                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED),
-                                                                                false),
-                                                                criteriaBuilder.equal(root.get(
-                                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED),
-                                                                                true))),
-                                criteriaBuilder.between(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_STATUS),
-                                                twoWeeksAgo, today));
-
-                List<Attendance> attendanceList = attendanceRepository.findAll(spec);
-
-                if (attendanceList.isEmpty()) {
-                        throw new AttendanceNotFoundException(
-                                        "No attendance records found with conflicts for the past two weeks");
-                }
-
-                return attendanceList.stream()
-                                .map(attendanceMapper::attendanceToDTO)
-                                .toList();
+                return findIssues(AttendanceIssue.CONFLICT, LocalDate.now().minusWeeks(2),
+                                "No attendance records found with conflicts for the past two weeks");
         }
 
         // Conflict for one month
@@ -369,39 +272,8 @@ public class AttendanceServiceImpl implements AttendanceService {
 
                         logger.info("Fetching attendance records with conflicts for the past one month");
                 }
-
-                LocalDate oneMonthAgo = LocalDate.now().minusMonths(1);
-                LocalDate today = LocalDate.now();
-
-                Specification<Attendance> spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
-                                criteriaBuilder.or(
-                                                criteriaBuilder.and(
-                                                                criteriaBuilder.equal(root.get(
-                                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED),
-                                                                                true),
-                                                                criteriaBuilder.equal(root.get(
-                                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED),
-                                                                                false)),
-                                                criteriaBuilder.and(
-                                                                criteriaBuilder.equal(root.get(
-                                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED),
-                                                                                false),
-                                                                criteriaBuilder.equal(root.get(
-                                                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED),
-                                                                                true))),
-                                criteriaBuilder.between(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_STATUS),
-                                                oneMonthAgo, today));
-
-                List<Attendance> attendanceList = attendanceRepository.findAll(spec);
-
-                if (attendanceList.isEmpty()) {
-                        throw new AttendanceNotFoundException(
-                                        "No attendance records found with conflicts for the past one month");
-                }
-
-                return attendanceList.stream()
-                                .map(attendanceMapper::attendanceToDTO)
-                                .toList();
+                return findIssues(AttendanceIssue.CONFLICT, LocalDate.now().minusMonths(1),
+                                "No attendance records found with conflicts for the past one month");
         }
 
         @Override
@@ -412,22 +284,10 @@ public class AttendanceServiceImpl implements AttendanceService {
                         logger.info("Fetching attendance records where {} is false",
                                         ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED);
                 }
-
-                Specification<Attendance> spec = (root, query, criteriaBuilder) -> criteriaBuilder
-                                .equal(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED), false);
-
-                List<Attendance> attendanceList = attendanceRepository.findAll(spec);
-
-                if (attendanceList.isEmpty()) {
-                        throw new AttendanceNotFoundException(
-                                        ServiceProviderConstants.NO_ATTENDANCE_FOUND_PREFIX +
-                                                        ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED
-                                                        + " is false.");
-                }
-
-                return attendanceList.stream()
-                                .map(attendanceMapper::attendanceToDTO)
-                                .toList();
+                return findIssues(AttendanceIssue.CUSTOMER_NOT_AGREED, null,
+                                ServiceProviderConstants.NO_ATTENDANCE_FOUND_PREFIX +
+                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED
+                                                + " is false.");
         }
 
         // Customer not agreed for today
@@ -438,29 +298,10 @@ public class AttendanceServiceImpl implements AttendanceService {
                         logger.info("Fetching attendance records where {} is false for today",
                                         ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED);
                 }
-
-                LocalDate today = LocalDate.now();
-                LocalDate startOfDay = today.atStartOfDay().toLocalDate();
-                LocalDate endOfDay = today.plusDays(1).atStartOfDay().toLocalDate();
-
-                Specification<Attendance> spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
-                                criteriaBuilder.equal(
-                                                root.get(ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED),
-                                                false),
-                                criteriaBuilder.between(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_STATUS),
-                                                startOfDay, endOfDay));
-
-                List<Attendance> attendanceList = attendanceRepository.findAll(spec);
-
-                if (attendanceList.isEmpty()) {
-                        throw new AttendanceNotFoundException("No attendance records found where " +
-                                        ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED
-                                        + " is false for today.");
-                }
-
-                return attendanceList.stream()
-                                .map(attendanceMapper::attendanceToDTO)
-                                .toList();
+                return findIssues(AttendanceIssue.CUSTOMER_NOT_AGREED, LocalDate.now(),
+                                ServiceProviderConstants.NO_ATTENDANCE_RECORDS_FOUND +
+                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED
+                                                + " is false for today.");
         }
 
         // Customer not agreed for one week
@@ -471,29 +312,10 @@ public class AttendanceServiceImpl implements AttendanceService {
                         logger.info("Fetching attendance records where {} is false for the past week",
                                         ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED);
                 }
-
-                LocalDate today = LocalDate.now();
-                LocalDate startOfWeek = today.minusWeeks(1);
-                LocalDate endOfDay = today.atStartOfDay().toLocalDate();
-
-                Specification<Attendance> spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
-                                criteriaBuilder.equal(
-                                                root.get(ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED),
-                                                false),
-                                criteriaBuilder.between(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_STATUS),
-                                                startOfWeek, endOfDay));
-
-                List<Attendance> attendanceList = attendanceRepository.findAll(spec);
-
-                if (attendanceList.isEmpty()) {
-                        throw new AttendanceNotFoundException("No attendance records found where " +
-                                        ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED
-                                        + " is false for the past week.");
-                }
-
-                return attendanceList.stream()
-                                .map(attendanceMapper::attendanceToDTO)
-                                .toList();
+                return findIssues(AttendanceIssue.CUSTOMER_NOT_AGREED, LocalDate.now().minusWeeks(1),
+                                ServiceProviderConstants.NO_ATTENDANCE_RECORDS_FOUND +
+                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED
+                                                + " is false for the past week.");
         }
 
         // For two weeks customer not agreed
@@ -504,29 +326,10 @@ public class AttendanceServiceImpl implements AttendanceService {
                         logger.info("Fetching attendance records where {} is false for the past two weeks",
                                         ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED);
                 }
-                LocalDate today = LocalDate.now();
-                LocalDate startOfTwoWeeks = today.minusWeeks(2); // Two weeks ago
-                LocalDate endOfDay = today.atStartOfDay().toLocalDate(); // Today (end of the range)
-
-                Specification<Attendance> spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
-                                criteriaBuilder.equal(
-                                                root.get(ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED),
-                                                false),
-                                criteriaBuilder.between(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_STATUS),
-                                                startOfTwoWeeks, endOfDay));
-
-                List<Attendance> attendanceList = attendanceRepository.findAll(spec);
-
-                if (attendanceList.isEmpty()) {
-                        throw new AttendanceNotFoundException(
-                                        ServiceProviderConstants.NO_ATTENDANCE_RECORDS_FOUND +
-                                                        ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED
-                                                        + " is false for the past two weeks.");
-                }
-
-                return attendanceList.stream()
-                                .map(attendanceMapper::attendanceToDTO)
-                                .toList();
+                return findIssues(AttendanceIssue.CUSTOMER_NOT_AGREED, LocalDate.now().minusWeeks(2),
+                                ServiceProviderConstants.NO_ATTENDANCE_RECORDS_FOUND +
+                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED
+                                                + " is false for the past two weeks.");
         }
 
         // For one month customer not agreed
@@ -537,30 +340,10 @@ public class AttendanceServiceImpl implements AttendanceService {
                         logger.info("Fetching attendance records where {} is false for the past month",
                                         ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED);
                 }
-                LocalDate today = LocalDate.now();
-                // Here, using one month ago as the start date.
-                LocalDate startOfMonth = today.minusMonths(1);
-                LocalDate endOfDay = today.atStartOfDay().toLocalDate(); // Today (end of the range)
-
-                Specification<Attendance> spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
-                                criteriaBuilder.equal(
-                                                root.get(ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED),
-                                                false),
-                                criteriaBuilder.between(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_STATUS),
-                                                startOfMonth, endOfDay));
-
-                List<Attendance> attendanceList = attendanceRepository.findAll(spec);
-
-                if (attendanceList.isEmpty()) {
-                        throw new AttendanceNotFoundException(
-                                        ServiceProviderConstants.NO_ATTENDANCE_RECORDS_FOUND +
-                                                        ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED
-                                                        + " is false for the past month.");
-                }
-
-                return attendanceList.stream()
-                                .map(attendanceMapper::attendanceToDTO)
-                                .toList();
+                return findIssues(AttendanceIssue.CUSTOMER_NOT_AGREED, LocalDate.now().minusMonths(1),
+                                ServiceProviderConstants.NO_ATTENDANCE_RECORDS_FOUND +
+                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_CUSTOMER_AGREED
+                                                + " is false for the past month.");
         }
 
         // For service provider not agreed (i.e. not attended records)
@@ -572,21 +355,10 @@ public class AttendanceServiceImpl implements AttendanceService {
                         logger.info("Fetching attendance records where {} is false",
                                         ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED);
                 }
-                Specification<Attendance> spec = (root, query, criteriaBuilder) -> criteriaBuilder
-                                .equal(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED), false);
-
-                List<Attendance> attendanceList = attendanceRepository.findAll(spec);
-
-                if (attendanceList.isEmpty()) {
-                        throw new AttendanceNotFoundException(
-                                        ServiceProviderConstants.NO_ATTENDANCE_RECORDS_FOUND +
-                                                        ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED
-                                                        + " is false.");
-                }
-
-                return attendanceList.stream()
-                                .map(attendanceMapper::attendanceToDTO)
-                                .toList();
+                return findIssues(AttendanceIssue.NOT_ATTENDED, null,
+                                ServiceProviderConstants.NO_ATTENDANCE_RECORDS_FOUND +
+                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED
+                                                + " is false.");
         }
 
         // serviceprovider not agreed for today
@@ -598,28 +370,10 @@ public class AttendanceServiceImpl implements AttendanceService {
                         logger.info("Fetching attendance records where {} is false for today",
                                         ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED);
                 }
-                LocalDate today = LocalDate.now();
-                LocalDate startOfDay = today.atStartOfDay().toLocalDate();
-                LocalDate endOfDay = today.plusDays(1).atStartOfDay().toLocalDate();
-
-                Specification<Attendance> spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
-                                criteriaBuilder.equal(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED),
-                                                false),
-                                criteriaBuilder.between(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_STATUS),
-                                                startOfDay, endOfDay));
-
-                List<Attendance> attendanceList = attendanceRepository.findAll(spec);
-
-                if (attendanceList.isEmpty()) {
-                        throw new AttendanceNotFoundException(
-                                        ServiceProviderConstants.NO_ATTENDANCE_RECORDS_FOUND +
-                                                        ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED
-                                                        + " is false for today.");
-                }
-
-                return attendanceList.stream()
-                                .map(attendanceMapper::attendanceToDTO)
-                                .toList();
+                return findIssues(AttendanceIssue.NOT_ATTENDED, LocalDate.now(),
+                                ServiceProviderConstants.NO_ATTENDANCE_RECORDS_FOUND +
+                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED
+                                                + " is false for today.");
         }
 
         // for one week
@@ -631,28 +385,10 @@ public class AttendanceServiceImpl implements AttendanceService {
                         logger.info("Fetching attendance records where {} is false for the past week",
                                         ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED);
                 }
-                LocalDate today = LocalDate.now();
-                LocalDate startOfWeek = today.minusWeeks(1).atStartOfDay().toLocalDate();
-                LocalDate endOfWeek = today.plusDays(1).atStartOfDay().toLocalDate();
-
-                Specification<Attendance> spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
-                                criteriaBuilder.equal(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED),
-                                                false),
-                                criteriaBuilder.between(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_STATUS),
-                                                startOfWeek, endOfWeek));
-
-                List<Attendance> attendanceList = attendanceRepository.findAll(spec);
-
-                if (attendanceList.isEmpty()) {
-                        throw new AttendanceNotFoundException(
-                                        ServiceProviderConstants.NO_ATTENDANCE_RECORDS_FOUND +
-                                                        ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED
-                                                        + " is false for the past week.");
-                }
-
-                return attendanceList.stream()
-                                .map(attendanceMapper::attendanceToDTO)
-                                .toList();
+                return findIssues(AttendanceIssue.NOT_ATTENDED, LocalDate.now().minusWeeks(1),
+                                ServiceProviderConstants.NO_ATTENDANCE_RECORDS_FOUND +
+                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED
+                                                + " is false for the past week.");
         }
 
         // for two weeks
@@ -664,28 +400,10 @@ public class AttendanceServiceImpl implements AttendanceService {
                         logger.info("Fetching attendance records where {} is false for the past two weeks",
                                         ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED);
                 }
-                LocalDate today = LocalDate.now();
-                LocalDate startOfTwoWeeks = today.minusWeeks(2).atStartOfDay().toLocalDate();
-                LocalDate endOfTwoWeeks = today.plusDays(1).atStartOfDay().toLocalDate();
-
-                Specification<Attendance> spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
-                                criteriaBuilder.equal(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED),
-                                                false),
-                                criteriaBuilder.between(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_STATUS),
-                                                startOfTwoWeeks, endOfTwoWeeks));
-
-                List<Attendance> attendanceList = attendanceRepository.findAll(spec);
-
-                if (attendanceList.isEmpty()) {
-                        throw new AttendanceNotFoundException(
-                                        ServiceProviderConstants.NO_ATTENDANCE_RECORDS_FOUND +
-                                                        ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED
-                                                        + " is false for the past two weeks.");
-                }
-
-                return attendanceList.stream()
-                                .map(attendanceMapper::attendanceToDTO)
-                                .toList();
+                return findIssues(AttendanceIssue.NOT_ATTENDED, LocalDate.now().minusWeeks(2),
+                                ServiceProviderConstants.NO_ATTENDANCE_RECORDS_FOUND +
+                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED
+                                                + " is false for the past two weeks.");
         }
 
         // for one month
@@ -697,28 +415,30 @@ public class AttendanceServiceImpl implements AttendanceService {
                         logger.info("Fetching attendance records where {} is false for the past month",
                                         ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED);
                 }
-                LocalDate today = LocalDate.now();
-                LocalDate startOfMonth = today.minusMonths(1).atStartOfDay().toLocalDate();
-                LocalDate endOfMonth = today.plusDays(1).atStartOfDay().toLocalDate();
-
-                Specification<Attendance> spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
-                                criteriaBuilder.equal(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED),
-                                                false),
-                                criteriaBuilder.between(root.get(ServiceProviderConstants.ATTENDANCE_FIELD_STATUS),
-                                                startOfMonth, endOfMonth));
+                return findIssues(AttendanceIssue.NOT_ATTENDED, LocalDate.now().minusMonths(1),
+                                ServiceProviderConstants.NO_ATTENDANCE_RECORDS_FOUND +
+                                                ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED
+                                                + " is false for the past month.");
+        }
 
-                List<Attendance> attendanceList = attendanceRepository.findAll(spec);
+        // Records with the issue from the start of fromDay (or ever, when null)
+        // through the end of today. Conflicts come from the conflict feed kept by
+        // AttendanceConflictScheduler, so they trail live data by up to one scan.
+        private List<AttendanceDTO> findIssues(AttendanceIssue issue, LocalDate fromDay, String notFoundMessage) {
+                LocalDateTime from = fromDay != null ? fromDay.atStartOfDay() : null;
+                LocalDateTime to = fromDay != null ? LocalDate.now().plusDays(1).atStartOfDay() : null;
+                List<AttendanceDTO> attendanceList;
+                if (issue == AttendanceIssue.CONFLICT) {
+                        attendanceList = from != null ? attendanceConflictRepository.findOpenBetween(from, to)
+                                        : attendanceConflictRepository.findOpen();
+                } else {
+                        attendanceList = attendanceQueryEngine.findAll(issue, from, to);
+                }
 
                 if (attendanceList.isEmpty()) {
-                        throw new AttendanceNotFoundException(
-                                        ServiceProviderConstants.NO_ATTENDANCE_RECORDS_FOUND +
-                                                        ServiceProviderConstants.ATTENDANCE_FIELD_IS_ATTENDED
-                                                        + " is false for the past month.");
+                        throw new AttendanceNotFoundException(notFoundMessage);
                 }
-
-                return attendanceList.stream()
-                                .map(attendanceMapper::attendanceToDTO)
-                                .toList();
+                return attendanceList;
         }
 
 }
@@ -0,0 +1,176 @@
+package com.springboot.app.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.springboot.app.dto.CursorPageDTO;
+import com.springboot.app.dto.SchedulerRunDTO;
+import com.springboot.app.entity.SchedulerRun;
+import com.springboot.app.enums.SchedulerRunStatus;
+import com.springboot.app.exception.LeaseLostException;
+import com.springboot.app.repository.SchedulerRunRepository;
+import com.springboot.app.util.KeysetCursor;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs scheduled jobs as cluster singletons and keeps their run history.
+ *
+ * Every node triggers its @Scheduled methods as usual; {@link #run} lets the
+ * job go ahead only on the node that takes its lease, and skips it elsewhere.
+ * While the job runs the lease is renewed in the background every third of
+ * its time to live. Jobs pass the lease to {@link SchedulerLeaseService#fence}
+ * in each transaction they commit, so a node that lost the lease rolls back
+ * instead of writing twice.
+ *
+ * Each execution is recorded in scheduler_run with its duration and the
+ * number of rows the job reports having touched.
+ */
+@Service
+public class ClusterJobRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterJobRunner.class);
+
+    private static final String RUNS_CURSOR = "scheduler-runs";
+
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    /** A job body: does its work under the lease and returns the number of rows it touched. */
+    @FunctionalInterface
+    public interface Job {
+        long run(SchedulerLeaseService.Lease lease);
+    }
+
+    private final SchedulerLeaseService leaseService;
+    private final SchedulerRunRepository runRepository;
+    private final Duration leaseTtl;
+    private final int retentionDays;
+
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "scheduler-lease-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ClusterJobRunner(SchedulerLeaseService leaseService,
+            SchedulerRunRepository runRepository,
+            @Value("${scheduler.lease.ttl-ms:120000}") long leaseTtlMillis,
+            @Value("${scheduler.runs.retention-days:30}") int retentionDays) {
+        this.leaseService = leaseService;
+        this.runRepository = runRepository;
+        this.leaseTtl = Duration.ofMillis(leaseTtlMillis);
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Runs the job if this node takes its lease. Returns whether it ran here;
+     * failures are logged and recorded in the run history, not rethrown.
+     */
+    public boolean run(String jobName, Job job) {
+        Optional<SchedulerLeaseService.Lease> acquired = leaseService.tryAcquire(jobName, leaseTtl);
+        if (acquired.isEmpty()) {
+            return false;
+        }
+        SchedulerLeaseService.Lease lease = acquired.get();
+
+        SchedulerRun run = new SchedulerRun();
+        run.setJobName(jobName);
+        run.setOwner(leaseService.getOwnerId());
+        run.setFencingToken(lease.token());
+        run.setStatus(SchedulerRunStatus.RUNNING);
+        run.setStartedAt(new Timestamp(System.currentTimeMillis()));
+        run = runRepository.save(run);
+
+        long renewMillis = Math.max(1, leaseTtl.toMillis() / 3);
+        ScheduledFuture<?> renewal = renewer.scheduleAtFixedRate(() -> renew(lease), renewMillis, renewMillis,
+                TimeUnit.MILLISECONDS);
+        long started = System.nanoTime();
+        try {
+            run.setRowsTouched(job.run(lease));
+            run.setStatus(SchedulerRunStatus.SUCCEEDED);
+        } catch (LeaseLostException e) {
+            run.setStatus(SchedulerRunStatus.LEASE_LOST);
+            run.setMessage(truncate(e.getMessage()));
+            logger.warn("Job {} stopped: {}", jobName, e.getMessage());
+        } catch (RuntimeException e) {
+            run.setStatus(SchedulerRunStatus.FAILED);
+            run.setMessage(truncate(String.valueOf(e)));
+            logger.error("Job {} failed", jobName, e);
+        } finally {
+            renewal.cancel(false);
+            run.setDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            run.setFinishedAt(new Timestamp(System.currentTimeMillis()));
+            runRepository.save(run);
+            leaseService.release(lease);
+        }
+
+        if (logger.isInfoEnabled()) {
+            logger.info("Job {} {} in {} ms, {} rows touched", jobName, run.getStatus(), run.getDurationMs(),
+                    run.getRowsTouched());
+        }
+        return true;
+    }
+
+    /** Run history, newest first, optionally of one job. */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SchedulerRunDTO> getRuns(String jobName, String cursor, int size) {
+        Long beforeId = KeysetCursor.decodeId(cursor, RUNS_CURSOR);
+        List<SchedulerRun> rows = runRepository.findPage(jobName, beforeId, PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+        String nextCursor = hasMore ? KeysetCursor.encode(RUNS_CURSOR, rows.get(rows.size() - 1).getId()) : null;
+        return new CursorPageDTO<>(rows.stream().map(ClusterJobRunner::toDTO).toList(), nextCursor);
+    }
+
+    @Scheduled(cron = "${scheduler.runs.purge-cron:0 15 3 * * ?}")
+    @Transactional
+    public void purgeRunHistory() {
+        int deleted = runRepository.deleteStartedBefore(
+                new Timestamp(System.currentTimeMillis() - Duration.ofDays(retentionDays).toMillis()));
+        if (deleted > 0 && logger.isInfoEnabled()) {
+            logger.info("Purged {} scheduler runs older than {} days", deleted, retentionDays);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renewer.shutdownNow();
+    }
+
+    private void renew(SchedulerLeaseService.Lease lease) {
+        try {
+            if (!leaseService.renew(lease)) {
+                logger.warn("Lease {} with token {} could not be renewed", lease.name(), lease.token());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to renew lease {}", lease.name(), e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= MAX_MESSAGE_LENGTH ? message
+                : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    private static SchedulerRunDTO toDTO(SchedulerRun run) {
+        return new SchedulerRunDTO(run.getId(), run.getJobName(), run.getOwner(), run.getFencingToken(),
+                run.getStatus().name(), run.getStartedAt(), run.getFinishedAt(), run.getDurationMs(),
+                run.getRowsTouched(), run.getMessage());
+    }
+}
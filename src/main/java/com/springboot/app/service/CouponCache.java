@@ -0,0 +1,213 @@
+package com.springboot.app.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.springboot.app.entity.Coupon;
+import com.springboot.app.repository.CouponRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded, least-recently-used read-through cache of coupons, looked up by id
+ * or by code.
+ *
+ * An entry expires after a fixed time, or sooner when the coupon's start or
+ * expiry date passes, so a coupon never outlives the validity it was cached
+ * with. {@link CouponServiceImpl} evicts coupons it writes. Cached coupons are
+ * detached and shared; callers must not modify them.
+ *
+ * Hits, misses and evictions are published as coupon.cache.* metrics.
+ */
+@Component
+public class CouponCache {
+
+    private record Entry(Coupon coupon, long expiresAt) {
+    }
+
+    private final CouponRepository couponRepository;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<Long, Entry> entries;
+    // Upper-cased coupon code to id, for the entries above
+    private final Map<String, Long> idsByCode = new HashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter expiredEvictions;
+    private final Counter sizeEvictions;
+    private final Counter invalidations;
+
+    public CouponCache(CouponRepository couponRepository, MeterRegistry meterRegistry,
+            @Value("${coupon.cache.max-entries:1000}") int maxEntries,
+            @Value("${coupon.cache.ttl-ms:600000}") long ttlMillis) {
+        this.couponRepository = couponRepository;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() <= CouponCache.this.maxEntries) {
+                    return false;
+                }
+                idsByCode.remove(codeKey(eldest.getValue().coupon().getCouponCode()), eldest.getKey());
+                sizeEvictions.increment();
+                return true;
+            }
+        };
+
+        this.hits = meterRegistry.counter("coupon.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("coupon.cache.requests", "result", "miss");
+        this.expiredEvictions = meterRegistry.counter("coupon.cache.evictions", "cause", "expired");
+        this.sizeEvictions = meterRegistry.counter("coupon.cache.evictions", "cause", "size");
+        this.invalidations = meterRegistry.counter("coupon.cache.evictions", "cause", "invalidated");
+        Gauge.builder("coupon.cache.size", this, CouponCache::size)
+                .description("Coupons currently cached")
+                .register(meterRegistry);
+    }
+
+    public Optional<Coupon> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Coupon cached = get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Coupon> coupon = couponRepository.findById(id);
+        coupon.ifPresent(found -> put(found, false));
+        return coupon;
+    }
+
+    /** Looks a coupon up by its code, ignoring case as the code lookup always has. */
+    public Optional<Coupon> findByCode(String code) {
+        if (code == null || code.isEmpty()) {
+            return Optional.empty();
+        }
+        Coupon cached = getByCode(codeKey(code));
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Coupon> coupon = couponRepository.findFirstByCouponCodeIgnoreCaseOrderByIdAsc(code);
+        coupon.ifPresent(found -> put(found, true));
+        return coupon;
+    }
+
+    /**
+     * Drops the cached coupon now and again once the surrounding transaction
+     * commits, so a lookup racing with the write cannot re-cache the old row.
+     */
+    public void evict(Long id) {
+        if (id == null) {
+            return;
+        }
+        remove(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(id);
+                }
+            });
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized Coupon get(Long id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(id);
+            idsByCode.remove(codeKey(entry.coupon().getCouponCode()), id);
+            expiredEvictions.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.coupon();
+    }
+
+    private synchronized Coupon getByCode(String code) {
+        Long id = idsByCode.get(code);
+        if (id == null) {
+            misses.increment();
+            return null;
+        }
+        return get(id);
+    }
+
+    // Only a code lookup maps the code, so the code keeps resolving to the
+    // coupon the database returns for it when several differ only in case
+    private synchronized void put(Coupon coupon, boolean byCode) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        Entry previous = entries.put(coupon.getId(), new Entry(coupon, expiresAt(coupon)));
+        if (previous != null) {
+            idsByCode.remove(codeKey(previous.coupon().getCouponCode()), coupon.getId());
+        }
+        if (byCode) {
+            idsByCode.put(codeKey(coupon.getCouponCode()), coupon.getId());
+        }
+    }
+
+    private synchronized void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            idsByCode.remove(codeKey(entry.coupon().getCouponCode()), id);
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * The TTL, cut short at the next validity boundary: the start date of a
+     * coupon that is not active yet, or the end of its expiry date.
+     */
+    private long expiresAt(Coupon coupon) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMillis;
+        Long startsAt = startOfDay(coupon.getStartDate(), 0);
+        Long endsAt = startOfDay(coupon.getExpiryDate(), 1);
+        if (startsAt != null && startsAt > now) {
+            expiresAt = Math.min(expiresAt, startsAt);
+        } else if (endsAt != null && endsAt > now) {
+            expiresAt = Math.min(expiresAt, endsAt);
+        }
+        return expiresAt;
+    }
+
+    // Codes that differ only in case share a key, as they share a database match
+    private static String codeKey(String code) {
+        return code == null ? null : code.toUpperCase(Locale.ROOT);
+    }
+
+    // Start of the given date plus the given number of days, in the server time zone
+    private static Long startOfDay(Date date, int plusDays) {
+        if (date == null) {
+            return null;
+        }
+        // java.sql.Date does not support toInstant()
+        LocalDate day = Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+        return day.plusDays(plusDays).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -23,11 +23,13 @@ public class CouponServiceImpl implements CouponService {
 
     private final CouponRepository couponRepository;
     private final CouponMapper couponMapper;
+    private final CouponCache couponCache;
 
     @Autowired
-    public CouponServiceImpl(CouponRepository couponRepository, CouponMapper couponMapper) {
+    public CouponServiceImpl(CouponRepository couponRepository, CouponMapper couponMapper, CouponCache couponCache) {
         this.couponRepository = couponRepository;
         this.couponMapper = couponMapper;
+        this.couponCache = couponCache;
     }
 
     @Override
@@ -56,7 +58,7 @@ public class CouponServiceImpl implements CouponService {
             logger.info("Fetching coupon by ID: {}", id);
         }
 
-        return couponRepository.findById(id)
+        return couponCache.findById(id)
                 .map(couponMapper::couponToDTO)
                 .orElse(null);
     }
@@ -90,6 +92,7 @@ public class CouponServiceImpl implements CouponService {
                     updated.setCreatedOn(existing.getCreatedOn()); // preserve created date
                     updated.setModifiedOn(new Date());
                     couponRepository.save(updated);
+                    couponCache.evict(id);
 
                     if (logger.isInfoEnabled()) {
                         logger.info("Coupon updated with ID: {}", id);
@@ -117,6 +120,7 @@ public class CouponServiceImpl implements CouponService {
                     coupon.setIsValid(0); // Soft delete by marking invalid
                     coupon.setModifiedOn(new Date()); // Optionally update modified date
                     couponRepository.save(coupon);
+                    couponCache.evict(id);
 
                     if (logger.isInfoEnabled()) {
                         logger.info("Coupon marked as invalid with ID: {}", id);
@@ -138,10 +142,7 @@ public class CouponServiceImpl implements CouponService {
             logger.info("Fetching coupon by code: {}", code);
         }
 
-        return couponRepository.findAll()
-                .stream()
-                .filter(c -> c.getCouponCode().equalsIgnoreCase(code))
-                .findFirst()
+        return couponCache.findByCode(code)
                 .map(couponMapper::couponToDTO)
                 .orElseGet(() -> {
                     if (logger.isErrorEnabled()) {
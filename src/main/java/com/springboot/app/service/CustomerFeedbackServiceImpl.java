@@ -6,6 +6,7 @@ import com.springboot.app.constant.CustomerConstants;
 import com.springboot.app.dto.CustomerFeedbackDTO;
 import com.springboot.app.entity.CustomerFeedback;
 import com.springboot.app.entity.ServiceProvider;
+import com.springboot.app.enums.RatingSubject;
 import com.springboot.app.mapper.CustomerFeedbackMapper;
 import com.springboot.app.repository.CustomerFeedbackRepository;
 import com.springboot.app.repository.ServiceProviderRepository;
@@ -25,14 +26,17 @@ public class CustomerFeedbackServiceImpl implements CustomerFeedbackService {
     private final CustomerFeedbackRepository customerFeedbackRepository;
     private final CustomerFeedbackMapper customerFeedbackMapper;
     private final ServiceProviderRepository serviceProviderRepository;
+    private final RatingAggregator ratingAggregator;
 
     // Constructor injection
     public CustomerFeedbackServiceImpl(CustomerFeedbackRepository customerFeedbackRepository,
             CustomerFeedbackMapper customerFeedbackMapper,
-            ServiceProviderRepository serviceProviderRepository) {
+            ServiceProviderRepository serviceProviderRepository,
+            RatingAggregator ratingAggregator) {
         this.customerFeedbackRepository = customerFeedbackRepository;
         this.customerFeedbackMapper = customerFeedbackMapper;
         this.serviceProviderRepository = serviceProviderRepository;
+        this.ratingAggregator = ratingAggregator;
     }
 
     @Override
@@ -124,23 +128,9 @@ public class CustomerFeedbackServiceImpl implements CustomerFeedbackService {
             logger.debug("Persisted new feedback for ServiceProvider ID: {}",
                     customerFeedbackDTO.getServiceProviderId());
         }
-        // Fetch all feedbacks for the ServiceProvider
-        List<CustomerFeedback> providerFeedbacks = customerFeedbackRepository
-                .findByServiceProviderServiceproviderId(customerFeedbackDTO.getServiceProviderId());
-
-        // Fetch all feedbacks for the ServiceProvider
-        // List<CustomerFeedback> providerFeedbacks = customerFeedbackRepository
-
-        // Calculate the average rating
-        double totalRating = providerFeedbacks.stream()
-                .mapToDouble(CustomerFeedback::getRating)
-                .sum();
-        double averageRating = providerFeedbacks.isEmpty() ? feedback.getRating()
-                : totalRating / providerFeedbacks.size();
-        serviceProvider.setRating(averageRating);
-
-        // Save updated ServiceProvider
-        serviceProviderRepository.save(serviceProvider);
+        // Fold the rating into the provider's running totals and refresh its average
+        double averageRating = ratingAggregator.addRating(RatingSubject.SERVICE_PROVIDER,
+                serviceProvider.getServiceproviderId(), feedback.getRating());
         if (logger.isInfoEnabled()) {
             logger.info("Updated ServiceProvider rating to: {}", averageRating);
         }
@@ -154,8 +144,11 @@ public class CustomerFeedbackServiceImpl implements CustomerFeedbackService {
         if (logger.isInfoEnabled()) {
             logger.info("Deleting feedback with ID: {}", feedbackId);
         }
-        if (customerFeedbackRepository.existsById(feedbackId)) {
-            customerFeedbackRepository.deleteById(feedbackId);
+        CustomerFeedback feedback = customerFeedbackRepository.findById(feedbackId).orElse(null);
+        if (feedback != null) {
+            customerFeedbackRepository.delete(feedback);
+            ratingAggregator.removeRating(RatingSubject.SERVICE_PROVIDER,
+                    feedback.getServiceProvider().getServiceproviderId(), feedback.getRating());
             if (logger.isDebugEnabled()) {
                 logger.debug("Deleted feedback with ID: {}", feedbackId);
             }
@@ -34,6 +34,10 @@ public interface CustomerPaymentService {
                         LocalDate startDate_P, LocalDate endDate_P,
                         PaymentMode paymentMode, Long couponId, HousekeepingRole serviceType);
 
+        // Month-end invoicing: payments for many engagements over one period
+        List<CustomerPaymentDTO> calculatePayments(List<Long> engagementIds, LocalDate startDate_P,
+                        LocalDate endDate_P);
+
         // List<CustomerPaymentDTO> getPaymentsByDateRange(Date startDate, Date
         // endDate);
 
@@ -6,7 +6,6 @@ import com.springboot.app.dto.CustomerPaymentDTO;
 import com.springboot.app.entity.Coupon;
 import com.springboot.app.entity.Customer;
 import com.springboot.app.entity.CustomerCouponId;
-import com.springboot.app.entity.CustomerHolidays;
 import com.springboot.app.entity.CustomerPayment;
 import com.springboot.app.entity.CustomerUsedCoupon;
 import com.springboot.app.entity.ServiceProviderEngagement;
@@ -20,6 +19,7 @@ import com.springboot.app.repository.CustomerPaymentRepository;
 import com.springboot.app.repository.CustomerRepository;
 import com.springboot.app.repository.CustomerUsedCouponRepository;
 import com.springboot.app.repository.ServiceProviderEngagementRepository;
+import com.springboot.app.util.DiscountTiers;
 
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
@@ -31,6 +31,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -46,6 +47,9 @@ public class CustomerPaymentServiceImpl implements CustomerPaymentService {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerPaymentServiceImpl.class);
 
+    // Engagements loaded per query by calculatePayments
+    private static final int BATCH_SIZE = 500;
+
     private final CustomerRepository customerRepository;
     private final CustomerHolidaysRepository customerHolidaysRepository;
     private final CustomerPaymentRepository customerPaymentRepository;
@@ -53,6 +57,7 @@ public class CustomerPaymentServiceImpl implements CustomerPaymentService {
     private final CustomerUsedCouponRepository customerUsedCouponRepository;
     private final ServiceProviderEngagementRepository engagementRepository;
     private final CouponRepository couponRepository;
+    private final CouponCache couponCache;
 
     @Value("${discount.enabled}")
     private boolean isDiscountEnabled;
@@ -66,8 +71,8 @@ public class CustomerPaymentServiceImpl implements CustomerPaymentService {
     // @Value("${discount.range3}")
     // private double discountAbove15;
 
-    @Value("${discount.rules}")
-    private String discountRulesConfig;
+    // Parsed once from discount.rules
+    private final DiscountTiers discountTiers;
 
     public CustomerPaymentServiceImpl(CustomerRepository customerRepository,
             CustomerHolidaysRepository customerHolidaysRepository,
@@ -75,9 +80,9 @@ public class CustomerPaymentServiceImpl implements CustomerPaymentService {
             CustomerPaymentMapper customerPaymentMapper,
             CustomerUsedCouponRepository customerUsedCouponRepository,
             ServiceProviderEngagementRepository engagementRepository,
-            CouponRepository couponRepository
-
-    ) {
+            CouponRepository couponRepository,
+            CouponCache couponCache,
+            @Value("${discount.rules}") String discountRules) {
         this.customerRepository = customerRepository;
         this.customerHolidaysRepository = customerHolidaysRepository;
         this.customerPaymentRepository = customerPaymentRepository;
@@ -85,7 +90,8 @@ public class CustomerPaymentServiceImpl implements CustomerPaymentService {
         this.customerUsedCouponRepository = customerUsedCouponRepository;
         this.engagementRepository = engagementRepository;
         this.couponRepository = couponRepository;
-
+        this.couponCache = couponCache;
+        this.discountTiers = DiscountTiers.parse(discountRules);
     }
 
     @Override
@@ -490,35 +496,25 @@ public class CustomerPaymentServiceImpl implements CustomerPaymentService {
                     .orElseThrow(() -> new EntityNotFoundException("Customer not found"));
         }
 
-        double dailyRate = baseAmount / 30;
+        // ✅ Calculate holidays: only the ones of the service type overlapping the period are read
+        List<Object[]> holidays = customer != null
+                ? customerHolidaysRepository.findActiveSpansForCustomer(customerId, serviceType, startDate_P,
+                        endDate_P)
+                : customerHolidaysRepository.findActiveSpansForEngagement(engagementId, serviceType, startDate_P,
+                        endDate_P);
 
-        // ✅ Calculate holidays
-        List<CustomerHolidays> holidays = (customer != null
-                ? customerHolidaysRepository.findByCustomer_CustomerIdAndIsActive(customerId, true)
-                : customerHolidaysRepository.findByEngagement_IdAndIsActive(engagementId, true))
-                .stream()
-                .filter(h -> h.getServiceType() == serviceType)
-                .filter(h -> !(h.getEndDate().isBefore(startDate_P) || h.getStartDate().isAfter(endDate_P)))
-                .toList();
+        int totalVacationDays = 0;
+        for (Object[] holiday : holidays) {
+            totalVacationDays += daysWithin((LocalDate) holiday[0], (LocalDate) holiday[1], startDate_P, endDate_P);
+        }
 
-        int totalVacationDays = holidays.stream()
-                .mapToInt(h -> {
-                    LocalDate start = h.getStartDate().isBefore(startDate_P) ? startDate_P : h.getStartDate();
-                    LocalDate end = h.getEndDate().isAfter(endDate_P) ? endDate_P : h.getEndDate();
-                    return (int) ChronoUnit.DAYS.between(start, end) + 1;
-                })
-                .sum();
-
-        double discountPercentage = getDiscountPercentage(totalVacationDays);
-        double discountAmount = discountPercentage > 0
-                ? (dailyRate * totalVacationDays) * (discountPercentage / 100)
-                : 0;
+        double discountAmount = holidayDiscount(baseAmount, totalVacationDays);
 
         // ✅ Apply coupon
         double couponDiscount = 0;
         Coupon appliedCoupon = null;
         if (couponId != null) {
-            var couponOpt = couponRepository.findById(couponId);
+            var couponOpt = couponCache.findById(couponId);
             if (couponOpt.isPresent()) {
                 appliedCoupon = couponOpt.get();
                 // Calculate discount from coupon
@@ -535,7 +531,8 @@ public class CustomerPaymentServiceImpl implements CustomerPaymentService {
                     CustomerUsedCoupon usedCoupon = new CustomerUsedCoupon();
                     usedCoupon.setId(compoundId);
                     usedCoupon.setEngagement(engagement);
-                    usedCoupon.setCoupon(appliedCoupon);
+                    // The cached coupon is detached; link the managed reference instead
+                    usedCoupon.setCoupon(couponRepository.getReferenceById(couponId));
                     usedCoupon.setAvailedAmount((int) couponDiscount);
                     usedCoupon.setAvailedOn(new java.sql.Timestamp(System.currentTimeMillis()));
                     // usedCoupon.getAvailedOn(LocalDateTime.now());
@@ -571,19 +568,94 @@ public class CustomerPaymentServiceImpl implements CustomerPaymentService {
                 .build();
     }
 
-    private double getDiscountPercentage(int days) {
-        String[] rules = discountRulesConfig.split(";");
-        for (String rule : rules) {
-            String[] parts = rule.split(",");
-            int minDays = Integer.parseInt(parts[0]);
-            int maxDays = Integer.parseInt(parts[1]);
-            double percentage = Double.parseDouble(parts[2]);
+    /**
+     * Month-end form of calculatePayment for many engagements at once. Each
+     * engagement is billed its monthly amount with its own payment mode and
+     * service type, less the holiday discount; coupons are only applied by
+     * calculatePayment. Engagements and their holidays are read with one query
+     * each per batch of ids, and unknown ids are skipped.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<CustomerPaymentDTO> calculatePayments(List<Long> engagementIds, LocalDate startDate_P,
+            LocalDate endDate_P) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Calculating payments for {} engagements from {} to {}", engagementIds.size(), startDate_P,
+                    endDate_P);
+        }
+        LocalDate paymentMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDateTime generatedOn = LocalDateTime.now();
+        LocalDate paymentOn = LocalDate.now();
+        List<CustomerPaymentDTO> payments = new ArrayList<>(engagementIds.size());
+
+        for (int from = 0; from < engagementIds.size(); from += BATCH_SIZE) {
+            List<Long> batch = engagementIds.subList(from, Math.min(from + BATCH_SIZE, engagementIds.size()));
 
-            if (days >= minDays && days <= maxDays) {
-                return percentage;
+            Map<Long, Object[]> engagements = new HashMap<>();
+            for (Object[] row : engagementRepository.findInvoiceRowsByIdIn(batch)) {
+                engagements.put((Long) row[0], row);
+            }
+
+            // Holiday days per engagement, counting only the engagement's own service type
+            Map<Long, Integer> vacationDays = new HashMap<>();
+            for (Object[] holiday : customerHolidaysRepository.findActiveSpansForEngagements(batch, startDate_P,
+                    endDate_P)) {
+                Object[] engagement = engagements.get((Long) holiday[0]);
+                if (engagement != null && holiday[1] == serviceTypeOf(engagement)) {
+                    vacationDays.merge((Long) holiday[0],
+                            daysWithin((LocalDate) holiday[2], (LocalDate) holiday[3], startDate_P, endDate_P),
+                            Integer::sum);
+                }
+            }
+
+            for (Long engagementId : batch) {
+                Object[] engagement = engagements.get(engagementId);
+                if (engagement == null) {
+                    logger.warn("Skipping payment for unknown engagement ID: {}", engagementId);
+                    continue;
+                }
+                double baseAmount = engagement[2] != null ? (Double) engagement[2] : 0;
+                double discountAmount = holidayDiscount(baseAmount, vacationDays.getOrDefault(engagementId, 0));
+
+                payments.add(CustomerPaymentDTO.builder()
+                        .customerId((Long) engagement[1])
+                        .engagementId(engagementId)
+                        .baseAmount(baseAmount)
+                        .discountAmount(discountAmount)
+                        .couponDiscount(0.0)
+                        .finalAmount(baseAmount - discountAmount)
+                        .paymentMonth(paymentMonth)
+                        .startDate_P(startDate_P)
+                        .endDate_P(endDate_P)
+                        .generatedOn(generatedOn)
+                        .paymentOn(paymentOn)
+                        .transactionId(UUID.randomUUID().toString())
+                        .paymentMode((PaymentMode) engagement[3])
+                        .build());
             }
         }
-        return 0;
+        return payments;
+    }
+
+    private double holidayDiscount(double baseAmount, int vacationDays) {
+        double discountPercentage = discountTiers.percentageFor(vacationDays);
+        double dailyRate = baseAmount / 30;
+        return discountPercentage > 0
+                ? (dailyRate * vacationDays) * (discountPercentage / 100)
+                : 0;
+    }
+
+    // Days of the holiday that fall within the period
+    private static int daysWithin(LocalDate holidayStart, LocalDate holidayEnd, LocalDate startDate_P,
+            LocalDate endDate_P) {
+        LocalDate start = holidayStart.isBefore(startDate_P) ? startDate_P : holidayStart;
+        LocalDate end = holidayEnd.isAfter(endDate_P) ? endDate_P : holidayEnd;
+        return (int) ChronoUnit.DAYS.between(start, end) + 1;
+    }
+
+    // Service type of a findInvoiceRowsByIdIn row
+    private static HousekeepingRole serviceTypeOf(Object[] engagement) {
+        return engagement[4] != null ? (HousekeepingRole) engagement[4] : (HousekeepingRole) engagement[5];
     }
 
     // private double getDiscountPercentage(int days) {
@@ -3,7 +3,9 @@ package com.springboot.app.service;
 import java.util.List;
 import java.util.Map;
 
+import com.springboot.app.dto.CursorPageDTO;
 import com.springboot.app.dto.CustomerRequestDTO;
+import com.springboot.app.enums.BookingBucket;
 import com.springboot.app.enums.Gender;
 import com.springboot.app.enums.HousekeepingRole;
 import com.springboot.app.enums.Status;
@@ -25,7 +27,19 @@ public interface CustomerRequestService {
 
     Map<String, List<CustomerRequestDTO>> getBookingHistory(int page, int size);
 
+    // One booking history bucket at a time, newest first, with its own cursor
+    CursorPageDTO<CustomerRequestDTO> getBookingHistoryBucket(BookingBucket bucket, String cursor, int size);
+
     List<CustomerRequestDTO> getRequestFilters(
             HousekeepingRole housekeepingRole, Gender gender,
             String area, Integer pincode, String locality, String apartment_name, int page, int size);
+
+    // Keyset-paginated listings: pass null for the first page, then the returned nextCursor
+    CursorPageDTO<CustomerRequestDTO> scrollOpenRequests(String cursor, int size);
+
+    CursorPageDTO<CustomerRequestDTO> scrollPotentialCustomers(String cursor, int size);
+
+    CursorPageDTO<CustomerRequestDTO> scrollRequestFilters(
+            HousekeepingRole housekeepingRole, Gender gender,
+            String area, Integer pincode, String locality, String apartment_name, String cursor, int size);
 }
@@ -7,6 +7,9 @@ import java.util.List;
 import java.util.stream.Collectors;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,26 +17,51 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.springboot.app.constant.CustomerConstants;
+import com.springboot.app.dto.CursorPageDTO;
 import com.springboot.app.dto.CustomerRequestDTO;
 import com.springboot.app.entity.CustomerRequest;
+import com.springboot.app.enums.BookingBucket;
 import com.springboot.app.enums.Gender;
 import com.springboot.app.enums.Status;
 import com.springboot.app.enums.HousekeepingRole;
 import com.springboot.app.mapper.CustomerRequestMapper;
 import com.springboot.app.repository.CustomerRequestRepository;
+import com.springboot.app.repository.CustomerRequestSpecifications;
+import com.springboot.app.util.KeysetCursor;
 import java.util.Collections;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
 @Service
 public class CustomerRequestServiceImpl implements CustomerRequestService {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerRequestServiceImpl.class);
 
+    // Listings are ordered by id so page and cursor boundaries are stable
+    private static final Sort BY_REQUEST_ID = Sort.by("requestId");
+
+    // Cursor kinds, so a cursor from one listing is not accepted by another
+    private static final String OPEN_CURSOR = "open";
+    private static final String POTENTIAL_CURSOR = "potential";
+    private static final String FILTER_CURSOR = "filter";
+    private static final String HISTORY_CURSOR_PREFIX = "history-";
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "requestId");
+
     @Autowired
     private CustomerRequestRepository customerRequestRepository;
 
     @Autowired
     private CustomerRequestMapper customerRequestMapper;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     // To get all customer requests
     @Override
     @Transactional(readOnly = true)
@@ -68,13 +96,7 @@ public class CustomerRequestServiceImpl implements CustomerRequestService {
         if (logger.isInfoEnabled()) {
             logger.info("Fetching all open customer requests with pagination - page: {}, size: {}", page, size);
         }
-        // Example of custom query to filter open requests
-        List<CustomerRequest> openRequests = customerRequestRepository.findAll()
-                .stream()
-                .filter(cr -> "NO".equals(cr.getIsResolved())) // Assuming "NO" means open
-                .skip((long) page * size)
-                .limit(size)
-                .toList();
+        List<CustomerRequest> openRequests = findPage(CustomerRequestSpecifications.isOpen(), page, size);
         if (openRequests.isEmpty()) {
             if (logger.isWarnEnabled()) {
                 logger.warn("No open customer requests found for the given criteria.");
@@ -92,13 +114,8 @@ public class CustomerRequestServiceImpl implements CustomerRequestService {
         if (logger.isInfoEnabled()) {
             logger.info("Fetching all potential customers with pagination - page: {}, size: {}", page, size);
         }
-        // Example of custom query to filter potential customers
-        List<CustomerRequest> potentialCustomers = customerRequestRepository.findAll()
-                .stream()
-                .filter(cr -> "YES".equals(cr.getIsPotential())) // Assuming "YES" means potential
-                .skip((long) page * size)
-                .limit(size)
-                .toList();
+        List<CustomerRequest> potentialCustomers = findPage(CustomerRequestSpecifications.isPotential(), page,
+                size);
         if (potentialCustomers.isEmpty()) {
             if (logger.isWarnEnabled()) {
                 logger.warn("No potential customers found for the given criteria.");
@@ -153,20 +170,8 @@ public class CustomerRequestServiceImpl implements CustomerRequestService {
         if (logger.isInfoEnabled()) {
             logger.info("Fetching customer requests with filters");
         }
-              
-                
-        // You can add custom queries here based on filters.
-        List<CustomerRequest> filteredRequests = customerRequestRepository.findAll()
-                .stream()
-                .filter(cr -> (housekeepingRole == null || cr.getHousekeepingRole() == housekeepingRole) &&
-                        (gender == null || cr.getGender() == gender) &&
-                        (area == null || cr.getArea().equals(area)) &&
-                        (pincode == null || cr.getPincode().equals(pincode)) &&
-                        (locality == null || cr.getLocality().equals(locality)) &&
-                        (apartment_name == null || cr.getApartment_name().equals(apartment_name)))
-                .skip((long) page * size)
-                .limit(size)
-                .toList();
+        List<CustomerRequest> filteredRequests = findPage(CustomerRequestSpecifications.matchesFilters(
+                housekeepingRole, gender, area, pincode, locality, apartment_name), page, size);
         if (filteredRequests.isEmpty()) {
             if (logger.isWarnEnabled()) {
                 logger.warn("No customer requests found for the given filters.");
@@ -178,6 +183,108 @@ public class CustomerRequestServiceImpl implements CustomerRequestService {
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CustomerRequestDTO> scrollOpenRequests(String cursor, int size) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Fetching open customer requests after cursor: {}, size: {}", cursor, size);
+        }
+        return findAfter(CustomerRequestSpecifications.isOpen(), OPEN_CURSOR, cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CustomerRequestDTO> scrollPotentialCustomers(String cursor, int size) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Fetching potential customers after cursor: {}, size: {}", cursor, size);
+        }
+        return findAfter(CustomerRequestSpecifications.isPotential(), POTENTIAL_CURSOR, cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CustomerRequestDTO> scrollRequestFilters(
+            HousekeepingRole housekeepingRole, Gender gender,
+            String area, Integer pincode, String locality,
+            String apartment_name, String cursor, int size) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Fetching customer requests with filters after cursor: {}, size: {}", cursor, size);
+        }
+        return findAfter(CustomerRequestSpecifications.matchesFilters(
+                housekeepingRole, gender, area, pincode, locality, apartment_name), FILTER_CURSOR, cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CustomerRequestDTO> getBookingHistoryBucket(BookingBucket bucket, String cursor, int size) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Fetching {} customer request history after cursor: {}, size: {}", bucket, cursor, size);
+        }
+        if (bucket == null) {
+            throw new IllegalArgumentException("Booking history bucket is required");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        String kind = HISTORY_CURSOR_PREFIX + bucket.name();
+        Long beforeId = KeysetCursor.decodeId(cursor, kind);
+        Specification<CustomerRequest> spec = CustomerRequestSpecifications.inBucket(bucket, LocalDate.now())
+                .and(CustomerRequestSpecifications.requestIdBefore(beforeId));
+        List<CustomerRequest> rows = customerRequestRepository.findBy(spec,
+                query -> query.sortBy(NEWEST_FIRST).limit(size + 1).all());
+        return toCursorPage(rows, kind, size);
+    }
+
+    /**
+     * Offset page of the matching requests, in id order. Only the rows are
+     * read: callers need no total, so the count query a Page would run is
+     * skipped.
+     */
+    private List<CustomerRequest> findPage(Specification<CustomerRequest> spec, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, BY_REQUEST_ID);
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CustomerRequest> query = criteriaBuilder.createQuery(CustomerRequest.class);
+        Root<CustomerRequest> root = query.from(CustomerRequest.class);
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(pageable.getOffset()))
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    /**
+     * Keyset page of the matching requests: the next rows by id after the
+     * cursor. One extra row is read to tell whether another page follows, so
+     * no count query is needed and deep pages cost the same as the first.
+     */
+    private CursorPageDTO<CustomerRequestDTO> findAfter(Specification<CustomerRequest> spec, String kind,
+            String cursor, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        Long afterId = KeysetCursor.decodeId(cursor, kind);
+        List<CustomerRequest> rows = customerRequestRepository.findBy(
+                spec.and(CustomerRequestSpecifications.requestIdAfter(afterId)),
+                query -> query.sortBy(BY_REQUEST_ID).limit(size + 1).all());
+        return toCursorPage(rows, kind, size);
+    }
+
+    // Page of up to size rows from rows read with one extra, and the cursor after them
+    private CursorPageDTO<CustomerRequestDTO> toCursorPage(List<CustomerRequest> rows, String kind, int size) {
+        boolean hasMore = rows.size() > size;
+        List<CustomerRequest> pageRows = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore
+                ? KeysetCursor.encode(kind, pageRows.get(pageRows.size() - 1).getRequestId())
+                : null;
+        return new CursorPageDTO<>(pageRows.stream()
+                .map(customerRequestMapper::customerRequestToDTO)
+                .toList(), nextCursor);
+    }
+
     @Override
     @Transactional
     public void updateStatus(Long requestId, Status status) {
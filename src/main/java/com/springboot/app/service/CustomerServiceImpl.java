@@ -25,14 +25,17 @@ public class CustomerServiceImpl implements CustomerService {
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
     private final UserCredentialsService userCredentialsService;
+    private final LoginProfileCache loginProfileCache;
 
     @Autowired
     public CustomerServiceImpl(CustomerRepository customerRepository,
             CustomerMapper customerMapper,
-            UserCredentialsService userCredentialsService) {
+            UserCredentialsService userCredentialsService,
+            LoginProfileCache loginProfileCache) {
         this.customerRepository = customerRepository;
         this.customerMapper = customerMapper;
         this.userCredentialsService = userCredentialsService;
+        this.loginProfileCache = loginProfileCache;
     }
 
     // Get all customers with pagination
@@ -187,8 +190,10 @@ public class CustomerServiceImpl implements CustomerService {
 
         return customerRepository.findById(customerDTO.getCustomerId())
                 .map(existingCustomer -> {
+                    loginProfileCache.evict(existingCustomer.getEmailId());
                     customerMapper.updateCustomerFromDto(customerDTO, existingCustomer);
                     customerRepository.save(existingCustomer);
+                    loginProfileCache.evict(existingCustomer.getEmailId());
                     if (logger.isInfoEnabled()) {
                         logger.info("Customer updated successfully with id: {}", customerDTO.getCustomerId());
                     }
@@ -214,6 +219,7 @@ public class CustomerServiceImpl implements CustomerService {
                 .map(customer -> {
                     customer.setActive(false);
                     customerRepository.save(customer);
+                    loginProfileCache.evict(customer.getEmailId());
                     if (logger.isInfoEnabled()) {
                         logger.info("Customer deactivated successfully with id: {}", id);
                     }
@@ -1,38 +1,95 @@
 package com.springboot.app.service;
 
-import ch.hsr.geohash.GeoHash;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+
+import com.springboot.app.util.GeohashCells;
+
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Geohash encoding and 3x3 neighbourhoods.
+ *
+ * Neighbourhoods are computed on long cell ids ({@link GeohashCells}) and
+ * memoised per cell, since searches keep coming from the same locations. The
+ * memo is a bounded least-recently-used map split into independently locked
+ * stripes, so concurrent searches rarely wait on each other. Memoised lists
+ * and arrays are shared; callers must not modify them.
+ */
 @Service
 public class GeoHashService {
 
     private static final Logger logger = LoggerFactory.getLogger(GeoHashService.class);
 
+    private static final int MEMO_STRIPES = 16;
+
+    private record Neighbourhood(long[] cellIds, List<String> geoHashes) {
+    }
+
+    private final List<Map<Long, Neighbourhood>> memo = new ArrayList<>(MEMO_STRIPES);
+
+    public GeoHashService(@Value("${geohash.neighbourhood-memo.max-entries:16384}") int maxMemoEntries) {
+        int maxStripeEntries = Math.max(0, maxMemoEntries / MEMO_STRIPES);
+        for (int i = 0; i < MEMO_STRIPES; i++) {
+            memo.add(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Neighbourhood> eldest) {
+                    return size() > maxStripeEntries;
+                }
+            });
+        }
+    }
+
     public String generateGeoHash(double latitude, double longitude, int precision) {
         if (logger.isDebugEnabled()) {
             logger.debug("Generating GeoHash for latitude: {}, longitude: {}, precision: {}", latitude, longitude, precision);
         }
-        return GeoHash.withCharacterPrecision(latitude, longitude, precision).toBase32();
+        return GeohashCells.toBase32(GeohashCells.encode(latitude, longitude, precision));
     }
 
     public List<String> getNearbyGeoHashes(double latitude, double longitude, int precision) {
         if (logger.isDebugEnabled()) {
             logger.debug("Getting nearby GeoHashes for latitude: {}, longitude: {}, precision: {}", latitude, longitude, precision);
         }
-        GeoHash geoHash = GeoHash.withCharacterPrecision(latitude, longitude, precision);
-        List<String> nearbyHashes = new ArrayList<>();
-        for (GeoHash neighbor : geoHash.getAdjacent()) {
-            nearbyHashes.add(neighbor.toBase32());
-        }
-        nearbyHashes.add(geoHash.toBase32());
+        List<String> nearbyHashes = neighbourhood(GeohashCells.encode(latitude, longitude, precision)).geoHashes();
         if (logger.isDebugEnabled()) {
             logger.debug("Found {} nearby GeoHashes: {}", nearbyHashes.size(), nearbyHashes);
         }
         return nearbyHashes;
-    } 
+    }
+
+    /** Ids of the cell containing the point and of the cells around it, the cell last. */
+    public long[] getNearbyCellIds(double latitude, double longitude, int precision) {
+        return neighbourhood(GeohashCells.encode(latitude, longitude, precision)).cellIds();
+    }
+
+    private Neighbourhood neighbourhood(long cellId) {
+        Map<Long, Neighbourhood> stripe = memo.get(stripeOf(cellId));
+        synchronized (stripe) {
+            Neighbourhood cached = stripe.get(cellId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long[] cellIds = GeohashCells.neighbourhood(cellId);
+        List<String> geoHashes = new ArrayList<>(cellIds.length);
+        for (long id : cellIds) {
+            geoHashes.add(GeohashCells.toBase32(id));
+        }
+        Neighbourhood computed = new Neighbourhood(cellIds, List.copyOf(geoHashes));
+        synchronized (stripe) {
+            stripe.put(cellId, computed);
+        }
+        return computed;
+    }
+
+    private static int stripeOf(long cellId) {
+        long mixed = cellId * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 60) & (MEMO_STRIPES - 1);
+    }
 }
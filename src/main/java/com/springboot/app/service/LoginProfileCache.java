@@ -0,0 +1,89 @@
+package com.springboot.app.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded, least-recently-used cache of the profile returned with a successful
+ * login, keyed by username (the user's email id).
+ *
+ * Entries expire after a fixed time so that profile changes made outside the
+ * customer, vendor and service provider update paths become visible without
+ * an explicit eviction. Those update paths call {@link #evict(String)}.
+ */
+@Component
+public class LoginProfileCache {
+
+    /** Response key and DTO describing the profile of a logged in user. */
+    public record LoginProfile(String responseKey, Object details) {
+    }
+
+    private record Entry(LoginProfile profile, long expiresAt) {
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+
+    public LoginProfileCache(@Value("${login.profile-cache.max-entries:10000}") int maxEntries,
+            @Value("${login.profile-cache.ttl-ms:300000}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > LoginProfileCache.this.maxEntries;
+            }
+        };
+    }
+
+    public synchronized LoginProfile get(String username) {
+        Entry entry = entries.get(username);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(username);
+            return null;
+        }
+        return entry.profile();
+    }
+
+    public synchronized void put(String username, LoginProfile profile) {
+        if (maxEntries > 0) {
+            entries.put(username, new Entry(profile, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    /**
+     * Drops the cached profile now and again once the surrounding transaction
+     * commits, so a login racing with the update cannot re-cache the old row.
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        remove(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(username);
+                }
+            });
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void remove(String username) {
+        entries.remove(username);
+    }
+}
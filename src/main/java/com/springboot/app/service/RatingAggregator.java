@@ -0,0 +1,178 @@
+package com.springboot.app.service;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springboot.app.entity.RatingAggregate;
+import com.springboot.app.enums.RatingSubject;
+import com.springboot.app.repository.CustomerFeedbackRepository;
+import com.springboot.app.repository.CustomerRepository;
+import com.springboot.app.repository.RatingAggregateRepository;
+import com.springboot.app.repository.ServiceProviderFeedbackRepository;
+import com.springboot.app.repository.ServiceProviderRepository;
+
+/**
+ * Keeps the average rating of service providers and customers in step with
+ * their feedback.
+ *
+ * Each feedback write adjusts the subject's {@link RatingAggregate} with one
+ * atomic update, then copies the new average onto the subject. The update
+ * locks the aggregate row until the transaction ends, so concurrent feedback
+ * for the same subject is applied in turn and none is lost. The adjust methods
+ * must run in the transaction that writes the feedback row.
+ *
+ * A missing aggregate is created in a transaction of its own from the
+ * committed feedback, and the change is then added to it like any other. A
+ * key violation there means another writer created it first, which leaves the
+ * caller's transaction intact.
+ *
+ * A provider's new average is also pushed to the spatial index and drops the
+ * cached searches around the provider, which return the rating.
+ */
+@Service
+public class RatingAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingAggregator.class);
+
+    private final RatingAggregateRepository ratingAggregateRepository;
+    private final CustomerFeedbackRepository customerFeedbackRepository;
+    private final ServiceProviderFeedbackRepository serviceProviderFeedbackRepository;
+    private final ServiceProviderRepository serviceProviderRepository;
+    private final CustomerRepository customerRepository;
+    private final ServiceProviderSpatialIndex spatialIndex;
+    private final LoginProfileCache loginProfileCache;
+    private final SearchResultCache searchResultCache;
+    private final TransactionTemplate newTransaction;
+
+    public RatingAggregator(RatingAggregateRepository ratingAggregateRepository,
+            CustomerFeedbackRepository customerFeedbackRepository,
+            ServiceProviderFeedbackRepository serviceProviderFeedbackRepository,
+            ServiceProviderRepository serviceProviderRepository,
+            CustomerRepository customerRepository,
+            ServiceProviderSpatialIndex spatialIndex,
+            LoginProfileCache loginProfileCache,
+            SearchResultCache searchResultCache,
+            PlatformTransactionManager transactionManager) {
+        this.ratingAggregateRepository = ratingAggregateRepository;
+        this.customerFeedbackRepository = customerFeedbackRepository;
+        this.serviceProviderFeedbackRepository = serviceProviderFeedbackRepository;
+        this.serviceProviderRepository = serviceProviderRepository;
+        this.customerRepository = customerRepository;
+        this.spatialIndex = spatialIndex;
+        this.loginProfileCache = loginProfileCache;
+        this.searchResultCache = searchResultCache;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Records a new rating and returns the subject's new average. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public double addRating(RatingSubject subjectType, Long subjectId, double rating) {
+        return adjust(subjectType, subjectId, 1, rating);
+    }
+
+    /** Records that an existing rating was changed and returns the new average. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public double replaceRating(RatingSubject subjectType, Long subjectId, double oldRating, double newRating) {
+        return adjust(subjectType, subjectId, 0, newRating - oldRating);
+    }
+
+    /** Records that a rating was deleted and returns the new average. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public double removeRating(RatingSubject subjectType, Long subjectId, double rating) {
+        return adjust(subjectType, subjectId, -1, -rating);
+    }
+
+    /**
+     * Recomputes one aggregate from the feedback table. The aggregate row is
+     * locked first, so feedback written meanwhile waits and is applied on top
+     * of the rebuilt totals.
+     */
+    @Transactional
+    public double rebuild(RatingSubject subjectType, Long subjectId) {
+        String id = RatingAggregate.idOf(subjectType, subjectId);
+        if (!ratingAggregateRepository.existsById(id)) {
+            createIfAbsent(subjectType, subjectId);
+        }
+        RatingAggregate aggregate = ratingAggregateRepository.findForUpdate(id)
+                .orElseThrow(() -> new IllegalStateException("Rating aggregate missing: " + id));
+
+        Object[] totals = totalsFromFeedback(subjectType, subjectId);
+        aggregate.setRatingCount(((Number) totals[0]).longValue());
+        aggregate.setRatingSum(((Number) totals[1]).doubleValue());
+        aggregate.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
+
+        double average = aggregate.getAverage();
+        applyAverage(subjectType, subjectId, average);
+        return average;
+    }
+
+    private double adjust(RatingSubject subjectType, Long subjectId, long count, double sum) {
+        String id = RatingAggregate.idOf(subjectType, subjectId);
+        if (ratingAggregateRepository.addRatings(id, count, sum) == 0) {
+            // First change since aggregates were introduced. The aggregate is seeded
+            // from committed feedback, which cannot hold this uncommitted change, so
+            // the change is added to it whoever seeded it.
+            createIfAbsent(subjectType, subjectId);
+            ratingAggregateRepository.addRatings(id, count, sum);
+        }
+
+        Object[] totals = ratingAggregateRepository.findTotals(id).get(0);
+        long ratingCount = ((Number) totals[0]).longValue();
+        double average = ratingCount > 0 ? ((Number) totals[1]).doubleValue() / ratingCount : 0;
+        applyAverage(subjectType, subjectId, average);
+        return average;
+    }
+
+    // Seeds the aggregate from the committed feedback, unless a concurrent writer already has
+    private void createIfAbsent(RatingSubject subjectType, Long subjectId) {
+        String id = RatingAggregate.idOf(subjectType, subjectId);
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                Object[] totals = totalsFromFeedback(subjectType, subjectId);
+                ratingAggregateRepository.create(id, subjectType.name(), subjectId,
+                        ((Number) totals[0]).longValue(), ((Number) totals[1]).doubleValue());
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Rating aggregate {} was created by another writer", id);
+            }
+        }
+    }
+
+    // [count, sum] of the subject's ratings in its feedback table
+    private Object[] totalsFromFeedback(RatingSubject subjectType, Long subjectId) {
+        List<Object[]> rows = subjectType == RatingSubject.SERVICE_PROVIDER
+                ? customerFeedbackRepository.sumRatingsForServiceProvider(subjectId)
+                : serviceProviderFeedbackRepository.sumRatingsForCustomer(subjectId);
+        return rows.get(0);
+    }
+
+    private void applyAverage(RatingSubject subjectType, Long subjectId, double average) {
+        if (subjectType == RatingSubject.SERVICE_PROVIDER) {
+            serviceProviderRepository.findById(subjectId).ifPresent(serviceProvider -> {
+                serviceProvider.setRating(average);
+                spatialIndex.upsert(serviceProvider);
+                searchResultCache.invalidate(serviceProvider.getGeohash());
+            });
+        } else {
+            customerRepository.findById(subjectId).ifPresent(customer -> {
+                customer.setRating(average);
+                loginProfileCache.evict(customer.getEmailId());
+            });
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Updated {} {} rating to: {}", subjectType, subjectId, average);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.springboot.app.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springboot.app.exception.LeaseLostException;
+import com.springboot.app.repository.SchedulerLeaseRepository;
+
+/**
+ * Takes, renews and releases cluster-wide leases on scheduled jobs, so a job
+ * started on every node runs on only one of them. Leases are rows in
+ * scheduler_lease changed with conditional updates, which behave the same on
+ * Postgres and H2. Taking, renewing and releasing commit on their own,
+ * independently of the caller's transaction; {@link #fence} instead runs in
+ * the caller's transaction, to guard the writes made in it.
+ *
+ * Expiry is decided by the database clock, not by the clock of the node
+ * asking, so a node whose clock runs ahead cannot take over a lease the
+ * holder still believes is valid.
+ */
+@Service
+public class SchedulerLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLeaseService.class);
+
+    /** A lease held by this instance, identified by the token it was taken with. */
+    public record Lease(String name, long token, Duration ttl) {
+    }
+
+    private final SchedulerLeaseRepository leaseRepository;
+    private final TransactionTemplate newTransaction;
+
+    // Identifies this instance as a lease owner
+    private final String ownerId;
+
+    public SchedulerLeaseService(SchedulerLeaseRepository leaseRepository,
+            PlatformTransactionManager transactionManager) {
+        this.leaseRepository = leaseRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ownerId = hostName() + "/" + UUID.randomUUID();
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    /**
+     * Takes the named lease for the given time unless another instance holds
+     * an unexpired one.
+     */
+    public Optional<Lease> tryAcquire(String name, Duration ttl) {
+        long ttlMillis = ttl.toMillis();
+        Long token;
+        try {
+            token = newTransaction.execute(status -> {
+                if (leaseRepository.takeOver(name, ownerId, ttlMillis) > 0) {
+                    return leaseRepository.findFencingToken(name);
+                }
+                if (leaseRepository.existsById(name)) {
+                    return null;
+                }
+                leaseRepository.create(name, ownerId, ttlMillis);
+                return 1L;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the lease first
+            token = null;
+        }
+
+        if (token == null) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Lease {} is held by another instance", name);
+            }
+            return Optional.empty();
+        }
+        return Optional.of(new Lease(name, token, ttl));
+    }
+
+    /** Extends the lease by its time to live; returns false if it has been lost. */
+    public boolean renew(Lease lease) {
+        return newTransaction.execute(status -> extend(lease));
+    }
+
+    /**
+     * Checks, in the caller's transaction, that the lease is still held and
+     * extends it. The lease row stays locked until that transaction ends, so
+     * no other instance can take the lease over while its writes are pending.
+     *
+     * @throws LeaseLostException if the lease expired or changed hands
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void fence(Lease lease) {
+        if (!extend(lease)) {
+            throw new LeaseLostException("Lease " + lease.name() + " with token " + lease.token() + " was lost");
+        }
+    }
+
+    public void release(Lease lease) {
+        newTransaction.executeWithoutResult(status -> leaseRepository.release(lease.name(), lease.token()));
+    }
+
+    private boolean extend(Lease lease) {
+        return leaseRepository.renew(lease.name(), lease.token(), lease.ttl().toMillis()) > 0;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.springboot.app.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.springboot.app.enums.HousekeepingRole;
+import com.springboot.app.util.TimeslotMask;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded, least-recently-used cache of provider search results, so that
+ * customers searching from the same neighbourhood within a few seconds share
+ * one computation.
+ *
+ * Results are keyed by the normalised query, whose location is a geohash cell
+ * of at least {@link #CELL_PRECISION} characters, and expire after a short
+ * time. Each result also records its footprint, the geohash cells whose
+ * providers it was computed from. Writes to a provider or to its engagements
+ * call {@link #invalidate} with the provider's geohash, which drops exactly
+ * the results whose footprint contains that location. Changes not reported
+ * here, such as leaves, become visible when the result expires.
+ *
+ * Concurrent misses on the same key wait for the first one to load the
+ * result instead of running the search again. Cached results are shared;
+ * callers must not modify them.
+ *
+ * Hits, misses, coalesced misses and evictions are published as
+ * search.cache.* metrics.
+ */
+@Component
+public class SearchResultCache {
+
+    /** Precision of the cell a search location is normalised to, about 1.2 km x 0.6 km. */
+    public static final int CELL_PRECISION = 6;
+
+    /**
+     * A normalised search. Fields a search does not use are null or zero.
+     *
+     * @param cellId {@link com.springboot.app.util.GeohashCells} id of the search location
+     */
+    public record Key(String search, HousekeepingRole housekeepingRole, long cellId, int precision,
+            LocalDate startDate, LocalDate endDate, TimeslotMask timeslot, int minResults) {
+    }
+
+    /** A freshly computed, non-null result and the geohash cells it was computed from. */
+    public record Result<T>(T value, Collection<String> footprint) {
+    }
+
+    private record Entry(Object value, List<String> footprint, long expiresAt) {
+    }
+
+    // A load in progress; stale once an invalidation arrived while it ran
+    private static final class Load {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private boolean stale;
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<Key, Entry> entries;
+    // Footprint cell to the keys of the entries above whose footprint holds it
+    private final Map<String, Set<Key>> keysByCell = new HashMap<>();
+    private final Map<Key, Load> loads = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalescedMisses;
+    private final Counter expiredEvictions;
+    private final Counter sizeEvictions;
+    private final Counter invalidations;
+
+    public SearchResultCache(MeterRegistry meterRegistry,
+            @Value("${search.cache.max-entries:5000}") int maxEntries,
+            @Value("${search.cache.ttl-ms:15000}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= SearchResultCache.this.maxEntries) {
+                    return false;
+                }
+                unindex(eldest.getKey(), eldest.getValue());
+                sizeEvictions.increment();
+                return true;
+            }
+        };
+
+        this.hits = meterRegistry.counter("search.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("search.cache.requests", "result", "miss");
+        this.coalescedMisses = meterRegistry.counter("search.cache.requests", "result", "coalesced");
+        this.expiredEvictions = meterRegistry.counter("search.cache.evictions", "cause", "expired");
+        this.sizeEvictions = meterRegistry.counter("search.cache.evictions", "cause", "size");
+        this.invalidations = meterRegistry.counter("search.cache.evictions", "cause", "invalidated");
+        Gauge.builder("search.cache.size", this, SearchResultCache::size)
+                .description("Search results currently cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached result of the search, or loads it, once for all
+     * concurrent callers asking for the same key.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Supplier<Result<T>> loader) {
+        if (maxEntries <= 0) {
+            return loader.get().value();
+        }
+        Object cached = lookup(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        Load load = new Load();
+        Load inFlight = loads.putIfAbsent(key, load);
+        if (inFlight != null) {
+            coalescedMisses.increment();
+            return (T) await(inFlight);
+        }
+        try {
+            // The load that was in flight before ours may have just been cached
+            cached = lookup(key);
+            if (cached != null) {
+                load.future.complete(cached);
+                return (T) cached;
+            }
+            misses.increment();
+            Result<T> result = loader.get();
+            store(key, load, result);
+            load.future.complete(result.value());
+            return result.value();
+        } catch (RuntimeException | Error e) {
+            load.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    /**
+     * Drops the results whose footprint contains the location now and again
+     * once the surrounding transaction commits, so a search racing with the
+     * write cannot re-cache the old state.
+     */
+    public void invalidate(String geohash) {
+        if (geohash == null || geohash.isEmpty()) {
+            return;
+        }
+        evictCovering(geohash);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictCovering(geohash);
+                }
+            });
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized Object lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            unindex(key, entry);
+            expiredEvictions.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    private synchronized void store(Key key, Load load, Result<?> result) {
+        if (load.stale) {
+            return;
+        }
+        Entry entry = new Entry(result.value(), List.copyOf(new HashSet<>(result.footprint())),
+                System.currentTimeMillis() + ttlMillis);
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            unindex(key, previous);
+        }
+        for (String cell : entry.footprint()) {
+            keysByCell.computeIfAbsent(cell, c -> new HashSet<>()).add(key);
+        }
+    }
+
+    private synchronized void evictCovering(String geohash) {
+        // A load may have read the state before the write
+        loads.values().forEach(load -> load.stale = true);
+        List<Key> covering = new ArrayList<>();
+        for (int length = 1; length <= geohash.length(); length++) {
+            Set<Key> keys = keysByCell.get(geohash.substring(0, length));
+            if (keys != null) {
+                covering.addAll(keys);
+            }
+        }
+        for (Key key : covering) {
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                unindex(key, entry);
+                invalidations.increment();
+            }
+        }
+    }
+
+    private void unindex(Key key, Entry entry) {
+        for (String cell : entry.footprint()) {
+            Set<Key> keys = keysByCell.get(cell);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByCell.remove(cell);
+            }
+        }
+    }
+
+    private static Object await(Load load) {
+        try {
+            return load.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
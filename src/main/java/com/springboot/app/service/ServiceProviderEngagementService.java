@@ -4,9 +4,11 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
+import com.springboot.app.dto.CursorPageDTO;
 import com.springboot.app.dto.ServiceProviderDTO;
 import com.springboot.app.dto.ServiceProviderEngagementDTO;
 import com.springboot.app.entity.ServiceProvider;
+import com.springboot.app.enums.BookingBucket;
 import com.springboot.app.enums.HousekeepingRole;
 import com.springboot.app.enums.UserRole;
 
@@ -41,6 +43,17 @@ public interface ServiceProviderEngagementService {
         public Map<String, List<ServiceProviderEngagementDTO>> getServiceProviderBookingHistoryByServiceProviderId(
                         Long serviceProviderId);
 
+        // One booking history bucket at a time, keyset-paginated: pass null for
+        // the first page of a bucket, then the nextCursor returned for that bucket
+        CursorPageDTO<ServiceProviderEngagementDTO> getBookingHistoryBucket(BookingBucket bucket, String cursor,
+                        int size);
+
+        CursorPageDTO<ServiceProviderEngagementDTO> getBookingHistoryBucketByCustomerId(Long customerId,
+                        BookingBucket bucket, String cursor, int size);
+
+        CursorPageDTO<ServiceProviderEngagementDTO> getBookingHistoryBucketByServiceProviderId(
+                        Long serviceProviderId, BookingBucket bucket, String cursor, int size);
+
         List<Object> getEngagementsByExactDateTimeslotAndHousekeepingRole(
                         LocalDate startDate, LocalDate endDate, String timeslot, HousekeepingRole housekeepingRole,
                         double latitude,
@@ -57,4 +70,10 @@ public interface ServiceProviderEngagementService {
                         double longitude,
                         HousekeepingRole housekeepingRole);
 
+        public List<ServiceProvider> getPriorityBasedSearch(
+                        double latitude,
+                        double longitude,
+                        HousekeepingRole housekeepingRole,
+                        int minResults);
+
 }
@@ -1,13 +1,16 @@
 package com.springboot.app.service;
 
 import com.springboot.app.constant.ServiceProviderConstants;
+import com.springboot.app.dto.CursorPageDTO;
 import com.springboot.app.dto.CustomerHolidaysDTO;
 import com.springboot.app.dto.ServiceProviderEngagementDTO;
 import com.springboot.app.dto.ServiceProviderLeaveDTO;
 import com.springboot.app.entity.BookingTransaction;
 import com.springboot.app.entity.Customer;
+import com.springboot.app.entity.CustomerHolidays;
 import com.springboot.app.entity.ServiceProvider;
 import com.springboot.app.entity.ServiceProviderEngagement;
+import com.springboot.app.enums.BookingBucket;
 import com.springboot.app.enums.BookingType;
 import com.springboot.app.enums.HousekeepingRole;
 
@@ -19,24 +22,33 @@ import com.springboot.app.mapper.ServiceProviderMapper;
 import com.springboot.app.repository.CustomerHolidaysRepository;
 import com.springboot.app.repository.CustomerRepository;
 import com.springboot.app.repository.ServiceProviderEngagementRepository;
+import com.springboot.app.repository.ServiceProviderEngagementSpecifications;
 import com.springboot.app.repository.ServiceProviderLeaveRepository;
 import com.springboot.app.repository.ServiceProviderRepository;
+import com.springboot.app.util.GeoKdTree;
+import com.springboot.app.util.GeohashCells;
+import com.springboot.app.util.GeohashCover;
+import com.springboot.app.util.KeysetCursor;
+import com.springboot.app.util.TimeslotMask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Pageable;
@@ -49,6 +61,14 @@ public class ServiceProviderEngagementServiceImpl implements ServiceProviderEnga
 
     private static final Logger logger = LoggerFactory.getLogger(ServiceProviderEngagementServiceImpl.class);
 
+    // Upper bound on the IN list of a single availability query
+    private static final int AVAILABILITY_QUERY_BATCH_SIZE = 1000;
+
+    // Searches whose results are cached in SearchResultCache
+    private static final String ENGAGEMENT_SEARCH = "engagements";
+    private static final String PROGRESSIVE_SEARCH = "progressive";
+    private static final String PRIORITY_SEARCH = "priority";
+
     private final ServiceProviderEngagementRepository engagementRepository;
     private final ServiceProviderRepository serviceProviderRepository;
     private final CustomerRepository customerRepository;
@@ -62,12 +82,21 @@ public class ServiceProviderEngagementServiceImpl implements ServiceProviderEnga
     @Autowired
     private GeoHashService geoHashService;
 
+    @Autowired
+    private ServiceProviderSpatialIndex spatialIndex;
+
+    @Autowired
+    private ServiceProviderLeaveCalendar leaveCalendar;
+
     @Autowired
     private CustomerHolidaysRepository customerHolidaysRepository;
 
     @Autowired
     private CustomerHolidaysMapper customerHolidaysMapper;
 
+    @Autowired
+    private SearchResultCache searchResultCache;
+
     @Autowired
     public ServiceProviderEngagementServiceImpl(ServiceProviderEngagementRepository engagementRepository,
             ServiceProviderRepository serviceProviderRepository,
@@ -247,6 +276,7 @@ public class ServiceProviderEngagementServiceImpl implements ServiceProviderEnga
         // Save engagement (transaction will be saved automatically due to
         // CascadeType.PERSIST)
         engagementRepository.save(engagement);
+        invalidateSearches(serviceProvider);
 
         logger.debug("Persisted new service provider engagement with ID: {} and transaction ID: {}",
                 engagement.getId(), transaction.getTransactionId());
@@ -270,7 +300,8 @@ public class ServiceProviderEngagementServiceImpl implements ServiceProviderEnga
                                     "Customer not found with ID: " + dto.getCustomerId()));
 
                     // ✅ Start with current service provider from DB
-                    ServiceProvider serviceProvider = existingEngagement.getServiceProvider();
+                    ServiceProvider previousServiceProvider = existingEngagement.getServiceProvider();
+                    ServiceProvider serviceProvider = previousServiceProvider;
 
                     // Booking type validation
                     if (dto.getBookingType() != null && dto.getBookingType() != BookingType.ON_DEMAND) {
@@ -298,6 +329,10 @@ public class ServiceProviderEngagementServiceImpl implements ServiceProviderEnga
                     existingEngagement.setServiceProvider(serviceProvider); // ✅ preserves old value if no new ID
 
                     engagementRepository.save(existingEngagement);
+                    invalidateSearches(previousServiceProvider);
+                    if (serviceProvider != previousServiceProvider) {
+                        invalidateSearches(serviceProvider);
+                    }
 
                     if (logger.isDebugEnabled()) {
                         logger.info("Service provider engagement updated successfully with ID: {}", dto.getId());
@@ -330,6 +365,7 @@ public class ServiceProviderEngagementServiceImpl implements ServiceProviderEnga
             // Mark engagement as completed (e.g., set `isActive` to false or similar)
             engagement.completeEngagement(); // Example method to deactivate engagement
             engagementRepository.save(engagement); // Save the updated engagement
+            invalidateSearches(engagement.getServiceProvider());
             if (logger.isInfoEnabled()) {
                 logger.info("Service provider engagement with ID {} deactivated", id);
             }
@@ -349,12 +385,8 @@ public class ServiceProviderEngagementServiceImpl implements ServiceProviderEnga
 
             logger.info("Fetching service provider engagements by ServiceProvider ID: {}", serviceProviderId);
         }
-        // Fetch all engagements and filter by serviceProviderId
-        List<ServiceProviderEngagement> engagements = engagementRepository.findAll();
-        List<ServiceProviderEngagement> filteredEngagements = engagements.stream()
-                .filter(e -> e.getServiceProvider() != null &&
-                        e.getServiceProvider().getServiceproviderId().equals(serviceProviderId))
-                .toList();
+        List<ServiceProviderEngagement> filteredEngagements = engagementRepository
+                .findByServiceProvider_ServiceproviderId(serviceProviderId);
 
         // Check if no engagements found and throw a dedicated exception
         if (filteredEngagements.isEmpty()) {
@@ -375,9 +407,7 @@ public class ServiceProviderEngagementServiceImpl implements ServiceProviderEnga
 
             logger.info("Fetching service provider engagements by Customer ID: {}", customerId);
         }
-        List<ServiceProviderEngagement> filteredEngagements = engagementRepository.findAll().stream()
-                .filter(e -> e.getCustomer() != null && e.getCustomer().getCustomerId().equals(customerId))
-                .toList();
+        List<ServiceProviderEngagement> filteredEngagements = engagementRepository.findByCustomer_CustomerId(customerId);
 
         if (filteredEngagements.isEmpty()) {
             throw new ServiceProviderEngagementNotFoundException("No data found for Customer ID: " + customerId);
@@ -571,6 +601,7 @@ public class ServiceProviderEngagementServiceImpl implements ServiceProviderEnga
                 .toList();
 
         LocalDate currentDate = LocalDate.now();
+        Map<Long, List<CustomerHolidaysDTO>> holidaysByCustomer = new HashMap<>();
 
         // ✅ Convert engagements to DTOs and attach BOTH leaves + customer holidays
         List<ServiceProviderEngagementDTO> engagementDTOs = engagements.stream()
@@ -589,10 +620,13 @@ public class ServiceProviderEngagementServiceImpl implements ServiceProviderEnga
                     dto.setServiceProviderLeaves(matchingLeaves);
 
                     // ---- Attach customer holidays ----
-                    List<CustomerHolidaysDTO> customerHolidays = customerHolidaysRepository
-                            .findByCustomer_CustomerId(dto.getCustomerId())
+                    List<CustomerHolidaysDTO> customerHolidays = holidaysByCustomer
+                            .computeIfAbsent(dto.getCustomerId(), customerId -> customerHolidaysRepository
+                                    .findByCustomer_CustomerId(customerId)
+                                    .stream()
+                                    .map(customerHolidaysMapper::customerHolidaysToDTO)
+                                    .toList())
                             .stream()
-                            .map(customerHolidaysMapper::customerHolidaysToDTO)
                             .filter(h -> {
                                 LocalDate start = h.getStartDate();
                                 LocalDate end = h.getEndDate() != null ? h.getEndDate() : start;
@@ -669,6 +703,149 @@ public class ServiceProviderEngagementServiceImpl implements ServiceProviderEnga
                 }));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ServiceProviderEngagementDTO> getBookingHistoryBucket(BookingBucket bucket, String cursor,
+            int size) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Fetching {} booking history after cursor: {}, size: {}", bucket, cursor, size);
+        }
+        return findBookingHistoryBucket(null, bucket, cursor, size,
+                engagements -> engagements.stream().map(engagementMapper::serviceProviderEngagementToDTO).toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ServiceProviderEngagementDTO> getBookingHistoryBucketByCustomerId(Long customerId,
+            BookingBucket bucket, String cursor, int size) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Fetching {} booking history for customerId: {} after cursor: {}", bucket, customerId,
+                    cursor);
+        }
+        return findBookingHistoryBucket(ServiceProviderEngagementSpecifications.forCustomer(customerId), bucket,
+                cursor, size, engagements -> {
+                    if (engagements.isEmpty()) {
+                        return Collections.emptyList();
+                    }
+                    List<CustomerHolidaysDTO> holidays = customerHolidaysRepository
+                            .findByCustomer_CustomerId(customerId)
+                            .stream()
+                            .map(customerHolidaysMapper::customerHolidaysToDTO)
+                            .toList();
+                    return engagements.stream()
+                            .map(engagement -> {
+                                ServiceProviderEngagementDTO dto = engagementMapper
+                                        .serviceProviderEngagementToDTO(engagement);
+                                dto.setCustomerHolidays(holidays.stream()
+                                        .filter(h -> overlapsEngagement(h.getStartDate(), h.getEndDate(), dto))
+                                        .toList());
+                                return dto;
+                            })
+                            .toList();
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ServiceProviderEngagementDTO> getBookingHistoryBucketByServiceProviderId(
+            Long serviceProviderId, BookingBucket bucket, String cursor, int size) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Fetching {} booking history for serviceProviderId: {} after cursor: {}", bucket,
+                    serviceProviderId, cursor);
+        }
+        return findBookingHistoryBucket(ServiceProviderEngagementSpecifications.forServiceProvider(serviceProviderId),
+                bucket, cursor, size, engagements -> {
+                    if (engagements.isEmpty()) {
+                        return Collections.emptyList();
+                    }
+                    List<ServiceProviderLeaveDTO> leaves = leaveRepository
+                            .findByServiceProvider_ServiceproviderId(serviceProviderId)
+                            .stream()
+                            .map(leaveMapper::serviceProviderLeaveToDTO)
+                            .toList();
+                    // Holidays of every customer on the page in one query
+                    Set<Long> customerIds = engagements.stream()
+                            .map(engagement -> engagement.getCustomer().getCustomerId())
+                            .collect(Collectors.toSet());
+                    Map<Long, List<CustomerHolidaysDTO>> holidaysByCustomer = new HashMap<>();
+                    for (CustomerHolidays holiday : customerHolidaysRepository.findByCustomer_CustomerIdIn(customerIds)) {
+                        holidaysByCustomer.computeIfAbsent(holiday.getCustomer().getCustomerId(), id -> new ArrayList<>())
+                                .add(customerHolidaysMapper.customerHolidaysToDTO(holiday));
+                    }
+                    return engagements.stream()
+                            .map(engagement -> {
+                                ServiceProviderEngagementDTO dto = engagementMapper
+                                        .serviceProviderEngagementToDTO(engagement);
+                                dto.setServiceProviderLeaves(leaves.stream()
+                                        .filter(l -> overlapsEngagement(l.getFromDate(), l.getToDate(), dto))
+                                        .toList());
+                                dto.setCustomerHolidays(holidaysByCustomer
+                                        .getOrDefault(dto.getCustomerId(), Collections.emptyList())
+                                        .stream()
+                                        .filter(h -> overlapsEngagement(h.getStartDate(), h.getEndDate(), dto))
+                                        .toList());
+                                return dto;
+                            })
+                            .toList();
+                });
+    }
+
+    /**
+     * Reads one keyset page of a booking history bucket, optionally limited to
+     * one customer or provider. The bucket is a date range predicate, so each
+     * bucket is a single indexed query with its own cursor, and one extra row
+     * is read to tell whether another page follows.
+     */
+    private CursorPageDTO<ServiceProviderEngagementDTO> findBookingHistoryBucket(
+            Specification<ServiceProviderEngagement> scope, BookingBucket bucket, String cursor, int size,
+            Function<List<ServiceProviderEngagement>, List<ServiceProviderEngagementDTO>> toDTOs) {
+        if (bucket == null) {
+            throw new IllegalArgumentException("Booking history bucket is required");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        // The cursor kind includes the bucket, so cursors cannot cross buckets
+        String kind = "history-" + bucket.name();
+        String[] keys = KeysetCursor.decode(cursor, kind, 2);
+        LocalDate afterDate = null;
+        Long afterId = null;
+        if (keys != null) {
+            try {
+                afterDate = LocalDate.parse(keys[0]);
+                afterId = Long.valueOf(keys[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        Specification<ServiceProviderEngagement> spec = Specification.where(scope)
+                .and(ServiceProviderEngagementSpecifications.inBucket(bucket, LocalDate.now()))
+                .and(ServiceProviderEngagementSpecifications.after(bucket, afterDate, afterId));
+        List<ServiceProviderEngagement> rows = engagementRepository.findBy(spec,
+                query -> query.sortBy(ServiceProviderEngagementSpecifications.sortOf(bucket)).limit(size + 1).all());
+
+        boolean hasMore = rows.size() > size;
+        List<ServiceProviderEngagement> pageRows = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ServiceProviderEngagement last = pageRows.get(pageRows.size() - 1);
+            LocalDate lastDate = bucket == BookingBucket.PAST ? last.getEndDate() : last.getStartDate();
+            nextCursor = KeysetCursor.encode(kind, lastDate, last.getId());
+        }
+        return new CursorPageDTO<>(toDTOs.apply(pageRows), nextCursor);
+    }
+
+    // Whether the period from start to end (a single day when end is null)
+    // overlaps the engagement, whose own end may be open
+    private static boolean overlapsEngagement(LocalDate start, LocalDate end, ServiceProviderEngagementDTO dto) {
+        if (start == null || dto.getStartDate() == null) {
+            return false;
+        }
+        LocalDate until = end != null ? end : start;
+        return (dto.getEndDate() == null || !start.isAfter(dto.getEndDate())) && !until.isBefore(dto.getStartDate());
+    }
+
     // search api method
     @Override
     @Transactional(readOnly = true)
@@ -681,14 +858,17 @@ public class ServiceProviderEngagementServiceImpl implements ServiceProviderEnga
                 "Performing progressive search for housekeeping role: {}, latitude: {}, longitude: {}, precision: {}",
                 housekeepingRole, latitude, longitude, precision);
 
-        List<String> geoHashes = geoHashService.getNearbyGeoHashes(latitude, longitude, precision);
-        List<ServiceProvider> providers = serviceProviderRepository
-                .findByHousekeepingRoleAndGeoHash(housekeepingRole, geoHashes);
+        SearchResultCache.Key key = new SearchResultCache.Key(PROGRESSIVE_SEARCH, housekeepingRole,
+                searchCell(latitude, longitude, precision), precision, null, null, null, 0);
+        List<Object> providers = searchResultCache.get(key, () -> {
+            List<String> geoHashes = geoHashService.getNearbyGeoHashes(latitude, longitude, precision);
+            return new SearchResultCache.Result<>(
+                    List.<Object>copyOf(spatialIndex.findByRoleAndCells(housekeepingRole, geoHashes)), geoHashes);
+        });
         if (providers.isEmpty()) {
             logger.warn("No service providers found for the given parameters.");
-            return Collections.emptyList();
         }
-        return new ArrayList<>(providers);
+        return providers;
     }
 
     @Override
@@ -697,57 +877,68 @@ public class ServiceProviderEngagementServiceImpl implements ServiceProviderEnga
             double latitude,
             double longitude,
             HousekeepingRole housekeepingRole) {
+        return getPriorityBasedSearch(latitude, longitude, housekeepingRole,
+                ServiceProviderConstants.RADIUS_SEARCH_MIN_RESULTS);
+    }
+
+    /**
+     * Widens the radius until at least minResults providers are in it, nearest
+     * first. Searches are cached per doubling of minResults from
+     * RADIUS_SEARCH_MIN_RESULTS, so a customer paging through the result
+     * reuses one entry until the page passes it, instead of loading a new
+     * entry per page.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ServiceProvider> getPriorityBasedSearch(
+            double latitude,
+            double longitude,
+            HousekeepingRole housekeepingRole,
+            int minResults) {
 
         logger.info("Starting priority-based geo search for role: {}, lat: {}, long: {}",
                 housekeepingRole, latitude, longitude);
 
-        // Generate geohashes by precision
-        List<String> geoHashes7 = geoHashService.getNearbyGeoHashes(latitude, longitude, 7);
-        List<String> geoHashes6 = geoHashService.getNearbyGeoHashes(latitude, longitude, 6);
-        List<String> geoHashes5 = geoHashService.getNearbyGeoHashes(latitude, longitude, 5);
-        List<String> geoHashes4 = geoHashService.getNearbyGeoHashes(latitude, longitude, 4);
-
-        List<ServiceProvider> result = new ArrayList<>();
-        Set<Long> seenIds = new HashSet<>();
-
-        // Precision 7
-        List<ServiceProvider> from7 = serviceProviderRepository
-                .findByHousekeepingRoleAndGeoHash(housekeepingRole, geoHashes7);
-        for (ServiceProvider sp : from7) {
-            if (seenIds.add(sp.getServiceproviderId())) {
-                result.add(sp);
-            }
-        }
-
-        // Precision 6
-        List<ServiceProvider> from6 = serviceProviderRepository
-                .findByHousekeepingRoleAndGeoHash(housekeepingRole, geoHashes6);
-        for (ServiceProvider sp : from6) {
-            if (seenIds.add(sp.getServiceproviderId())) {
-                result.add(sp);
-            }
-        }
+        // Searched from the centre of the location's cell, so nearby customers share the result
+        long cellId = searchCell(latitude, longitude, SearchResultCache.CELL_PRECISION);
+        int searchedResults = searchedResults(minResults);
+        SearchResultCache.Key key = new SearchResultCache.Key(PRIORITY_SEARCH, housekeepingRole, cellId,
+                SearchResultCache.CELL_PRECISION, null, null, null, searchedResults);
+        List<ServiceProvider> found = searchResultCache.get(key, () -> {
+            double[] bounds = GeohashCover.bounds(GeohashCells.toBase32(cellId));
+            return searchWithinGrowingRadius(housekeepingRole, (bounds[0] + bounds[1]) / 2,
+                    (bounds[2] + bounds[3]) / 2, searchedResults);
+        });
+
+        // Ordered by distance from the customer's own location
+        List<ServiceProvider> result = new ArrayList<>(found);
+        result.sort(Comparator.comparingDouble(sp -> GeoKdTree.chordBetween(latitude, longitude,
+                sp.getLatitude(), sp.getLongitude())));
+        return result;
+    }
 
-        // Precision 5
-        List<ServiceProvider> from5 = serviceProviderRepository
-                .findByHousekeepingRoleAndGeoHash(housekeepingRole, geoHashes5);
-        for (ServiceProvider sp : from5) {
-            if (seenIds.add(sp.getServiceproviderId())) {
-                result.add(sp);
-            }
+    // minResults rounded up to RADIUS_SEARCH_MIN_RESULTS times a power of two
+    private static int searchedResults(int minResults) {
+        int searched = ServiceProviderConstants.RADIUS_SEARCH_MIN_RESULTS;
+        while (searched < minResults && searched <= Integer.MAX_VALUE / 2) {
+            searched *= 2;
         }
+        return Math.max(searched, minResults);
+    }
 
-        // Precision 4
-        List<ServiceProvider> from4 = serviceProviderRepository
-                .findByHousekeepingRoleAndGeoHash(housekeepingRole, geoHashes4);
-        for (ServiceProvider sp : from4) {
-            if (seenIds.add(sp.getServiceproviderId())) {
-                result.add(sp);
-            }
+    private SearchResultCache.Result<List<ServiceProvider>> searchWithinGrowingRadius(
+            HousekeepingRole housekeepingRole, double latitude, double longitude, int minResults) {
+        double radius = ServiceProviderConstants.RADIUS_SEARCH_INITIAL_METERS;
+        List<GeoKdTree.Neighbour<ServiceProvider>> found = spatialIndex.findWithinRadius(housekeepingRole, latitude,
+                longitude, radius);
+        while (found.size() < minResults && radius < ServiceProviderConstants.RADIUS_SEARCH_MAX_METERS) {
+            radius = Math.min(radius * 2, ServiceProviderConstants.RADIUS_SEARCH_MAX_METERS);
+            found = spatialIndex.findWithinRadius(housekeepingRole, latitude, longitude, radius);
         }
 
-        logger.info("Priority-based search found total {} unique providers", result.size());
-        return result;
+        logger.info("Priority-based search found {} providers within {} m", found.size(), radius);
+        return new SearchResultCache.Result<>(found.stream().map(GeoKdTree.Neighbour::item).toList(),
+                spatialIndex.radiusCover(latitude, longitude, radius));
     }
 
     @Override
@@ -760,25 +951,39 @@ public class ServiceProviderEngagementServiceImpl implements ServiceProviderEnga
             logger.info("Fetching engagements for startDate: {}, endDate: {}, housekeepingRole: {}",
                     startDate, endDate, housekeepingRole);
         }
+        SearchResultCache.Key key = new SearchResultCache.Key(ENGAGEMENT_SEARCH, housekeepingRole,
+                searchCell(latitude, longitude, precision), precision, startDate, endDate, TimeslotMask.of(timeslot),
+                0);
+        return searchResultCache.get(key, () -> new SearchResultCache.Result<>(
+                List.copyOf(searchEngagements(startDate, endDate, timeslot, housekeepingRole, latitude, longitude,
+                        precision)),
+                geoHashService.getNearbyGeoHashes(latitude, longitude, precision)));
+    }
+
+    private List<Object> searchEngagements(LocalDate startDate, LocalDate endDate, String timeslot,
+            HousekeepingRole housekeepingRole, double latitude, double longitude, int precision) {
         // Fetch all engagements
         List<ServiceProviderEngagement> engagements = engagementRepository
                 .findByDateAndHousekeepingRole(startDate, endDate, housekeepingRole);
 
         List<String> nearbyGeoHashes = geoHashService.getNearbyGeoHashes(latitude, longitude, precision);
+        long[] nearbyCellIds = geoHashService.getNearbyCellIds(latitude, longitude, precision);
         Set<Long> engagedProviderIds = new HashSet<>();
         Set<Long> excludedProviderIds = new HashSet<>();
 
+        TimeslotMask requestedMask = TimeslotMask.of(timeslot);
+
         // find engaged service providers
         List<Object> engagementDetails = engagements.stream()
                 .filter(e -> e.getServiceProvider() != null)
                 .filter(e -> {
                     ServiceProvider provider = e.getServiceProvider();
-                    boolean isNearby = (precision == 5 && nearbyGeoHashes.contains(provider.getGeoHash5())) ||
-                            (precision == 6 && nearbyGeoHashes.contains(provider.getGeoHash6())) ||
-                            (precision == 7 && nearbyGeoHashes.contains(provider.getGeoHash7()));
+                    boolean isNearby = provider.getLatitude() != null && provider.getLongitude() != null
+                            && GeohashCells.contains(nearbyCellIds,
+                                    GeohashCells.encode(provider.getLatitude(), provider.getLongitude(), precision));
 
                     // Exclude engagements that match or overlap the requested timeslot
-                    boolean isExcluded = timeslot != null && isTimeslotExcluded(e.getTimeslot(), timeslot);
+                    boolean isExcluded = timeslot != null && e.getTimeslotMask().overlaps(requestedMask);
 
                     if (isExcluded) {
                         excludedProviderIds.add(provider.getServiceproviderId());
@@ -794,13 +999,22 @@ public class ServiceProviderEngagementServiceImpl implements ServiceProviderEnga
                 .collect(Collectors.toList());
 
         // Fetch nearby providers
-        List<ServiceProvider> nearbyProviders = serviceProviderRepository
-                .findByHousekeepingRoleAndGeoHash(housekeepingRole, nearbyGeoHashes);
+        List<ServiceProvider> nearbyProviders = spatialIndex.findByRoleAndCells(housekeepingRole, nearbyGeoHashes);
 
-        List<ServiceProvider> unengagedProviders = nearbyProviders.stream()
+        List<ServiceProvider> candidates = nearbyProviders.stream()
                 .filter(sp -> !engagedProviderIds.contains(sp.getServiceproviderId()))
                 .filter(sp -> !excludedProviderIds.contains(sp.getServiceproviderId()))
-                .filter(sp -> isProviderFreeInTimeslot(sp, startDate, endDate, timeslot))
+                .collect(Collectors.toList());
+
+        Map<Long, TimeslotMask> busyTimeslots = findBusyTimeslots(candidates, startDate, endDate);
+        // Providers with leave anywhere in the requested dates are not available
+        Set<Long> onLeave = startDate != null && endDate != null
+                ? leaveCalendar.getServiceProvidersOnLeave(startDate, endDate)
+                : Collections.emptySet();
+        List<ServiceProvider> unengagedProviders = candidates.stream()
+                .filter(sp -> !onLeave.contains(sp.getServiceproviderId()))
+                .filter(sp -> !busyTimeslots.getOrDefault(sp.getServiceproviderId(), TimeslotMask.EMPTY)
+                        .overlaps(requestedMask))
                 .collect(Collectors.toList());
 
         List<Object> result = new ArrayList<>();
@@ -810,48 +1024,41 @@ public class ServiceProviderEngagementServiceImpl implements ServiceProviderEnga
         return result;
     }
 
-    private boolean isProviderFreeInTimeslot(ServiceProvider provider, LocalDate startDate,
-            LocalDate endDate, String requestedTimeslot) {
-        List<ServiceProviderEngagement> providerEngagements = engagementRepository
-                .findByServiceProviderAndDateRange(provider.getServiceproviderId(), startDate, endDate);
-
-        for (ServiceProviderEngagement engagement : providerEngagements) {
-            if (isTimeslotExcluded(engagement.getTimeslot(), requestedTimeslot)) {
-                return false;
-            }
+    // Cached searches may have counted the provider as free or booked
+    private void invalidateSearches(ServiceProvider serviceProvider) {
+        if (serviceProvider != null) {
+            searchResultCache.invalidate(serviceProvider.getGeohash());
         }
-        return true;
     }
 
-    private boolean isTimeslotExcluded(String engagementTimeslot, String requestedTimeslot) {
-        List<LocalTime[]> engagementRanges = parseTimeslot(engagementTimeslot);
-        List<LocalTime[]> requestedRanges = parseTimeslot(requestedTimeslot);
-
-        // Check for any overlap between engagement and requested ranges
-        for (LocalTime[] engagementRange : engagementRanges) {
-            for (LocalTime[] requestedRange : requestedRanges) {
-                if (engagementRange[0].isBefore(requestedRange[1]) && engagementRange[1].isAfter(requestedRange[0])) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    /**
+     * Cell of the search location a search is cached under: at least
+     * SearchResultCache.CELL_PRECISION characters, and at least the search
+     * precision so every location of the cell searches the same cells.
+     */
+    private static long searchCell(double latitude, double longitude, int precision) {
+        return GeohashCells.encode(latitude, longitude, Math.max(SearchResultCache.CELL_PRECISION, precision));
     }
 
-    private List<LocalTime[]> parseTimeslot(String timeslot) {
-        List<LocalTime[]> ranges = new ArrayList<>();
-        String[] slots = timeslot.split(",");
-
-        for (String slot : slots) {
-            String[] parts = slot.trim().split("-");
-            if (parts.length == 2) {
-                ranges.add(new LocalTime[] {
-                        LocalTime.parse(parts[0], DateTimeFormatter.ofPattern("H:mm")),
-                        LocalTime.parse(parts[1], DateTimeFormatter.ofPattern("H:mm"))
-                });
+    /**
+     * Returns, per provider, the union of the timeslots of every engagement that
+     * overlaps the date range. Providers are looked up in batches instead of
+     * one query per provider.
+     */
+    private Map<Long, TimeslotMask> findBusyTimeslots(List<ServiceProvider> providers, LocalDate startDate,
+            LocalDate endDate) {
+        Map<Long, TimeslotMask> busyTimeslots = new HashMap<>();
+        List<Long> providerIds = providers.stream().map(ServiceProvider::getServiceproviderId).toList();
+
+        for (int from = 0; from < providerIds.size(); from += AVAILABILITY_QUERY_BATCH_SIZE) {
+            List<Long> batch = providerIds.subList(from,
+                    Math.min(from + AVAILABILITY_QUERY_BATCH_SIZE, providerIds.size()));
+            for (Object[] row : engagementRepository.findTimeslotsByServiceProvidersAndDateRange(batch, startDate,
+                    endDate)) {
+                busyTimeslots.merge((Long) row[0], (TimeslotMask) row[1], TimeslotMask::union);
             }
         }
-        return ranges;
+        return busyTimeslots;
     }
 
     // @Override
@@ -4,6 +4,7 @@ import com.springboot.app.dto.ServiceProviderFeedbackDTO;
 import com.springboot.app.entity.ServiceProviderFeedback;
 import com.springboot.app.entity.Customer;
 import com.springboot.app.entity.ServiceProvider;
+import com.springboot.app.enums.RatingSubject;
 import com.springboot.app.mapper.ServiceProviderFeedbackMapper;
 import com.springboot.app.repository.ServiceProviderFeedbackRepository;
 import com.springboot.app.repository.CustomerRepository;
@@ -26,16 +27,19 @@ public class ServiceProviderFeedbackServiceImpl implements ServiceProviderFeedba
     private final ServiceProviderFeedbackMapper serviceProviderFeedbackMapper;
     private final CustomerRepository customerRepository;
     private final ServiceProviderRepository serviceProviderRepository;
+    private final RatingAggregator ratingAggregator;
 
     @Autowired
     public ServiceProviderFeedbackServiceImpl(ServiceProviderFeedbackRepository serviceProviderFeedbackRepository,
             ServiceProviderFeedbackMapper serviceProviderFeedbackMapper,
             CustomerRepository customerRepository,
-            ServiceProviderRepository serviceProviderRepository) {
+            ServiceProviderRepository serviceProviderRepository,
+            RatingAggregator ratingAggregator) {
         this.serviceProviderFeedbackRepository = serviceProviderFeedbackRepository;
         this.serviceProviderFeedbackMapper = serviceProviderFeedbackMapper;
         this.customerRepository = customerRepository;
         this.serviceProviderRepository = serviceProviderRepository;
+        this.ratingAggregator = ratingAggregator;
     }
 
     @Override
@@ -115,7 +119,11 @@ public class ServiceProviderFeedbackServiceImpl implements ServiceProviderFeedba
         }
 
         // Update the average rating for the Customer
-        updateCustomerAverageRating(customer.getCustomerId());
+        double averageRating = ratingAggregator.addRating(RatingSubject.CUSTOMER, customer.getCustomerId(),
+                feedback.getRating());
+        if (logger.isInfoEnabled()) {
+            logger.info("Updated Customer rating to: {}", averageRating);
+        }
     }
 
     @Override
@@ -136,6 +144,7 @@ public class ServiceProviderFeedbackServiceImpl implements ServiceProviderFeedba
                     return new IllegalArgumentException(
                             "Service provider feedback not found with ID: " + serviceProviderFeedbackDTO.getId());
                 });
+        double previousRating = existingFeedback.getRating();
 
         // Map DTO to existing entity
         ServiceProviderFeedback updatedFeedback = serviceProviderFeedbackMapper
@@ -151,7 +160,11 @@ public class ServiceProviderFeedbackServiceImpl implements ServiceProviderFeedba
         }
 
         // Update the average rating for the Customer
-        updateCustomerAverageRating(updatedFeedback.getCustomer().getCustomerId());
+        double averageRating = ratingAggregator.replaceRating(RatingSubject.CUSTOMER,
+                updatedFeedback.getCustomer().getCustomerId(), previousRating, updatedFeedback.getRating());
+        if (logger.isInfoEnabled()) {
+            logger.info("Updated Customer rating to: {}", averageRating);
+        }
     }
 
     @Override
@@ -160,8 +173,11 @@ public class ServiceProviderFeedbackServiceImpl implements ServiceProviderFeedba
         if (logger.isInfoEnabled()) {
             logger.info("Deleting service provider feedback with ID: {}", id);
         }
-        if (serviceProviderFeedbackRepository.existsById(id)) {
-            serviceProviderFeedbackRepository.deleteById(id);
+        ServiceProviderFeedback feedback = serviceProviderFeedbackRepository.findById(id).orElse(null);
+        if (feedback != null) {
+            serviceProviderFeedbackRepository.delete(feedback);
+            ratingAggregator.removeRating(RatingSubject.CUSTOMER, feedback.getCustomer().getCustomerId(),
+                    feedback.getRating());
             if (logger.isInfoEnabled()) {
                 logger.info("Deleted service provider feedback with ID: {}", id);
             }
@@ -172,27 +188,4 @@ public class ServiceProviderFeedbackServiceImpl implements ServiceProviderFeedba
             throw new IllegalArgumentException("Service provider feedback not found with ID: " + id);
         }
     }
-
-    private void updateCustomerAverageRating(Long customerId) {
-        if (logger.isInfoEnabled()) {
-            logger.info("Updating average rating for Customer ID: {}", customerId);
-        }
-        List<ServiceProviderFeedback> customerFeedbacks = serviceProviderFeedbackRepository
-                .findByCustomer_CustomerId(customerId);
-
-        double totalRating = customerFeedbacks.stream()
-                .mapToDouble(ServiceProviderFeedback::getRating)
-                .sum();
-        double averageRating = customerFeedbacks.isEmpty() ? 0 : totalRating / customerFeedbacks.size();
-
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> {
-                    logger.error("Customer not found with ID: {}", customerId);
-                    return new IllegalArgumentException("Customer not found with ID: " + customerId);
-                });
-
-        customer.setRating(averageRating);
-        customerRepository.save(customer);
-        logger.info("Updated Customer rating to: {}", averageRating);
-    }
 }
@@ -0,0 +1,16 @@
+package com.springboot.app.service;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.springboot.app.dto.ServiceProviderImportJobDTO;
+
+public interface ServiceProviderImportService {
+
+    ServiceProviderImportJobDTO startImport(MultipartFile file) throws IOException;
+
+    Optional<ServiceProviderImportJobDTO> getImportJob(String jobId);
+
+}
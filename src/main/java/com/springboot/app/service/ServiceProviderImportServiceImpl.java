@@ -0,0 +1,306 @@
+package com.springboot.app.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.springboot.app.dto.ServiceProviderImportJobDTO;
+import com.springboot.app.entity.ServiceProvider;
+import com.springboot.app.repository.ServiceProviderRepository;
+import com.springboot.app.util.ExcelSheetHandler;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Imports service providers from uploaded Excel sheets in the background.
+ *
+ * The upload is copied to a temp file and parsed row by row. Valid rows are
+ * inserted in batches, each committed in its own transaction, so memory use
+ * does not grow with the sheet and a bad batch only fails its own rows.
+ * Progress and per-row errors are kept on an in-memory job that callers poll
+ * by id.
+ */
+@Service
+public class ServiceProviderImportServiceImpl implements ServiceProviderImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceProviderImportServiceImpl.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    // Finished jobs are kept this long for polling
+    private static final long JOB_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+    private final ExcelSheetHandler excelSheetHandler;
+    private final ServiceProviderRepository serviceProviderRepository;
+    private final ServiceProviderSpatialIndex spatialIndex;
+    private final SearchResultCache searchResultCache;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    // Imports run one at a time so they do not compete for database connections
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "service-provider-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ServiceProviderImportServiceImpl(ExcelSheetHandler excelSheetHandler,
+            ServiceProviderRepository serviceProviderRepository,
+            ServiceProviderSpatialIndex spatialIndex,
+            SearchResultCache searchResultCache,
+            PlatformTransactionManager transactionManager) {
+        this.excelSheetHandler = excelSheetHandler;
+        this.serviceProviderRepository = serviceProviderRepository;
+        this.spatialIndex = spatialIndex;
+        this.searchResultCache = searchResultCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public ServiceProviderImportJobDTO startImport(MultipartFile file) throws IOException {
+        String fileName = file.getOriginalFilename();
+        if (file.isEmpty() || fileName == null || !fileName.toLowerCase().endsWith(".xlsx")) {
+            throw new IllegalArgumentException("Please upload a non-empty .xlsx file.");
+        }
+        purgeFinishedJobs();
+
+        // The multipart file is gone once the request completes
+        Path upload = Files.createTempFile("service-provider-import-", ".xlsx");
+        file.transferTo(upload);
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), fileName);
+        jobs.put(job.jobId, job);
+        executor.submit(() -> runImport(job, upload));
+
+        if (logger.isInfoEnabled()) {
+            logger.info("Queued service provider import {} for file: {}", job.jobId, fileName);
+        }
+        return job.toDTO();
+    }
+
+    @Override
+    public Optional<ServiceProviderImportJobDTO> getImportJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(ImportJob::toDTO);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void runImport(ImportJob job, Path upload) {
+        job.start();
+        List<PendingRow> batch = new ArrayList<>(BATCH_SIZE);
+        Set<Long> seenMobileNos = new HashSet<>();
+        Set<String> seenEmailIds = new HashSet<>();
+
+        try {
+            excelSheetHandler.readServiceProviders(upload.toFile(), new ExcelSheetHandler.RowHandler() {
+                @Override
+                public void onRow(int rowNumber, ServiceProvider serviceProvider) {
+                    job.rowProcessed();
+                    String error = validate(serviceProvider, seenMobileNos, seenEmailIds);
+                    if (error != null) {
+                        job.rowFailed(rowNumber, error);
+                        return;
+                    }
+                    batch.add(new PendingRow(rowNumber, serviceProvider));
+                    if (batch.size() == BATCH_SIZE) {
+                        insertBatch(job, batch);
+                    }
+                }
+
+                @Override
+                public void onError(int rowNumber, String message) {
+                    job.rowProcessed();
+                    job.rowFailed(rowNumber, message);
+                }
+            });
+            insertBatch(job, batch);
+            job.finish("COMPLETED", null);
+        } catch (Exception e) {
+            logger.error("Service provider import {} failed", job.jobId, e);
+            job.finish("FAILED", e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException e) {
+                logger.warn("Unable to delete import file: {}", upload, e);
+            }
+        }
+
+        if (logger.isInfoEnabled()) {
+            logger.info("Service provider import {} finished: {} rows, {} imported, {} failed", job.jobId,
+                    job.processedRows, job.importedRows, job.failedRows);
+        }
+    }
+
+    /**
+     * Checks required fields, coordinates and duplicates within the sheet.
+     * Returns the error message, or null when the row is valid.
+     */
+    private static String validate(ServiceProvider serviceProvider, Set<Long> seenMobileNos,
+            Set<String> seenEmailIds) {
+        if (serviceProvider.getFirstName() == null) {
+            return "Name is required";
+        }
+        Long mobileNo = serviceProvider.getMobileNo();
+        if (mobileNo == null || mobileNo < 1_000_000_000L || mobileNo > 9_999_999_999L) {
+            return "A 10 digit mobile number is required";
+        }
+        if (serviceProvider.getHousekeepingRole() == null) {
+            return "Housekeeping role is required";
+        }
+        Double latitude = serviceProvider.getLatitude();
+        Double longitude = serviceProvider.getLongitude();
+        if ((latitude == null) != (longitude == null)) {
+            return "Latitude and longitude must be given together";
+        }
+        if (latitude != null && (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180)) {
+            return "Latitude or longitude is out of range";
+        }
+        if (!seenMobileNos.add(mobileNo)) {
+            return "Duplicate mobile number in sheet: " + mobileNo;
+        }
+        String emailId = serviceProvider.getEmailId();
+        if (emailId != null && !seenEmailIds.add(emailId)) {
+            return "Duplicate email in sheet: " + emailId;
+        }
+        return null;
+    }
+
+    /**
+     * Drops rows that clash with existing providers, then saves the rest in
+     * one transaction. Geohashes are computed when the providers are
+     * persisted.
+     */
+    private void insertBatch(ImportJob job, List<PendingRow> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<Long> existingMobileNos = new HashSet<>(serviceProviderRepository.findExistingMobileNos(
+                batch.stream().map(row -> row.serviceProvider().getMobileNo()).toList()));
+        List<String> emailIds = batch.stream().map(row -> row.serviceProvider().getEmailId())
+                .filter(emailId -> emailId != null).toList();
+        Set<String> existingEmailIds = emailIds.isEmpty() ? Set.of()
+                : new HashSet<>(serviceProviderRepository.findExistingEmailIds(emailIds));
+
+        List<PendingRow> rows = new ArrayList<>(batch.size());
+        for (PendingRow row : batch) {
+            ServiceProvider serviceProvider = row.serviceProvider();
+            if (existingMobileNos.contains(serviceProvider.getMobileNo())) {
+                job.rowFailed(row.rowNumber(), "Mobile number already registered: " + serviceProvider.getMobileNo());
+            } else if (existingEmailIds.contains(serviceProvider.getEmailId())) {
+                job.rowFailed(row.rowNumber(), "Email already registered: " + serviceProvider.getEmailId());
+            } else {
+                rows.add(row);
+            }
+        }
+        batch.clear();
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<ServiceProvider> serviceProviders = rows.stream().map(PendingRow::serviceProvider).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                serviceProviderRepository.saveAll(serviceProviders);
+                spatialIndex.upsertAll(serviceProviders);
+                serviceProviders.stream().map(ServiceProvider::getGeohash).distinct()
+                        .forEach(searchResultCache::invalidate);
+            });
+            job.rowsImported(rows.size());
+        } catch (DataAccessException e) {
+            String message = "Batch insert failed: " + e.getMostSpecificCause().getMessage();
+            logger.warn("Service provider import {}: {}", job.jobId, message);
+            rows.forEach(row -> job.rowFailed(row.rowNumber(), message));
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        long cutoff = System.currentTimeMillis() - JOB_RETENTION_MILLIS;
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.getTime() < cutoff);
+    }
+
+    private record PendingRow(int rowNumber, ServiceProvider serviceProvider) {
+    }
+
+    // Updated by the import thread and read by request threads
+    private static final class ImportJob {
+        private final String jobId;
+        private final String fileName;
+        private volatile String status = "QUEUED";
+        private volatile String message;
+        private volatile long processedRows;
+        private volatile long importedRows;
+        private volatile long failedRows;
+        private volatile Timestamp startedAt;
+        private volatile Timestamp finishedAt;
+        private final List<ServiceProviderImportJobDTO.RowError> errors = new ArrayList<>();
+
+        ImportJob(String jobId, String fileName) {
+            this.jobId = jobId;
+            this.fileName = fileName;
+        }
+
+        void start() {
+            startedAt = new Timestamp(System.currentTimeMillis());
+            status = "RUNNING";
+        }
+
+        void rowProcessed() {
+            processedRows++;
+        }
+
+        void rowsImported(int count) {
+            importedRows += count;
+        }
+
+        void rowFailed(int rowNumber, String error) {
+            failedRows++;
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new ServiceProviderImportJobDTO.RowError(rowNumber, error));
+                }
+            }
+        }
+
+        void finish(String finalStatus, String finalMessage) {
+            message = finalMessage;
+            finishedAt = new Timestamp(System.currentTimeMillis());
+            status = finalStatus;
+        }
+
+        ServiceProviderImportJobDTO toDTO() {
+            List<ServiceProviderImportJobDTO.RowError> errorSnapshot;
+            synchronized (errors) {
+                errorSnapshot = new ArrayList<>(errors);
+            }
+            return new ServiceProviderImportJobDTO(jobId, fileName, status, processedRows, importedRows,
+                    failedRows, message, startedAt, finishedAt, errorSnapshot);
+        }
+    }
+}
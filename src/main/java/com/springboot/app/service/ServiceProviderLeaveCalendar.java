@@ -0,0 +1,250 @@
+package com.springboot.app.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.springboot.app.entity.ServiceProviderLeave;
+import com.springboot.app.repository.ServiceProviderLeaveRepository;
+
+/**
+ * Resident calendar of approved service provider leave: for every day from
+ * today up to a fixed horizon, the set of providers on leave that day. "Who is
+ * on leave on D" is a single map lookup, and "is P free between D1 and D2"
+ * only looks at P's own leaves. Leave that is not approved does not make a
+ * provider unavailable.
+ *
+ * The calendar is loaded once the application is ready and kept fresh by
+ * ServiceProviderLeaveService calling {@link #upsert} / {@link #remove} on
+ * every write made on this node. It is also rebuilt every
+ * leave.calendar.reload-ms (5 minutes by default), which moves the window
+ * forward after midnight and bounds how long a leave written on another node
+ * stays invisible here. Dates outside the window, and lookups made before the
+ * first load, fall back to the repository.
+ *
+ * A rebuild reads the database into a new calendar without holding the lock,
+ * so lookups are not held up by it. Writes that commit meanwhile are applied
+ * to the live calendar and replayed onto the new one before it is swapped in.
+ */
+@Service
+public class ServiceProviderLeaveCalendar {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceProviderLeaveCalendar.class);
+
+    private record Span(Long serviceProviderId, LocalDate fromDate, LocalDate toDate) {
+    }
+
+    private final ServiceProviderLeaveRepository leaveRepository;
+    private final int horizonDays;
+
+    private final Object loadLock = new Object();
+
+    // Guarded by this, as is the content of the live calendar
+    private Calendar live;
+
+    // Writes applied while a load reads the database, replayed onto the loaded
+    // calendar before it replaces the live one; null when no load runs.
+    // Guarded by this.
+    private List<Consumer<Calendar>> writesDuringLoad;
+
+    private volatile boolean ready;
+
+    public ServiceProviderLeaveCalendar(ServiceProviderLeaveRepository leaveRepository,
+            @Value("${leave.calendar.horizon-days:366}") int horizonDays) {
+        this.leaveRepository = leaveRepository;
+        this.horizonDays = horizonDays;
+    }
+
+    /** Rebuilds the calendar from today beside the live one and swaps it in. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${leave.calendar.reload-ms:300000}",
+            initialDelayString = "${leave.calendar.reload-ms:300000}")
+    public void load() {
+        synchronized (loadLock) {
+            LocalDate today = LocalDate.now();
+            synchronized (this) {
+                writesDuringLoad = new ArrayList<>();
+            }
+            Calendar loaded = new Calendar(today, today.plusDays(horizonDays));
+            try {
+                for (Object[] row : leaveRepository.findLeaveSpansEndingOnOrAfter(today)) {
+                    loaded.add((Long) row[0], new Span((Long) row[1], (LocalDate) row[2], (LocalDate) row[3]));
+                }
+                synchronized (this) {
+                    writesDuringLoad.forEach(write -> write.accept(loaded));
+                    live = loaded;
+                }
+            } finally {
+                synchronized (this) {
+                    writesDuringLoad = null;
+                }
+            }
+            ready = true;
+
+            if (logger.isInfoEnabled()) {
+                logger.info("Leave calendar loaded with {} leaves from {} to {}", loaded.spansByLeaveId.size(),
+                        loaded.windowStart, loaded.windowEnd);
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Ids of the providers on leave on any day between the two dates, inclusive. */
+    public Set<Long> getServiceProvidersOnLeave(LocalDate fromDate, LocalDate toDate) {
+        synchronized (this) {
+            if (covers(fromDate, toDate)) {
+                Set<Long> result = new HashSet<>();
+                for (LocalDate day = fromDate; !day.isAfter(toDate); day = day.plusDays(1)) {
+                    result.addAll(live.providersByDay.getOrDefault(day, Collections.emptyMap()).keySet());
+                }
+                return result;
+            }
+        }
+        return new HashSet<>(leaveRepository.findServiceProviderIdsOnLeave(fromDate, toDate));
+    }
+
+    public Set<Long> getServiceProvidersOnLeave(LocalDate date) {
+        return getServiceProvidersOnLeave(date, date);
+    }
+
+    /** Whether the provider has leave on any day between the two dates, inclusive. */
+    public boolean isOnLeave(Long serviceProviderId, LocalDate fromDate, LocalDate toDate) {
+        synchronized (this) {
+            if (covers(fromDate, toDate)) {
+                for (Long leaveId : live.leaveIdsByProvider.getOrDefault(serviceProviderId,
+                        Collections.emptySet())) {
+                    Span span = live.spansByLeaveId.get(leaveId);
+                    if (!span.toDate().isBefore(fromDate) && !span.fromDate().isAfter(toDate)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+        return leaveRepository.existsOverlapping(serviceProviderId, fromDate, toDate);
+    }
+
+    /**
+     * Adds or refreshes a leave once the surrounding transaction commits; a
+     * leave that is not approved is dropped.
+     */
+    public void upsert(ServiceProviderLeave leave) {
+        Long leaveId = leave.getId();
+        Span span = leave.isApproved() ? new Span(leave.getServiceProvider().getServiceproviderId(),
+                leave.getFromDate(), leave.getToDate()) : null;
+        runAfterCommit(() -> write(calendar -> {
+            calendar.evict(leaveId);
+            if (span != null) {
+                calendar.add(leaveId, span);
+            }
+        }));
+    }
+
+    public void remove(Long leaveId) {
+        runAfterCommit(() -> write(calendar -> calendar.evict(leaveId)));
+    }
+
+    // Writes before the first load are picked up by the load itself
+    private synchronized void write(Consumer<Calendar> write) {
+        if (live != null) {
+            write.accept(live);
+        }
+        if (writesDuringLoad != null) {
+            writesDuringLoad.add(write);
+        }
+    }
+
+    private boolean covers(LocalDate fromDate, LocalDate toDate) {
+        return ready && !fromDate.isBefore(live.windowStart) && !toDate.isAfter(live.windowEnd);
+    }
+
+    /**
+     * The leaves of one window of days. The live calendar is only read and
+     * written under the calendar lock; a calendar being loaded is private to
+     * the load.
+     */
+    private static final class Calendar {
+
+        private final LocalDate windowStart;
+        private final LocalDate windowEnd;
+        private final Map<Long, Span> spansByLeaveId = new HashMap<>();
+        private final Map<Long, Set<Long>> leaveIdsByProvider = new HashMap<>();
+        // Day -> provider id -> number of that provider's leaves covering the day
+        private final Map<LocalDate, Map<Long, Integer>> providersByDay = new HashMap<>();
+
+        private Calendar(LocalDate windowStart, LocalDate windowEnd) {
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+        }
+
+        private void add(Long leaveId, Span span) {
+            if (span.toDate().isBefore(windowStart)) {
+                return;
+            }
+            spansByLeaveId.put(leaveId, span);
+            leaveIdsByProvider.computeIfAbsent(span.serviceProviderId(), id -> new HashSet<>()).add(leaveId);
+            forEachDay(span, day -> providersByDay.computeIfAbsent(day, d -> new HashMap<>())
+                    .merge(span.serviceProviderId(), 1, Integer::sum));
+        }
+
+        private void evict(Long leaveId) {
+            Span span = spansByLeaveId.remove(leaveId);
+            if (span == null) {
+                return;
+            }
+            Set<Long> leaveIds = leaveIdsByProvider.get(span.serviceProviderId());
+            leaveIds.remove(leaveId);
+            if (leaveIds.isEmpty()) {
+                leaveIdsByProvider.remove(span.serviceProviderId());
+            }
+            forEachDay(span, day -> {
+                Map<Long, Integer> providers = providersByDay.get(day);
+                providers.computeIfPresent(span.serviceProviderId(), (id, count) -> count > 1 ? count - 1 : null);
+                if (providers.isEmpty()) {
+                    providersByDay.remove(day);
+                }
+            });
+        }
+
+        // Days of the span that fall inside the window
+        private void forEachDay(Span span, Consumer<LocalDate> action) {
+            LocalDate from = span.fromDate().isBefore(windowStart) ? windowStart : span.fromDate();
+            LocalDate to = span.toDate().isAfter(windowEnd) ? windowEnd : span.toDate();
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                action.accept(day);
+            }
+        }
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
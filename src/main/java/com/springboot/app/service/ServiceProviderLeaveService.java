@@ -1,7 +1,9 @@
 package com.springboot.app.service;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.springboot.app.dto.ServiceProviderLeaveDTO;
 
@@ -27,6 +29,11 @@ public interface ServiceProviderLeaveService {
 
     List<ServiceProviderLeaveDTO> getUnapprovedLeaves();
 
+    // Served from the in-memory leave calendar
+    Set<Long> getServiceProviderIdsOnLeave(LocalDate date);
+
+    boolean isServiceProviderOnLeave(Long serviceProviderId, LocalDate fromDate, LocalDate toDate);
+
     Map<String, List<ServiceProviderLeaveDTO>> getServiceProviderLeaveHistoryByServiceProviderId(
             Long serviceproviderId);
 
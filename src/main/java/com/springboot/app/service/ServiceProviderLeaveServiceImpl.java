@@ -17,6 +17,7 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.Collections;
 
@@ -29,14 +30,17 @@ public class ServiceProviderLeaveServiceImpl implements
     private final ServiceProviderLeaveRepository leaveRepository;
     private final ServiceProviderLeaveMapper leaveMapper;
     private final ServiceProviderEngagementRepository engagementRepository;
+    private final ServiceProviderLeaveCalendar leaveCalendar;
 
     @Autowired
     public ServiceProviderLeaveServiceImpl(ServiceProviderLeaveRepository leaveRepository,
             ServiceProviderLeaveMapper leaveMapper,
-            ServiceProviderEngagementRepository engagementRepository) {
+            ServiceProviderEngagementRepository engagementRepository,
+            ServiceProviderLeaveCalendar leaveCalendar) {
         this.leaveRepository = leaveRepository;
         this.leaveMapper = leaveMapper;
         this.engagementRepository = engagementRepository;
+        this.leaveCalendar = leaveCalendar;
 
     }
 
@@ -73,9 +77,7 @@ public class ServiceProviderLeaveServiceImpl implements
             logger.info("Fetching leave records for service provider ID: {}", serviceProviderId);
         }
 
-        List<ServiceProviderLeave> leaves = leaveRepository.findAll().stream()
-                .filter(leave -> leave.getServiceProvider().getServiceproviderId().equals(serviceProviderId))
-                .toList();
+        List<ServiceProviderLeave> leaves = leaveRepository.findByServiceProvider_ServiceproviderId(serviceProviderId);
         return leaves.isEmpty()
                 ? Collections.emptyList()
                 : leaves.stream()
@@ -100,6 +102,7 @@ public class ServiceProviderLeaveServiceImpl implements
             leave.setServiceProvider(leaveMapper.dtoToServiceProviderLeave(leaveDTO).getServiceProvider());
 
             leaveRepository.save(leave);
+            leaveCalendar.upsert(leave);
             if (logger.isDebugEnabled()) {
 
                 logger.debug("Leave record updated with ID: {}", leave.getId());
@@ -123,6 +126,7 @@ public class ServiceProviderLeaveServiceImpl implements
 
         if (leaveOptional.isPresent()) {
             leaveRepository.deleteById(id);
+            leaveCalendar.remove(id);
             if (logger.isDebugEnabled()) {
                 logger.debug("Leave record deleted with ID: {}", id);
             }
@@ -142,10 +146,7 @@ public class ServiceProviderLeaveServiceImpl implements
             logger.info("Fetching service providers on leave today.");
         }
         LocalDate today = LocalDate.now();
-        List<ServiceProviderLeave> leaves = leaveRepository.findAll().stream()
-                .filter(leave -> !leave.getFromDate().isAfter(today) &&
-                        !leave.getToDate().isBefore(today))
-                .toList();
+        List<ServiceProviderLeave> leaves = leaveRepository.findOverlapping(today, today);
         return leaves.isEmpty()
                 ? null
                 : leaves.stream()
@@ -163,12 +164,8 @@ public class ServiceProviderLeaveServiceImpl implements
         LocalDate startOfNextWeek = today.plusDays(7L - today.getDayOfWeek().getValue());
         LocalDate endOfNextWeek = startOfNextWeek.plusDays(6);
 
-        List<ServiceProviderLeave> leaves = leaveRepository.findAll().stream()
-                .filter(leave -> (leave.getFromDate().isAfter(startOfNextWeek.minusDays(1))
-                        && leave.getFromDate().isBefore(endOfNextWeek.plusDays(1)))
-                        || (leave.getToDate().isAfter(startOfNextWeek.minusDays(1))
-                                && leave.getToDate().isBefore(endOfNextWeek.plusDays(1))))
-                .toList();
+        // Any leave overlapping the week, including leave that spans all of it
+        List<ServiceProviderLeave> leaves = leaveRepository.findOverlapping(startOfNextWeek, endOfNextWeek);
 
         return leaves.isEmpty()
                 ? null
@@ -222,6 +219,7 @@ public class ServiceProviderLeaveServiceImpl implements
 
         try {
             leaveRepository.save(leave);
+            leaveCalendar.upsert(leave);
             return CustomerConstants.ADDED;
         } catch (Exception e) {
             logger.error("Error while adding leave record for serviceProviderId: {}", leaveDTO.getServiceproviderId(),
@@ -250,9 +248,7 @@ public class ServiceProviderLeaveServiceImpl implements
         if (logger.isInfoEnabled()) {
             logger.info("Fetching approved service provider leave records.");
         }
-        List<ServiceProviderLeave> leaves = leaveRepository.findAll().stream()
-                .filter(ServiceProviderLeave::isApproved)
-                .toList();
+        List<ServiceProviderLeave> leaves = leaveRepository.findByApproved(true);
         return leaves.isEmpty() ? null
                 : leaves.stream()
                         .map(leaveMapper::serviceProviderLeaveToDTO)
@@ -265,15 +261,23 @@ public class ServiceProviderLeaveServiceImpl implements
         if (logger.isInfoEnabled()) {
             logger.info("Fetching unapproved service provider leave records.");
         }
-        List<ServiceProviderLeave> leaves = leaveRepository.findAll().stream()
-                .filter(leave -> !leave.isApproved())
-                .toList();
+        List<ServiceProviderLeave> leaves = leaveRepository.findByApproved(false);
         return leaves.isEmpty() ? null
                 : leaves.stream()
                         .map(leaveMapper::serviceProviderLeaveToDTO)
                         .toList();
     }
 
+    @Override
+    public Set<Long> getServiceProviderIdsOnLeave(LocalDate date) {
+        return leaveCalendar.getServiceProvidersOnLeave(date);
+    }
+
+    @Override
+    public boolean isServiceProviderOnLeave(Long serviceProviderId, LocalDate fromDate, LocalDate toDate) {
+        return leaveCalendar.isOnLeave(serviceProviderId, fromDate, toDate);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Map<String, List<ServiceProviderLeaveDTO>> getServiceProviderLeaveHistoryByServiceProviderId(
@@ -2,6 +2,7 @@ package com.springboot.app.service;
 
 import java.sql.Date;
 import java.util.List;
+import java.util.function.Consumer;
 import com.springboot.app.dto.ServiceProviderPaymentDTO;
 
 public interface ServiceProviderPaymentService {
@@ -26,4 +27,11 @@ public interface ServiceProviderPaymentService {
 
     List<ServiceProviderPaymentDTO> getPaymentsByServiceProviderId(Long serviceProviderId);
 
+    /**
+     * Passes every payment matching the optional filters to the action, in id
+     * order, reading them from the database one page at a time.
+     */
+    void forEachPaymentForExport(Integer month, Integer year, Long serviceProviderId,
+            Consumer<ServiceProviderPaymentDTO> action);
+
 }
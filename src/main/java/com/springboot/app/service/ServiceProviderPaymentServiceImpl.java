@@ -8,6 +8,8 @@ import com.springboot.app.entity.ServiceProvider;
 import com.springboot.app.entity.ServiceProviderCouponId;
 import com.springboot.app.entity.ServiceProviderPayment;
 import com.springboot.app.entity.ServiceProviderUsedCoupon;
+import com.springboot.app.enums.Currency;
+import com.springboot.app.enums.PaymentMode;
 import com.springboot.app.mapper.ServiceProviderPaymentMapper;
 import com.springboot.app.repository.ServiceProviderPaymentRepository;
 import com.springboot.app.repository.ServiceProviderUsedCouponRepository;
@@ -22,15 +24,19 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.Calendar;
 import java.sql.Date;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class ServiceProviderPaymentServiceImpl implements ServiceProviderPaymentService {
 
     private static final Logger logger = LoggerFactory.getLogger(ServiceProviderPaymentServiceImpl.class);
 
+    private static final int EXPORT_PAGE_SIZE = 1000;
+
     private final ServiceProviderPaymentRepository serviceProviderPaymentRepository;
     private final ServiceProviderPaymentMapper serviceProviderPaymentMapper;
     private final ServiceProviderUsedCouponRepository serviceProviderUsedCouponRepository;
@@ -269,4 +275,55 @@ public class ServiceProviderPaymentServiceImpl implements ServiceProviderPayment
                 .toList();
     }
 
-}
\ No newline at end of file
+    @Override
+    public void forEachPaymentForExport(Integer month, Integer year, Long serviceProviderId,
+            Consumer<ServiceProviderPaymentDTO> action) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Streaming service provider payments for export - month: {}, year: {}, serviceProviderId: {}",
+                    month, year, serviceProviderId);
+        }
+
+        // Each page is its own short read, so the export never holds a
+        // transaction or more than one page of rows
+        long afterId = 0L;
+        long exported = 0;
+        List<Object[]> rows;
+        do {
+            rows = serviceProviderPaymentRepository.findExportRowsAfterId(afterId, month, year, serviceProviderId,
+                    PageRequest.of(0, EXPORT_PAGE_SIZE));
+            for (Object[] row : rows) {
+                action.accept(toExportDTO(row));
+            }
+            if (!rows.isEmpty()) {
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+                exported += rows.size();
+            }
+        } while (rows.size() == EXPORT_PAGE_SIZE);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Streamed {} service provider payments for export.", exported);
+        }
+    }
+
+    private static ServiceProviderPaymentDTO toExportDTO(Object[] row) {
+        ServiceProviderPaymentDTO dto = new ServiceProviderPaymentDTO();
+        dto.setId((Long) row[0]);
+        dto.setServiceProviderId((Long) row[1]);
+        dto.setCustomerId((Long) row[2]);
+        dto.setStartDate((Date) row[3]);
+        dto.setEndDate((Date) row[4]);
+        dto.setSettledOn((Timestamp) row[5]);
+        dto.setPaymentMode((PaymentMode) row[6]);
+        dto.setPaymentOn((Date) row[7]);
+        dto.setTransactionId((String) row[8]);
+        dto.setNoOfDays((Double) row[9]);
+        dto.setAmount((Integer) row[10]);
+        dto.setCurrency((Currency) row[11]);
+        dto.setUpiId((String) row[12]);
+        dto.setMonth((Integer) row[13]);
+        dto.setYear((Integer) row[14]);
+        dto.setMonthlyAmount((Integer) row[15]);
+        return dto;
+    }
+
+}
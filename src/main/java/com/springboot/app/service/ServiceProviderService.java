@@ -41,8 +41,6 @@ public interface ServiceProviderService {
 
   List<ServiceProviderDTO> getServiceProvidersByRole(HousekeepingRole role);
 
-  String uploadExcelRecords(String filename);
-
   // List<String> calculateAvailableTimes(String timeslot);
   String checkMobileNoExists(Long mobileNo);
 
@@ -52,4 +50,10 @@ public interface ServiceProviderService {
 
   List<ServiceProviderDTO> findNearbyProviders(double latitude, double longitude, int precision);
 
+  List<ServiceProviderDTO> findNearestProviders(double latitude, double longitude, HousekeepingRole housekeepingRole,
+      int k);
+
+  List<ServiceProviderDTO> findProvidersWithinRadius(double latitude, double longitude,
+      HousekeepingRole housekeepingRole, double radiusInMeters);
+
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.HashMap;
 import java.util.List;
@@ -41,7 +42,6 @@ import com.springboot.app.exception.ServiceProviderRegistrationException;
 import com.springboot.app.mapper.ServiceProviderMapper;
 import com.springboot.app.repository.ServiceProviderEngagementRepository;
 import com.springboot.app.repository.ServiceProviderRepository;
-import com.springboot.app.util.ExcelSheetHandler;
 import org.springframework.data.domain.Pageable;
 
 @Service
@@ -52,21 +52,28 @@ public class ServiceProviderServiceImpl implements ServiceProviderService {
         private final ServiceProviderMapper serviceProviderMapper;
         private final UserCredentialsService userCredentialsService;
         private final ServiceProviderEngagementRepository engagementRepository;
-        private final ExcelSheetHandler excelSheetHandler;
 
         @Autowired
         private GeoHashService geoHashService;
 
+        @Autowired
+        private ServiceProviderSpatialIndex spatialIndex;
+
+        @Autowired
+        private LoginProfileCache loginProfileCache;
+
+        @Autowired
+        private SearchResultCache searchResultCache;
+
         @Autowired
         public ServiceProviderServiceImpl(ServiceProviderRepository serviceProviderRepository,
                         ServiceProviderMapper serviceProviderMapper,
                         UserCredentialsService userCredentialsService,
-                        ServiceProviderEngagementRepository engagementRepository, ExcelSheetHandler excelSheetHandler) {
+                        ServiceProviderEngagementRepository engagementRepository) {
                 this.serviceProviderRepository = serviceProviderRepository;
                 this.serviceProviderMapper = serviceProviderMapper;
                 this.userCredentialsService = userCredentialsService;
                 this.engagementRepository = engagementRepository;
-                this.excelSheetHandler = excelSheetHandler;
         }
 
         @PersistenceContext
@@ -204,6 +211,8 @@ public class ServiceProviderServiceImpl implements ServiceProviderService {
                 ServiceProvider serviceProvider = serviceProviderMapper.dtoToServiceProvider(serviceProviderDTO);
                 serviceProvider.setActive(true);
                 serviceProviderRepository.save(serviceProvider);
+                spatialIndex.upsert(serviceProvider);
+                searchResultCache.invalidate(serviceProvider.getGeohash());
                 logger.debug("Service provider saved successfully: {}", serviceProvider);
         }
 
@@ -232,10 +241,20 @@ public class ServiceProviderServiceImpl implements ServiceProviderService {
                 }
 
                 // 2. Update only non-null fields from DTO
+                loginProfileCache.evict(existingServiceProvider.getEmailId());
+                String previousGeohash = existingServiceProvider.getGeohash();
                 serviceProviderMapper.updateServiceProviderFromDTO(serviceProviderDTO, existingServiceProvider);
+                // Derived now rather than at flush, so searches around the new location are evicted too
+                existingServiceProvider.refreshGeohash();
 
                 // 3. Save updated entity
                 serviceProviderRepository.save(existingServiceProvider);
+                spatialIndex.upsert(existingServiceProvider);
+                loginProfileCache.evict(existingServiceProvider.getEmailId());
+                searchResultCache.invalidate(previousGeohash);
+                if (!Objects.equals(previousGeohash, existingServiceProvider.getGeohash())) {
+                        searchResultCache.invalidate(existingServiceProvider.getGeohash());
+                }
 
                 if (logger.isInfoEnabled()) {
                         logger.info("Service provider updated with ID: {}", serviceProviderDTO.getServiceproviderId());
@@ -255,6 +274,9 @@ public class ServiceProviderServiceImpl implements ServiceProviderService {
                                         // Deactivate the service provider
                                         serviceProvider.deactivate(); // Assuming deactivate() s
                                         serviceProviderRepository.save(serviceProvider);
+                                        spatialIndex.remove(id);
+                                        loginProfileCache.evict(serviceProvider.getEmailId());
+                                        searchResultCache.invalidate(serviceProvider.getGeohash());
                                         logger.info("Service provider with ID {} deactivated", id);
                                         return ServiceProviderConstants.DELETE_DESC;
                                 })
@@ -605,34 +627,56 @@ public class ServiceProviderServiceImpl implements ServiceProviderService {
                                 .toList();
         }
 
-        @Override
-        @Transactional
-        public String uploadExcelRecords(String filename) {
-                // Read the Excel file and retrieve the list of ServiceProviders
-                List<ServiceProvider> serviceProviders = excelSheetHandler.readExcelFile(filename);
-
-                if (serviceProviders != null && !serviceProviders.isEmpty()) {
-                        // Save each ServiceProvider to the database
-                        serviceProviderRepository.saveAll(serviceProviders);
-                }
-                return "successfull";
-        }
-
-        @Transactional
         public List<ServiceProviderDTO> findNearbyProviders(double latitude, double longitude, int precision) {
                 List<String> nearbyGeoHashes = geoHashService.getNearbyGeoHashes(latitude, longitude, precision);
 
-                List<ServiceProvider> providers;
-                if (precision == 5) {
-                        providers = serviceProviderRepository.findByGeoHash5In(nearbyGeoHashes);
-                } else if (precision == 6) {
-                        providers = serviceProviderRepository.findByGeoHash6In(nearbyGeoHashes);
-                } else {
-                        providers = serviceProviderRepository.findByGeoHash7In(nearbyGeoHashes);
-                }
+                List<ServiceProvider> providers = spatialIndex.findByCells(nearbyGeoHashes);
 
                 return providers.stream().map(serviceProviderMapper::serviceProviderToDTO).collect(Collectors.toList());
 
         }
 
+        @Override
+        public List<ServiceProviderDTO> findNearestProviders(double latitude, double longitude,
+                        HousekeepingRole housekeepingRole, int k) {
+                if (housekeepingRole == null) {
+                        throw new IllegalArgumentException("Role must be provided to fetch nearest service providers.");
+                }
+                int limit = Math.min(k, ServiceProviderConstants.MAX_NEAREST_RESULTS);
+                if (logger.isDebugEnabled()) {
+                        logger.debug("Finding {} nearest {} providers to latitude: {}, longitude: {}", limit,
+                                        housekeepingRole, latitude, longitude);
+                }
+
+                return spatialIndex.findNearest(housekeepingRole, latitude, longitude, limit).stream()
+                                .map(neighbour -> {
+                                        ServiceProviderDTO dto = serviceProviderMapper
+                                                        .serviceProviderToDTO(neighbour.item());
+                                        dto.setDistanceInMeters(neighbour.distanceInMeters());
+                                        return dto;
+                                })
+                                .toList();
+        }
+
+        @Override
+        public List<ServiceProviderDTO> findProvidersWithinRadius(double latitude, double longitude,
+                        HousekeepingRole housekeepingRole, double radiusInMeters) {
+                if (housekeepingRole == null) {
+                        throw new IllegalArgumentException("Role must be provided to search service providers by radius.");
+                }
+                if (logger.isDebugEnabled()) {
+                        logger.debug("Finding {} providers within {} m of latitude: {}, longitude: {}", housekeepingRole,
+                                        radiusInMeters, latitude, longitude);
+                }
+
+                return spatialIndex.findWithinRadius(housekeepingRole, latitude, longitude, radiusInMeters).stream()
+                                .map(neighbour -> {
+                                        ServiceProviderDTO dto = serviceProviderMapper
+                                                        .serviceProviderToDTO(neighbour.item());
+                                        dto.setDistanceInMeters(neighbour.distanceInMeters());
+                                        return dto;
+                                })
+                                .toList();
+        }
+
 }
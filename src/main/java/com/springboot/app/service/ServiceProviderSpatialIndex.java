@@ -0,0 +1,436 @@
+package com.springboot.app.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.springboot.app.entity.ServiceProvider;
+import com.springboot.app.enums.HousekeepingRole;
+import com.springboot.app.repository.ServiceProviderRepository;
+import com.springboot.app.repository.ServiceProviderSpecifications;
+import com.springboot.app.util.GeoKdTree;
+import com.springboot.app.util.GeohashCover;
+import com.springboot.app.util.GeohashRanges;
+
+/**
+ * Resident index of active service providers, keyed by housekeeping role and
+ * full-precision geohash. Entries are kept in a sorted map so that every
+ * geohash cell, whatever its precision, is a contiguous key range and can be
+ * answered with a single sub-map scan instead of a database query. Until the
+ * initial load completes, lookups become the same range scans on the
+ * (housekeepingRole, isActive, geohash) database index.
+ *
+ * Each role also has a {@link GeoKdTree} for distance-ranked nearest
+ * neighbour queries. Trees are immutable and are rebuilt off the request path:
+ * a write that adds, moves or removes a provider records it as changed, and
+ * nearest queries merge the changed providers, measured directly, with the
+ * tree's results for the others until the next rebuild, every
+ * spatial.index.tree-rebuild-ms, swaps in a tree that holds them. Writes that
+ * leave a provider in place, such as a new rating, change nothing in the tree;
+ * results always carry the provider's latest state.
+ *
+ * The index is loaded once the application is ready and is kept fresh by the
+ * service layer calling {@link #upsert} / {@link #remove} on every write made
+ * on this node. It is also rebuilt every spatial.index.reload-ms (5 minutes by
+ * default), which bounds how long a provider registered, moved or deactivated
+ * through another node, or a geohash backfilled there, stays wrong here. A
+ * load builds a new generation of the index beside the live one and swaps it
+ * in when done; writes that commit while it reads the database are applied to
+ * the live generation and replayed onto the new one before the swap, so a
+ * batch read before a concurrent commit cannot bring stale state back.
+ */
+@Service
+public class ServiceProviderSpatialIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServiceProviderSpatialIndex.class);
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    // Cell budget of a radius search cover; merged into fewer range scans
+    private static final int MAX_COVER_CELLS = 32;
+
+    // Separates the geohash from the provider id in index keys; sorts below
+    // every base32 character so a cell prefix still bounds its whole range.
+    private static final char KEY_SEPARATOR = '#';
+
+    private final ServiceProviderRepository serviceProviderRepository;
+
+    private final Object loadLock = new Object();
+
+    private volatile Generation live = new Generation();
+
+    // Writes applied while a load reads the database, replayed onto the loaded
+    // generation before it replaces the live one; null when no load runs.
+    // Guarded by this.
+    private List<Consumer<Generation>> writesDuringLoad;
+
+    private volatile boolean ready;
+
+    public ServiceProviderSpatialIndex(ServiceProviderRepository serviceProviderRepository) {
+        this.serviceProviderRepository = serviceProviderRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${spatial.index.reload-ms:300000}",
+            initialDelayString = "${spatial.index.reload-ms:300000}")
+    public void load() {
+        synchronized (loadLock) {
+            long startedAt = System.currentTimeMillis();
+            synchronized (this) {
+                writesDuringLoad = new ArrayList<>();
+            }
+            Generation loaded = new Generation();
+            try {
+                Long lastId = 0L;
+                List<ServiceProvider> batch;
+                do {
+                    batch = serviceProviderRepository.findActiveAfterId(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                    for (ServiceProvider provider : batch) {
+                        loaded.apply(provider);
+                        lastId = provider.getServiceproviderId();
+                    }
+                } while (batch.size() == LOAD_BATCH_SIZE);
+                loaded.buildTrees();
+
+                synchronized (this) {
+                    writesDuringLoad.forEach(write -> write.accept(loaded));
+                    live = loaded;
+                }
+            } finally {
+                synchronized (this) {
+                    writesDuringLoad = null;
+                }
+            }
+
+            ready = true;
+            logger.info("Spatial index loaded {} active service providers in {} ms", loaded.indexedById.size(),
+                    System.currentTimeMillis() - startedAt);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the providers of the given role whose geohash falls inside any of
+     * the given cells. Cells may be of any precision up to the stored one.
+     */
+    public List<ServiceProvider> findByRoleAndCells(HousekeepingRole housekeepingRole, Collection<String> cells) {
+        if (housekeepingRole == null) {
+            return Collections.emptyList();
+        }
+        if (!ready) {
+            return serviceProviderRepository.findAll(ServiceProviderSpecifications.hasRole(housekeepingRole)
+                    .and(ServiceProviderSpecifications.isActive())
+                    .and(ServiceProviderSpecifications.inGeohashCells(cells)));
+        }
+        List<ServiceProvider> result = new ArrayList<>();
+        collect(live.cellsByRole.get(housekeepingRole), cells, result);
+        return result;
+    }
+
+    /**
+     * Returns the providers of every role whose geohash falls inside any of the
+     * given cells.
+     */
+    public List<ServiceProvider> findByCells(Collection<String> cells) {
+        if (!ready) {
+            return serviceProviderRepository.findAll(ServiceProviderSpecifications.isActive()
+                    .and(ServiceProviderSpecifications.inGeohashCells(cells)));
+        }
+        Generation generation = live;
+        List<ServiceProvider> result = new ArrayList<>();
+        for (ConcurrentSkipListMap<String, ServiceProvider> roleCells : generation.cellsByRole.values()) {
+            collect(roleCells, cells, result);
+        }
+        collect(generation.unassignedCells, cells, result);
+        return result;
+    }
+
+    /**
+     * Returns up to k active providers of the given role ordered by haversine
+     * distance from the given point, nearest first.
+     */
+    public List<GeoKdTree.Neighbour<ServiceProvider>> findNearest(HousekeepingRole housekeepingRole,
+            double latitude, double longitude, int k) {
+        if (housekeepingRole == null) {
+            return Collections.emptyList();
+        }
+        if (!ready) {
+            return GeoKdTree.build(serviceProviderRepository.findByHousekeepingRoleAndIsActiveTrue(housekeepingRole),
+                    ServiceProvider::getLatitude, ServiceProvider::getLongitude)
+                    .nearest(latitude, longitude, k);
+        }
+        return live.nearest(housekeepingRole, latitude, longitude, k);
+    }
+
+    /**
+     * Rebuilds the trees of the roles with changed providers from a snapshot
+     * of their sorted maps, outside the index lock, and swaps each in.
+     * Providers changed after the snapshot stay marked as changed.
+     */
+    @Scheduled(fixedDelayString = "${spatial.index.tree-rebuild-ms:5000}")
+    public void rebuildChangedTrees() {
+        Generation generation = live;
+        for (HousekeepingRole role : HousekeepingRole.values()) {
+            List<ServiceProvider> providers;
+            long sequence;
+            synchronized (this) {
+                if (generation.changedByRole.get(role).isEmpty()) {
+                    continue;
+                }
+                providers = new ArrayList<>(generation.cellsByRole.get(role).values());
+                sequence = generation.writeSequence;
+            }
+            GeoKdTree<ServiceProvider> tree = GeoKdTree.build(providers, ServiceProvider::getLatitude,
+                    ServiceProvider::getLongitude);
+            long builtUpTo = sequence;
+            synchronized (this) {
+                generation.treesByRole.put(role, tree);
+                generation.changedByRole.get(role).values().removeIf(changedAt -> changedAt <= builtUpTo);
+            }
+        }
+    }
+
+    /**
+     * Returns the active providers of the given role within the radius of the
+     * point, nearest first. Candidates are read from a mixed-precision cell
+     * cover of the circle and filtered by exact haversine distance.
+     */
+    public List<GeoKdTree.Neighbour<ServiceProvider>> findWithinRadius(HousekeepingRole housekeepingRole,
+            double latitude, double longitude, double radiusInMeters) {
+        if (housekeepingRole == null) {
+            return Collections.emptyList();
+        }
+        List<ServiceProvider> candidates = findByRoleAndCells(housekeepingRole,
+                radiusCover(latitude, longitude, radiusInMeters));
+        double maxChord = GeoKdTree.chordForMeters(radiusInMeters);
+        List<GeoKdTree.Neighbour<ServiceProvider>> within = new ArrayList<>();
+        for (ServiceProvider candidate : candidates) {
+            double chord = GeoKdTree.chordBetween(latitude, longitude, candidate.getLatitude(),
+                    candidate.getLongitude());
+            if (chord <= maxChord) {
+                within.add(new GeoKdTree.Neighbour<>(candidate, GeoKdTree.metersForChord(chord)));
+            }
+        }
+        within.sort(Comparator.comparingDouble(GeoKdTree.Neighbour::distanceInMeters));
+        if (logger.isDebugEnabled()) {
+            logger.debug("Radius search of {} m kept {} of {} candidates", radiusInMeters, within.size(),
+                    candidates.size());
+        }
+        return within;
+    }
+
+    /** The geohash cells {@link #findWithinRadius} reads candidates from. */
+    public List<String> radiusCover(double latitude, double longitude, double radiusInMeters) {
+        return GeohashCover.cover(latitude, longitude, radiusInMeters, MAX_COVER_CELLS);
+    }
+
+    /**
+     * Adds or refreshes a provider once the surrounding transaction commits.
+     * Inactive providers and providers without a location are dropped.
+     */
+    public void upsert(ServiceProvider provider) {
+        runAfterCommit(() -> apply(provider));
+    }
+
+    public void upsertAll(Collection<ServiceProvider> providers) {
+        List<ServiceProvider> snapshot = new ArrayList<>(providers);
+        runAfterCommit(() -> snapshot.forEach(this::apply));
+    }
+
+    public void remove(Long serviceProviderId) {
+        runAfterCommit(() -> evict(serviceProviderId));
+    }
+
+    public int size() {
+        return live.indexedById.size();
+    }
+
+    private synchronized void apply(ServiceProvider provider) {
+        live.apply(provider);
+        if (writesDuringLoad != null) {
+            writesDuringLoad.add(loaded -> loaded.apply(provider));
+        }
+    }
+
+    private synchronized void evict(Long serviceProviderId) {
+        live.evict(serviceProviderId);
+        if (writesDuringLoad != null) {
+            writesDuringLoad.add(loaded -> loaded.evict(serviceProviderId));
+        }
+    }
+
+    /**
+     * One generation of the index. The live generation is only written under
+     * the index lock; a generation being loaded is private to the load.
+     */
+    private static final class Generation {
+
+        private final Map<HousekeepingRole, ConcurrentSkipListMap<String, ServiceProvider>> cellsByRole = new EnumMap<>(
+                HousekeepingRole.class);
+
+        // Providers without a housekeeping role are only reachable through the
+        // role-less /nearby lookup.
+        private final ConcurrentSkipListMap<String, ServiceProvider> unassignedCells = new ConcurrentSkipListMap<>();
+
+        // Where each provider was indexed, so an entry can be evicted even if
+        // the cached entity was modified after it was indexed.
+        private final Map<Long, Indexed> indexedById = new ConcurrentHashMap<>();
+
+        // The latest state of each indexed provider, which nearest results carry
+        private final Map<Long, ServiceProvider> providersById = new ConcurrentHashMap<>();
+
+        private final Map<HousekeepingRole, GeoKdTree<ServiceProvider>> treesByRole = new ConcurrentHashMap<>();
+
+        // Per role, providers added, moved or removed since the role's tree was
+        // built, with the write sequence of their last change
+        private final Map<HousekeepingRole, Map<Long, Long>> changedByRole = new EnumMap<>(HousekeepingRole.class);
+
+        private long writeSequence;
+
+        private Generation() {
+            for (HousekeepingRole role : HousekeepingRole.values()) {
+                cellsByRole.put(role, new ConcurrentSkipListMap<>());
+                treesByRole.put(role, GeoKdTree.empty());
+                changedByRole.put(role, new ConcurrentHashMap<>());
+            }
+        }
+
+        private void apply(ServiceProvider provider) {
+            Long id = provider.getServiceproviderId();
+            if (id == null) {
+                return;
+            }
+            if (!provider.isActive() || provider.getGeohash() == null) {
+                evict(id);
+                return;
+            }
+            Indexed indexed = new Indexed(keyOf(provider), provider.getHousekeepingRole(), provider.getLatitude(),
+                    provider.getLongitude());
+            if (indexed.equals(indexedById.get(id))) {
+                // Same key and place: only the state handed to callers changes
+                cellsFor(indexed.role()).put(indexed.key(), provider);
+                providersById.put(id, provider);
+                return;
+            }
+            evict(id);
+            cellsFor(indexed.role()).put(indexed.key(), provider);
+            indexedById.put(id, indexed);
+            providersById.put(id, provider);
+            markChanged(indexed.role(), id);
+        }
+
+        private void evict(Long serviceProviderId) {
+            Indexed indexed = indexedById.remove(serviceProviderId);
+            if (indexed != null) {
+                cellsFor(indexed.role()).remove(indexed.key());
+                providersById.remove(serviceProviderId);
+                markChanged(indexed.role(), serviceProviderId);
+            }
+        }
+
+        private void markChanged(HousekeepingRole housekeepingRole, Long serviceProviderId) {
+            if (housekeepingRole != null) {
+                changedByRole.get(housekeepingRole).put(serviceProviderId, ++writeSequence);
+            }
+        }
+
+        // Only called on a generation being loaded, before anyone else sees it
+        private void buildTrees() {
+            for (HousekeepingRole role : HousekeepingRole.values()) {
+                treesByRole.put(role, GeoKdTree.build(new ArrayList<>(cellsByRole.get(role).values()),
+                        ServiceProvider::getLatitude, ServiceProvider::getLongitude));
+                changedByRole.get(role).clear();
+            }
+        }
+
+        /**
+         * The tree's nearest providers, less those changed since it was built,
+         * merged with the changed providers still indexed under the role. The
+         * tree is asked for one extra neighbour per changed provider, so at
+         * least k unchanged ones remain when there are that many.
+         */
+        private List<GeoKdTree.Neighbour<ServiceProvider>> nearest(HousekeepingRole housekeepingRole,
+                double latitude, double longitude, int k) {
+            // Changes first: a tree swapped in after this read already holds them
+            Set<Long> changed = new HashSet<>(changedByRole.get(housekeepingRole).keySet());
+            GeoKdTree<ServiceProvider> tree = treesByRole.get(housekeepingRole);
+
+            List<GeoKdTree.Neighbour<ServiceProvider>> result = new ArrayList<>();
+            for (GeoKdTree.Neighbour<ServiceProvider> neighbour : tree.nearest(latitude, longitude,
+                    k + changed.size())) {
+                Long id = neighbour.item().getServiceproviderId();
+                ServiceProvider current = providersById.get(id);
+                if (current != null && !changed.contains(id)) {
+                    result.add(new GeoKdTree.Neighbour<>(current, neighbour.distanceInMeters()));
+                }
+            }
+            for (Long id : changed) {
+                Indexed indexed = indexedById.get(id);
+                ServiceProvider current = providersById.get(id);
+                if (indexed != null && current != null && indexed.role() == housekeepingRole
+                        && indexed.latitude() != null && indexed.longitude() != null) {
+                    result.add(new GeoKdTree.Neighbour<>(current, GeoKdTree.metersForChord(GeoKdTree
+                            .chordBetween(latitude, longitude, indexed.latitude(), indexed.longitude()))));
+                }
+            }
+            result.sort(Comparator.comparingDouble(GeoKdTree.Neighbour::distanceInMeters));
+            return result.size() > k ? new ArrayList<>(result.subList(0, k)) : result;
+        }
+
+        private ConcurrentSkipListMap<String, ServiceProvider> cellsFor(HousekeepingRole housekeepingRole) {
+            return housekeepingRole != null ? cellsByRole.get(housekeepingRole) : unassignedCells;
+        }
+    }
+
+    // Index key, role and location a provider was indexed with
+    private record Indexed(String key, HousekeepingRole role, Double latitude, Double longitude) {
+    }
+
+    private static String keyOf(ServiceProvider provider) {
+        return provider.getGeohash() + KEY_SEPARATOR + provider.getServiceproviderId();
+    }
+
+    private static void collect(ConcurrentSkipListMap<String, ServiceProvider> cells, Collection<String> prefixes,
+            List<ServiceProvider> result) {
+        for (GeohashRanges.Range range : GeohashRanges.cover(prefixes)) {
+            result.addAll(range.to() == null
+                    ? cells.tailMap(range.from(), true).values()
+                    : cells.subMap(range.from(), true, range.to(), false).values());
+        }
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.springboot.app.service;
 
 import java.util.List;
+import com.springboot.app.dto.ServiceProviderDTO;
 import com.springboot.app.dto.ShortListedServiceProviderDTO;
 
 public interface ShortListedServiceProviderService {
@@ -17,4 +18,16 @@ public interface ShortListedServiceProviderService {
 
     String removeFromServiceProviderIdList(Long customerId, String serviceProviderIdToRemove);
 
+    String addToShortlist(Long customerId, Long serviceProviderId);
+
+    // The same shortlist as by id, addressed by its customer
+    ShortListedServiceProviderDTO getShortlistOfCustomer(Long customerId);
+
+    String updateShortlistOfCustomer(Long customerId, String serviceProviderIdList);
+
+    String deleteShortlistOfCustomer(Long customerId);
+
+    // Details of the customer's shortlisted providers, read with one query
+    List<ServiceProviderDTO> getShortListedServiceProviderDetails(Long customerId);
+
 }
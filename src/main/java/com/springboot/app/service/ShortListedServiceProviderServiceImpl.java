@@ -1,25 +1,63 @@
 package com.springboot.app.service;
 
 import com.springboot.app.constant.CustomerConstants;
+import com.springboot.app.dto.ServiceProviderDTO;
 import com.springboot.app.dto.ShortListedServiceProviderDTO;
 import com.springboot.app.entity.Customer;
 import com.springboot.app.entity.ShortListedServiceProvider;
-import com.springboot.app.mapper.ShortListedServiceProviderMapper;
+import com.springboot.app.mapper.ServiceProviderMapper;
 import com.springboot.app.repository.ShortListedServiceProviderRepository;
+import com.springboot.app.repository.ShortlistEntryRepository;
 import com.springboot.app.repository.CustomerRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
 import java.util.*;
+import java.util.stream.Collectors;
 
+/**
+ * Customer shortlists, stored as one shortlist_entry row per (customer,
+ * service provider). Adding and removing a provider touch only that row and
+ * can be repeated safely. The DTO still carries the shortlist as a
+ * comma-separated list for existing clients.
+ *
+ * Each customer also keeps one shortlisted_service_provider row, whose id is
+ * the shortlist id of the DTO and of the /shortlisted/{id} endpoints, as
+ * before. The /shortlisted/customer/{customerId} endpoints address the same
+ * shortlist by customer.
+ *
+ * Shortlists saved in the old comma-separated form are moved into
+ * shortlist_entry once the application is ready.
+ */
 @Service
 public class ShortListedServiceProviderServiceImpl implements ShortListedServiceProviderService {
 
     private static final Logger logger = LoggerFactory.getLogger(ShortListedServiceProviderService.class);
 
+    private static final String MIGRATION_JOB_NAME = "shortlist-migration";
+
+    // Adds the provider unless it is already shortlisted; updates no row in that
+    // case. Two concurrent adds of the same provider can still both pass the
+    // check, and the second then fails with a key violation
+    private static final String INSERT_ENTRY_SQL = "INSERT INTO shortlist_entry "
+            + "(customerId, serviceProviderId, addedAt) SELECT ?, ?, ? WHERE NOT EXISTS "
+            + "(SELECT 1 FROM shortlist_entry WHERE customerId = ? AND serviceProviderId = ?)";
+
+    @Autowired
+    private ShortlistEntryRepository shortlistEntryRepository;
+
     @Autowired
     private ShortListedServiceProviderRepository shortListedServiceProviderRepository;
 
@@ -27,7 +65,29 @@ public class ShortListedServiceProviderServiceImpl implements ShortListedService
     private CustomerRepository customerRepository;
 
     @Autowired
-    private ShortListedServiceProviderMapper shortListedServiceProviderMapper;
+    private ServiceProviderMapper serviceProviderMapper;
+
+    @Autowired
+    private ClusterJobRunner jobRunner;
+
+    @Autowired
+    private SchedulerLeaseService leaseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    // Inserts run behind a savepoint of the caller's transaction, so a key
+    // violation rolls back only the insert and the transaction carries on
+    private TransactionTemplate nestedTransaction;
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nestedTransaction = new TransactionTemplate(transactionManager);
+        this.nestedTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
 
     @Override
     @Transactional(readOnly = true)
@@ -35,11 +95,14 @@ public class ShortListedServiceProviderServiceImpl implements ShortListedService
         if(logger.isInfoEnabled()) {
             logger.info("Fetching all short-listed service providers with pagination - page: {}, size: {}", page, size);
         }
-        return shortListedServiceProviderRepository
-                .findAll(PageRequest.of(page, size))
-                .getContent()
-                .stream()
-                .map(shortListedServiceProviderMapper::shortListedServiceProviderToDTO)
+        List<Object[]> shortlistIds = shortListedServiceProviderRepository.findShortlistIds(PageRequest.of(page, size));
+        if (shortlistIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, List<Long>> entries = findEntries(shortlistIds.stream().map(row -> (Long) row[1]).toList());
+        return shortlistIds.stream()
+                .map(row -> toDTO((Long) row[0], (Long) row[1],
+                        entries.getOrDefault((Long) row[1], Collections.emptyList())))
                 .toList();
     }
 
@@ -49,11 +112,31 @@ public class ShortListedServiceProviderServiceImpl implements ShortListedService
         if (logger.isInfoEnabled()) {
             logger.info("Fetching short-listed service provider by ID: {}", id);
         }
-        ShortListedServiceProvider provider = shortListedServiceProviderRepository.findById(id).orElse(null);
-        if (logger.isDebugEnabled()) {
-            logger.debug("Found short-listed service provider: {}", provider);
+        return shortListedServiceProviderRepository.findById(id)
+                .map(this::toDTO)
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ShortListedServiceProviderDTO getShortlistOfCustomer(Long customerId) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Fetching short-listed service providers of customer ID: {}", customerId);
         }
-        return provider != null ? shortListedServiceProviderMapper.shortListedServiceProviderToDTO(provider) : null;
+        return shortListedServiceProviderRepository.findFirstByCustomerCustomerIdOrderByIdAsc(customerId)
+                .map(this::toDTO)
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ServiceProviderDTO> getShortListedServiceProviderDetails(Long customerId) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Fetching short-listed service provider details for customer ID: {}", customerId);
+        }
+        return shortlistEntryRepository.findShortlistedServiceProviders(customerId).stream()
+                .map(serviceProviderMapper::serviceProviderToDTO)
+                .toList();
     }
 
     @Override
@@ -66,37 +149,37 @@ public class ShortListedServiceProviderServiceImpl implements ShortListedService
         if (customer == null) {
             return CustomerConstants.NOT_FOUND;
         }
-
-        List<ShortListedServiceProvider> existingProviders = shortListedServiceProviderRepository.findAll();
-
-        ShortListedServiceProvider existingProvider = existingProviders.stream()
-                .filter(provider -> provider.getCustomer().getCustomerId().equals(dto.getCustomerId()))
-                .findFirst()
-                .orElse(null);
-
+        boolean existing = shortListedServiceProviderRepository
+                .findFirstByCustomerCustomerIdOrderByIdAsc(customer.getCustomerId()).isPresent();
+        if (!existing) {
+            createShortlist(customer);
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        int added = 0;
+        for (Long serviceProviderId : parseIds(dto.getServiceProviderIdList())) {
+            added += insertIfAbsent(customer.getCustomerId(), serviceProviderId, now);
+        }
         if (logger.isDebugEnabled()) {
-            logger.debug("Existing provider for customer ID {}: {}", dto.getCustomerId(), existingProvider);
-        }
-        if (existingProvider != null) {
-            Set<String> updatedServiceProviderIds = new HashSet<>(
-                    Arrays.asList(existingProvider.getServiceProviderIdList().split(",")));
-            updatedServiceProviderIds.addAll(Arrays.asList(dto.getServiceProviderIdList().split(",")));
-            existingProvider.setServiceProviderIdList(String.join(",", updatedServiceProviderIds));
-            shortListedServiceProviderRepository.save(existingProvider);
-            if (logger.isDebugEnabled()) {
-                logger.debug("Updated service provider ID list for customer ID: {}", dto.getCustomerId());
-            }
-            return CustomerConstants.UPDATED;
-        } else {
-            ShortListedServiceProvider newProvider = new ShortListedServiceProvider();
-            newProvider.setCustomer(customer);
-            newProvider.setServiceProviderIdList(dto.getServiceProviderIdList());
-            shortListedServiceProviderRepository.save(newProvider);
-            if (logger.isDebugEnabled()) {
-                logger.debug("Added new ShortListedServiceProvider for customer ID: {}", dto.getCustomerId());
-            }
-            return CustomerConstants.ADDED;
+            logger.debug("Added {} service provider IDs for customer ID: {}", added, dto.getCustomerId());
         }
+        return existing ? CustomerConstants.UPDATED : CustomerConstants.ADDED;
+    }
+
+    @Override
+    @Transactional
+    public String addToShortlist(Long customerId, Long serviceProviderId) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Adding service provider ID: {} to customer ID: {}", serviceProviderId, customerId);
+        }
+        Customer customer = customerRepository.findById(customerId).orElse(null);
+        if (customer == null) {
+            return CustomerConstants.NOT_FOUND;
+        }
+        if (shortListedServiceProviderRepository.findFirstByCustomerCustomerIdOrderByIdAsc(customerId).isEmpty()) {
+            createShortlist(customer);
+        }
+        insertIfAbsent(customerId, serviceProviderId, new Timestamp(System.currentTimeMillis()));
+        return CustomerConstants.ADDED;
     }
 
     @Override
@@ -105,21 +188,35 @@ public class ShortListedServiceProviderServiceImpl implements ShortListedService
         if (logger.isInfoEnabled()) {
             logger.info("Updating short-listed service provider with ID: {}", dto.getId());
         }
-        ShortListedServiceProvider providerToUpdate = shortListedServiceProviderRepository.findById(dto.getId())
+        ShortListedServiceProvider shortlist = shortListedServiceProviderRepository.findById(dto.getId())
                 .orElse(null);
-        if (providerToUpdate != null) {
-            providerToUpdate.setServiceProviderIdList(dto.getServiceProviderIdList());
-            shortListedServiceProviderRepository.save(providerToUpdate);
-            if (logger.isDebugEnabled()) {
-                logger.debug("ShortListedServiceProvider with ID {} updated successfully.", dto.getId());
-            }
-            return CustomerConstants.UPDATED;
-        } else {
+        if (shortlist == null) {
             if (logger.isErrorEnabled()) {
                 logger.error("ShortListedServiceProvider with ID {} not found.", dto.getId());
             }
             return CustomerConstants.NOT_FOUND;
         }
+        replaceEntries(shortlist.getCustomer().getCustomerId(), dto.getServiceProviderIdList());
+        if (logger.isDebugEnabled()) {
+            logger.debug("ShortListedServiceProvider with ID {} updated successfully.", dto.getId());
+        }
+        return CustomerConstants.UPDATED;
+    }
+
+    @Override
+    @Transactional
+    public String updateShortlistOfCustomer(Long customerId, String serviceProviderIdList) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Updating short-listed service providers of customer ID: {}", customerId);
+        }
+        if (shortListedServiceProviderRepository.findFirstByCustomerCustomerIdOrderByIdAsc(customerId).isEmpty()) {
+            if (logger.isErrorEnabled()) {
+                logger.error("Shortlist of customer ID {} not found.", customerId);
+            }
+            return CustomerConstants.NOT_FOUND;
+        }
+        replaceEntries(customerId, serviceProviderIdList);
+        return CustomerConstants.UPDATED;
     }
 
     @Override
@@ -128,18 +225,33 @@ public class ShortListedServiceProviderServiceImpl implements ShortListedService
         if (logger.isInfoEnabled()) {
             logger.info("Deleting short-listed service provider with ID: {}", id);
         }
-        if (shortListedServiceProviderRepository.existsById(id)) {
-            shortListedServiceProviderRepository.deleteById(id);
-            if (logger.isDebugEnabled()) {
-                logger.debug("ShortListedServiceProvider with ID {} deleted successfully.", id);
-            }
-            return CustomerConstants.DELETED;
-        } else {
+        ShortListedServiceProvider shortlist = shortListedServiceProviderRepository.findById(id).orElse(null);
+        if (shortlist == null) {
             if (logger.isErrorEnabled()) {
                 logger.error("ShortListedServiceProvider with ID {} not found.", id);
             }
             return CustomerConstants.NOT_FOUND;
         }
+        deleteShortlist(shortlist.getCustomer().getCustomerId());
+        if (logger.isDebugEnabled()) {
+            logger.debug("ShortListedServiceProvider with ID {} deleted successfully.", id);
+        }
+        return CustomerConstants.DELETED;
+    }
+
+    @Override
+    @Transactional
+    public String deleteShortlistOfCustomer(Long customerId) {
+        if (logger.isInfoEnabled()) {
+            logger.info("Deleting shortlist of customer ID: {}", customerId);
+        }
+        if (deleteShortlist(customerId) == 0) {
+            if (logger.isErrorEnabled()) {
+                logger.error("Shortlist of customer ID {} not found.", customerId);
+            }
+            return CustomerConstants.NOT_FOUND;
+        }
+        return CustomerConstants.DELETED;
     }
 
     @Override
@@ -148,24 +260,14 @@ public class ShortListedServiceProviderServiceImpl implements ShortListedService
         if (logger.isInfoEnabled()) {
             logger.info("Removing service provider ID: {} from customer ID: {}", serviceProviderIdToRemove, customerId);
         }
-        List<ShortListedServiceProvider> providers = shortListedServiceProviderRepository.findAll();
-
-        ShortListedServiceProvider existingProvider = providers.stream()
-                .filter(provider -> provider.getCustomer().getCustomerId().equals(customerId))
-                .findFirst()
-                .orElse(null);
-
-        if (existingProvider == null) {
+        Long serviceProviderId;
+        try {
+            serviceProviderId = Long.valueOf(serviceProviderIdToRemove.trim());
+        } catch (NumberFormatException e) {
             return CustomerConstants.NOT_FOUND;
         }
 
-        List<String> serviceProviderIds = new ArrayList<>(
-                Arrays.asList(existingProvider.getServiceProviderIdList().split(",")));
-        boolean removed = serviceProviderIds.remove(serviceProviderIdToRemove);
-
-        if (removed) {
-            existingProvider.setServiceProviderIdList(String.join(",", serviceProviderIds));
-            shortListedServiceProviderRepository.save(existingProvider);
+        if (shortlistEntryRepository.deleteEntry(customerId, serviceProviderId) > 0) {
             if (logger.isDebugEnabled()) {
                 logger.debug("Removed service provider ID: {} from customer ID: {}", serviceProviderIdToRemove, customerId);
             }
@@ -177,4 +279,117 @@ public class ShortListedServiceProviderServiceImpl implements ShortListedService
             return CustomerConstants.NOT_FOUND;
         }
     }
+
+    /**
+     * Moves shortlists saved as comma-separated lists into shortlist_entry,
+     * keeping their rows as the shortlists' ids, and gives customers with
+     * entries but no shortlist row one. Runs on one node through
+     * ClusterJobRunner; inserts skip entries that already exist, so a
+     * repeated migration is harmless.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyShortlists() {
+        jobRunner.run(MIGRATION_JOB_NAME, lease -> transactionTemplate.execute(status -> {
+            leaseService.fence(lease);
+            return migrate();
+        }));
+    }
+
+    private long migrate() {
+        List<ShortListedServiceProvider> legacy = shortListedServiceProviderRepository
+                .findByServiceProviderIdListIsNotNull();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        int migrated = 0;
+        for (ShortListedServiceProvider shortlist : legacy) {
+            for (Long serviceProviderId : parseIds(shortlist.getServiceProviderIdList())) {
+                migrated += insertIfAbsent(shortlist.getCustomer().getCustomerId(), serviceProviderId, now);
+            }
+            shortlist.setServiceProviderIdList(null);
+        }
+        List<Long> withoutShortlist = shortListedServiceProviderRepository.findCustomerIdsWithoutShortlist();
+        withoutShortlist.forEach(customerId -> createShortlist(customerRepository.getReferenceById(customerId)));
+        if (logger.isInfoEnabled() && (!legacy.isEmpty() || !withoutShortlist.isEmpty())) {
+            logger.info("Migrated {} legacy shortlists into {} shortlist entries; created {} missing shortlists",
+                    legacy.size(), migrated, withoutShortlist.size());
+        }
+        return legacy.size() + withoutShortlist.size();
+    }
+
+    private void createShortlist(Customer customer) {
+        ShortListedServiceProvider shortlist = new ShortListedServiceProvider();
+        shortlist.setCustomer(customer);
+        shortListedServiceProviderRepository.save(shortlist);
+    }
+
+    /**
+     * Returns 1 if the entry was added, 0 if it was already there. The insert
+     * goes through JDBC on the caller's connection, in the caller's transaction,
+     * so it commits or rolls back with it. Only a duplicate key, from a
+     * concurrent add of the same entry, is absorbed; any other integrity
+     * error propagates.
+     */
+    private int insertIfAbsent(Long customerId, Long serviceProviderId, Timestamp addedAt) {
+        try {
+            return nestedTransaction.execute(status -> jdbcTemplate.update(INSERT_ENTRY_SQL, customerId,
+                    serviceProviderId, addedAt, customerId, serviceProviderId));
+        } catch (DuplicateKeyException e) {
+            // A concurrent add inserted the same entry first
+            return 0;
+        }
+    }
+
+    private void replaceEntries(Long customerId, String serviceProviderIdList) {
+        Set<Long> serviceProviderIds = parseIds(serviceProviderIdList);
+        if (serviceProviderIds.isEmpty()) {
+            shortlistEntryRepository.deleteByCustomerId(customerId);
+            return;
+        }
+        shortlistEntryRepository.deleteByCustomerIdExcept(customerId, serviceProviderIds);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        serviceProviderIds.forEach(serviceProviderId -> insertIfAbsent(customerId, serviceProviderId, now));
+    }
+
+    // Returns the number of rows deleted
+    private int deleteShortlist(Long customerId) {
+        return shortlistEntryRepository.deleteByCustomerId(customerId)
+                + shortListedServiceProviderRepository.deleteByCustomerId(customerId);
+    }
+
+    // Provider ids of each customer, oldest entry first
+    private Map<Long, List<Long>> findEntries(Collection<Long> customerIds) {
+        Map<Long, List<Long>> entries = new HashMap<>();
+        for (Object[] row : shortlistEntryRepository.findEntries(customerIds)) {
+            entries.computeIfAbsent((Long) row[0], customerId -> new ArrayList<>()).add((Long) row[1]);
+        }
+        return entries;
+    }
+
+    // Valid ids of a comma-separated list, in order and without duplicates
+    private static Set<Long> parseIds(String serviceProviderIdList) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (serviceProviderIdList == null) {
+            return ids;
+        }
+        for (String id : serviceProviderIdList.split(",")) {
+            try {
+                if (!id.isBlank()) {
+                    ids.add(Long.valueOf(id.trim()));
+                }
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring invalid service provider ID in shortlist: {}", id);
+            }
+        }
+        return ids;
+    }
+
+    private ShortListedServiceProviderDTO toDTO(ShortListedServiceProvider shortlist) {
+        Long customerId = shortlist.getCustomer().getCustomerId();
+        return toDTO(shortlist.getId(), customerId,
+                findEntries(List.of(customerId)).getOrDefault(customerId, Collections.emptyList()));
+    }
+
+    private static ShortListedServiceProviderDTO toDTO(Long id, Long customerId, List<Long> serviceProviderIds) {
+        return new ShortListedServiceProviderDTO(id, customerId,
+                serviceProviderIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
 }
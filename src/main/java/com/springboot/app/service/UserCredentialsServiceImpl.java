@@ -42,6 +42,7 @@ public class UserCredentialsServiceImpl implements UserCredentialsService {
     private final ServiceProviderMapper serviceProviderMapper;
     private final VendorRepository vendorRepository;
     private final VendorMapper vendorMapper;
+    private final LoginProfileCache loginProfileCache;
 
     @Autowired
     public UserCredentialsServiceImpl(UserCredentialsRepository userCredentialsRepository,
@@ -52,7 +53,8 @@ public class UserCredentialsServiceImpl implements UserCredentialsService {
             CustomerMapper customerMapper,
             ServiceProviderMapper serviceProviderMapper,
             VendorRepository vendorRepository,
-            VendorMapper vendorMapper) {
+            VendorMapper vendorMapper,
+            LoginProfileCache loginProfileCache) {
         this.userCredentialsRepository = userCredentialsRepository;
         this.userCredentialsMapper = userCredentialsMapper;
         this.lockSettingsConfig = lockSettingsConfig;
@@ -62,6 +64,7 @@ public class UserCredentialsServiceImpl implements UserCredentialsService {
         this.serviceProviderMapper = serviceProviderMapper;
         this.vendorRepository = vendorRepository;
         this.vendorMapper = vendorMapper;
+        this.loginProfileCache = loginProfileCache;
     }
 
     @Override
@@ -123,27 +126,39 @@ public class UserCredentialsServiceImpl implements UserCredentialsService {
         Map<String, Object> response = new HashMap<>();
         response.put("role", user.getRole().name());
 
+        LoginProfileCache.LoginProfile profile = loginProfileCache.get(user.getUsername());
+        if (profile == null) {
+            profile = findLoginProfile(user);
+            if (profile != null) {
+                loginProfileCache.put(user.getUsername(), profile);
+            }
+        }
+        if (profile != null) {
+            response.put(profile.responseKey(), profile.details());
+        }
+
+        return response;
+    }
+
+    // Reads at most one row, through the unique emailId of the user's role table
+    private LoginProfileCache.LoginProfile findLoginProfile(UserCredentials user) {
         if (user.getRole() == UserRole.CUSTOMER) {
-            customerRepository.findAll().stream()
-                    .filter(customer -> customer.getEmailId().equals(user.getUsername()))
-                    .findFirst()
-                    .map(customerMapper::customerToDTO)
-                    .ifPresent(dto -> response.put("customerDetails", dto));
+            return customerRepository.findByEmailId(user.getUsername())
+                    .map(customer -> new LoginProfileCache.LoginProfile("customerDetails",
+                            customerMapper.customerToDTO(customer)))
+                    .orElse(null);
         } else if (user.getRole() == UserRole.SERVICE_PROVIDER) {
-            serviceProviderRepository.findAll().stream()
-                    .filter(provider -> provider.getEmailId().equals(user.getUsername()))
-                    .findFirst()
-                    .map(serviceProviderMapper::serviceProviderToDTO)
-                    .ifPresent(dto -> response.put("serviceProviderDetails", dto));
+            return serviceProviderRepository.findByEmailId(user.getUsername())
+                    .map(provider -> new LoginProfileCache.LoginProfile("serviceProviderDetails",
+                            serviceProviderMapper.serviceProviderToDTO(provider)))
+                    .orElse(null);
         } else if (user.getRole() == UserRole.VENDOR) {
-            vendorRepository.findAll().stream()
-                    .filter(vendor -> vendor.getEmailId().equals(user.getUsername()))
-                    .findFirst()
-                    .map(vendorMapper::vendorToDTO)
-                    .ifPresent(dto -> response.put("vendorDetails", dto));
+            return vendorRepository.findByEmailId(user.getUsername())
+                    .map(vendor -> new LoginProfileCache.LoginProfile("vendorDetails",
+                            vendorMapper.vendorToDTO(vendor)))
+                    .orElse(null);
         }
-
-        return response;
+        return null;
     }
 
     private Map<String, Object> handleFailedLogin(UserCredentials user) {
@@ -29,14 +29,17 @@ public class VendorServiceImpl implements VendorService {
     private final VendorRepository vendorRepository;
     private final VendorMapper vendorMapper;
     private final UserCredentialsService userCredentialsService;
+    private final LoginProfileCache loginProfileCache;
 
     @Autowired
     public VendorServiceImpl(VendorRepository vendorRepository,
             VendorMapper vendorMapper,
-            UserCredentialsService userCredentialsService) {
+            UserCredentialsService userCredentialsService,
+            LoginProfileCache loginProfileCache) {
         this.vendorRepository = vendorRepository;
         this.vendorMapper = vendorMapper;
         this.userCredentialsService = userCredentialsService;
+        this.loginProfileCache = loginProfileCache;
     }
 
     @Override
@@ -175,6 +178,7 @@ public class VendorServiceImpl implements VendorService {
         if (vendorRepository.existsById(vendorDTO.getVendorId())) {
             Vendor existingVendor = vendorMapper.dtoToVendor(vendorDTO);
             vendorRepository.save(existingVendor);
+            loginProfileCache.evict(existingVendor.getEmailId());
             if (logger.isInfoEnabled()) {
                 logger.info("Vendor updated with ID: {}", vendorDTO.getVendorId());
             }
@@ -205,6 +209,7 @@ public class VendorServiceImpl implements VendorService {
 
             vendor.deactivate(); // Deactivate vendor
             vendorRepository.save(vendor);
+            loginProfileCache.evict(vendor.getEmailId());
             if (logger.isInfoEnabled()) {
                 logger.info("Vendor with ID {} deactivated", id);
             }
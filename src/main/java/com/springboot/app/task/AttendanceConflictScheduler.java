@@ -1,83 +1,184 @@
 package com.springboot.app.task;
 
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import com.springboot.app.entity.Attendance;
+import com.springboot.app.entity.AttendanceConflict;
+import com.springboot.app.entity.ScanCheckpoint;
+import com.springboot.app.repository.AttendanceConflictRepository;
 import com.springboot.app.repository.AttendanceRepository;
-
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import lombok.RequiredArgsConstructor;
+import com.springboot.app.repository.ScanCheckpointRepository;
+import com.springboot.app.service.ClusterJobRunner;
+import com.springboot.app.service.SchedulerLeaseService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
-
+import java.util.Map;
+
+/**
+ * Maintains the attendance conflict feed incrementally.
+ *
+ * Each run reads only the attendance records inserted or updated since the
+ * scan's high-water mark, in (modifiedAt, id) keyset batches. Records that
+ * conflict are added to (or reopened in) the attendance_conflict table, and
+ * open conflicts whose record has been corrected are cleared. Each batch
+ * commits together with the advanced mark, so the work per run follows the
+ * number of changes rather than the size of the day's attendance.
+ *
+ * A run starts slightly before the mark, so a record whose transaction
+ * committed after a later record was scanned is still picked up; reprocessing
+ * a record is harmless.
+ *
+ * The scan runs as a cluster singleton through ClusterJobRunner, and every
+ * batch is fenced by its lease.
+ */
 @Component
-@RequiredArgsConstructor
 public class AttendanceConflictScheduler {
         private static final Logger logger = LoggerFactory.getLogger(AttendanceConflictScheduler.class);
 
+        private static final String SCAN_NAME = "attendance-conflicts";
+
+        private static final int BATCH_SIZE = 1000;
+
+        // Mark of the first run: every existing record is scanned once
+        private static final LocalDateTime INITIAL_MARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+
         private final AttendanceRepository attendanceRepository;
+        private final AttendanceConflictRepository conflictRepository;
+        private final ScanCheckpointRepository checkpointRepository;
+        private final SchedulerLeaseService leaseService;
+        private final ClusterJobRunner jobRunner;
+        private final TransactionTemplate transactionTemplate;
+        private final long overlapMillis;
 
         @PersistenceContext
         private EntityManager entityManager;
 
-        @Scheduled(fixedRate = 300000) // Runs every 5 minutes (300,000 ms)
-        @Transactional(readOnly = true)
+        public AttendanceConflictScheduler(AttendanceRepository attendanceRepository,
+                        AttendanceConflictRepository conflictRepository,
+                        ScanCheckpointRepository checkpointRepository,
+                        SchedulerLeaseService leaseService,
+                        ClusterJobRunner jobRunner,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${attendance.conflicts.overlap-ms:120000}") long overlapMillis) {
+                this.attendanceRepository = attendanceRepository;
+                this.conflictRepository = conflictRepository;
+                this.checkpointRepository = checkpointRepository;
+                this.leaseService = leaseService;
+                this.jobRunner = jobRunner;
+                this.transactionTemplate = new TransactionTemplate(transactionManager);
+                this.overlapMillis = overlapMillis;
+        }
+
+        @Scheduled(fixedDelayString = "${attendance.conflicts.scan-ms:300000}") // Every 5 minutes by default
         public void checkAttendanceConflicts() {
-                logger.info("Running scheduled check for attendance conflicts...");
-
-                // Get current date-time for comparison (assuming you want to check today's
-                // records)
-                LocalDateTime startOfDay = LocalDateTime.now().toLocalDate().atStartOfDay();
-
-                // Specification for conflicting conditions
-                Specification<Attendance> spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
-                                criteriaBuilder.or(
-                                                criteriaBuilder.and(
-                                                                criteriaBuilder.equal(root.get("isAttended"), true),
-                                                                criteriaBuilder.equal(root.get("isCustomerAgreed"),
-                                                                                false)),
-                                                criteriaBuilder.and(
-                                                                criteriaBuilder.equal(root.get("isAttended"), false),
-                                                                criteriaBuilder.equal(root.get("isCustomerAgreed"),
-                                                                                true))),
-                                criteriaBuilder.greaterThanOrEqualTo(root.get("attendanceStatus"), startOfDay) // Filter
-
-                );
-
-                List<Attendance> attendanceList = attendanceRepository.findAll(spec);
-
-                if (attendanceList.isEmpty()) {
-                        logger.info("No attendance conflicts found.");
-                        return;
+                jobRunner.run(SCAN_NAME, this::scan);
+        }
+
+        private long scan(SchedulerLeaseService.Lease lease) {
+                ScanCheckpoint checkpoint = checkpointRepository.findById(SCAN_NAME).orElse(null);
+                if (checkpoint == null) {
+                        int backfilled = transactionTemplate.execute(status -> attendanceRepository.backfillModifiedAt());
+                        logger.info("Starting attendance conflict scan; {} existing records to scan", backfilled);
+                        checkpoint = new ScanCheckpoint(SCAN_NAME, INITIAL_MARK, 0);
+                }
+
+                LocalDateTime afterTime = checkpoint.getMarkTime().minusNanos(overlapMillis * 1_000_000);
+                long afterId = 0;
+                int scanned = 0;
+                int[] totals = new int[2]; // [opened, cleared]
+                while (true) {
+                        List<Object[]> rows = attendanceRepository.findChangedAfter(afterTime, afterId,
+                                        PageRequest.of(0, BATCH_SIZE));
+                        if (rows.isEmpty()) {
+                                break;
+                        }
+                        ScanCheckpoint batchCheckpoint = checkpoint;
+                        checkpoint = transactionTemplate.execute(status -> {
+                                leaseService.fence(lease);
+                                return processBatch(rows, batchCheckpoint, totals);
+                        });
+                        scanned += rows.size();
+
+                        Object[] last = rows.get(rows.size() - 1);
+                        afterTime = (LocalDateTime) last[6];
+                        afterId = (Long) last[0];
+                        if (rows.size() < BATCH_SIZE) {
+                                break;
+                        }
                 }
 
-                logger.warn("Conflicting attendance records found:");
-                attendanceList.forEach(attendance -> {
-                        // Safely retrieve the ServiceProvider ID
-                        Long serviceProviderId = attendance.getServiceProvider() != null
-                                        ? attendance.getServiceProvider().getServiceproviderId()
-                                        : null;
-
-                        // Safely retrieve the Customer ID
-                        Long customerId = attendance.getCustomer() != null
-                                        ? attendance.getCustomer().getCustomerId()
-                                        : null;
-
-                        // Logging in the desired format with specific IDs
-                        logger.warn(String.format(
-                                        "Conflict detected - Customer ID: %d, ServiceProvider ID: %d, isAttended: %b, isCustomerAgreed: %b",
-                                        customerId != null ? customerId : 0, // Default to 0 if null
-                                        serviceProviderId != null ? serviceProviderId : 0, // Default to 0 if null
-                                        attendance.isAttended(),
-                                        attendance.isCustomerAgreed()));
-                });
+                if (logger.isInfoEnabled()) {
+                        logger.info("Attendance conflict scan: {} changed records, {} conflicts opened, {} cleared",
+                                        scanned, totals[0], totals[1]);
+                }
+                return totals[0] + totals[1];
+        }
+
+        // Applies one batch to the feed and advances the mark past it
+        private ScanCheckpoint processBatch(List<Object[]> rows, ScanCheckpoint checkpoint, int[] totals) {
+                LocalDateTime now = LocalDateTime.now();
+                Map<Long, AttendanceConflict> existing = new HashMap<>();
+                conflictRepository.findAllById(rows.stream().map(row -> (Long) row[0]).toList())
+                                .forEach(conflict -> existing.put(conflict.getId(), conflict));
+
+                for (Object[] row : rows) {
+                        Long id = (Long) row[0];
+                        boolean attended = (Boolean) row[4];
+                        boolean customerAgreed = (Boolean) row[5];
+                        AttendanceConflict conflict = existing.get(id);
+
+                        if (attended == customerAgreed) {
+                                if (conflict != null && conflict.getClearedAt() == null) {
+                                        conflict.setClearedAt(now);
+                                        totals[1]++;
+                                }
+                                continue;
+                        }
+                        if (conflict == null) {
+                                conflict = new AttendanceConflict();
+                                conflict.setId(id);
+                                // Known to be new, so persisted without the lookup save() would make by id
+                                entityManager.persist(conflict);
+                        }
+                        if (conflict.getDetectedAt() == null || conflict.getClearedAt() != null) {
+                                conflict.setDetectedAt(now);
+                                conflict.setClearedAt(null);
+                                totals[0]++;
+                                if (logger.isWarnEnabled()) {
+                                        logger.warn("Conflict detected - Attendance ID: {}, Customer ID: {}, "
+                                                        + "ServiceProvider ID: {}, isAttended: {}, isCustomerAgreed: {}",
+                                                        id, row[2], row[1], attended, customerAgreed);
+                                }
+                        }
+                        conflict.setServiceProviderId((Long) row[1]);
+                        conflict.setCustomerId((Long) row[2]);
+                        conflict.setAttendanceStatus((LocalDateTime) row[3]);
+                        conflict.setAttended(attended);
+                        conflict.setCustomerAgreed(customerAgreed);
+                }
+                // New and existing rows are managed by this transaction and flushed on commit
+
+                // Never move the mark backwards over the overlap window
+                Object[] last = rows.get(rows.size() - 1);
+                LocalDateTime lastTime = (LocalDateTime) last[6];
+                Long lastId = (Long) last[0];
+                if (lastTime.isAfter(checkpoint.getMarkTime())
+                                || (lastTime.isEqual(checkpoint.getMarkTime()) && lastId > checkpoint.getMarkId())) {
+                        checkpoint.setMarkTime(lastTime);
+                        checkpoint.setMarkId(lastId);
+                }
+                return checkpointRepository.save(checkpoint);
         }
 }
@@ -0,0 +1,51 @@
+package com.springboot.app.task;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the UPPER(COUPON_CODE) index behind the case-insensitive coupon code
+ * lookup of CouponRepository. Expression indexes cannot be declared on the
+ * entity, so the index is created once the application is ready, on
+ * PostgreSQL only; other databases, such as the H2 test database, scan.
+ *
+ * The statement is idempotent and leaves the coupon data untouched. A node
+ * that loses the race to create the index with another node only logs it.
+ */
+@Component
+public class CouponCodeIndexJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(CouponCodeIndexJob.class);
+
+    private static final String CREATE_INDEX_SQL = "CREATE INDEX IF NOT EXISTS idx_coupons_code_upper "
+            + "ON COUPONS (UPPER(COUPON_CODE))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CouponCodeIndexJob(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createCouponCodeIndex() {
+        try {
+            String database = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            if (!"PostgreSQL".equalsIgnoreCase(database)) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Skipping the coupon code index on {}", database);
+                }
+                return;
+            }
+            jdbcTemplate.execute(CREATE_INDEX_SQL);
+        } catch (DataAccessException e) {
+            logger.warn("Could not create the coupon code index", e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.springboot.app.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springboot.app.entity.ServiceProvider;
+import com.springboot.app.repository.ServiceProviderRepository;
+import com.springboot.app.service.ClusterJobRunner;
+import com.springboot.app.service.ServiceProviderSpatialIndex;
+
+/**
+ * Fills in the geohash column of providers stored before it existed, or
+ * imported with a location but without one.
+ *
+ * Providers are read in id order through keyset pages and updated with one
+ * JDBC batch per page, each page in its own transaction. The update only sets
+ * a geohash that is still missing, so it never overwrites one written since
+ * the page was read, and a page repeated by a node that lost the lease is
+ * harmless. The job runs once the application is ready, on one node through
+ * ClusterJobRunner; once nothing is left to fill in it only runs the first,
+ * empty page query.
+ */
+@Component
+public class GeohashBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeohashBackfillJob.class);
+
+    private static final String JOB_NAME = "geohash-backfill";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String UPDATE_GEOHASH_SQL = "UPDATE serviceprovider SET geohash = ? "
+            + "WHERE serviceproviderId = ? AND geohash IS NULL";
+
+    private final ServiceProviderRepository serviceProviderRepository;
+    private final ServiceProviderSpatialIndex spatialIndex;
+    private final ClusterJobRunner jobRunner;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public GeohashBackfillJob(ServiceProviderRepository serviceProviderRepository,
+            ServiceProviderSpatialIndex spatialIndex,
+            ClusterJobRunner jobRunner,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.serviceProviderRepository = serviceProviderRepository;
+        this.spatialIndex = spatialIndex;
+        this.jobRunner = jobRunner;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillGeohashes() {
+        jobRunner.run(JOB_NAME, lease -> backfill());
+    }
+
+    private long backfill() {
+        long updated = 0;
+        Long lastId = 0L;
+        List<Object[]> rows;
+        do {
+            // Rows: [serviceproviderId, latitude, longitude]
+            rows = serviceProviderRepository.findMissingGeohash(lastId, PageRequest.of(0, BATCH_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                updates.add(new Object[] { ServiceProvider.geohashOf((Double) row[1], (Double) row[2]), row[0] });
+            }
+            updated += transactionTemplate.execute(status -> {
+                int count = 0;
+                for (int rowCount : jdbcTemplate.batchUpdate(UPDATE_GEOHASH_SQL, updates)) {
+                    count += Math.max(rowCount, 0);
+                }
+                return count;
+            });
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        } while (rows.size() == BATCH_SIZE);
+
+        if (updated > 0) {
+            logger.info("Backfilled geohashes of {} service providers", updated);
+            // Providers without a geohash were left out of the spatial index; other
+            // nodes pick them up at their next scheduled reload
+            spatialIndex.load();
+        }
+        return updated;
+    }
+}
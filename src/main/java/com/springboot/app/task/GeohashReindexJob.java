@@ -0,0 +1,211 @@
+package com.springboot.app.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springboot.app.dto.GeohashReindexStatusDTO;
+import com.springboot.app.entity.ScanCheckpoint;
+import com.springboot.app.entity.ServiceProvider;
+import com.springboot.app.repository.ScanCheckpointRepository;
+import com.springboot.app.repository.ServiceProviderRepository;
+import com.springboot.app.service.ClusterJobRunner;
+import com.springboot.app.service.SchedulerLeaseService;
+import com.springboot.app.service.ServiceProviderSpatialIndex;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Re-derives the geohash of every located provider from its latitude and
+ * longitude, and fixes those that no longer match, e.g. after locations were
+ * edited directly in the database.
+ *
+ * A pass walks the providers in id order in keyset batches, pausing between
+ * batches so it does not compete with live traffic. Each batch updates the
+ * stale geohashes with one JDBC batch and advances the pass checkpoint in the
+ * same fenced transaction; the corrected providers are then refreshed in the
+ * spatial index of this node. A pass interrupted by a restart, a failure or a
+ * lost lease resumes after its last committed batch: on application start, on
+ * the next scheduled or requested run, on whichever node takes the lease.
+ *
+ * Passes are started through the scheduler API or by the optional
+ * geohash.reindex.cron schedule, and run in the background on one node at a
+ * time through ClusterJobRunner.
+ */
+@Component
+public class GeohashReindexJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeohashReindexJob.class);
+
+    private static final String JOB_NAME = "geohash-reindex";
+
+    // The update only applies if the location is still the one the geohash was derived from
+    private static final String UPDATE_GEOHASH_SQL = "UPDATE serviceprovider SET geohash = ? "
+            + "WHERE serviceproviderId = ? AND latitude = ? AND longitude = ?";
+
+    private final ServiceProviderRepository serviceProviderRepository;
+    private final ScanCheckpointRepository checkpointRepository;
+    private final ServiceProviderSpatialIndex spatialIndex;
+    private final SchedulerLeaseService leaseService;
+    private final ClusterJobRunner jobRunner;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long pauseMillis;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "geohash-reindex");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public GeohashReindexJob(ServiceProviderRepository serviceProviderRepository,
+            ScanCheckpointRepository checkpointRepository,
+            ServiceProviderSpatialIndex spatialIndex,
+            SchedulerLeaseService leaseService,
+            ClusterJobRunner jobRunner,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${geohash.reindex.batch-size:500}") int batchSize,
+            @Value("${geohash.reindex.pause-ms:200}") long pauseMillis) {
+        this.serviceProviderRepository = serviceProviderRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.spatialIndex = spatialIndex;
+        this.leaseService = leaseService;
+        this.jobRunner = jobRunner;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    /**
+     * Starts a pass in the background, or resumes the unfinished one. Returns
+     * false if this node is already working on it.
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                jobRunner.run(JOB_NAME, this::reindex);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    @Scheduled(cron = "${geohash.reindex.cron:-}") // Disabled unless a cron is configured
+    public void scheduledReindex() {
+        start();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedPass() {
+        if (checkpointRepository.existsById(JOB_NAME)) {
+            start();
+        }
+    }
+
+    public GeohashReindexStatusDTO getStatus() {
+        ScanCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElse(null);
+        if (checkpoint == null) {
+            return new GeohashReindexStatusDTO(false, running.get(), null, 0, 0);
+        }
+        return new GeohashReindexStatusDTO(true, running.get(), checkpoint.getMarkTime(), checkpoint.getMarkId(),
+                serviceProviderRepository.countByServiceproviderIdGreaterThan(checkpoint.getMarkId()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private long reindex(SchedulerLeaseService.Lease lease) {
+        // markTime is when the pass started, markId the last provider it reindexed
+        ScanCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> new ScanCheckpoint(JOB_NAME, LocalDateTime.now(), 0));
+        if (checkpoint.getMarkId() > 0 && logger.isInfoEnabled()) {
+            logger.info("Resuming geohash reindex started at {} after provider ID {}", checkpoint.getMarkTime(),
+                    checkpoint.getMarkId());
+        }
+
+        long scanned = 0;
+        long updated = 0;
+        List<Object[]> rows;
+        do {
+            // Rows: [serviceproviderId, latitude, longitude, geohash]
+            rows = serviceProviderRepository.findLocatedAfterId(checkpoint.getMarkId(),
+                    PageRequest.of(0, batchSize));
+            List<Object[]> updates = new ArrayList<>();
+            List<Long> movedIds = new ArrayList<>();
+            for (Object[] row : rows) {
+                String geohash = ServiceProvider.geohashOf((Double) row[1], (Double) row[2]);
+                if (!Objects.equals(geohash, row[3])) {
+                    updates.add(new Object[] { geohash, row[0], row[1], row[2] });
+                    movedIds.add((Long) row[0]);
+                }
+            }
+            if (!rows.isEmpty()) {
+                checkpoint.setMarkId((Long) rows.get(rows.size() - 1)[0]);
+            }
+            boolean finished = rows.size() < batchSize;
+            transactionTemplate.executeWithoutResult(status -> {
+                leaseService.fence(lease);
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_GEOHASH_SQL, updates);
+                }
+                if (finished) {
+                    checkpointRepository.findById(JOB_NAME).ifPresent(checkpointRepository::delete);
+                } else {
+                    checkpointRepository.save(checkpoint);
+                }
+            });
+            if (!movedIds.isEmpty()) {
+                spatialIndex.upsertAll(serviceProviderRepository.findAllById(movedIds));
+            }
+            scanned += rows.size();
+            updated += updates.size();
+
+            if (logger.isInfoEnabled()) {
+                logger.info("Geohash reindex at provider ID {}: {} scanned, {} corrected", checkpoint.getMarkId(),
+                        scanned, updated);
+            }
+            if (!finished && !pause()) {
+                break;
+            }
+        } while (rows.size() == batchSize);
+        return updated;
+    }
+
+    // Returns false if the pass was interrupted; it resumes from the checkpoint
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
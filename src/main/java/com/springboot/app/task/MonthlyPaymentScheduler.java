@@ -1,117 +1,532 @@
 package com.springboot.app.task;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.TypedQuery;
-import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import com.springboot.app.entity.ServiceProviderEngagement;
-import com.springboot.app.entity.ServiceProviderPayment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springboot.app.entity.PaymentRunCheckpoint;
+import com.springboot.app.entity.PaymentRunFailure;
 import com.springboot.app.enums.PaymentMode;
+import com.springboot.app.exception.LeaseLostException;
+import com.springboot.app.repository.PaymentRunCheckpointRepository;
+import com.springboot.app.repository.PaymentRunFailureRepository;
 import com.springboot.app.repository.ServiceProviderEngagementRepository;
 import com.springboot.app.repository.ServiceProviderPaymentRepository;
+import com.springboot.app.service.ClusterJobRunner;
+import com.springboot.app.service.SchedulerLeaseService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import java.sql.Date;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Generates the month-end service provider payments.
+ *
+ * Engagements are split into partitions by service provider id, so every
+ * (service provider, customer) pair is billed by exactly one partition, and the
+ * partitions run in parallel on a bounded worker pool. Each partition reads its
+ * engagements in keyset-paginated chunks, fetches the last paid-up date of the
+ * chunk's pairs with one grouped query, writes the payments with a single JDBC
+ * batch insert and advances its own checkpoint, all in one transaction.
+ * Partitions commit independently; an interrupted run resumes every
+ * unfinished partition after its last committed chunk the next time it is
+ * triggered for the same month.
+ *
+ * The run is a cluster singleton: it goes through ClusterJobRunner, and each
+ * chunk checks the run's lease just before it commits, so a node that lost
+ * the lease cannot insert payments the new holder is also inserting. The
+ * check is left to the end of the chunk because it locks the lease row until
+ * commit, which would otherwise serialize the partitions.
+ *
+ * An engagement whose payment fails is recorded in payment_run_failure in the
+ * transaction of its chunk, and the checkpoint moves on. Every run first
+ * retries the recorded failures of earlier runs, oldest month first, each
+ * with its own month's end date; {@link #retryFailedPayments} does the same
+ * on request. A retried failure is deleted once it is paid, or found already
+ * paid up.
+ *
+ * Per-partition progress is published to the actuator metrics endpoint:
+ * payment.run.payments, payment.run.failures, payment.run.chunk and
+ * payment.run.lag (engagement ids still ahead of the partition), all tagged
+ * with the partition index.
+ */
 @Component
-@RequiredArgsConstructor
 public class MonthlyPaymentScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(MonthlyPaymentScheduler.class);
 
-    private ServiceProviderEngagementRepository engagementRepository;
+    private static final String JOB_NAME = "monthly-payments";
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final int MAX_FAILURE_MESSAGE_LENGTH = 500;
+
+    // Connections left free for request handling while a run is in progress
+    private static final int RESERVED_CONNECTIONS = 2;
+
+    private static final String INSERT_PAYMENT_SQL = "INSERT INTO service_provider_payment "
+            + "(serviceProviderId, customerId, startDate, endDate, paymentOn, transactionId, paymentMode, "
+            + "noOfDays, amount, month, year, monthlyAmount) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final ServiceProviderEngagementRepository engagementRepository;
+
+    private final ServiceProviderPaymentRepository paymentRepository;
+
+    private final PaymentRunCheckpointRepository checkpointRepository;
+
+    private final PaymentRunFailureRepository failureRepository;
+
+    private final JdbcTemplate jdbcTemplate;
 
-    private ServiceProviderPaymentRepository paymentRepository;
+    private final TransactionTemplate transactionTemplate;
 
-    @PersistenceContext
-    private EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+
+    private final SchedulerLeaseService leaseService;
+
+    private final ClusterJobRunner jobRunner;
+
+    private final int workerCount;
+
+    // Gauge state per partition; gauges keep a reference to it across runs
+    private final Map<Integer, AtomicLong> lagByPartition = new ConcurrentHashMap<>();
+
+    public MonthlyPaymentScheduler(ServiceProviderEngagementRepository engagementRepository,
+            ServiceProviderPaymentRepository paymentRepository,
+            PaymentRunCheckpointRepository checkpointRepository,
+            PaymentRunFailureRepository failureRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            SchedulerLeaseService leaseService,
+            ClusterJobRunner jobRunner,
+            @Value("${payment.run.workers:4}") int workers,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        this.engagementRepository = engagementRepository;
+        this.paymentRepository = paymentRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.failureRepository = failureRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.leaseService = leaseService;
+        this.jobRunner = jobRunner;
+        // Every worker holds one connection while a chunk is in flight
+        this.workerCount = Math.max(1, Math.min(workers, connectionPoolSize - RESERVED_CONNECTIONS));
+    }
 
     @Scheduled(cron = "0 0 0 L * ?") // Run on last day of every month
     public void processMonthlyPayments() {
-        logger.info("Monthly payment processing started.");
+        jobRunner.run(JOB_NAME, this::runPayments);
+    }
 
-        List<Long> failedList = new ArrayList<>();
+    /**
+     * Retries the recorded failures of earlier runs now, under the same lease
+     * as the monthly run. Returns whether it ran on this node.
+     */
+    public boolean retryFailedPayments() {
+        return jobRunner.run(JOB_NAME, this::retryFailures);
+    }
 
+    // Returns the number of payments inserted
+    private long runPayments(SchedulerLeaseService.Lease lease) {
+        long retried = 0;
         try {
-            // Fetching all ServiceProviderEngagements
-            List<ServiceProviderEngagement> engagements = engagementRepository.findAll();
+            retried = retryFailures(lease);
+        } catch (LeaseLostException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // The failures stay recorded; the month's run goes ahead regardless
+            logger.error("Retrying failed engagement payments failed", e);
+        }
 
-            for (ServiceProviderEngagement engagement : engagements) {
+        LocalDate endDate = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
+        String billingMonth = YearMonth.from(endDate).toString();
+
+        List<PaymentRunCheckpoint> partitions = getOrCreatePartitions(billingMonth);
+        List<PaymentRunCheckpoint> pending = partitions.stream().filter(p -> !p.isCompleted()).toList();
+        if (pending.isEmpty()) {
+            logger.info("Monthly payment processing for {} already completed.", billingMonth);
+            return retried;
+        }
+        logger.info("Monthly payment processing started for {}: {} of {} partitions pending, {} workers.",
+                billingMonth, pending.size(), partitions.size(), workerCount);
 
+        long maxEngagementId = engagementRepository.findMaxId();
+        Queue<Long> failedList = new ConcurrentLinkedQueue<>();
+        AtomicLong inserted = new AtomicLong();
+        LeaseLostException leaseLost = null;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(workerCount, pending.size()),
+                new PaymentWorkerThreadFactory());
+
+        int completedPartitions = partitions.size() - pending.size();
+        try {
+            List<Future<PaymentRunCheckpoint>> results = new ArrayList<>(pending.size());
+            for (PaymentRunCheckpoint partition : pending) {
+                results.add(executor.submit(() -> processPartition(lease, partition, endDate, maxEngagementId,
+                        failedList, inserted)));
+            }
+            for (int i = 0; i < results.size(); i++) {
                 try {
-                    // Get the last payment date if exists
-                    ServiceProviderPayment lastPayment = getLastPayment(engagement);
-                    LocalDate startDate = (lastPayment != null) ? lastPayment.getEndDate().toLocalDate().plusDays(1)
-                            : engagement.getStartDate();
+                    results.get(i).get();
+                    completedPartitions++;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof LeaseLostException lost) {
+                        leaseLost = lost;
+                    }
+                    logger.error("Payment partition {} of {} stopped. It will resume from its last checkpoint.",
+                            pending.get(i).getPartitionIndex(), billingMonth, e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Monthly payment processing for {} was interrupted.", billingMonth);
+        } finally {
+            executor.shutdownNow();
+        }
+        if (leaseLost != null) {
+            throw leaseLost;
+        }
+
+        if (completedPartitions < partitions.size()) {
+            logger.warn("Monthly payment processing for {} incomplete: {} of {} partitions completed.",
+                    billingMonth, completedPartitions, partitions.size());
+        } else if (!failedList.isEmpty()) {
+            logger.warn("Payment processing completed with errors. Failed engagements, to be retried: {}",
+                    failedList);
+        } else {
+            logger.info("Monthly payment processing completed successfully without errors.");
+        }
+        return retried + inserted.get();
+    }
+
+    /**
+     * Pays the recorded failures, one chunk per transaction. Returns the number
+     * of payments inserted.
+     */
+    private long retryFailures(SchedulerLeaseService.Lease lease) {
+        List<PaymentRunFailure> failures = failureRepository.findAllByOrderByBillingMonthAscEngagementIdAsc();
+        if (failures.isEmpty()) {
+            return 0;
+        }
+        logger.info("Retrying {} failed engagement payments.", failures.size());
+
+        long inserted = 0;
+        int remaining = 0;
+        Map<String, List<PaymentRunFailure>> byMonth = failures.stream()
+                .collect(Collectors.groupingBy(PaymentRunFailure::getBillingMonth, TreeMap::new,
+                        Collectors.toList()));
+        for (Map.Entry<String, List<PaymentRunFailure>> month : byMonth.entrySet()) {
+            LocalDate endDate = YearMonth.parse(month.getKey()).atEndOfMonth();
+            List<PaymentRunFailure> monthFailures = month.getValue();
+            for (int from = 0; from < monthFailures.size(); from += CHUNK_SIZE) {
+                List<PaymentRunFailure> chunk = monthFailures.subList(from,
+                        Math.min(from + CHUNK_SIZE, monthFailures.size()));
+                int[] result = transactionTemplate.execute(status -> retryChunk(lease, chunk, endDate));
+                inserted += result[0];
+                remaining += result[1];
+            }
+        }
+
+        if (remaining > 0) {
+            logger.warn("{} of {} failed engagement payments failed again and will be retried.", remaining,
+                    failures.size());
+        } else {
+            logger.info("All {} failed engagement payments were retried successfully.", failures.size());
+        }
+        return inserted;
+    }
+
+    // Returns [payments inserted, failures left]
+    private int[] retryChunk(SchedulerLeaseService.Lease lease, List<PaymentRunFailure> chunk, LocalDate endDate) {
+        Map<Long, Object[]> engagements = engagementRepository.findBillingRowsByIdIn(
+                chunk.stream().map(PaymentRunFailure::getEngagementId).toList()).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], Function.identity()));
+        Map<String, LocalDate> paidUntil = getLastPaymentEndDates(List.copyOf(engagements.values()));
+        LocalDate today = LocalDate.now();
+        List<Object[]> payments = new ArrayList<>(chunk.size());
+        List<PaymentRunFailure> resolved = new ArrayList<>(chunk.size());
+        int remaining = 0;
+
+        for (PaymentRunFailure failure : chunk) {
+            Object[] engagement = engagements.get(failure.getEngagementId());
+            if (engagement == null) {
+                logger.warn("Dropping failed payment of engagement ID: {}, which no longer exists",
+                        failure.getEngagementId());
+                resolved.add(failure);
+                continue;
+            }
+            try {
+                Object[] payment = calculatePayment(engagement, paidUntil, endDate, today);
+                if (payment != null) {
+                    payments.add(payment);
+                }
+                resolved.add(failure);
+            } catch (Exception e) {
+                logger.error("Retry of payment for engagement ID: {} failed", failure.getEngagementId(), e);
+                recordFailure(failure, e);
+                remaining++;
+            }
+        }
+
+        if (!payments.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PAYMENT_SQL, payments);
+        }
+        failureRepository.deleteAllInBatch(resolved);
+        leaseService.fence(lease);
+        return new int[] { payments.size(), remaining };
+    }
+
+    /**
+     * Returns the month's partition checkpoints, creating them on the first
+     * run. A resumed run keeps the partition count it started with.
+     */
+    private List<PaymentRunCheckpoint> getOrCreatePartitions(String billingMonth) {
+        List<PaymentRunCheckpoint> partitions = checkpointRepository.findByBillingMonthOrderByPartitionIndex(
+                billingMonth);
+        if (!partitions.isEmpty()) {
+            return partitions;
+        }
+        List<PaymentRunCheckpoint> created = new ArrayList<>(workerCount);
+        for (int partition = 0; partition < workerCount; partition++) {
+            created.add(new PaymentRunCheckpoint(billingMonth, partition, workerCount));
+        }
+        return checkpointRepository.saveAll(created);
+    }
 
-                    LocalDate endDate = LocalDate.now().withDayOfMonth(LocalDate.now().lengthOfMonth());
+    private PaymentRunCheckpoint processPartition(SchedulerLeaseService.Lease lease, PaymentRunCheckpoint partition,
+            LocalDate endDate, long maxEngagementId, Queue<Long> failedList, AtomicLong inserted) {
+        String billingMonth = partition.getBillingMonth();
+        String tag = String.valueOf(partition.getPartitionIndex());
+        Counter payments = meterRegistry.counter("payment.run.payments", "partition", tag);
+        Counter failures = meterRegistry.counter("payment.run.failures", "partition", tag);
+        Timer chunkTimer = meterRegistry.timer("payment.run.chunk", "partition", tag);
+        AtomicLong lag = lagByPartition.computeIfAbsent(partition.getPartitionIndex(), index -> {
+            AtomicLong state = new AtomicLong();
+            Gauge.builder("payment.run.lag", state, AtomicLong::get)
+                    .description("Engagement ids still ahead of the partition's checkpoint")
+                    .tag("partition", tag)
+                    .register(meterRegistry);
+            return state;
+        });
 
-                    ServiceProviderPayment payment = calculatePayment(engagement, startDate, endDate);
-                    paymentRepository.save(payment);
+        PaymentRunCheckpoint checkpoint = partition;
+        lag.set(Math.max(0, maxEngagementId - checkpoint.getLastEngagementId()));
+        ChunkResult result;
+        do {
+            PaymentRunCheckpoint current = checkpoint;
+            Timer.Sample sample = Timer.start(meterRegistry);
+            result = transactionTemplate.execute(status -> processChunk(lease, current, endDate, billingMonth,
+                    failedList));
+            sample.stop(chunkTimer);
 
-                    logger.info("Processed payment for engagement ID: {}", engagement.getId());
-                } catch (Exception e) {
-                    logger.error("Failed to process payment for engagement ID: {}", engagement.getId(), e);
-                    failedList.add(engagement.getId());
+            checkpoint = result.checkpoint();
+            payments.increment(result.payments());
+            inserted.addAndGet(result.payments());
+            failures.increment(result.failures());
+            lag.set(Math.max(0, maxEngagementId - checkpoint.getLastEngagementId()));
+        } while (result.fetched() == CHUNK_SIZE);
+
+        checkpoint.setCompleted(true);
+        PaymentRunCheckpoint finished = checkpoint;
+        checkpoint = transactionTemplate.execute(status -> {
+            leaseService.fence(lease);
+            return checkpointRepository.save(finished);
+        });
+        lag.set(0);
+
+        if (logger.isInfoEnabled()) {
+            logger.info("Payment partition {} completed: {} payments, {} failures.", tag,
+                    checkpoint.getProcessedCount(), checkpoint.getFailedCount());
+        }
+        return checkpoint;
+    }
+
+    private record ChunkResult(PaymentRunCheckpoint checkpoint, int fetched, int payments, int failures) {
+    }
+
+    private ChunkResult processChunk(SchedulerLeaseService.Lease lease, PaymentRunCheckpoint checkpoint,
+            LocalDate endDate, String billingMonth, Queue<Long> failedList) {
+        List<Object[]> engagements = engagementRepository.findBillingRowsAfterId(checkpoint.getLastEngagementId(),
+                checkpoint.getPartitionCount(), checkpoint.getPartitionIndex(), PageRequest.of(0, CHUNK_SIZE));
+        if (engagements.isEmpty()) {
+            return new ChunkResult(checkpoint, 0, 0, 0);
+        }
+
+        Map<String, LocalDate> paidUntil = getLastPaymentEndDates(engagements);
+        LocalDate today = LocalDate.now();
+        List<Object[]> payments = new ArrayList<>(engagements.size());
+        int failed = 0;
+
+        for (Object[] engagement : engagements) {
+            Long engagementId = (Long) engagement[0];
+            try {
+                Object[] payment = calculatePayment(engagement, paidUntil, endDate, today);
+                if (payment != null) {
+                    payments.add(payment);
                 }
+            } catch (Exception e) {
+                logger.error("Failed to process payment for engagement ID: {}", engagementId, e);
+                recordFailure(new PaymentRunFailure(billingMonth, engagementId), e);
+                failedList.add(engagementId);
+                failed++;
             }
+        }
+
+        if (!payments.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PAYMENT_SQL, payments);
+        }
+
+        checkpoint.setLastEngagementId((Long) engagements.get(engagements.size() - 1)[0]);
+        checkpoint.setProcessedCount(checkpoint.getProcessedCount() + payments.size());
+        checkpoint.setFailedCount(checkpoint.getFailedCount() + failed);
+        leaseService.fence(lease);
+        PaymentRunCheckpoint saved = checkpointRepository.save(checkpoint);
 
-            if (!failedList.isEmpty()) {
-                logger.warn("Payment processing completed with errors. Failed engagements: {}", failedList);
-            } else {
-                logger.info("Monthly payment processing completed successfully without errors.");
+        if (logger.isDebugEnabled()) {
+            logger.debug("Partition {} committed {} payments up to engagement ID: {}", saved.getPartitionIndex(),
+                    payments.size(), saved.getLastEngagementId());
+        }
+        return new ChunkResult(saved, engagements.size(), payments.size(), failed);
+    }
+
+    /**
+     * Latest payment end date per "serviceProviderId:customerId" pair of the
+     * chunk, loaded with one grouped query.
+     */
+    private Map<String, LocalDate> getLastPaymentEndDates(List<Object[]> engagements) {
+        Set<Long> serviceProviderIds = new HashSet<>();
+        Set<Long> customerIds = new HashSet<>();
+        for (Object[] engagement : engagements) {
+            if (engagement[1] != null && engagement[2] != null) {
+                serviceProviderIds.add((Long) engagement[1]);
+                customerIds.add((Long) engagement[2]);
             }
-        } catch (Exception e) {
-            logger.error("Error during monthly payment processing.", e);
         }
+
+        Map<String, LocalDate> paidUntil = new HashMap<>();
+        if (serviceProviderIds.isEmpty()) {
+            return paidUntil;
+        }
+        for (Object[] row : paymentRepository.findLastPaymentEndDates(serviceProviderIds, customerIds)) {
+            paidUntil.put(row[0] + ":" + row[1], ((Date) row[2]).toLocalDate());
+        }
+        return paidUntil;
     }
 
-    private ServiceProviderPayment calculatePayment(ServiceProviderEngagement engagement, LocalDate startDate,
-            LocalDate endDate) {
-        long noOfDays = (ChronoUnit.DAYS.between(startDate, endDate)) + 1;
-        int monthlyAmount = engagement.getMonthlyAmount().intValue();
+    /**
+     * Parameters of INSERT_PAYMENT_SQL for one billing row, or null if its
+     * pair is already paid up to the end date. Records the payment in
+     * paidUntil, so later engagements of the same pair start after it.
+     */
+    private Object[] calculatePayment(Object[] engagement, Map<String, LocalDate> paidUntil, LocalDate endDate,
+            LocalDate today) {
+        Long engagementId = (Long) engagement[0];
+        Long serviceProviderId = (Long) engagement[1];
+        Long customerId = (Long) engagement[2];
+        if (serviceProviderId == null) {
+            throw new IllegalStateException("Engagement has no service provider");
+        }
 
-        int daysInMonth = endDate.lengthOfMonth();
-        int calculatedAmount = (int) ((double) monthlyAmount / daysInMonth * noOfDays);
+        // Start the day after the last payment if one exists
+        String pair = serviceProviderId + ":" + customerId;
+        LocalDate lastPaidUntil = paidUntil.get(pair);
+        LocalDate startDate = (lastPaidUntil != null) ? lastPaidUntil.plusDays(1) : (LocalDate) engagement[3];
+
+        if (startDate.isAfter(endDate)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Engagement ID: {} is already paid up to {}", engagementId, lastPaidUntil);
+            }
+            return null;
+        }
 
-        ServiceProviderPayment payment = new ServiceProviderPayment();
-        payment.setServiceProvider(engagement.getServiceProvider());
-        payment.setCustomer(engagement.getCustomer());
-        payment.setStartDate(Date.valueOf(startDate));
-        payment.setEndDate(Date.valueOf(endDate));
-        payment.setNoOfDays(noOfDays);
-        payment.setAmount(calculatedAmount);
-        payment.setPaymentMode(engagement.getPaymentMode() != null ? engagement.getPaymentMode() : PaymentMode.CASH);
-        payment.setMonth(endDate.getMonthValue());
-        payment.setYear(endDate.getYear());
-        payment.setMonthlyAmount(monthlyAmount);
+        Object[] payment = calculatePayment(serviceProviderId, customerId, (Double) engagement[4],
+                (PaymentMode) engagement[5], startDate, endDate, today);
+        paidUntil.put(pair, endDate);
 
+        if (logger.isDebugEnabled()) {
+            logger.debug("Processed payment for engagement ID: {}", engagementId);
+        }
         return payment;
     }
 
-    private ServiceProviderPayment getLastPayment(ServiceProviderEngagement engagement) {
-        // Create the JPQL query
-        TypedQuery<ServiceProviderPayment> query = entityManager.createQuery(
-                "FROM ServiceProviderPayment sp " +
-                        "WHERE sp.serviceProvider.id = :spId AND sp.customer.id = :cId " +
-                        "ORDER BY sp.endDate DESC",
-                ServiceProviderPayment.class);
+    // Saved with merge, so a failure recorded by an earlier attempt is updated
+    private void recordFailure(PaymentRunFailure failure, Exception e) {
+        failure.setAttempts(failure.getAttempts() + 1);
+        String message = String.valueOf(e);
+        failure.setMessage(message.length() <= MAX_FAILURE_MESSAGE_LENGTH ? message
+                : message.substring(0, MAX_FAILURE_MESSAGE_LENGTH));
+        failure.setFailedAt(new Timestamp(System.currentTimeMillis()));
+        failureRepository.save(failure);
+    }
 
-        // Set parameters
-        query.setParameter("spId", engagement.getServiceProvider().getServiceproviderId());
-        query.setParameter("cId", engagement.getCustomer().getCustomerId());
+    // Parameters of INSERT_PAYMENT_SQL
+    private Object[] calculatePayment(Long serviceProviderId, Long customerId, Double engagementMonthlyAmount,
+            PaymentMode paymentMode, LocalDate startDate, LocalDate endDate, LocalDate paymentOn) {
+        long noOfDays = (ChronoUnit.DAYS.between(startDate, endDate)) + 1;
+        int monthlyAmount = engagementMonthlyAmount.intValue();
 
-        // Limit result to one and return
-        query.setMaxResults(1);
+        int daysInMonth = endDate.lengthOfMonth();
+        int calculatedAmount = (int) ((double) monthlyAmount / daysInMonth * noOfDays);
+
+        return new Object[] {
+                serviceProviderId,
+                customerId,
+                Date.valueOf(startDate),
+                Date.valueOf(endDate),
+                Date.valueOf(paymentOn),
+                UUID.randomUUID().toString(),
+                (paymentMode != null ? paymentMode : PaymentMode.CASH).name(),
+                (double) noOfDays,
+                calculatedAmount,
+                endDate.getMonthValue(),
+                endDate.getYear(),
+                monthlyAmount
+        };
+    }
 
-        // Fetch the result
-        return query.getResultStream().findFirst().orElse(null);
+    private static final class PaymentWorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "payment-run-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 }
@@ -0,0 +1,107 @@
+package com.springboot.app.task;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.springboot.app.entity.RatingAggregate;
+import com.springboot.app.enums.RatingSubject;
+import com.springboot.app.repository.CustomerFeedbackRepository;
+import com.springboot.app.repository.RatingAggregateRepository;
+import com.springboot.app.repository.ServiceProviderFeedbackRepository;
+import com.springboot.app.service.ClusterJobRunner;
+import com.springboot.app.service.RatingAggregator;
+
+/**
+ * Rebuilds rating aggregates that no longer match the feedback tables, for
+ * example after feedback rows were changed outside the application.
+ *
+ * Aggregates are compared against one grouped query per feedback table. Only
+ * the subjects that differ are rebuilt, each in its own transaction with its
+ * aggregate row locked.
+ *
+ * The reconciliation runs on one node at a time through ClusterJobRunner. A
+ * rebuild recomputes the totals from the feedback tables, so it needs no
+ * fencing: a rebuild repeated by a node that lost the lease is harmless.
+ */
+@Component
+public class RatingReconciliationScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingReconciliationScheduler.class);
+
+    private static final String JOB_NAME = "rating-reconciliation";
+
+    // Sums are accumulated one rating at a time, so allow for floating point rounding
+    private static final double SUM_TOLERANCE = 1e-6;
+
+    private final RatingAggregateRepository ratingAggregateRepository;
+    private final CustomerFeedbackRepository customerFeedbackRepository;
+    private final ServiceProviderFeedbackRepository serviceProviderFeedbackRepository;
+    private final RatingAggregator ratingAggregator;
+    private final ClusterJobRunner jobRunner;
+
+    public RatingReconciliationScheduler(RatingAggregateRepository ratingAggregateRepository,
+            CustomerFeedbackRepository customerFeedbackRepository,
+            ServiceProviderFeedbackRepository serviceProviderFeedbackRepository,
+            RatingAggregator ratingAggregator,
+            ClusterJobRunner jobRunner) {
+        this.ratingAggregateRepository = ratingAggregateRepository;
+        this.customerFeedbackRepository = customerFeedbackRepository;
+        this.serviceProviderFeedbackRepository = serviceProviderFeedbackRepository;
+        this.ratingAggregator = ratingAggregator;
+        this.jobRunner = jobRunner;
+    }
+
+    @Scheduled(cron = "${rating.reconciliation.cron:0 30 2 * * ?}") // Nightly by default
+    public void reconcileRatings() {
+        jobRunner.run(JOB_NAME, lease -> reconcile(RatingSubject.SERVICE_PROVIDER,
+                customerFeedbackRepository.sumRatingsByServiceProvider())
+                + reconcile(RatingSubject.CUSTOMER, serviceProviderFeedbackRepository.sumRatingsByCustomer()));
+    }
+
+    // Returns the number of aggregates rebuilt
+    private int reconcile(RatingSubject subjectType, List<Object[]> feedbackTotals) {
+        Map<Long, RatingAggregate> aggregates = new HashMap<>();
+        for (RatingAggregate aggregate : ratingAggregateRepository.findBySubjectType(subjectType)) {
+            aggregates.put(aggregate.getSubjectId(), aggregate);
+        }
+
+        Set<Long> drifted = new HashSet<>();
+        for (Object[] row : feedbackTotals) {
+            Long subjectId = (Long) row[0];
+            RatingAggregate aggregate = aggregates.remove(subjectId);
+            if (aggregate == null
+                    || aggregate.getRatingCount() != ((Number) row[1]).longValue()
+                    || Math.abs(aggregate.getRatingSum() - ((Number) row[2]).doubleValue()) > SUM_TOLERANCE) {
+                drifted.add(subjectId);
+            }
+        }
+        // Aggregates left over have no feedback at all
+        aggregates.values().stream()
+                .filter(aggregate -> aggregate.getRatingCount() != 0)
+                .forEach(aggregate -> drifted.add(aggregate.getSubjectId()));
+
+        int failed = 0;
+        for (Long subjectId : drifted) {
+            try {
+                ratingAggregator.rebuild(subjectType, subjectId);
+            } catch (RuntimeException e) {
+                failed++;
+                logger.error("Failed to rebuild {} rating for ID: {}", subjectType, subjectId, e);
+            }
+        }
+
+        if (logger.isInfoEnabled()) {
+            logger.info("Reconciled {} ratings: {} rebuilt, {} failed", subjectType, drifted.size() - failed,
+                    failed);
+        }
+        return drifted.size() - failed;
+    }
+}
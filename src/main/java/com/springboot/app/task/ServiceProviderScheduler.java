@@ -2,34 +2,139 @@ package com.springboot.app.task;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.springboot.app.entity.ScanCheckpoint;
+import com.springboot.app.repository.ScanCheckpointRepository;
 import com.springboot.app.repository.ServiceProviderEngagementRepository;
+import com.springboot.app.service.ClusterJobRunner;
+import com.springboot.app.service.SchedulerLeaseService;
+import com.springboot.app.service.SearchResultCache;
 
 import java.time.LocalDate;
+import java.util.List;
 
+/**
+ * Closes engagements once they have ended: frees their timeslot and marks
+ * them inactive.
+ *
+ * The checkpoint holds the day up to which engagements have been closed, so
+ * the sweep does real work only once per day boundary, and then only on the
+ * engagements that ended since the previous sweep (plus a short lookback for
+ * end dates edited into the past). Those are found through the end date index
+ * and closed in id batches. An end date edited further into the past than the
+ * lookback is missed by that window, so every few days the sweep starts from
+ * the first day instead; a second checkpoint holds the day of that full
+ * sweep. The sweep runs as a cluster singleton through ClusterJobRunner, and
+ * every batch is fenced by its lease. Each batch drops the cached searches
+ * around the providers of the engagements it closed.
+ */
 @Service
 public class ServiceProviderScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(ServiceProviderScheduler.class);
 
+    private static final String SWEEP_NAME = "ended-engagements";
+
+    private static final String FULL_SWEEP_NAME = "ended-engagements-full";
+
+    private static final String INACTIVE_TIMESLOT = "00:00-00:00";
+
+    private static final int BATCH_SIZE = 1000;
+
+    // Sweep start of the first run: every engagement that has ended is closed once
+    private static final LocalDate INITIAL_DAY = LocalDate.of(1970, 1, 1);
+
     private final ServiceProviderEngagementRepository engagementRepository;
+    private final ScanCheckpointRepository checkpointRepository;
+    private final SchedulerLeaseService leaseService;
+    private final ClusterJobRunner jobRunner;
+    private final SearchResultCache searchResultCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int lookbackDays;
+    private final int fullSweepDays;
 
-    public ServiceProviderScheduler(ServiceProviderEngagementRepository engagementRepository) {
+    public ServiceProviderScheduler(ServiceProviderEngagementRepository engagementRepository,
+            ScanCheckpointRepository checkpointRepository,
+            SchedulerLeaseService leaseService,
+            ClusterJobRunner jobRunner,
+            SearchResultCache searchResultCache,
+            PlatformTransactionManager transactionManager,
+            @Value("${engagement.sweep.lookback-days:7}") int lookbackDays,
+            @Value("${engagement.sweep.full-every-days:7}") int fullSweepDays) {
         this.engagementRepository = engagementRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.leaseService = leaseService;
+        this.jobRunner = jobRunner;
+        this.searchResultCache = searchResultCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lookbackDays = lookbackDays;
+        this.fullSweepDays = fullSweepDays;
     }
 
-    @Scheduled(fixedDelay = 60000) // Runs every minute
-    @Transactional
+    @Scheduled(fixedDelayString = "${engagement.sweep.check-ms:60000}") // Checks every minute by default
     public void updateServiceProviderTimeslots() {
-        String inactiveTimeslot = "00:00-00:00";
+        LocalDate today = LocalDate.now();
+        ScanCheckpoint checkpoint = checkpointRepository.findById(SWEEP_NAME).orElse(null);
+        if (checkpoint != null && !checkpoint.getMarkTime().toLocalDate().isBefore(today)) {
+            return;
+        }
+        jobRunner.run(SWEEP_NAME, lease -> sweep(lease, today));
+    }
+
+    private long sweep(SchedulerLeaseService.Lease lease, LocalDate today) {
+        // Another node may have finished the sweep since the check above
+        ScanCheckpoint checkpoint = checkpointRepository.findById(SWEEP_NAME).orElse(null);
+        if (checkpoint != null && !checkpoint.getMarkTime().toLocalDate().isBefore(today)) {
+            return 0;
+        }
+        ScanCheckpoint fullCheckpoint = checkpointRepository.findById(FULL_SWEEP_NAME).orElse(null);
+        boolean full = checkpoint == null || fullCheckpoint == null
+                || !fullCheckpoint.getMarkTime().toLocalDate().plusDays(fullSweepDays).isAfter(today);
+        LocalDate since = full ? INITIAL_DAY
+                : checkpoint.getMarkTime().toLocalDate().minusDays(lookbackDays);
 
-        logger.info("Updating engagements with timeslot: {} and date: {}", inactiveTimeslot, LocalDate.now());
+        int closed = 0;
+        while (true) {
+            List<Long> ids = engagementRepository.findEndedToClose(since, today, INACTIVE_TIMESLOT,
+                    PageRequest.of(0, BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            closed += transactionTemplate.execute(status -> {
+                leaseService.fence(lease);
+                engagementRepository.findProviderGeohashes(ids).forEach(searchResultCache::invalidate);
+                return engagementRepository.closeEngagements(ids, INACTIVE_TIMESLOT);
+            });
+            if (ids.size() < BATCH_SIZE) {
+                break;
+            }
+        }
 
-        engagementRepository.bulkUpdateEndedEngagements(inactiveTimeslot, LocalDate.now());
+        ScanCheckpoint sweptCheckpoint = checkpoint == null
+                ? new ScanCheckpoint(SWEEP_NAME, today.atStartOfDay(), 0)
+                : checkpoint;
+        sweptCheckpoint.setMarkTime(today.atStartOfDay());
+        ScanCheckpoint fullSweptCheckpoint = !full ? null
+                : fullCheckpoint == null ? new ScanCheckpoint(FULL_SWEEP_NAME, today.atStartOfDay(), 0)
+                : fullCheckpoint;
+        if (fullSweptCheckpoint != null) {
+            fullSweptCheckpoint.setMarkTime(today.atStartOfDay());
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            leaseService.fence(lease);
+            checkpointRepository.save(sweptCheckpoint);
+            if (fullSweptCheckpoint != null) {
+                checkpointRepository.save(fullSweptCheckpoint);
+            }
+        });
 
-        logger.info("Engagements updated successfully");
+        logger.info("Closed {} engagements that ended between {} and {}", closed, since, today.minusDays(1));
+        return closed;
     }
 }
@@ -0,0 +1,83 @@
+package com.springboot.app.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Holiday discount tiers parsed from the discount.rules property, in the form
+ * "minDays,maxDays,percentage;minDays,maxDays,percentage;...".
+ *
+ * The tiers are parsed once, sorted by their first day and checked not to
+ * overlap, so the percentage for a number of days is a binary search over an
+ * immutable table. Days outside every tier get no discount.
+ */
+public final class DiscountTiers {
+
+    private final int[] minDays;
+    private final int[] maxDays;
+    private final double[] percentages;
+
+    private DiscountTiers(int[] minDays, int[] maxDays, double[] percentages) {
+        this.minDays = minDays;
+        this.maxDays = maxDays;
+        this.percentages = percentages;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a rule is malformed, has a range
+     *                                  that ends before it starts, or
+     *                                  overlaps another rule
+     */
+    public static DiscountTiers parse(String rules) {
+        if (rules == null || rules.isBlank()) {
+            return new DiscountTiers(new int[0], new int[0], new double[0]);
+        }
+        String[][] tiers = Arrays.stream(rules.split(";"))
+                .map(String::trim)
+                .filter(rule -> !rule.isEmpty())
+                .map(rule -> rule.split(","))
+                .toArray(String[][]::new);
+
+        int[][] ranges = new int[tiers.length][];
+        double[] byRule = new double[tiers.length];
+        for (int i = 0; i < tiers.length; i++) {
+            if (tiers[i].length != 3) {
+                throw new IllegalArgumentException("Invalid discount rule: " + String.join(",", tiers[i]));
+            }
+            try {
+                ranges[i] = new int[] { Integer.parseInt(tiers[i][0].trim()), Integer.parseInt(tiers[i][1].trim()), i };
+                byRule[i] = Double.parseDouble(tiers[i][2].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid discount rule: " + String.join(",", tiers[i]));
+            }
+            if (ranges[i][1] < ranges[i][0]) {
+                throw new IllegalArgumentException("Invalid discount rule: " + String.join(",", tiers[i]));
+            }
+        }
+        Arrays.sort(ranges, Comparator.comparingInt(range -> range[0]));
+
+        int[] minDays = new int[ranges.length];
+        int[] maxDays = new int[ranges.length];
+        double[] percentages = new double[ranges.length];
+        for (int i = 0; i < ranges.length; i++) {
+            if (i > 0 && ranges[i][0] <= maxDays[i - 1]) {
+                throw new IllegalArgumentException("Overlapping discount rules starting at " + minDays[i - 1]
+                        + " and " + ranges[i][0] + " days");
+            }
+            minDays[i] = ranges[i][0];
+            maxDays[i] = ranges[i][1];
+            percentages[i] = byRule[ranges[i][2]];
+        }
+        return new DiscountTiers(minDays, maxDays, percentages);
+    }
+
+    /** Discount percentage for the given number of holiday days, or 0. */
+    public double percentageFor(int days) {
+        int index = Arrays.binarySearch(minDays, days);
+        if (index < 0) {
+            // Tier starting just below the number of days, if any
+            index = -index - 2;
+        }
+        return index >= 0 && days <= maxDays[index] ? percentages[index] : 0;
+    }
+}
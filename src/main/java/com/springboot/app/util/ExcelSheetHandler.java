@@ -3,119 +3,184 @@ package com.springboot.app.util;
 import com.springboot.app.entity.ServiceProvider;
 import com.springboot.app.enums.Gender;
 import com.springboot.app.enums.HousekeepingRole;
-import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
 import java.io.File;
 import java.io.IOException;
-import java.sql.Timestamp;
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
-
+import java.io.InputStream;
+import java.util.Arrays;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+/**
+ * Reads service providers from an .xlsx sheet with POI's SAX event model, so
+ * only the row being parsed is held in memory.
+ *
+ * Expected columns (the first row is a header and is skipped):
+ * 0 serial no., 1 name, 2 mobile no., 3 housekeeping role, 4 gender, and
+ * optionally 5 email, 6 latitude, 7 longitude, 8 locality, 9 pincode.
+ */
 @Component
 public class ExcelSheetHandler {
 
     // Create logger instance
     private static final Logger logger = LoggerFactory.getLogger(ExcelSheetHandler.class);
 
-    public List<ServiceProvider> readExcelFile(String CSV_FILE_LOCATION) {
-        List<ServiceProvider> serviceProviders = new ArrayList<>();
-        Workbook workbook = null;
-
-        CSV_FILE_LOCATION = "C:\\Users\\shaiq\\Downloads\\excelHandler\\excelHandler\\Service Staff Directory sample.xlsx";
-
-        try {
-            workbook = WorkbookFactory.create(new File(CSV_FILE_LOCATION));
-            logger.info("Workbook loaded successfully from location: {}", CSV_FILE_LOCATION);
-
-            // Iterate through each sheet
-            workbook.forEach(sheet -> {
-                logger.info("Processing sheet: {}", sheet.getSheetName());
-
-                // Skip header row and process each subsequent row
-                for (int index = 1; index < sheet.getPhysicalNumberOfRows(); index++) {
-                    Row row = sheet.getRow(index);
-                    if (row != null) {
-                        try {
-                            ServiceProvider serviceProvider = new ServiceProvider();
-                            DataFormatter dataFormatter = new DataFormatter();
-
-                            // Set First Name and Last Name from Name column (Index 1)
-                            if (row.getCell(1) != null) {
-                                String name = row.getCell(1).getStringCellValue().trim();
-                                String[] nameParts = name.split(" ", 2);
-                                serviceProvider.setFirstName(nameParts[0]);
-                                if (nameParts.length > 1) {
-                                    serviceProvider.setLastName(nameParts[1]);
-                                } else {
-                                    serviceProvider.setLastName("");
-                                }
-                                logger.debug("Set name: {} {}", serviceProvider.getFirstName(),
-                                        serviceProvider.getLastName());
-                            }
-
-                            // Set Mobile Number (Index 2)
-                            if (row.getCell(2) != null) {
-                                String mobileStr = dataFormatter.formatCellValue(row.getCell(2));
-                                if (!mobileStr.isEmpty()) {
-                                    serviceProvider.setMobileNo(Long.parseLong(mobileStr));
-                                    logger.debug("Set mobile number: {}", serviceProvider.getMobileNo());
-                                }
-                            }
-
-                            // Set Housekeeping Role (Index 3)
-                            if (row.getCell(3) != null) {
-                                serviceProvider.setHousekeepingRole(
-                                        HousekeepingRole.valueOf(row.getCell(3).getStringCellValue()));
-                                logger.debug("Set housekeeping role: {}", serviceProvider.getHousekeepingRole());
-                            }
-
-                            // Set Gender (Index 4)
-                            if (row.getCell(4) != null) {
-                                serviceProvider.setGender(Gender.valueOf(row.getCell(4).getStringCellValue()));
-                                logger.debug("Set gender: {}", serviceProvider.getGender());
-                            }
-
-                            // Set Default or Mock Data for other fields
-                            serviceProvider.setEmailId("test" + index + "@gmail.com");
-                            serviceProvider.setBuildingName("Building " + index);
-                            serviceProvider.setLocality("Locality " + index);
-                            serviceProvider.setStreet("Street " + index);
-                            serviceProvider.setPincode(560000 + index % 101);
-                            serviceProvider.setCurrentLocation("Location " + index);
-
-                            // Automatically set enrolledDate
-                            serviceProvider.setEnrolledDate(Timestamp.from(Instant.now()));
-                            logger.debug("Set enrolled date: {}", serviceProvider.getEnrolledDate());
-
-                            // Add to the list
-                            serviceProviders.add(serviceProvider);
-                            logger.info("ServiceProvider added: {}", serviceProvider);
-
-                        } catch (Exception e) {
-                            logger.error("Error processing row {}: {}", index, e.getMessage(), e);
-                        }
-                    }
+    private static final int COLUMN_COUNT = 10;
+
+    /**
+     * Receives each parsed row. Row numbers are the 1-based numbers shown by
+     * Excel.
+     */
+    public interface RowHandler {
+
+        void onRow(int rowNumber, ServiceProvider serviceProvider);
+
+        void onError(int rowNumber, String message);
+    }
+
+    public void readServiceProviders(File file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            DataFormatter dataFormatter = new DataFormatter();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheet = sheets.next()) {
+                    logger.info("Processing sheet: {}", sheets.getSheetName());
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null, strings,
+                            new ServiceProviderRowHandler(handler), dataFormatter, false));
+                    parser.parse(new InputSource(sheet));
                 }
-            });
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Unable to read Excel file: " + e.getMessage(), e);
+        }
+    }
 
-        } catch (IOException e) {
-            logger.error("Error reading the workbook from location: {}", CSV_FILE_LOCATION, e);
-        } finally {
+    private static final class ServiceProviderRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+        private final String[] cells = new String[COLUMN_COUNT];
+
+        ServiceProviderRowHandler(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(cells, null);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = new CellReference(cellReference).getCol();
+            if (column < COLUMN_COUNT && formattedValue != null) {
+                String value = formattedValue.trim();
+                cells[column] = value.isEmpty() ? null : value;
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            // Skip header row and blank rows
+            if (rowNum == 0 || Arrays.stream(cells).allMatch(value -> value == null)) {
+                return;
+            }
+            int rowNumber = rowNum + 1;
             try {
-                if (workbook != null) {
-                    workbook.close();
-                    logger.info("Workbook closed successfully.");
-                }
-            } catch (IOException e) {
-                logger.error("Error closing the workbook", e);
+                handler.onRow(rowNumber, toServiceProvider());
+            } catch (IllegalArgumentException e) {
+                handler.onError(rowNumber, e.getMessage());
             }
         }
 
-        // Return the list of ServiceProvider objects
-        logger.info("Total number of Service Providers processed: {}", serviceProviders.size());
-        return serviceProviders;
+        private ServiceProvider toServiceProvider() {
+            ServiceProvider serviceProvider = new ServiceProvider();
+
+            // Set First Name and Last Name from Name column (Index 1)
+            if (cells[1] != null) {
+                String[] nameParts = cells[1].split(" ", 2);
+                serviceProvider.setFirstName(nameParts[0]);
+                serviceProvider.setLastName(nameParts.length > 1 ? nameParts[1] : "");
+            }
+
+            // Set Mobile Number (Index 2)
+            serviceProvider.setMobileNo(parseLong(cells[2], "mobile number"));
+
+            // Set Housekeeping Role (Index 3)
+            if (cells[3] != null) {
+                serviceProvider.setHousekeepingRole(parseEnum(HousekeepingRole.class, cells[3], "housekeeping role"));
+            }
+
+            // Set Gender (Index 4)
+            if (cells[4] != null) {
+                serviceProvider.setGender(parseEnum(Gender.class, cells[4], "gender"));
+            }
+
+            serviceProvider.setEmailId(cells[5] != null ? cells[5].toLowerCase() : null);
+
+            Double latitude = parseDouble(cells[6], "latitude");
+            Double longitude = parseDouble(cells[7], "longitude");
+            if (latitude != null) {
+                serviceProvider.setLatitude(latitude);
+            }
+            if (longitude != null) {
+                serviceProvider.setLongitude(longitude);
+            }
+
+            serviceProvider.setLocality(cells[8]);
+            if (cells[9] != null) {
+                serviceProvider.setPincode(parseLong(cells[9], "pincode").intValue());
+            }
+            return serviceProvider;
+        }
+
+        private static Long parseLong(String value, String field) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + field + ": '" + value + "'");
+            }
+        }
+
+        private static Double parseDouble(String value, String field) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + field + ": '" + value + "'");
+            }
+        }
+
+        private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String field) {
+            try {
+                return Enum.valueOf(type, value.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid " + field + ": '" + value + "'");
+            }
+        }
     }
-}
\ No newline at end of file
+}
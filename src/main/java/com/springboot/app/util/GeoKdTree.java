@@ -0,0 +1,288 @@
+package com.springboot.app.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Immutable KD-tree over latitude/longitude points for exact k-nearest-neighbour
+ * queries by great-circle (haversine) distance.
+ *
+ * Points are projected onto the unit sphere as 3D vectors. Straight-line (chord)
+ * distance between two such vectors grows monotonically with the great-circle
+ * distance, so an ordinary Euclidean KD-tree returns the same neighbours as a
+ * haversine scan, and the chord is converted back to metres for the result.
+ *
+ * The tree is stored implicitly: for every index range [lo, hi) the node sits at
+ * the middle index, its left subtree in [lo, mid) and its right in (mid, hi).
+ */
+public final class GeoKdTree<T> {
+
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private final double[][] coords; // [axis][node]
+    private final Object[] items;
+    private final int size;
+
+    public record Neighbour<T>(T item, double distanceInMeters) {
+    }
+
+    private GeoKdTree(double[][] coords, Object[] items) {
+        this.coords = coords;
+        this.items = items;
+        this.size = items.length;
+    }
+
+    /**
+     * Builds a tree from the given items. Items whose latitude or longitude is
+     * null are skipped.
+     */
+    public static <T> GeoKdTree<T> build(List<T> source, Function<T, Double> latitude, Function<T, Double> longitude) {
+        List<T> located = new ArrayList<>(source.size());
+        for (T item : source) {
+            if (latitude.apply(item) != null && longitude.apply(item) != null) {
+                located.add(item);
+            }
+        }
+
+        int n = located.size();
+        double[][] coords = new double[3][n];
+        Object[] items = new Object[n];
+        for (int i = 0; i < n; i++) {
+            T item = located.get(i);
+            double lat = Math.toRadians(latitude.apply(item));
+            double lon = Math.toRadians(longitude.apply(item));
+            coords[0][i] = Math.cos(lat) * Math.cos(lon);
+            coords[1][i] = Math.cos(lat) * Math.sin(lon);
+            coords[2][i] = Math.sin(lat);
+            items[i] = item;
+        }
+
+        GeoKdTree<T> tree = new GeoKdTree<>(coords, items);
+        tree.arrange(0, n, 0);
+        return tree;
+    }
+
+    public static <T> GeoKdTree<T> empty() {
+        return new GeoKdTree<>(new double[3][0], new Object[0]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns up to k items closest to the given point, nearest first.
+     */
+    public List<Neighbour<T>> nearest(double latitude, double longitude, int k) {
+        if (k <= 0 || size == 0) {
+            return Collections.emptyList();
+        }
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double[] query = {
+                Math.cos(lat) * Math.cos(lon),
+                Math.cos(lat) * Math.sin(lon),
+                Math.sin(lat)
+        };
+
+        BoundedMaxHeap heap = new BoundedMaxHeap(Math.min(k, size));
+        search(0, size, 0, query, heap);
+        return heap.drainSorted();
+    }
+
+    /**
+     * Converts a great-circle distance in metres into the equivalent chord
+     * length on the unit sphere.
+     */
+    public static double chordForMeters(double meters) {
+        double angle = Math.min(meters / EARTH_RADIUS_METERS, Math.PI);
+        return 2 * Math.sin(angle / 2);
+    }
+
+    /**
+     * Chord length on the unit sphere between two points; compare it against
+     * {@link #chordForMeters} to test a haversine distance without inverse
+     * trigonometry.
+     */
+    public static double chordBetween(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double lat1 = Math.toRadians(latitude1);
+        double lat2 = Math.toRadians(latitude2);
+        double dLon = Math.toRadians(longitude2 - longitude1);
+        double dx = Math.cos(lat2) * Math.cos(dLon) - Math.cos(lat1);
+        double dy = Math.cos(lat2) * Math.sin(dLon);
+        double dz = Math.sin(lat2) - Math.sin(lat1);
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    /** Converts a chord length on the unit sphere back into metres. */
+    public static double metersForChord(double chord) {
+        return EARTH_RADIUS_METERS * 2 * Math.asin(Math.min(1.0, chord / 2));
+    }
+
+    private void search(int lo, int hi, int depth, double[] query, BoundedMaxHeap heap) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        heap.offer(mid, squaredDistance(mid, query));
+
+        int axis = depth % 3;
+        double diff = query[axis] - coords[axis][mid];
+        if (diff < 0) {
+            search(lo, mid, depth + 1, query, heap);
+            if (!heap.isFull() || diff * diff < heap.worst()) {
+                search(mid + 1, hi, depth + 1, query, heap);
+            }
+        } else {
+            search(mid + 1, hi, depth + 1, query, heap);
+            if (!heap.isFull() || diff * diff < heap.worst()) {
+                search(lo, mid, depth + 1, query, heap);
+            }
+        }
+    }
+
+    private double squaredDistance(int node, double[] query) {
+        double dx = coords[0][node] - query[0];
+        double dy = coords[1][node] - query[1];
+        double dz = coords[2][node] - query[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    // Places the median on the splitting axis at the middle of every range.
+    private void arrange(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, depth % 3);
+        arrange(lo, mid, depth + 1);
+        arrange(mid + 1, hi, depth + 1);
+    }
+
+    private void select(int left, int right, int target, int axis) {
+        double[] values = coords[axis];
+        while (left < right) {
+            double pivot = values[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (target <= j) {
+                right = j;
+            } else if (target >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        for (double[] axisValues : coords) {
+            double value = axisValues[a];
+            axisValues[a] = axisValues[b];
+            axisValues[b] = value;
+        }
+        Object item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+    }
+
+    private final class BoundedMaxHeap {
+        private final int[] nodes;
+        private final double[] distances;
+        private int count;
+
+        BoundedMaxHeap(int capacity) {
+            this.nodes = new int[capacity];
+            this.distances = new double[capacity];
+        }
+
+        boolean isFull() {
+            return count == nodes.length;
+        }
+
+        double worst() {
+            return distances[0];
+        }
+
+        void offer(int node, double distance) {
+            if (!isFull()) {
+                nodes[count] = node;
+                distances[count] = distance;
+                siftUp(count++);
+            } else if (distance < distances[0]) {
+                nodes[0] = node;
+                distances[0] = distance;
+                siftDown(0);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Neighbour<T>> drainSorted() {
+            Neighbour<T>[] sorted = new Neighbour[count];
+            for (int i = count - 1; i >= 0; i--) {
+                sorted[i] = new Neighbour<>((T) items[nodes[0]], metersForChord(Math.sqrt(distances[0])));
+                count--;
+                nodes[0] = nodes[count];
+                distances[0] = distances[count];
+                siftDown(0);
+            }
+            List<Neighbour<T>> result = new ArrayList<>(sorted.length);
+            Collections.addAll(result, sorted);
+            return result;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (distances[parent] >= distances[index]) {
+                    return;
+                }
+                exchange(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int largest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < count && distances[left] > distances[largest]) {
+                    largest = left;
+                }
+                if (right < count && distances[right] > distances[largest]) {
+                    largest = right;
+                }
+                if (largest == index) {
+                    return;
+                }
+                exchange(index, largest);
+                index = largest;
+            }
+        }
+
+        private void exchange(int a, int b) {
+            int node = nodes[a];
+            nodes[a] = nodes[b];
+            nodes[b] = node;
+            double distance = distances[a];
+            distances[a] = distances[b];
+            distances[b] = distance;
+        }
+    }
+}
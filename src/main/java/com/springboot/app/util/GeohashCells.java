@@ -0,0 +1,144 @@
+package com.springboot.app.util;
+
+import java.util.Arrays;
+
+/**
+ * Geohash cells as primitive long ids, so cells can be computed, compared and
+ * used as map keys without building base32 strings. The id holds the 5 bits
+ * per character of the cell, longitude first as in the geohash itself, above
+ * 4 bits of precision; {@link #toBase32} gives the usual string where one is
+ * needed, such as in queries.
+ */
+public final class GeohashCells {
+
+    public static final int MAX_PRECISION = 12;
+
+    private static final int PRECISION_BITS = 4;
+    private static final long PRECISION_MASK = (1L << PRECISION_BITS) - 1;
+
+    private GeohashCells() {
+    }
+
+    /** Id of the cell of the given precision containing the point. */
+    public static long encode(double latitude, double longitude, int precision) {
+        checkPrecision(precision);
+        int bitCount = 5 * precision;
+        // Same bisection as the base32 geohash, so ids and strings agree at cell edges
+        double south = -90;
+        double north = 90;
+        double west = -180;
+        double east = 180;
+        long bits = 0;
+        for (int i = 0; i < bitCount; i++) {
+            bits <<= 1;
+            if ((i & 1) == 0) {
+                double middle = (west + east) / 2;
+                if (longitude >= middle) {
+                    bits |= 1;
+                    west = middle;
+                } else {
+                    east = middle;
+                }
+            } else {
+                double middle = (south + north) / 2;
+                if (latitude >= middle) {
+                    bits |= 1;
+                    south = middle;
+                } else {
+                    north = middle;
+                }
+            }
+        }
+        return bits << PRECISION_BITS | precision;
+    }
+
+    public static int precision(long cellId) {
+        return (int) (cellId & PRECISION_MASK);
+    }
+
+    /**
+     * The cell and the cells around it, the cell last. Longitude wraps around
+     * the antimeridian; rows beyond a pole are left out.
+     */
+    public static long[] neighbourhood(long cellId) {
+        int precision = precision(cellId);
+        long bits = cellId >>> PRECISION_BITS;
+        int bitCount = 5 * precision;
+        int longitudeBitCount = (bitCount + 1) / 2;
+        int latitudeBitCount = bitCount / 2;
+
+        // Split the interleaved bits into the column and row of the cell
+        long column = 0;
+        long row = 0;
+        for (int i = bitCount - 1; i >= 0; i--) {
+            long bit = (bits >>> i) & 1;
+            if (((bitCount - 1 - i) & 1) == 0) {
+                column = column << 1 | bit;
+            } else {
+                row = row << 1 | bit;
+            }
+        }
+
+        long columns = 1L << longitudeBitCount;
+        long rows = 1L << latitudeBitCount;
+        long[] cells = new long[9];
+        int count = 0;
+        for (int dRow = -1; dRow <= 1; dRow++) {
+            long neighbourRow = row + dRow;
+            if (neighbourRow < 0 || neighbourRow >= rows) {
+                continue;
+            }
+            for (int dColumn = -1; dColumn <= 1; dColumn++) {
+                if (dRow == 0 && dColumn == 0) {
+                    continue;
+                }
+                long neighbourColumn = (column + dColumn + columns) & (columns - 1);
+                cells[count++] = interleave(neighbourColumn, neighbourRow, bitCount) << PRECISION_BITS | precision;
+            }
+        }
+        cells[count++] = cellId;
+        return count == cells.length ? cells : Arrays.copyOf(cells, count);
+    }
+
+    public static boolean contains(long[] cellIds, long cellId) {
+        for (long id : cellIds) {
+            if (id == cellId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static String toBase32(long cellId) {
+        int precision = precision(cellId);
+        long bits = cellId >>> PRECISION_BITS;
+        char[] chars = new char[precision];
+        for (int i = 0; i < precision; i++) {
+            chars[i] = GeohashRanges.BASE32.charAt((int) (bits >>> (5 * (precision - 1 - i))) & 31);
+        }
+        return new String(chars);
+    }
+
+    // Longitude takes the first (most significant) bit, then the two alternate
+    private static long interleave(long column, long row, int bitCount) {
+        long bits = 0;
+        int columnBit = (bitCount + 1) / 2;
+        int rowBit = bitCount / 2;
+        for (int i = 0; i < bitCount; i++) {
+            bits <<= 1;
+            if ((i & 1) == 0) {
+                bits |= (column >>> --columnBit) & 1;
+            } else {
+                bits |= (row >>> --rowBit) & 1;
+            }
+        }
+        return bits;
+    }
+
+    private static void checkPrecision(int precision) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Geohash precision must be between 1 and " + MAX_PRECISION
+                    + ": " + precision);
+        }
+    }
+}
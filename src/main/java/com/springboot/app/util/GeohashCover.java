@@ -0,0 +1,123 @@
+package com.springboot.app.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Covers a circle with geohash cells of mixed precision.
+ *
+ * Starting from the precision-1 cells the circle touches, the largest cell
+ * that lies only partly inside the circle is split into its 32 children, and
+ * children outside the circle are dropped. Cells wholly inside stay as they
+ * are, so the middle of a large circle is covered by a few coarse cells and
+ * only its rim by fine ones. Splitting stops when the next split would exceed
+ * the cell budget or the cells reach {@link #MAX_PRECISION}.
+ *
+ * Cells are tested in plain latitude/longitude bounds, so circles crossing the
+ * antimeridian or a pole are not covered correctly.
+ */
+public final class GeohashCover {
+
+    /** Finest cells of a cover, about 38 m x 19 m. */
+    public static final int MAX_PRECISION = 8;
+
+    // The nearest point of a cell is approximated by clamping the centre into
+    // its bounds; the slack absorbs the difference on the sphere.
+    private static final double INTERSECT_SLACK = 1.01;
+
+    private GeohashCover() {
+    }
+
+    /**
+     * Cells covering the circle of the given radius around the point, at most
+     * maxCells of them unless the circle needs more precision-1 cells.
+     */
+    public static List<String> cover(double latitude, double longitude, double radiusInMeters, int maxCells) {
+        if (!(radiusInMeters > 0)) {
+            throw new IllegalArgumentException("Radius must be positive: " + radiusInMeters);
+        }
+        double reach = GeoKdTree.chordForMeters(radiusInMeters * INTERSECT_SLACK);
+        double inside = GeoKdTree.chordForMeters(radiusInMeters);
+
+        List<String> cells = new ArrayList<>();
+        // Cells only partly inside the circle, coarsest first
+        PriorityQueue<String> partial = new PriorityQueue<>(Comparator.comparingInt(String::length));
+        List<String> insideChildren = new ArrayList<>();
+        List<String> partialChildren = new ArrayList<>();
+
+        split("", latitude, longitude, reach, inside, cells, partial);
+        while (!partial.isEmpty() && partial.peek().length() < MAX_PRECISION) {
+            insideChildren.clear();
+            partialChildren.clear();
+            split(partial.peek(), latitude, longitude, reach, inside, insideChildren, partialChildren);
+            if (cells.size() + partial.size() - 1 + insideChildren.size() + partialChildren.size() > maxCells) {
+                break;
+            }
+            partial.poll();
+            cells.addAll(insideChildren);
+            partial.addAll(partialChildren);
+        }
+        cells.addAll(partial);
+        return cells;
+    }
+
+    // Sorts the children of the cell that touch the circle into wholly and partly inside
+    private static void split(String cell, double latitude, double longitude, double reach, double inside,
+            List<String> insideCells, Collection<String> partialCells) {
+        for (int i = 0; i < GeohashRanges.BASE32.length(); i++) {
+            String child = cell + GeohashRanges.BASE32.charAt(i);
+            double[] bounds = bounds(child);
+            double nearestLatitude = Math.max(bounds[0], Math.min(bounds[1], latitude));
+            double nearestLongitude = Math.max(bounds[2], Math.min(bounds[3], longitude));
+            if (GeoKdTree.chordBetween(latitude, longitude, nearestLatitude, nearestLongitude) > reach) {
+                continue;
+            }
+            if (GeoKdTree.chordBetween(latitude, longitude, bounds[0], bounds[2]) <= inside
+                    && GeoKdTree.chordBetween(latitude, longitude, bounds[0], bounds[3]) <= inside
+                    && GeoKdTree.chordBetween(latitude, longitude, bounds[1], bounds[2]) <= inside
+                    && GeoKdTree.chordBetween(latitude, longitude, bounds[1], bounds[3]) <= inside) {
+                insideCells.add(child);
+            } else {
+                partialCells.add(child);
+            }
+        }
+    }
+
+    /** Bounds of a geohash cell as [south, north, west, east]. */
+    public static double[] bounds(String cell) {
+        double south = -90;
+        double north = 90;
+        double west = -180;
+        double east = 180;
+        boolean longitudeBit = true;
+        for (int i = 0; i < cell.length(); i++) {
+            int digit = GeohashRanges.BASE32.indexOf(cell.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid geohash: " + cell);
+            }
+            for (int bit = 4; bit >= 0; bit--) {
+                boolean upper = ((digit >> bit) & 1) == 1;
+                if (longitudeBit) {
+                    double middle = (west + east) / 2;
+                    if (upper) {
+                        west = middle;
+                    } else {
+                        east = middle;
+                    }
+                } else {
+                    double middle = (south + north) / 2;
+                    if (upper) {
+                        south = middle;
+                    } else {
+                        north = middle;
+                    }
+                }
+                longitudeBit = !longitudeBit;
+            }
+        }
+        return new double[] { south, north, west, east };
+    }
+}
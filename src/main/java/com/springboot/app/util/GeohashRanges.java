@@ -0,0 +1,70 @@
+package com.springboot.app.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Turns a set of geohash cells into the ranges of full-precision geohashes
+ * they contain. A cell of any precision is a prefix, and all geohashes with
+ * that prefix sort between the prefix and the prefix with its last character
+ * advanced: "tdr1" covers ["tdr1", "tdr2"). Cells inside another cell of the
+ * set are dropped and touching ranges are merged, so each range is one
+ * ordered scan of a sorted index.
+ */
+public final class GeohashRanges {
+
+    static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+    /** Geohashes g with from <= g < to; to is null when the range is unbounded above. */
+    public record Range(String from, String to) {
+    }
+
+    private GeohashRanges() {
+    }
+
+    /** Disjoint ranges covering the cells, in ascending order. */
+    public static List<Range> cover(Collection<String> cells) {
+        List<Range> ranges = new ArrayList<>();
+        Range current = null;
+        TreeSet<String> sorted = new TreeSet<>();
+        for (String cell : cells) {
+            if (cell != null && !cell.isEmpty()) {
+                sorted.add(cell);
+            }
+        }
+        // In sorted order a cell inside another comes after it and before its upper bound
+        for (String cell : sorted) {
+            if (current != null && (current.to() == null || cell.compareTo(current.to()) < 0)) {
+                continue;
+            }
+            String to = upperBound(cell);
+            if (current != null && cell.equals(current.to())) {
+                current = new Range(current.from(), to);
+                ranges.set(ranges.size() - 1, current);
+            } else {
+                current = new Range(cell, to);
+                ranges.add(current);
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * The smallest string above every geohash starting with the prefix, or
+     * null if there is none.
+     */
+    public static String upperBound(String prefix) {
+        for (int i = prefix.length() - 1; i >= 0; i--) {
+            int digit = BASE32.indexOf(prefix.charAt(i));
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid geohash: " + prefix);
+            }
+            if (digit < BASE32.length() - 1) {
+                return prefix.substring(0, i) + BASE32.charAt(digit + 1);
+            }
+        }
+        return null;
+    }
+}
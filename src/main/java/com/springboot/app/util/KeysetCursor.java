@@ -0,0 +1,65 @@
+package com.springboot.app.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque cursor for keyset pagination: the sort key values of the last row a
+ * client has seen, URL-safe Base64 encoded so clients treat it as a token
+ * rather than something to build themselves.
+ *
+ * A cursor starts with a kind tag, so a cursor issued by one listing is
+ * rejected by another instead of silently skipping rows.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(String kind, Object... keys) {
+        String raw = kind + SEPARATOR + Arrays.stream(keys).map(String::valueOf)
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the key values of a cursor issued for the given kind, or null
+     * for a null or blank cursor (the first page).
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or was
+     *                                  issued for another kind or key count
+     */
+    public static String[] decode(String cursor, String kind, int keyCount) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        String[] parts = raw.split("\\|", -1);
+        if (parts.length != keyCount + 1 || !parts[0].equals(kind)) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return Arrays.copyOfRange(parts, 1, parts.length);
+    }
+
+    /** Single-key form of {@link #decode(String, String, int)} for id cursors. */
+    public static Long decodeId(String cursor, String kind) {
+        String[] keys = decode(cursor, kind, 1);
+        if (keys == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(keys[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
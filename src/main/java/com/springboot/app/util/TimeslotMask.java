@@ -0,0 +1,272 @@
+package com.springboot.app.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable set of the minutes of a day covered by a timeslot string such as
+ * "06:00-08:00,17:00-19:00", stored as a 1440-bit mask.
+ *
+ * Each range covers [start, end). A range whose end is before its start wraps
+ * past midnight, and "00:00-00:00" (used for ended engagements) is empty, so two
+ * timeslots overlap exactly when their masks share a bit.
+ *
+ * Timeslot strings repeat heavily across providers, engagements and requests,
+ * so {@link #of(String)} caches parse results and every mask caches its hour
+ * labels. Callers on hot paths get shared, unmodifiable results back.
+ */
+public final class TimeslotMask {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int WORDS = (MINUTES_PER_DAY + Long.SIZE - 1) / Long.SIZE;
+
+    // Valid bits of the last word (1440 is not a multiple of 64)
+    private static final long LAST_WORD_MASK = -1L >>> (WORDS * Long.SIZE - MINUTES_PER_DAY);
+
+    private static final int MAX_CACHED_TIMESLOTS = 4096;
+
+    private static final Map<String, TimeslotMask> CACHE = new ConcurrentHashMap<>();
+
+    private static final String[] HOUR_LABELS = new String[24];
+
+    static {
+        for (int hour = 0; hour < 24; hour++) {
+            HOUR_LABELS[hour] = String.format("%02d:00", hour);
+        }
+    }
+
+    public static final TimeslotMask EMPTY = new TimeslotMask(new long[WORDS]);
+
+    private final long[] words;
+
+    private volatile List<String> occupiedHours;
+
+    private volatile List<String> freeHours;
+
+    private TimeslotMask(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Returns the mask for a timeslot string, reusing a previously parsed
+     * instance when the same string has been seen before.
+     */
+    public static TimeslotMask of(String timeslot) {
+        if (timeslot == null || timeslot.isBlank()) {
+            return EMPTY;
+        }
+        TimeslotMask cached = CACHE.get(timeslot);
+        if (cached != null) {
+            return cached;
+        }
+        TimeslotMask parsed = parse(timeslot);
+        if (CACHE.size() < MAX_CACHED_TIMESLOTS) {
+            CACHE.putIfAbsent(timeslot, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Parses a comma-separated list of "H:mm-H:mm" ranges. Null or blank input
+     * gives {@link #EMPTY}; entries that are not a start-end pair are skipped.
+     */
+    public static TimeslotMask parse(String timeslot) {
+        if (timeslot == null || timeslot.isBlank()) {
+            return EMPTY;
+        }
+        long[] words = new long[WORDS];
+        for (String slot : timeslot.split(",")) {
+            String[] parts = slot.trim().split("-");
+            if (parts.length != 2) {
+                continue;
+            }
+            int start = parseMinuteOfDay(parts[0]);
+            int end = parseMinuteOfDay(parts[1]);
+            if (start <= end) {
+                setRange(words, start, end);
+            } else {
+                setRange(words, start, MINUTES_PER_DAY);
+                setRange(words, 0, end);
+            }
+        }
+        return new TimeslotMask(words);
+    }
+
+    public boolean overlaps(TimeslotMask other) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public TimeslotMask union(TimeslotMask other) {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = words[i] | other.words[i];
+        }
+        return new TimeslotMask(result);
+    }
+
+    public TimeslotMask intersection(TimeslotMask other) {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = words[i] & other.words[i];
+        }
+        return new TimeslotMask(result);
+    }
+
+    public TimeslotMask complement() {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = ~words[i];
+        }
+        result[WORDS - 1] &= LAST_WORD_MASK;
+        return new TimeslotMask(result);
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Labels ("HH:00") of the hours in which at least one minute is covered.
+     */
+    public List<String> occupiedHours() {
+        List<String> hours = occupiedHours;
+        if (hours == null) {
+            hours = hourLabels(true);
+            occupiedHours = hours;
+        }
+        return hours;
+    }
+
+    /**
+     * Labels ("HH:00") of the hours in which no minute is covered.
+     */
+    public List<String> freeHours() {
+        List<String> hours = freeHours;
+        if (hours == null) {
+            hours = hourLabels(false);
+            freeHours = hours;
+        }
+        return hours;
+    }
+
+    /**
+     * Canonical "HH:mm-HH:mm,..." form of the covered minutes, ranges in day order.
+     */
+    public String format() {
+        StringBuilder result = new StringBuilder();
+        int minute = 0;
+        while (minute < MINUTES_PER_DAY) {
+            if (!isSet(minute)) {
+                minute++;
+                continue;
+            }
+            int start = minute;
+            while (minute < MINUTES_PER_DAY && isSet(minute)) {
+                minute++;
+            }
+            if (result.length() > 0) {
+                result.append(',');
+            }
+            appendTime(result, start);
+            result.append('-');
+            appendTime(result, minute);
+        }
+        return result.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TimeslotMask other && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+
+    private boolean isSet(int minute) {
+        return (words[minute >>> 6] & (1L << (minute & 63))) != 0;
+    }
+
+    private boolean anySet(int from, int to) {
+        for (int minute = from; minute < to; minute++) {
+            if (isSet(minute)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> hourLabels(boolean occupied) {
+        List<String> labels = new ArrayList<>(24);
+        for (int hour = 0; hour < 24; hour++) {
+            if (anySet(hour * 60, hour * 60 + 60) == occupied) {
+                labels.add(HOUR_LABELS[hour]);
+            }
+        }
+        return Collections.unmodifiableList(labels);
+    }
+
+    private static void appendTime(StringBuilder target, int minuteOfDay) {
+        int hour = minuteOfDay / 60;
+        int minute = minuteOfDay % 60;
+        if (hour < 10) {
+            target.append('0');
+        }
+        target.append(hour).append(':');
+        if (minute < 10) {
+            target.append('0');
+        }
+        target.append(minute);
+    }
+
+    private static int parseMinuteOfDay(String time) {
+        String[] parts = time.trim().split(":");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid time '" + time + "'. Expected 'HH:mm'.");
+        }
+        try {
+            int hour = Integer.parseInt(parts[0]);
+            int minute = Integer.parseInt(parts[1]);
+            int minuteOfDay = hour * 60 + minute;
+            if (hour < 0 || minute < 0 || minute > 59 || minuteOfDay > MINUTES_PER_DAY) {
+                throw new IllegalArgumentException("Invalid time '" + time + "'. Expected 'HH:mm'.");
+            }
+            return minuteOfDay;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Time contains non-numeric values: '" + time + "'.", e);
+        }
+    }
+
+    // Sets bits [from, to)
+    private static void setRange(long[] words, int from, int to) {
+        for (int minute = from; minute < to;) {
+            int word = minute >>> 6;
+            int bit = minute & 63;
+            int span = Math.min(64 - bit, to - minute);
+            long bits = span == 64 ? -1L : ((1L << span) - 1) << bit;
+            words[word] |= bits;
+            minute += span;
+        }
+    }
+}
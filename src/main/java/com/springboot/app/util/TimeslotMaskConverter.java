@@ -0,0 +1,23 @@
+package com.springboot.app.util;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps a timeslot column ("06:00-08:00,17:00-19:00") to a cached
+ * {@link TimeslotMask}, so entities and JPQL projections hand out parsed
+ * masks instead of raw strings.
+ */
+@Converter
+public class TimeslotMaskConverter implements AttributeConverter<TimeslotMask, String> {
+
+    @Override
+    public String convertToDatabaseColumn(TimeslotMask mask) {
+        return mask != null ? mask.format() : null;
+    }
+
+    @Override
+    public TimeslotMask convertToEntityAttribute(String timeslot) {
+        return TimeslotMask.of(timeslot);
+    }
+}
@@ -0,0 +1,133 @@
+package com.springboot.app.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+
+import com.springboot.app.service.GeoHashService;
+import com.springboot.app.util.GeohashCells;
+
+import ch.hsr.geohash.GeoHash;
+
+/**
+ * Measures the hot geohash paths of a search: encoding a point and building
+ * its 3x3 neighbourhood, with GeoHash objects and base32 strings as before,
+ * on long cell ids, and through the memo of {@link GeoHashService}. Query
+ * points repeat from a fixed pool, like searches from the same addresses.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.springboot.app.benchmark.GeohashNeighbourBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class GeohashNeighbourBenchmark {
+
+    private static final double MIN_LATITUDE = 12.85;
+    private static final double MIN_LONGITUDE = 77.45;
+    private static final double SPAN = 0.35;
+    private static final int QUERY_POINTS = 4096;
+
+    @Param({ "5", "7" })
+    private int precision;
+
+    private GeoHashService geoHashService;
+    private double[][] queries;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int advance() {
+            next = (next + 1) & (QUERY_POINTS - 1);
+            return next;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        geoHashService = new GeoHashService(16384);
+        Random random = new Random(42);
+        queries = new double[QUERY_POINTS][];
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            queries[i] = new double[] { MIN_LATITUDE + random.nextDouble() * SPAN,
+                    MIN_LONGITUDE + random.nextDouble() * SPAN };
+        }
+    }
+
+    @Benchmark
+    public String encodeString(Cursor cursor) {
+        double[] query = queries[cursor.advance()];
+        return GeoHash.withCharacterPrecision(query[0], query[1], precision).toBase32();
+    }
+
+    @Benchmark
+    public long encodeLong(Cursor cursor) {
+        double[] query = queries[cursor.advance()];
+        return GeohashCells.encode(query[0], query[1], precision);
+    }
+
+    // The previous GeoHashService.getNearbyGeoHashes
+    @Benchmark
+    public List<String> neighboursString(Cursor cursor) {
+        double[] query = queries[cursor.advance()];
+        GeoHash geoHash = GeoHash.withCharacterPrecision(query[0], query[1], precision);
+        List<String> nearbyHashes = new ArrayList<>();
+        for (GeoHash neighbor : geoHash.getAdjacent()) {
+            nearbyHashes.add(neighbor.toBase32());
+        }
+        nearbyHashes.add(geoHash.toBase32());
+        return nearbyHashes;
+    }
+
+    @Benchmark
+    public long[] neighboursLong(Cursor cursor) {
+        double[] query = queries[cursor.advance()];
+        return GeohashCells.neighbourhood(GeohashCells.encode(query[0], query[1], precision));
+    }
+
+    @Benchmark
+    public List<String> neighboursMemoised(Cursor cursor) {
+        double[] query = queries[cursor.advance()];
+        return geoHashService.getNearbyGeoHashes(query[0], query[1], precision);
+    }
+
+    @Benchmark
+    public long[] neighbourIdsMemoised(Cursor cursor) {
+        double[] query = queries[cursor.advance()];
+        return geoHashService.getNearbyCellIds(query[0], query[1], precision);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GeohashNeighbourBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,226 @@
+package com.springboot.app.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.springboot.app.entity.ServiceProvider;
+import com.springboot.app.enums.HousekeepingRole;
+import com.springboot.app.service.GeoHashService;
+import com.springboot.app.util.GeohashRanges;
+
+import ch.hsr.geohash.GeoHash;
+
+/**
+ * Compares the database lookup of providers of one role in a geohash cell and
+ * its neighbours, as the old OR of IN lists over the geoHash4..geoHash7
+ * columns and as ranges of the single geohash column under the
+ * (housekeepingRole, isActive, geohash) index. Both layouts are seeded into
+ * one table of providers spread across Bengaluru, and the plan of each query
+ * is printed before measuring.
+ *
+ * Runs against an in-memory H2 database by default; pass
+ * -Dbenchmark.jdbc.url, -Dbenchmark.jdbc.user and -Dbenchmark.jdbc.password
+ * to measure on PostgreSQL instead.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.springboot.app.benchmark.GeohashQueryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeohashQueryBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeohashQueryBenchmark.class);
+
+    private static final double MIN_LATITUDE = 12.85;
+    private static final double MIN_LONGITUDE = 77.45;
+    private static final double SPAN = 0.35;
+    private static final int QUERY_POINTS = 256;
+    private static final int INSERT_BATCH_SIZE = 10000;
+
+    private static final String INSERT_SQL = "INSERT INTO bench_provider "
+            + "(id, housekeepingRole, isActive, geoHash4, geoHash5, geoHash6, geoHash7, geohash) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Param({ "1000000" })
+    private int providers;
+
+    @Param({ "5", "6" })
+    private int precision;
+
+    private Connection connection;
+    private String[] legacyQueries;
+    private String[] rangeQueries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url", "jdbc:h2:mem:geohash;DB_CLOSE_DELAY=-1"),
+                System.getProperty("benchmark.jdbc.user", "sa"),
+                System.getProperty("benchmark.jdbc.password", ""));
+        seed();
+
+        GeoHashService geoHashService = new GeoHashService(16384);
+        Random random = new Random(7);
+        legacyQueries = new String[QUERY_POINTS];
+        rangeQueries = new String[QUERY_POINTS];
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            List<String> cells = geoHashService.getNearbyGeoHashes(MIN_LATITUDE + random.nextDouble() * SPAN,
+                    MIN_LONGITUDE + random.nextDouble() * SPAN, precision);
+            legacyQueries[i] = legacyQuery(HousekeepingRole.COOK, cells);
+            rangeQueries[i] = rangeQuery(HousekeepingRole.COOK, cells);
+        }
+
+        printPlan("geoHash4..geoHash7 IN lists", legacyQueries[0]);
+        printPlan("geohash ranges", rangeQueries[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_provider");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int legacyColumns() throws SQLException {
+        return count(legacyQueries[nextQuery()]);
+    }
+
+    @Benchmark
+    public int geohashRanges() throws SQLException {
+        return count(rangeQueries[nextQuery()]);
+    }
+
+    private void seed() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_provider");
+            statement.execute("CREATE TABLE bench_provider (id BIGINT PRIMARY KEY, housekeepingRole VARCHAR(32), "
+                    + "isActive BOOLEAN, geoHash4 VARCHAR(4), geoHash5 VARCHAR(5), geoHash6 VARCHAR(6), "
+                    + "geoHash7 VARCHAR(7), geohash VARCHAR(12))");
+        }
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        Random random = new Random(42);
+        HousekeepingRole[] roles = HousekeepingRole.values();
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+            for (long id = 1; id <= providers; id++) {
+                String geohash = GeoHash.withCharacterPrecision(MIN_LATITUDE + random.nextDouble() * SPAN,
+                        MIN_LONGITUDE + random.nextDouble() * SPAN, ServiceProvider.GEOHASH_PRECISION).toBase32();
+                insert.setLong(1, id);
+                insert.setString(2, roles[random.nextInt(roles.length)].name());
+                insert.setBoolean(3, random.nextInt(10) > 0);
+                insert.setString(4, geohash.substring(0, 4));
+                insert.setString(5, geohash.substring(0, 5));
+                insert.setString(6, geohash.substring(0, 6));
+                insert.setString(7, geohash.substring(0, 7));
+                insert.setString(8, geohash);
+                insert.addBatch();
+                if (id % INSERT_BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            // Indexes of the old layout, one per precision column
+            for (int length = 4; length <= 7; length++) {
+                statement.execute("CREATE INDEX idx_bench_geohash" + length + " ON bench_provider (geoHash"
+                        + length + ")");
+            }
+            statement.execute("CREATE INDEX idx_bench_role_active_geohash "
+                    + "ON bench_provider (housekeepingRole, isActive, geohash)");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    // The query of the removed findByHousekeepingRoleAndGeoHash, restricted to
+    // active providers like the range query so both return the same rows
+    private static String legacyQuery(HousekeepingRole role, List<String> cells) {
+        String in = cells.stream().map(cell -> "'" + cell + "'").collect(Collectors.joining(", ", "(", ")"));
+        return "SELECT id FROM bench_provider WHERE housekeepingRole = '" + role.name()
+                + "' AND isActive = TRUE AND (geoHash4 IN " + in + " OR geoHash5 IN " + in + " OR geoHash6 IN " + in + " OR geoHash7 IN " + in + ")";
+    }
+
+    // The query ServiceProviderSpecifications builds for the same cells
+    private static String rangeQuery(HousekeepingRole role, List<String> cells) {
+        String ranges = GeohashRanges.cover(cells).stream()
+                .map(range -> range.to() == null ? "geohash >= '" + range.from() + "'"
+                        : "(geohash >= '" + range.from() + "' AND geohash < '" + range.to() + "')")
+                .collect(Collectors.joining(" OR ", "(", ")"));
+        return "SELECT id FROM bench_provider WHERE housekeepingRole = '" + role.name()
+                + "' AND isActive = TRUE AND " + ranges;
+    }
+
+    private void printPlan(String label, String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+                ResultSet rows = statement.executeQuery("EXPLAIN " + sql)) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append(System.lineSeparator());
+            }
+        }
+        logger.info("Plan with {}:{}{}", label, System.lineSeparator(), plan);
+    }
+
+    private int count(String sql) throws SQLException {
+        int rows = 0;
+        try (Statement statement = connection.createStatement();
+                ResultSet result = statement.executeQuery(sql)) {
+            while (result.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private int nextQuery() {
+        next = (next + 1) & (QUERY_POINTS - 1);
+        return next;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GeohashQueryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,186 @@
+package com.springboot.app.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.springboot.app.service.LoginProfileCache;
+import com.springboot.app.service.LoginProfileCache.LoginProfile;
+
+/**
+ * Login profile lookups against 100k seeded customers.
+ *
+ * "scan" reads every customer row and filters by email in Java, the way the
+ * login used to filter findAll(); "index" selects the one row through the
+ * unique emailId index, as CustomerRepository.findByEmailId does. Either
+ * lookup sits behind a LoginProfileCache of the given size, 0 disabling it.
+ * Password hashing is left out so that only the profile lookup is measured.
+ *
+ * Runs against an in-memory H2 database by default; pass
+ * -Dbenchmark.jdbc.url, -Dbenchmark.jdbc.user and -Dbenchmark.jdbc.password
+ * to measure on PostgreSQL instead.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.springboot.app.benchmark.LoginBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final int USERS = 100_000;
+    private static final int INSERT_BATCH_SIZE = 10000;
+
+    private static final String INSERT_SQL = "INSERT INTO bench_customer "
+            + "(customerId, firstName, lastName, emailId) VALUES (?, ?, ?, ?)";
+    private static final String SCAN_SQL = "SELECT customerId, firstName, lastName, emailId FROM bench_customer";
+    private static final String INDEX_SQL = "SELECT customerId, firstName, lastName, emailId FROM bench_customer "
+            + "WHERE emailId = ?";
+
+    private record Profile(long customerId, String firstName, String lastName, String emailId) {
+    }
+
+    @Param({ "scan", "index" })
+    private String lookup;
+
+    @Param({ "0", "10000" })
+    private int profileCacheEntries;
+
+    private Connection connection;
+    private PreparedStatement scan;
+    private PreparedStatement index;
+    private LoginProfileCache loginProfileCache;
+    private String[] usernames;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url", "jdbc:h2:mem:login;DB_CLOSE_DELAY=-1"),
+                System.getProperty("benchmark.jdbc.user", "sa"),
+                System.getProperty("benchmark.jdbc.password", ""));
+        seed();
+
+        scan = connection.prepareStatement(SCAN_SQL);
+        index = connection.prepareStatement(INDEX_SQL);
+        loginProfileCache = new LoginProfileCache(profileCacheEntries, TimeUnit.MINUTES.toMillis(5));
+        random = new Random(42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        scan.close();
+        index.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_customer");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public LoginProfile login() throws SQLException {
+        String username = usernames[random.nextInt(USERS)];
+        LoginProfile profile = loginProfileCache.get(username);
+        if (profile == null) {
+            Profile customer = "scan".equals(lookup) ? scan(username) : index(username);
+            if (customer != null) {
+                profile = new LoginProfile("customerDetails", customer);
+                loginProfileCache.put(username, profile);
+            }
+        }
+        return profile;
+    }
+
+    private Profile scan(String username) throws SQLException {
+        Profile found = null;
+        try (ResultSet rows = scan.executeQuery()) {
+            // Every row is read and mapped, as findAll() did, before filtering
+            while (rows.next()) {
+                Profile customer = profile(rows);
+                if (found == null && customer.emailId().equals(username)) {
+                    found = customer;
+                }
+            }
+        }
+        return found;
+    }
+
+    private Profile index(String username) throws SQLException {
+        index.setString(1, username);
+        try (ResultSet rows = index.executeQuery()) {
+            return rows.next() ? profile(rows) : null;
+        }
+    }
+
+    private static Profile profile(ResultSet rows) throws SQLException {
+        return new Profile(rows.getLong(1), rows.getString(2), rows.getString(3), rows.getString(4));
+    }
+
+    private void seed() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_customer");
+            statement.execute("CREATE TABLE bench_customer (customerId BIGINT PRIMARY KEY, "
+                    + "firstName VARCHAR(255), lastName VARCHAR(255), emailId VARCHAR(255) NOT NULL)");
+        }
+
+        usernames = new String[USERS];
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+            for (int i = 0; i < USERS; i++) {
+                usernames[i] = "customer" + i + "@example.com";
+                insert.setLong(1, i + 1L);
+                insert.setString(2, "First" + i);
+                insert.setString(3, "Last" + i);
+                insert.setString(4, usernames[i]);
+                insert.addBatch();
+                if ((i + 1) % INSERT_BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            // The index behind the unique constraint on Customer.emailId
+            statement.execute("CREATE UNIQUE INDEX idx_bench_customer_email ON bench_customer (emailId)");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoginBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
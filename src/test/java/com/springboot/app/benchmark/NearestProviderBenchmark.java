@@ -0,0 +1,130 @@
+package com.springboot.app.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.springboot.app.entity.ServiceProvider;
+import com.springboot.app.enums.HousekeepingRole;
+import com.springboot.app.repository.ServiceProviderRepository;
+import com.springboot.app.service.GeoHashService;
+import com.springboot.app.service.SearchResultCache;
+import com.springboot.app.service.ServiceProviderEngagementServiceImpl;
+import com.springboot.app.service.ServiceProviderSpatialIndex;
+import com.springboot.app.util.GeoKdTree;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Compares the distance-ranked k-nearest lookup against the radius-widening
+ * priority search over the same set of providers spread across Bengaluru.
+ *
+ * Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.springboot.app.benchmark.NearestProviderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NearestProviderBenchmark {
+
+    private static final double MIN_LATITUDE = 12.85;
+    private static final double MIN_LONGITUDE = 77.45;
+    private static final double SPAN = 0.35;
+    private static final int QUERY_POINTS = 1024;
+
+    @Param({ "10000", "100000" })
+    private int providers;
+
+    private ServiceProviderSpatialIndex spatialIndex;
+    private ServiceProviderEngagementServiceImpl engagementService;
+    private double[][] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        Random random = new Random(42);
+        HousekeepingRole[] roles = HousekeepingRole.values();
+        List<ServiceProvider> seeded = new ArrayList<>(providers);
+        for (long id = 1; id <= providers; id++) {
+            ServiceProvider provider = new ServiceProvider();
+            provider.setServiceproviderId(id);
+            provider.setHousekeepingRole(roles[random.nextInt(roles.length)]);
+            provider.setLatitude(MIN_LATITUDE + random.nextDouble() * SPAN);
+            provider.setLongitude(MIN_LONGITUDE + random.nextDouble() * SPAN);
+            provider.prePersist();
+            seeded.add(provider);
+        }
+
+        ServiceProviderRepository repository = mock(ServiceProviderRepository.class);
+        when(repository.findActiveAfterId(anyLong(), any())).thenReturn(seeded, new ArrayList<>());
+        spatialIndex = new ServiceProviderSpatialIndex(repository);
+        spatialIndex.load();
+
+        engagementService = new ServiceProviderEngagementServiceImpl(null, repository, null, null, null, null);
+        ReflectionTestUtils.setField(engagementService, "geoHashService", new GeoHashService(16384));
+        ReflectionTestUtils.setField(engagementService, "spatialIndex", spatialIndex);
+        // Disabled, so every call measures the search itself
+        ReflectionTestUtils.setField(engagementService, "searchResultCache",
+                new SearchResultCache(new SimpleMeterRegistry(), 0, 0));
+
+        queries = new double[QUERY_POINTS][];
+        for (int i = 0; i < QUERY_POINTS; i++) {
+            queries[i] = new double[] { MIN_LATITUDE + random.nextDouble() * SPAN,
+                    MIN_LONGITUDE + random.nextDouble() * SPAN };
+        }
+    }
+
+    @Benchmark
+    public List<ServiceProvider> priorityBasedSearch() {
+        double[] query = nextQuery();
+        return engagementService.getPriorityBasedSearch(query[0], query[1], HousekeepingRole.COOK);
+    }
+
+    @Benchmark
+    public List<GeoKdTree.Neighbour<ServiceProvider>> nearestTen() {
+        double[] query = nextQuery();
+        return spatialIndex.findNearest(HousekeepingRole.COOK, query[0], query[1], 10);
+    }
+
+    private double[] nextQuery() {
+        next = (next + 1) & (QUERY_POINTS - 1);
+        return queries[next];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NearestProviderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
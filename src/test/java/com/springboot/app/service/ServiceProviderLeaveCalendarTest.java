@@ -0,0 +1,149 @@
+package com.springboot.app.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.springboot.app.entity.ServiceProvider;
+import com.springboot.app.entity.ServiceProviderLeave;
+import com.springboot.app.repository.ServiceProviderLeaveRepository;
+
+class ServiceProviderLeaveCalendarTest {
+
+    private static final int HORIZON_DAYS = 30;
+
+    private final LocalDate today = LocalDate.now();
+
+    private ServiceProviderLeaveRepository repository;
+    private ServiceProviderLeaveCalendar calendar;
+    private final List<Object[]> stored = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ServiceProviderLeaveRepository.class);
+        when(repository.findLeaveSpansEndingOnOrAfter(any())).thenAnswer(invocation -> List.copyOf(stored));
+        calendar = new ServiceProviderLeaveCalendar(repository, HORIZON_DAYS);
+    }
+
+    @Test
+    void overlappingLeavesOfOneProviderAreCounted() {
+        stored.add(span(1L, 7L, today.plusDays(1), today.plusDays(5)));
+        stored.add(span(2L, 7L, today.plusDays(3), today.plusDays(7)));
+        calendar.load();
+
+        assertEquals(Set.of(7L), calendar.getServiceProvidersOnLeave(today.plusDays(4)));
+        calendar.remove(1L);
+        assertEquals(Set.of(7L), calendar.getServiceProvidersOnLeave(today.plusDays(4)));
+        assertEquals(Set.of(), calendar.getServiceProvidersOnLeave(today.plusDays(1)));
+        assertTrue(calendar.isOnLeave(7L, today.plusDays(6), today.plusDays(9)));
+
+        calendar.remove(2L);
+        assertEquals(Set.of(), calendar.getServiceProvidersOnLeave(today, today.plusDays(HORIZON_DAYS)));
+        assertFalse(calendar.isOnLeave(7L, today, today.plusDays(HORIZON_DAYS)));
+        // Removing again is harmless
+        calendar.remove(2L);
+        assertFalse(calendar.isOnLeave(7L, today, today.plusDays(HORIZON_DAYS)));
+    }
+
+    @Test
+    void upsertMovesLeaveAndUnapprovedLeaveIsDropped() {
+        stored.add(span(1L, 7L, today.plusDays(1), today.plusDays(2)));
+        calendar.load();
+
+        calendar.upsert(leave(1L, 7L, today.plusDays(10), today.plusDays(12), true));
+        assertFalse(calendar.isOnLeave(7L, today.plusDays(1), today.plusDays(2)));
+        assertTrue(calendar.isOnLeave(7L, today.plusDays(11), today.plusDays(11)));
+
+        calendar.upsert(leave(1L, 7L, today.plusDays(10), today.plusDays(12), false));
+        assertFalse(calendar.isOnLeave(7L, today, today.plusDays(HORIZON_DAYS)));
+    }
+
+    @Test
+    void leavesAreClippedToTheWindow() {
+        stored.add(span(1L, 7L, today.minusDays(3), today));
+        stored.add(span(2L, 8L, today.plusDays(HORIZON_DAYS - 1), today.plusDays(HORIZON_DAYS + 20)));
+        calendar.load();
+
+        assertEquals(Set.of(7L), calendar.getServiceProvidersOnLeave(today));
+        assertEquals(Set.of(8L), calendar.getServiceProvidersOnLeave(today.plusDays(HORIZON_DAYS)));
+
+        // A leave that ended before the window is not added
+        calendar.upsert(leave(3L, 9L, today.minusDays(5), today.minusDays(1), true));
+        assertFalse(calendar.isOnLeave(9L, today, today.plusDays(HORIZON_DAYS)));
+
+        calendar.remove(2L);
+        assertEquals(Set.of(), calendar.getServiceProvidersOnLeave(today.plusDays(1), today.plusDays(HORIZON_DAYS)));
+        verify(repository, never()).findServiceProviderIdsOnLeave(any(), any());
+    }
+
+    @Test
+    void datesOutsideTheWindowFallBackToTheRepository() {
+        calendar.load();
+        when(repository.findServiceProviderIdsOnLeave(today.minusDays(1), today)).thenReturn(List.of(5L));
+        when(repository.existsOverlapping(5L, today, today.plusDays(HORIZON_DAYS + 1))).thenReturn(true);
+
+        assertEquals(Set.of(5L), calendar.getServiceProvidersOnLeave(today.minusDays(1), today));
+        assertTrue(calendar.isOnLeave(5L, today, today.plusDays(HORIZON_DAYS + 1)));
+        assertFalse(calendar.isOnLeave(5L, today, today.plusDays(HORIZON_DAYS)));
+        verify(repository, times(1)).existsOverlapping(anyLong(), any(), any());
+    }
+
+    @Test
+    void lookupsBeforeTheFirstLoadUseTheRepository() {
+        when(repository.existsOverlapping(5L, today, today)).thenReturn(true);
+        calendar.upsert(leave(1L, 7L, today, today, true));
+
+        assertFalse(calendar.isReady());
+        assertTrue(calendar.isOnLeave(5L, today, today));
+        assertFalse(calendar.isOnLeave(7L, today, today));
+    }
+
+    @Test
+    void writesDuringALoadAreReplayedOntoTheLoadedCalendar() {
+        stored.add(span(1L, 7L, today.plusDays(1), today.plusDays(2)));
+        calendar.load();
+        stored.add(span(2L, 8L, today.plusDays(1), today.plusDays(2)));
+        // Commits that land after the rebuild read the database
+        when(repository.findLeaveSpansEndingOnOrAfter(any())).thenAnswer(invocation -> {
+            List<Object[]> read = List.copyOf(stored);
+            calendar.remove(2L);
+            calendar.upsert(leave(3L, 9L, today.plusDays(1), today.plusDays(2), true));
+            return read;
+        });
+        calendar.load();
+
+        assertEquals(Set.of(7L, 9L), calendar.getServiceProvidersOnLeave(today.plusDays(1)));
+    }
+
+    private static Object[] span(Long leaveId, Long serviceProviderId, LocalDate fromDate, LocalDate toDate) {
+        return new Object[] { leaveId, serviceProviderId, fromDate, toDate };
+    }
+
+    private static ServiceProviderLeave leave(Long leaveId, Long serviceProviderId, LocalDate fromDate,
+            LocalDate toDate, boolean approved) {
+        ServiceProvider serviceProvider = new ServiceProvider();
+        serviceProvider.setServiceproviderId(serviceProviderId);
+        ServiceProviderLeave leave = new ServiceProviderLeave();
+        leave.setId(leaveId);
+        leave.setServiceProvider(serviceProvider);
+        leave.setFromDate(fromDate);
+        leave.setToDate(toDate);
+        leave.setApproved(approved);
+        return leave;
+    }
+}
@@ -0,0 +1,72 @@
+package com.springboot.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class DiscountTiersTest {
+
+    @Test
+    void daysWithinATierGetItsPercentage() {
+        DiscountTiers tiers = DiscountTiers.parse("3,6,5;7,13,10;14,30,15");
+        assertEquals(5, tiers.percentageFor(3));
+        assertEquals(5, tiers.percentageFor(6));
+        assertEquals(10, tiers.percentageFor(7));
+        assertEquals(10, tiers.percentageFor(10));
+        assertEquals(15, tiers.percentageFor(30));
+    }
+
+    @Test
+    void daysOutsideEveryTierGetNothing() {
+        DiscountTiers tiers = DiscountTiers.parse("3,6,5;10,13,10");
+        // Below the first tier
+        assertEquals(0, tiers.percentageFor(2));
+        assertEquals(0, tiers.percentageFor(0));
+        assertEquals(0, tiers.percentageFor(-1));
+        // In the gap between tiers
+        assertEquals(0, tiers.percentageFor(7));
+        assertEquals(0, tiers.percentageFor(9));
+        // Above the last tier
+        assertEquals(0, tiers.percentageFor(14));
+    }
+
+    @Test
+    void rulesNeedNotBeInOrder() {
+        DiscountTiers tiers = DiscountTiers.parse(" 14,30,15 ; 3,6,5;;7,13,10 ");
+        assertEquals(5, tiers.percentageFor(4));
+        assertEquals(10, tiers.percentageFor(13));
+        assertEquals(15, tiers.percentageFor(14));
+    }
+
+    @Test
+    void singleDayTier() {
+        DiscountTiers tiers = DiscountTiers.parse("5,5,2.5");
+        assertEquals(0, tiers.percentageFor(4));
+        assertEquals(2.5, tiers.percentageFor(5));
+        assertEquals(0, tiers.percentageFor(6));
+    }
+
+    @Test
+    void blankRulesGiveNoDiscount() {
+        assertEquals(0, DiscountTiers.parse(null).percentageFor(10));
+        assertEquals(0, DiscountTiers.parse(" ").percentageFor(10));
+    }
+
+    @Test
+    void overlappingTiersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DiscountTiers.parse("3,7,5;7,13,10"));
+        assertThrows(IllegalArgumentException.class, () -> DiscountTiers.parse("7,13,10;3,20,5"));
+        assertThrows(IllegalArgumentException.class, () -> DiscountTiers.parse("3,6,5;3,6,10"));
+    }
+
+    @Test
+    void malformedRulesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DiscountTiers.parse("3,6"));
+        assertThrows(IllegalArgumentException.class, () -> DiscountTiers.parse("3,6,5,1"));
+        assertThrows(IllegalArgumentException.class, () -> DiscountTiers.parse("three,6,5"));
+        assertThrows(IllegalArgumentException.class, () -> DiscountTiers.parse("3,6,five"));
+        // Range that ends before it starts
+        assertThrows(IllegalArgumentException.class, () -> DiscountTiers.parse("6,3,5"));
+    }
+}
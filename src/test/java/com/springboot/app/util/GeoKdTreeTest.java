@@ -0,0 +1,132 @@
+package com.springboot.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the tree against a brute-force haversine scan of the same points.
+ */
+class GeoKdTreeTest {
+
+    private static final double TOLERANCE_METERS = 1e-3;
+
+    private record Point(long id, Double latitude, Double longitude) {
+    }
+
+    @Test
+    void nearestMatchesHaversineScan() {
+        Random random = new Random(3);
+        List<Point> points = randomPoints(random, 2000, 12.5, 13.5, 77.0, 78.0);
+        GeoKdTree<Point> tree = build(points);
+        for (int i = 0; i < 200; i++) {
+            double latitude = 12.5 + random.nextDouble();
+            double longitude = 77.0 + random.nextDouble();
+            int k = 1 + random.nextInt(50);
+            assertNearest(points, tree, latitude, longitude, k);
+        }
+    }
+
+    @Test
+    void nearestMatchesHaversineScanAcrossTheGlobe() {
+        Random random = new Random(5);
+        List<Point> points = randomPoints(random, 3000, -90, 90, -180, 180);
+        GeoKdTree<Point> tree = build(points);
+        double[][] queries = { { 0, 179.9 }, { 0, -179.9 }, { 89.9, 0 }, { -89.9, 45 }, { 12.97, 77.59 } };
+        for (double[] query : queries) {
+            assertNearest(points, tree, query[0], query[1], 10);
+        }
+    }
+
+    @Test
+    void kAboveSizeReturnsEveryPointNearestFirst() {
+        List<Point> points = randomPoints(new Random(9), 7, 10, 11, 70, 71);
+        List<GeoKdTree.Neighbour<Point>> nearest = build(points).nearest(10.5, 70.5, 100);
+        assertEquals(points.size(), nearest.size());
+        assertNearest(points, build(points), 10.5, 70.5, 100);
+    }
+
+    @Test
+    void pointsWithoutCoordinatesAreSkipped() {
+        List<Point> points = new ArrayList<>(randomPoints(new Random(13), 20, 10, 11, 70, 71));
+        points.add(new Point(-1, null, 70.5));
+        points.add(new Point(-2, 10.5, null));
+        points.add(new Point(-3, null, null));
+        GeoKdTree<Point> tree = build(points);
+        assertEquals(20, tree.size());
+        assertTrue(tree.nearest(10.5, 70.5, 100).stream().allMatch(neighbour -> neighbour.item().id() >= 0));
+    }
+
+    @Test
+    void emptyTreeAndNonPositiveK() {
+        assertTrue(GeoKdTree.<Point>empty().nearest(0, 0, 5).isEmpty());
+        assertTrue(build(List.of()).nearest(0, 0, 5).isEmpty());
+        assertTrue(build(randomPoints(new Random(1), 10, 0, 1, 0, 1)).nearest(0, 0, 0).isEmpty());
+    }
+
+    @Test
+    void radiusTestByChordMatchesHaversine() {
+        Random random = new Random(17);
+        List<Point> points = randomPoints(random, 2000, 12.5, 13.5, 77.0, 78.0);
+        for (double radius : new double[] { 100, 1_000, 5_000, 20_000, 60_000 }) {
+            double maxChord = GeoKdTree.chordForMeters(radius);
+            for (Point point : points) {
+                double meters = haversine(12.97, 77.59, point.latitude(), point.longitude());
+                if (Math.abs(meters - radius) < TOLERANCE_METERS) {
+                    continue;
+                }
+                double chord = GeoKdTree.chordBetween(12.97, 77.59, point.latitude(), point.longitude());
+                assertEquals(meters <= radius, chord <= maxChord, () -> point + " at " + meters + " m");
+                assertEquals(meters, GeoKdTree.metersForChord(chord), TOLERANCE_METERS);
+            }
+        }
+    }
+
+    private static void assertNearest(List<Point> points, GeoKdTree<Point> tree, double latitude, double longitude,
+            int k) {
+        List<Point> expected = points.stream()
+                .filter(point -> point.latitude() != null && point.longitude() != null)
+                .sorted(Comparator.comparingDouble(
+                        point -> haversine(latitude, longitude, point.latitude(), point.longitude())))
+                .limit(k)
+                .toList();
+        List<GeoKdTree.Neighbour<Point>> actual = tree.nearest(latitude, longitude, k);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Point point = expected.get(i);
+            double meters = haversine(latitude, longitude, point.latitude(), point.longitude());
+            assertEquals(meters, actual.get(i).distanceInMeters(), TOLERANCE_METERS,
+                    "distance of neighbour " + i + " from " + latitude + ", " + longitude);
+            assertEquals(meters, haversine(latitude, longitude, actual.get(i).item().latitude(),
+                    actual.get(i).item().longitude()), TOLERANCE_METERS);
+        }
+    }
+
+    private static double haversine(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.pow(Math.sin(dLatitude / 2), 2) + Math.cos(Math.toRadians(latitude1))
+                * Math.cos(Math.toRadians(latitude2)) * Math.pow(Math.sin(dLongitude / 2), 2);
+        return 2 * GeoKdTree.EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static GeoKdTree<Point> build(List<Point> points) {
+        return GeoKdTree.build(points, Point::latitude, Point::longitude);
+    }
+
+    private static List<Point> randomPoints(Random random, int count, double minLatitude, double maxLatitude,
+            double minLongitude, double maxLongitude) {
+        List<Point> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(new Point(i, minLatitude + random.nextDouble() * (maxLatitude - minLatitude),
+                    minLongitude + random.nextDouble() * (maxLongitude - minLongitude)));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,128 @@
+package com.springboot.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import ch.hsr.geohash.GeoHash;
+
+/**
+ * Checks the long cell ids against the geohash library the service used
+ * before, cell for cell.
+ */
+class GeohashCellsTest {
+
+    private static final double[][] EDGE_POINTS = {
+            { 0, 0 }, { 0, 180 }, { 0, -180 }, { 90, 0 }, { -90, 0 }, { 90, 180 }, { -90, -180 },
+            { 45, 179.9999 }, { -45, -179.9999 }, { 12.9716, 77.5946 }, { -33.8688, 151.2093 } };
+
+    @Test
+    void encodeMatchesLibrary() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+            assertEncodesLikeLibrary(latitude, longitude);
+        }
+        for (double[] point : EDGE_POINTS) {
+            assertEncodesLikeLibrary(point[0], point[1]);
+        }
+    }
+
+    @Test
+    void precisionIsKept() {
+        for (int precision = 1; precision <= GeohashCells.MAX_PRECISION; precision++) {
+            assertEquals(precision, GeohashCells.precision(GeohashCells.encode(12.9716, 77.5946, precision)));
+        }
+    }
+
+    @Test
+    void neighbourhoodMatchesLibrary() {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            // Away from the poles, where every cell has eight neighbours
+            double latitude = random.nextDouble() * 170 - 85;
+            double longitude = random.nextDouble() * 360 - 180;
+            int precision = 1 + random.nextInt(8);
+            GeoHash cell = GeoHash.withCharacterPrecision(latitude, longitude, precision);
+            if (isPolarRow(cell)) {
+                continue;
+            }
+            Set<String> expected = Arrays.stream(cell.getAdjacent()).map(GeoHash::toBase32)
+                    .collect(Collectors.toSet());
+            expected.add(cell.toBase32());
+            assertEquals(expected, neighbourhood(latitude, longitude, precision));
+        }
+    }
+
+    @Test
+    void neighbourhoodWrapsAroundAntimeridian() {
+        for (int precision = 1; precision <= 8; precision++) {
+            for (double longitude : new double[] { 179.9999, -179.9999 }) {
+                GeoHash cell = GeoHash.withCharacterPrecision(10, longitude, precision);
+                Set<String> expected = Arrays.stream(cell.getAdjacent()).map(GeoHash::toBase32)
+                        .collect(Collectors.toSet());
+                expected.add(cell.toBase32());
+                assertEquals(expected, neighbourhood(10, longitude, precision));
+            }
+        }
+    }
+
+    @Test
+    void neighbourhoodLeavesOutRowsBeyondPoles() {
+        for (int precision = 1; precision <= 8; precision++) {
+            GeoHash north = GeoHash.withCharacterPrecision(90, 30, precision);
+            GeoHash belowNorth = north.getSouthernNeighbour();
+            assertEquals(base32(north, north.getWesternNeighbour(), north.getEasternNeighbour(), belowNorth,
+                    belowNorth.getWesternNeighbour(), belowNorth.getEasternNeighbour()),
+                    neighbourhood(90, 30, precision));
+
+            GeoHash south = GeoHash.withCharacterPrecision(-90, 30, precision);
+            GeoHash aboveSouth = south.getNorthernNeighbour();
+            assertEquals(base32(south, south.getWesternNeighbour(), south.getEasternNeighbour(), aboveSouth,
+                    aboveSouth.getWesternNeighbour(), aboveSouth.getEasternNeighbour()),
+                    neighbourhood(-90, 30, precision));
+        }
+    }
+
+    @Test
+    void neighbourhoodEndsWithTheCell() {
+        long cellId = GeohashCells.encode(12.9716, 77.5946, 6);
+        long[] cells = GeohashCells.neighbourhood(cellId);
+        assertEquals(9, cells.length);
+        assertEquals(cellId, cells[cells.length - 1]);
+    }
+
+    private static void assertEncodesLikeLibrary(double latitude, double longitude) {
+        for (int precision = 1; precision <= GeohashCells.MAX_PRECISION; precision++) {
+            assertEquals(GeoHash.withCharacterPrecision(latitude, longitude, precision).toBase32(),
+                    GeohashCells.toBase32(GeohashCells.encode(latitude, longitude, precision)),
+                    () -> "at " + latitude + ", " + longitude);
+        }
+    }
+
+    private static Set<String> neighbourhood(double latitude, double longitude, int precision) {
+        return Arrays.stream(GeohashCells.neighbourhood(GeohashCells.encode(latitude, longitude, precision)))
+                .mapToObj(GeohashCells::toBase32)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<String> base32(GeoHash... cells) {
+        Set<String> result = new HashSet<>();
+        for (GeoHash cell : cells) {
+            result.add(cell.toBase32());
+        }
+        return result;
+    }
+
+    private static boolean isPolarRow(GeoHash cell) {
+        double[] bounds = GeohashCover.bounds(cell.toBase32());
+        return bounds[0] <= -90 || bounds[1] >= 90;
+    }
+}
@@ -0,0 +1,70 @@
+package com.springboot.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class GeohashCoverTest {
+
+    private static final double METERS_PER_DEGREE = 111_195;
+
+    @Test
+    void coverContainsEveryPointWithinRadius() {
+        Random random = new Random(11);
+        double[] radii = { 50, 500, 2_000, 10_000, 40_000 };
+        int[] budgets = { 4, 32, 128 };
+        for (int i = 0; i < 60; i++) {
+            // Away from the antimeridian and the poles, which the cover does not handle
+            double latitude = random.nextDouble() * 140 - 70;
+            double longitude = random.nextDouble() * 340 - 170;
+            double radius = radii[i % radii.length];
+            int maxCells = budgets[i % budgets.length];
+            List<String> cells = GeohashCover.cover(latitude, longitude, radius, maxCells);
+            assertFalse(cells.isEmpty());
+
+            double latitudeSpan = radius / METERS_PER_DEGREE * 1.1;
+            double longitudeSpan = latitudeSpan / Math.cos(Math.toRadians(Math.abs(latitude) + latitudeSpan));
+            for (int j = 0; j < 500; j++) {
+                double pointLatitude = latitude + (random.nextDouble() * 2 - 1) * latitudeSpan;
+                double pointLongitude = longitude + (random.nextDouble() * 2 - 1) * longitudeSpan;
+                double meters = GeoKdTree.metersForChord(
+                        GeoKdTree.chordBetween(latitude, longitude, pointLatitude, pointLongitude));
+                if (meters > radius) {
+                    continue;
+                }
+                String geohash = GeohashCells.toBase32(
+                        GeohashCells.encode(pointLatitude, pointLongitude, GeohashCells.MAX_PRECISION));
+                assertTrue(cells.stream().anyMatch(geohash::startsWith),
+                        () -> geohash + " within " + radius + " m of " + latitude + ", " + longitude
+                                + " is outside the cover " + cells);
+            }
+        }
+    }
+
+    @Test
+    void centreOfSmallCircleIsCovered() {
+        String geohash = GeohashCells.toBase32(GeohashCells.encode(12.9716, 77.5946, GeohashCells.MAX_PRECISION));
+        List<String> cells = GeohashCover.cover(12.9716, 77.5946, 100, 32);
+        assertTrue(cells.stream().anyMatch(geohash::startsWith));
+        assertTrue(cells.stream().allMatch(cell -> cell.length() <= GeohashCover.MAX_PRECISION));
+    }
+
+    @Test
+    void radiusMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> GeohashCover.cover(0, 0, 0, 32));
+        assertThrows(IllegalArgumentException.class, () -> GeohashCover.cover(0, 0, Double.NaN, 32));
+    }
+
+    @Test
+    void boundsOfCell() {
+        assertArrayEquals(new double[] { -90, 90, -180, 180 }, GeohashCover.bounds(""), 0);
+        assertArrayEquals(new double[] { 0, 45, 0, 45 }, GeohashCover.bounds("s"), 0);
+        assertThrows(IllegalArgumentException.class, () -> GeohashCover.bounds("a"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.springboot.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.springboot.app.util.GeohashRanges.Range;
+
+class GeohashRangesTest {
+
+    @Test
+    void cellCoversItsPrefixRange() {
+        assertEquals(List.of(new Range("tdr1", "tdr2")), GeohashRanges.cover(List.of("tdr1")));
+    }
+
+    @Test
+    void nestedCellsAreDropped() {
+        assertEquals(List.of(new Range("tdr", "tds")),
+                GeohashRanges.cover(List.of("tdr1", "tdr", "tdrzz", "tdr")));
+    }
+
+    @Test
+    void adjacentCellsAreMerged() {
+        assertEquals(List.of(new Range("tdr1", "tdr3")), GeohashRanges.cover(List.of("tdr2", "tdr1")));
+        // "tdrz" ends where "tds" starts
+        assertEquals(List.of(new Range("tdrz", "tdt")), GeohashRanges.cover(List.of("tds", "tdrz")));
+    }
+
+    @Test
+    void separateCellsStaySeparate() {
+        assertEquals(List.of(new Range("b", "c"), new Range("d", "e")), GeohashRanges.cover(List.of("d", "b")));
+        // "zz" starts after "y" ends at "z", so the geohashes "z0".."zy" are not covered
+        assertEquals(List.of(new Range("y", "z"), new Range("zz", null)), GeohashRanges.cover(List.of("zz", "y")));
+    }
+
+    @Test
+    void lastCellIsUnboundedAbove() {
+        assertEquals(List.of(new Range("z", null)), GeohashRanges.cover(List.of("z")));
+        assertEquals(List.of(new Range("y", null)), GeohashRanges.cover(List.of("y", "z")));
+        assertEquals(List.of(new Range("zz", null)), GeohashRanges.cover(List.of("zzz", "zz")));
+    }
+
+    @Test
+    void upperBoundAdvancesLastCharacter() {
+        assertEquals("tdr2", GeohashRanges.upperBound("tdr1"));
+        assertEquals("c", GeohashRanges.upperBound("bz"));
+        assertEquals("u", GeohashRanges.upperBound("tzzz"));
+        assertNull(GeohashRanges.upperBound("zzz"));
+        assertThrows(IllegalArgumentException.class, () -> GeohashRanges.upperBound("tda"));
+    }
+
+    @Test
+    void emptyAndNullCellsAreIgnored() {
+        assertEquals(List.of(), GeohashRanges.cover(List.of()));
+        assertEquals(List.of(new Range("t", "u")), GeohashRanges.cover(List.of("", "t")));
+        assertEquals(List.of(new Range("t", "u")), GeohashRanges.cover(Arrays.asList(null, "t", null)));
+    }
+}
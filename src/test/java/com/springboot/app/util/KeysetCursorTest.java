@@ -0,0 +1,68 @@
+package com.springboot.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class KeysetCursorTest {
+
+    @Test
+    void decodeReturnsEncodedKeys() {
+        String cursor = KeysetCursor.encode("requests", "2024-05-01T10:15:30", 42L);
+        assertArrayEquals(new String[] { "2024-05-01T10:15:30", "42" }, KeysetCursor.decode(cursor, "requests", 2));
+        assertEquals(42L, KeysetCursor.decodeId(KeysetCursor.encode("engagements", 42L), "engagements"));
+    }
+
+    @Test
+    void cursorIsUrlSafe() {
+        String cursor = KeysetCursor.encode("requests", "??>>~~", 1L);
+        assertFalse(cursor.contains("+") || cursor.contains("/") || cursor.contains("="), cursor);
+        assertArrayEquals(new String[] { "??>>~~", "1" }, KeysetCursor.decode(cursor, "requests", 2));
+    }
+
+    @Test
+    void blankCursorIsTheFirstPage() {
+        assertNull(KeysetCursor.decode(null, "requests", 2));
+        assertNull(KeysetCursor.decode(" ", "requests", 2));
+        assertNull(KeysetCursor.decodeId("", "engagements"));
+    }
+
+    @Test
+    void cursorOfAnotherKindIsRejected() {
+        String cursor = KeysetCursor.encode("engagements", 42L);
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decodeId(cursor, "requests"));
+        // A kind that only starts with the expected one is still another kind
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.decodeId(KeysetCursor.encode("requestsArchive", 42L), "requests"));
+    }
+
+    @Test
+    void wrongKeyCountIsRejected() {
+        String cursor = KeysetCursor.encode("requests", "2024-05-01T10:15:30", 42L);
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(cursor, "requests", 1));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(cursor, "requests", 3));
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        String cursor = KeysetCursor.encode("engagements", 42L);
+        // Not Base64
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decodeId(cursor + "!", "engagements"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decodeId("a", "engagements"));
+        // Valid Base64 of a key that is not an id
+        String edited = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("engagements|42 OR 1=1".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decodeId(edited, "engagements"));
+        // Valid Base64 without a kind tag
+        String untagged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("42".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decodeId(untagged, "engagements"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.springboot.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TimeslotMaskTest {
+
+    @Test
+    void rangesCoverStartButNotEnd() {
+        TimeslotMask morning = TimeslotMask.parse("06:00-08:00");
+        assertTrue(morning.overlaps(TimeslotMask.parse("07:59-09:00")));
+        assertFalse(morning.overlaps(TimeslotMask.parse("08:00-09:00")));
+        assertFalse(morning.overlaps(TimeslotMask.parse("05:00-06:00")));
+        assertEquals(List.of("06:00", "07:00"), morning.occupiedHours());
+    }
+
+    @Test
+    void overnightSlotWrapsPastMidnight() {
+        TimeslotMask overnight = TimeslotMask.parse("22:30-01:15");
+        assertEquals("00:00-01:15,22:30-24:00", overnight.format());
+        assertEquals(List.of("00:00", "01:00", "22:00", "23:00"), overnight.occupiedHours());
+        assertTrue(overnight.overlaps(TimeslotMask.parse("23:59-24:00")));
+        assertTrue(overnight.overlaps(TimeslotMask.parse("01:00-02:00")));
+        assertFalse(overnight.overlaps(TimeslotMask.parse("01:15-22:30")));
+        assertEquals(overnight, TimeslotMask.parse("01:15-22:30").complement());
+    }
+
+    @Test
+    void midnightToMidnightIsEmpty() {
+        TimeslotMask ended = TimeslotMask.parse("00:00-00:00");
+        assertTrue(ended.isEmpty());
+        assertEquals(TimeslotMask.EMPTY, ended);
+        assertFalse(ended.overlaps(TimeslotMask.parse("00:00-24:00")));
+        assertEquals(24, ended.freeHours().size());
+        assertEquals("00:00-24:00", ended.complement().format());
+    }
+
+    @Test
+    void multipleSlotsAndSetOperations() {
+        TimeslotMask slots = TimeslotMask.parse("06:00-08:00, 17:00-19:00");
+        assertEquals("06:00-08:00,17:00-19:00", slots.format());
+        assertEquals("07:00-08:00,17:00-18:00",
+                slots.intersection(TimeslotMask.parse("07:00-18:00")).format());
+        assertEquals("06:00-08:00,12:00-13:00,17:00-19:00",
+                slots.union(TimeslotMask.parse("12:00-13:00")).format());
+    }
+
+    @Test
+    void blankAndMalformedInput() {
+        assertSame(TimeslotMask.EMPTY, TimeslotMask.of(null));
+        assertSame(TimeslotMask.EMPTY, TimeslotMask.of(" "));
+        // Entries that are not a start-end pair are skipped
+        assertEquals("09:00-10:00", TimeslotMask.parse("morning,09:00-10:00").format());
+        assertThrows(IllegalArgumentException.class, () -> TimeslotMask.parse("9-10"));
+        assertThrows(IllegalArgumentException.class, () -> TimeslotMask.parse("09:60-10:00"));
+        assertThrows(IllegalArgumentException.class, () -> TimeslotMask.parse("24:01-10:00"));
+        assertThrows(IllegalArgumentException.class, () -> TimeslotMask.parse("ab:00-10:00"));
+    }
+
+    @Test
+    void parseCacheIsBounded() {
+        assertSame(TimeslotMask.of("03:17-04:41"), TimeslotMask.of("03:17-04:41"));
+
+        // More distinct timeslots than the cache holds
+        for (int i = 0; i < 5000; i++) {
+            int start = i % TimeslotMask.MINUTES_PER_DAY;
+            int end = (start + i / TimeslotMask.MINUTES_PER_DAY + 1) % TimeslotMask.MINUTES_PER_DAY;
+            TimeslotMask.of(start / 60 + ":" + String.format("%02d", start % 60) + "-" + end / 60 + ":"
+                    + String.format("%02d", end % 60));
+        }
+
+        // Once full, new timeslots are parsed every time but still parse the same
+        TimeslotMask first = TimeslotMask.of("03:18-04:42");
+        TimeslotMask second = TimeslotMask.of("03:18-04:42");
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        assertSame(TimeslotMask.of("03:17-04:41"), TimeslotMask.of("03:17-04:41"));
+    }
+}